@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.benchmarks;
+
+import com.gigaspaces.annotation.pojo.SpaceClass;
+import com.gigaspaces.annotation.pojo.SpaceId;
+import com.gigaspaces.annotation.pojo.SpaceIndex;
+import com.gigaspaces.metadata.index.SpaceIndexType;
+
+/**
+ * The entry used by the space benchmarks - an id, an indexed and a non indexed property with the
+ * same values, and a payload whose size is a benchmark parameter.
+ *
+ * @since 16.0
+ */
+@SpaceClass
+public class BenchmarkEntry {
+    private Integer id;
+    private Integer indexedValue;
+    private Integer value;
+    private byte[] payload;
+
+    public BenchmarkEntry() {
+    }
+
+    public BenchmarkEntry(Integer id, Integer value, byte[] payload) {
+        this.id = id;
+        this.indexedValue = value;
+        this.value = value;
+        this.payload = payload;
+    }
+
+    @SpaceId
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    @SpaceIndex(type = SpaceIndexType.EQUAL)
+    public Integer getIndexedValue() {
+        return indexedValue;
+    }
+
+    public void setIndexedValue(Integer indexedValue) {
+        this.indexedValue = indexedValue;
+    }
+
+    public Integer getValue() {
+        return value;
+    }
+
+    public void setValue(Integer value) {
+        this.value = value;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public void setPayload(byte[] payload) {
+        this.payload = payload;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.benchmarks;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Runs the benchmarks once per requested thread count and writes all the results to a single CSV
+ * file, one line per benchmark, thread count and parameters, in a stable order so that the results
+ * of two releases can be compared with a plain diff. <br> Usage: java -jar benchmarks.jar
+ * [--threads=1,4,16] [--results=benchmark-results.csv] [JMH options]. When the JMH -t option is
+ * given it takes precedence over --threads.
+ *
+ * @since 16.0
+ */
+public class BenchmarksMain {
+    private static final String THREADS_OPTION = "--threads=";
+    private static final String RESULTS_OPTION = "--results=";
+
+    public static void main(String[] args) throws Exception {
+        String threads = "1,4,16";
+        String resultsFile = "benchmark-results.csv";
+        List<String> jmhArgs = new ArrayList<String>();
+        for (String arg : args) {
+            if (arg.startsWith(THREADS_OPTION))
+                threads = arg.substring(THREADS_OPTION.length());
+            else if (arg.startsWith(RESULTS_OPTION))
+                resultsFile = arg.substring(RESULTS_OPTION.length());
+            else
+                jmhArgs.add(arg);
+        }
+        CommandLineOptions commandLineOptions = new CommandLineOptions(jmhArgs.toArray(new String[jmhArgs.size()]));
+
+        List<RunResult> results = new ArrayList<RunResult>();
+        if (commandLineOptions.getThreads().hasValue()) {
+            results.addAll(new Runner(commandLineOptions).run());
+        } else {
+            for (String threadCount : threads.split(",")) {
+                ChainedOptionsBuilder options = new OptionsBuilder()
+                        .parent(commandLineOptions)
+                        .threads(Integer.parseInt(threadCount.trim()));
+                results.addAll(new Runner(options.build()).run());
+            }
+        }
+        writeResults(results, new File(resultsFile));
+        System.out.println("Results written to " + new File(resultsFile).getAbsolutePath());
+    }
+
+    private static void writeResults(Collection<RunResult> results, File file) throws Exception {
+        List<String> lines = new ArrayList<String>(results.size());
+        for (RunResult runResult : results) {
+            BenchmarkParams params = runResult.getParams();
+            Result result = runResult.getPrimaryResult();
+            StringBuilder paramsString = new StringBuilder();
+            for (String key : params.getParamsKeys()) {
+                if (paramsString.length() != 0)
+                    paramsString.append(';');
+                paramsString.append(key).append('=').append(params.getParam(key));
+            }
+            lines.add(String.format(Locale.ROOT, "%s,%d,%s,%s,%d,%.3f,%.3f,%s",
+                    params.getBenchmark(),
+                    params.getThreads(),
+                    paramsString,
+                    params.getMode().shortLabel(),
+                    result.getSampleCount(),
+                    result.getScore(),
+                    result.getScoreError(),
+                    result.getScoreUnit()));
+        }
+        lines.sort(null);
+
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+        try {
+            writer.println("benchmark,threads,params,mode,samples,score,error,unit");
+            for (String line : lines)
+                writer.println(line);
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openspaces.core.GigaSpace;
+import org.openspaces.core.GigaSpaceConfigurer;
+import org.openspaces.core.space.EmbeddedSpaceConfigurer;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An embedded space, shared by all the benchmark threads, loaded with {@link #entries} entries
+ * whose payload is {@link #entrySize} bytes. The values of the entries repeat every {@link
+ * #DISTINCT_VALUES} ids, so a query by value matches entries / DISTINCT_VALUES entries.
+ *
+ * @since 16.0
+ */
+@State(Scope.Benchmark)
+public class EmbeddedSpaceState {
+    public static final int DISTINCT_VALUES = 1000;
+
+    @Param({"100000"})
+    public int entries;
+
+    @Param({"64", "1024", "16384"})
+    public int entrySize;
+
+    private EmbeddedSpaceConfigurer spaceConfigurer;
+    private GigaSpace gigaSpace;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        spaceConfigurer = new EmbeddedSpaceConfigurer("benchmark-" + System.nanoTime());
+        gigaSpace = new GigaSpaceConfigurer(spaceConfigurer).gigaSpace();
+        payload = new byte[entrySize];
+        ThreadLocalRandom.current().nextBytes(payload);
+        BenchmarkEntry[] batch = new BenchmarkEntry[1000];
+        for (int i = 0; i < entries; i += batch.length) {
+            int size = Math.min(batch.length, entries - i);
+            BenchmarkEntry[] entriesToWrite = size == batch.length ? batch : new BenchmarkEntry[size];
+            for (int j = 0; j < size; j++)
+                entriesToWrite[j] = newEntry(i + j);
+            gigaSpace.writeMultiple(entriesToWrite);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        spaceConfigurer.close();
+    }
+
+    public GigaSpace getGigaSpace() {
+        return gigaSpace;
+    }
+
+    public BenchmarkEntry newEntry(int id) {
+        return new BenchmarkEntry(id, id % DISTINCT_VALUES, payload);
+    }
+
+    public int randomId() {
+        return ThreadLocalRandom.current().nextInt(entries);
+    }
+
+    public int randomValue() {
+        return ThreadLocalRandom.current().nextInt(DISTINCT_VALUES);
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.benchmarks;
+
+import com.gigaspaces.internal.server.space.eviction.ConcurrentLruSpaceEvictionStrategy;
+import com.gigaspaces.internal.server.space.eviction.SampledLruSpaceEvictionStrategy;
+import com.gigaspaces.metadata.SpaceTypeDescriptor;
+import com.gigaspaces.metadata.SpaceTypeDescriptorBuilder;
+import com.gigaspaces.server.eviction.EvictableServerEntry;
+import com.gigaspaces.server.eviction.SpaceEvictionManager;
+import com.gigaspaces.server.eviction.SpaceEvictionStrategy;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The sampled LRU eviction strategy compared with the concurrent LRU chains, on a bounded cache of
+ * {@link #capacity} entries out of {@link #keys} zipfian distributed keys. {@link #read} measures
+ * the reads of a fully cached working set, {@link #readWithEviction} reads all the keys and counts
+ * the hits and the misses, so the hit ratio is hits / (hits + misses).
+ *
+ * @since 16.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EvictionStrategyBenchmark {
+    private static final double ZIPF_EXPONENT = 0.99;
+
+    @Param({"concurrent-lru", "sampled-lru-5", "sampled-lru-10"})
+    public String strategy;
+
+    @Param({"1000000"})
+    public int keys;
+
+    @Param({"100000"})
+    public int capacity;
+
+    private Zipf zipf;
+    private EvictionCache cache;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        zipf = new Zipf(keys, ZIPF_EXPONENT);
+        cache = new EvictionCache(createStrategy(), capacity);
+        for (int i = 0; i < capacity; i++)
+            cache.get(i);
+    }
+
+    private SpaceEvictionStrategy createStrategy() {
+        if (strategy.equals("concurrent-lru"))
+            return new ConcurrentLruSpaceEvictionStrategy(0 /*always touch*/, capacity);
+        return new SampledLruSpaceEvictionStrategy(Integer.parseInt(strategy.substring(strategy.lastIndexOf('-') + 1)));
+    }
+
+    @Benchmark
+    public boolean read() {
+        return cache.get(zipf.next(ThreadLocalRandom.current()) % capacity);
+    }
+
+    @Benchmark
+    public boolean readWithEviction(HitCounters counters) {
+        boolean hit = cache.get(zipf.next(ThreadLocalRandom.current()));
+        if (hit)
+            counters.hits++;
+        else
+            counters.misses++;
+        return hit;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HitCounters {
+        public long hits;
+        public long misses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    /**
+     * Zipf distributed keys in [0, n), key 0 being the most popular.
+     */
+    private static final class Zipf {
+        private final double[] cumulative;
+
+        private Zipf(int n, double exponent) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += 1 / Math.pow(i + 1, exponent);
+                cumulative[i] = sum;
+            }
+            for (int i = 0; i < n; i++)
+                cumulative[i] /= sum;
+        }
+
+        private int next(Random random) {
+            double value = random.nextDouble();
+            int low = 0, high = cumulative.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] < value)
+                    low = mid + 1;
+                else
+                    high = mid;
+            }
+            return low;
+        }
+    }
+
+    /**
+     * A bounded cache driven by an eviction strategy, playing the role of the space cache manager.
+     */
+    private static final class EvictionCache implements SpaceEvictionManager {
+        private final SpaceEvictionStrategy strategy;
+        private final int capacity;
+        private final ConcurrentHashMap<Integer, Entry> entries = new ConcurrentHashMap<Integer, Entry>();
+
+        private EvictionCache(SpaceEvictionStrategy strategy, int capacity) {
+            this.strategy = strategy;
+            this.capacity = capacity;
+            strategy.initialize(this, null);
+        }
+
+        /**
+         * Reads the key, loading it (and evicting if the cache is full) on a miss.
+         *
+         * @return true on a cache hit
+         */
+        private boolean get(int key) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                strategy.onRead(entry);
+                return true;
+            }
+            entry = new Entry(key);
+            if (entries.putIfAbsent(key, entry) == null) {
+                strategy.onLoad(entry);
+                if (entries.size() > capacity)
+                    strategy.evict(entries.size() - capacity);
+            }
+            return false;
+        }
+
+        @Override
+        public boolean tryEvict(EvictableServerEntry entry) {
+            Entry cacheEntry = (Entry) entry;
+            if (!entries.remove(cacheEntry.key, cacheEntry))
+                return false;
+            strategy.onRemove(entry);
+            return true;
+        }
+    }
+
+    private static final class Entry implements EvictableServerEntry {
+        private static final SpaceTypeDescriptor TYPE_DESCRIPTOR = new SpaceTypeDescriptorBuilder("EvictionBenchmarkEntry").create();
+
+        private final int key;
+        private final String uid;
+        private volatile Object evictionPayLoad;
+
+        private Entry(int key) {
+            this.key = key;
+            this.uid = "uid" + key;
+        }
+
+        @Override
+        public String getUID() {
+            return uid;
+        }
+
+        @Override
+        public Object getEvictionPayLoad() {
+            return evictionPayLoad;
+        }
+
+        @Override
+        public void setEvictionPayLoad(Object evictionPayLoad) {
+            this.evictionPayLoad = evictionPayLoad;
+        }
+
+        @Override
+        public SpaceTypeDescriptor getSpaceTypeDescriptor() {
+            return TYPE_DESCRIPTOR;
+        }
+
+        @Override
+        public Object getFixedPropertyValue(int position) {
+            return null;
+        }
+
+        @Override
+        public Object getPropertyValue(String name) {
+            return null;
+        }
+
+        @Override
+        public Object getPathValue(String path) {
+            return null;
+        }
+
+        @Override
+        public int getVersion() {
+            return 1;
+        }
+
+        @Override
+        public long getExpirationTime() {
+            return Long.MAX_VALUE;
+        }
+    }
+}
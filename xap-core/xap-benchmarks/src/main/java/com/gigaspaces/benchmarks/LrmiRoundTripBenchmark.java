@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.benchmarks;
+
+import com.j_spaces.core.service.ServiceConfigLoader;
+
+import net.jini.export.Exporter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.rmi.RemoteException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LRMI round trips over the loopback interface. The service stub is serialized and deserialized
+ * before use, so calls go through the network stack rather than being dispatched directly to the
+ * exported object.
+ *
+ * @since 16.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LrmiRoundTripBenchmark {
+
+    @Param({"64", "1024", "16384"})
+    public int entrySize;
+
+    private Exporter exporter;
+    private EchoService stub;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        exporter = ServiceConfigLoader.getExporter();
+        EchoService localStub = (EchoService) exporter.export(new EchoServiceImpl());
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bos);
+        out.writeObject(localStub);
+        out.close();
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()));
+        stub = (EchoService) in.readObject();
+        in.close();
+        payload = new byte[entrySize];
+        ThreadLocalRandom.current().nextBytes(payload);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        exporter.unexport(true);
+    }
+
+    @Benchmark
+    public byte[] echo() throws RemoteException {
+        return stub.echo(payload);
+    }
+
+    public static class EchoServiceImpl implements EchoService {
+        @Override
+        public byte[] echo(byte[] payload) {
+            return payload;
+        }
+    }
+}
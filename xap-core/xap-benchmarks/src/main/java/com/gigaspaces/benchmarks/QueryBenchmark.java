@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.benchmarks;
+
+import com.gigaspaces.query.aggregators.AggregationResult;
+import com.gigaspaces.query.aggregators.AggregationSet;
+import com.gigaspaces.query.aggregators.GroupByAggregator;
+import com.j_spaces.core.client.SQLQuery;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Template matching, with and without an index, readMultiple and aggregations on an embedded
+ * space.
+ *
+ * @since 16.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryBenchmark {
+
+    @Benchmark
+    public BenchmarkEntry readByIndexedTemplate(EmbeddedSpaceState state) {
+        BenchmarkEntry template = new BenchmarkEntry();
+        template.setIndexedValue(state.randomValue());
+        return state.getGigaSpace().read(template);
+    }
+
+    @Benchmark
+    public BenchmarkEntry readByNonIndexedTemplate(EmbeddedSpaceState state) {
+        BenchmarkEntry template = new BenchmarkEntry();
+        template.setValue(state.randomValue());
+        return state.getGigaSpace().read(template);
+    }
+
+    @Benchmark
+    public BenchmarkEntry[] readMultipleByIndexedTemplate(EmbeddedSpaceState state) {
+        BenchmarkEntry template = new BenchmarkEntry();
+        template.setIndexedValue(state.randomValue());
+        return state.getGigaSpace().readMultiple(template);
+    }
+
+    @Benchmark
+    public BenchmarkEntry[] readMultipleByNonIndexedTemplate(EmbeddedSpaceState state) {
+        BenchmarkEntry template = new BenchmarkEntry();
+        template.setValue(state.randomValue());
+        return state.getGigaSpace().readMultiple(template);
+    }
+
+    @Benchmark
+    public BenchmarkEntry[] readMultipleByIndexedRange(EmbeddedSpaceState state) {
+        int from = state.randomValue();
+        return state.getGigaSpace().readMultiple(new SQLQuery<BenchmarkEntry>(BenchmarkEntry.class,
+                "indexedValue >= ? AND indexedValue < ?", from, from + 10), 1000);
+    }
+
+    @Benchmark
+    public AggregationResult countAndSum(EmbeddedSpaceState state) {
+        return state.getGigaSpace().aggregate(new SQLQuery<BenchmarkEntry>(BenchmarkEntry.class, ""),
+                new AggregationSet().count().sum("value"));
+    }
+
+    @Benchmark
+    public AggregationResult groupBy(EmbeddedSpaceState state) {
+        return state.getGigaSpace().aggregate(new SQLQuery<BenchmarkEntry>(BenchmarkEntry.class, ""),
+                new AggregationSet().groupBy(new GroupByAggregator().groupBy("indexedValue").selectCount().selectSum("value")));
+    }
+}
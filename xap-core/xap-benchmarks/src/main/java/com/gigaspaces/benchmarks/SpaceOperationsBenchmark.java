@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.benchmarks;
+
+import com.gigaspaces.client.ChangeResult;
+import com.gigaspaces.client.ChangeSet;
+import com.gigaspaces.query.IdQuery;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single entry operations by id on an embedded space.
+ *
+ * @since 16.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpaceOperationsBenchmark {
+
+    @Benchmark
+    public Object writeById(EmbeddedSpaceState state) {
+        //ids are taken from the loaded range - this measures a write which updates an existing entry
+        return state.getGigaSpace().write(state.newEntry(state.randomId()));
+    }
+
+    @Benchmark
+    public BenchmarkEntry readById(EmbeddedSpaceState state) {
+        return state.getGigaSpace().readById(BenchmarkEntry.class, state.randomId());
+    }
+
+    @Benchmark
+    public void takeAndWriteById(EmbeddedSpaceState state, Blackhole blackhole) {
+        //the taken entry is written back to keep the space size stable
+        BenchmarkEntry entry = state.getGigaSpace().takeById(BenchmarkEntry.class, state.randomId());
+        if (entry != null)
+            blackhole.consume(state.getGigaSpace().write(entry));
+    }
+
+    @Benchmark
+    public ChangeResult<BenchmarkEntry> changeById(EmbeddedSpaceState state) {
+        return state.getGigaSpace().change(new IdQuery<BenchmarkEntry>(BenchmarkEntry.class, state.randomId()),
+                new ChangeSet().increment("value", 1));
+    }
+}
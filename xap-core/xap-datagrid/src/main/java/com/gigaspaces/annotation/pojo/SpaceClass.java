@@ -103,4 +103,14 @@ public @interface SpaceClass {
      */
 
     boolean broadcast() default PojoDefaults.BROADCAST;
+
+    /**
+     * When true, the space stores equal values of a property (strings and primitive wrappers) of
+     * entries of this class as a single shared instance, which reduces the memory footprint of
+     * read-mostly classes with low cardinality properties.
+     *
+     * @return true for dictionary encoded property values.
+     * @since 16.0
+     */
+    boolean dictionaryEncoding() default PojoDefaults.DICTIONARY_ENCODING;
 }
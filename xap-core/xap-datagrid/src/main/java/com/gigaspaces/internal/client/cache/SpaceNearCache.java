@@ -0,0 +1,401 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.client.cache;
+
+import com.gigaspaces.events.AbstractDataEventSession;
+import com.gigaspaces.events.DataEventSession;
+import com.gigaspaces.events.DataEventSessionFactory;
+import com.gigaspaces.events.EventSessionConfig;
+import com.gigaspaces.events.NotifyActionType;
+import com.gigaspaces.events.NotifyInfo;
+import com.gigaspaces.events.batching.BatchRemoteEvent;
+import com.gigaspaces.events.batching.BatchRemoteEventListener;
+import com.gigaspaces.internal.client.spaceproxy.IDirectSpaceProxy;
+import com.gigaspaces.internal.client.spaceproxy.SpaceProxyImpl;
+import com.gigaspaces.internal.transport.IEntryPacket;
+import com.gigaspaces.internal.transport.ITemplatePacket;
+import com.gigaspaces.internal.transport.TemplatePacket;
+import com.gigaspaces.logger.Constants;
+import com.gigaspaces.time.SystemTime;
+import com.j_spaces.core.IJSpace;
+import com.j_spaces.core.client.EntryArrivedRemoteEvent;
+import com.j_spaces.core.client.Modifiers;
+import com.j_spaces.core.client.ReadModifiers;
+import com.j_spaces.kernel.SystemProperties;
+
+import net.jini.core.event.EventRegistration;
+import net.jini.core.event.RemoteEvent;
+import net.jini.core.lease.Lease;
+import net.jini.core.transaction.Transaction;
+import net.jini.lease.LeaseListener;
+import net.jini.lease.LeaseRenewalEvent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A client side cache of entries read by id, for types which are mostly read. Entries are kept in
+ * an LRU map indexed by type and id, and by uid for applying updates. A near cache is enabled per
+ * proxy, by the {@link com.j_spaces.core.client.SpaceURL#NEAR_CACHE_TYPES} of the url it was found
+ * with. <p/> The first time a type is read through the cache, the cache registers a batched notify
+ * template for updates, takes and lease expirations of the type's entries. Updates replace cached
+ * entries with a lower version, and takes and expirations remove them. Modifying operations of the
+ * owning proxy invalidate the cached entries of their type. A read result is cached only if no
+ * notification or invalidation arrived while it was read. <p/> The registration is auto renewed -
+ * once a renewal fails notifications may have been lost, so the cached entries of the type are
+ * removed and the type is registered again by its next read.
+ *
+ * @since 16.0
+ */
+@com.gigaspaces.api.InternalApi
+public class SpaceNearCache implements ISpaceCache, BatchRemoteEventListener {
+    private static final Logger _logger = LoggerFactory.getLogger(Constants.LOGGER_CLIENT);
+
+    private final SpaceProxyImpl _spaceProxy;
+    private final Set<String> _typeNames;
+    private final int _batchSize;
+    private final long _batchTime;
+    private final Entries _entries;
+    private final Map<String, Key> _uids = new HashMap<String, Key>();
+    private final Map<String, EventRegistration> _registrations = new HashMap<String, EventRegistration>();
+    private final Set<String> _failedRegistrations = new HashSet<String>();
+    private final AtomicLong _modifications = new AtomicLong();
+    private DataEventSession _eventSession;
+    private volatile boolean _registered;
+    private volatile boolean _closed;
+
+    public SpaceNearCache(SpaceProxyImpl spaceProxy, Set<String> typeNames, int maxSize, int batchSize, long batchTime) {
+        this._spaceProxy = spaceProxy;
+        this._typeNames = typeNames;
+        this._entries = new Entries(maxSize);
+        this._batchSize = batchSize;
+        this._batchTime = batchTime;
+    }
+
+    /**
+     * Creates a near cache of the given comma separated types for the given proxy, or returns null
+     * if no type is given.
+     */
+    public static SpaceNearCache create(SpaceProxyImpl spaceProxy, String types) {
+        if (types == null || types.trim().isEmpty())
+            return null;
+        Set<String> typeNames = new HashSet<String>();
+        for (String typeName : types.split(","))
+            if (!typeName.trim().isEmpty())
+                typeNames.add(typeName.trim());
+        int maxSize = Integer.getInteger(SystemProperties.NEAR_CACHE_SIZE, SystemProperties.NEAR_CACHE_SIZE_DEFAULT);
+        int batchSize = Integer.getInteger(SystemProperties.NEAR_CACHE_BATCH_SIZE, SystemProperties.NEAR_CACHE_BATCH_SIZE_DEFAULT);
+        long batchTime = Long.getLong(SystemProperties.NEAR_CACHE_BATCH_TIME, SystemProperties.NEAR_CACHE_BATCH_TIME_DEFAULT);
+        if (_logger.isDebugEnabled())
+            _logger.debug("Near cache is enabled for types " + typeNames + " [size=" + maxSize + ", batch-size=" + batchSize + ", batch-time=" + batchTime + "]");
+        return new SpaceNearCache(spaceProxy, typeNames, maxSize, batchSize, batchTime);
+    }
+
+    /**
+     * Returns the key of the given read by id, or null if its result should not be cached. The key
+     * captures the current modifications counter, so it must be created before the entry is read.
+     */
+    public Key createKey(ITemplatePacket query, Transaction txn, int modifiers) {
+        if (_closed || txn != null || !query.isIdQuery() || !_typeNames.contains(query.getTypeName()))
+            return null;
+        if (query.getID() == null || query.getVersion() != 0 || query.getProjectionTemplate() != null)
+            return null;
+        if (ReadModifiers.isExclusiveReadLock(modifiers) || Modifiers.contains(modifiers, Modifiers.EXPLAIN_PLAN))
+            return null;
+        if (!ensureRegistered(query))
+            return null;
+        return new Key(query.getTypeName(), query.getID(), _modifications.get());
+    }
+
+    /**
+     * Returns a copy of the cached entry of the given key, or null if it is not cached.
+     */
+    public IEntryPacket get(Key key) {
+        synchronized (_entries) {
+            CachedEntry cachedEntry = _entries.get(key);
+            if (cachedEntry == null)
+                return null;
+            if (SystemTime.timeMillis() >= cachedEntry._validUntil) {
+                remove(key);
+                return null;
+            }
+            return cachedEntry._entryPacket.clone();
+        }
+    }
+
+    /**
+     * Caches a copy of the entry read with the given key, unless the cache was modified meanwhile.
+     */
+    public void put(Key key, IEntryPacket entryPacket) {
+        if (entryPacket.getUID() == null)
+            return;
+        CachedEntry cachedEntry = new CachedEntry(entryPacket.clone());
+        synchronized (_entries) {
+            if (_closed || _modifications.get() != key._modifications)
+                return;
+            Key prevKey = _uids.put(entryPacket.getUID(), key);
+            if (prevKey != null && !prevKey.equals(key))
+                _entries.remove(prevKey);
+            _entries.put(key, cachedEntry);
+        }
+    }
+
+    /**
+     * Removes the cached entries of the given type, called before the owning proxy modifies entries
+     * of that type.
+     */
+    public void invalidate(String typeName) {
+        if (!_registered)
+            return;
+        _modifications.incrementAndGet();
+        synchronized (_entries) {
+            for (Iterator<Map.Entry<Key, CachedEntry>> iterator = _entries.entrySet().iterator(); iterator.hasNext(); ) {
+                Map.Entry<Key, CachedEntry> entry = iterator.next();
+                if (typeName == null || typeName.equals(entry.getKey()._typeName) || typeName.equals(entry.getValue()._entryPacket.getTypeName())) {
+                    _uids.remove(entry.getValue()._entryPacket.getUID());
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (_entries) {
+            return _entries.size();
+        }
+    }
+
+    @Override
+    public void notify(RemoteEvent event) {
+        onEvent((EntryArrivedRemoteEvent) event);
+    }
+
+    @Override
+    public void notifyBatch(BatchRemoteEvent batchEvent) {
+        for (RemoteEvent event : batchEvent.getEvents())
+            onEvent((EntryArrivedRemoteEvent) event);
+    }
+
+    private void onEvent(EntryArrivedRemoteEvent event) {
+        _modifications.incrementAndGet();
+        final IEntryPacket entryPacket = event.getEntryPacket();
+        if (entryPacket == null || entryPacket.getUID() == null) {
+            invalidate(null);
+            return;
+        }
+        synchronized (_entries) {
+            Key key = _uids.get(entryPacket.getUID());
+            if (key == null)
+                return;
+            if (event.getNotifyActionType().isUpdate()) {
+                // notifications may arrive out of order - only newer versions replace the cached entry
+                CachedEntry cachedEntry = _entries.get(key);
+                if (cachedEntry != null && cachedEntry._entryPacket.getVersion() < entryPacket.getVersion())
+                    _entries.put(key, new CachedEntry(entryPacket.clone()));
+            } else {
+                remove(key);
+            }
+        }
+    }
+
+    private void remove(Key key) {
+        CachedEntry cachedEntry = _entries.remove(key);
+        if (cachedEntry != null)
+            _uids.remove(cachedEntry._entryPacket.getUID());
+    }
+
+    private boolean ensureRegistered(ITemplatePacket query) {
+        final String typeName = query.getTypeName();
+        synchronized (_registrations) {
+            if (_registrations.containsKey(typeName))
+                return true;
+            if (_closed || _failedRegistrations.contains(typeName) || query.getTypeDescriptor() == null)
+                return false;
+            try {
+                if (_eventSession == null) {
+                    EventSessionConfig config = new EventSessionConfig();
+                    config.setBatch(_batchSize, _batchTime);
+                    config.setAutoRenew(true, new RegistrationLeaseListener());
+                    _eventSession = DataEventSessionFactory.create(_spaceProxy, config);
+                }
+                NotifyInfo notifyInfo = ((AbstractDataEventSession) _eventSession).createNotifyInfo(this,
+                        NotifyActionType.NOTIFY_UPDATE.or(NotifyActionType.NOTIFY_TAKE).or(NotifyActionType.NOTIFY_LEASE_EXPIRATION));
+                notifyInfo.setCustomInfo(new NearCacheCustomInfo());
+                // notify templates are indexed by their property values, an empty query packet has none
+                ITemplatePacket template = new TemplatePacket(query.getTypeDescriptor());
+                _registrations.put(typeName, ((AbstractDataEventSession) _eventSession).addListener(template, Lease.FOREVER, notifyInfo));
+                if (_logger.isDebugEnabled())
+                    _logger.debug("Near cache registered for updates of type " + typeName);
+                _registered = true;
+                return true;
+            } catch (Exception e) {
+                _failedRegistrations.add(typeName);
+                _logger.warn("Entries of type " + typeName + " will not be cached in the near cache - failed to register for updates", e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Called when the renewal of the registration with the given lease failed. Notifications of the
+     * registration may have been lost, so its type is invalidated and registered again by its next
+     * read.
+     */
+    void onRegistrationLost(Lease lease, Throwable error) {
+        EventRegistration lostRegistration = null;
+        String typeName = null;
+        synchronized (_registrations) {
+            for (Map.Entry<String, EventRegistration> registration : _registrations.entrySet()) {
+                if (registration.getValue().getLease().equals(lease)) {
+                    typeName = registration.getKey();
+                    lostRegistration = registration.getValue();
+                    _registrations.remove(typeName);
+                    break;
+                }
+            }
+            if (lostRegistration == null || _closed)
+                return;
+            try {
+                // stop renewing it, the space may still be sending its notifications
+                _eventSession.removeListener(lostRegistration);
+            } catch (Exception e) {
+                if (_logger.isDebugEnabled())
+                    _logger.debug("Failed to remove lost near cache registration of type " + typeName, e);
+            }
+        }
+        _logger.warn("Near cache registration for updates of type " + typeName + " was lost, its cached entries are removed", error);
+        invalidate(typeName);
+    }
+
+    EventRegistration getRegistration(String typeName) {
+        synchronized (_registrations) {
+            return _registrations.get(typeName);
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (_registrations) {
+            if (_closed)
+                return;
+            _closed = true;
+            if (_eventSession != null) {
+                for (EventRegistration registration : _registrations.values()) {
+                    try {
+                        _eventSession.removeListener(registration);
+                    } catch (Exception e) {
+                        if (_logger.isDebugEnabled())
+                            _logger.debug("Failed to remove near cache registration", e);
+                    }
+                }
+                try {
+                    _eventSession.close();
+                } catch (Exception e) {
+                    if (_logger.isDebugEnabled())
+                        _logger.debug("Failed to close near cache event session", e);
+                }
+            }
+            _registrations.clear();
+        }
+        synchronized (_entries) {
+            _entries.clear();
+            _uids.clear();
+        }
+    }
+
+    @Override
+    public IJSpace getRemoteSpace() {
+        return _spaceProxy;
+    }
+
+    @Override
+    public IDirectSpaceProxy getLocalSpace() {
+        return _spaceProxy;
+    }
+
+    private class RegistrationLeaseListener implements LeaseListener {
+        @Override
+        public void notify(LeaseRenewalEvent event) {
+            onRegistrationLost(event.getLease(), event.getException());
+        }
+    }
+
+    private class Entries extends LinkedHashMap<Key, CachedEntry> {
+        private static final long serialVersionUID = 1L;
+
+        private final int _maxSize;
+
+        private Entries(int maxSize) {
+            super(16, 0.75f, true /*accessOrder*/);
+            this._maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, CachedEntry> eldest) {
+            if (size() <= _maxSize)
+                return false;
+            _uids.remove(eldest.getValue()._entryPacket.getUID());
+            return true;
+        }
+    }
+
+    private static class CachedEntry {
+        private final IEntryPacket _entryPacket;
+        private final long _validUntil;
+
+        private CachedEntry(IEntryPacket entryPacket) {
+            this._entryPacket = entryPacket;
+            final long timeToLive = entryPacket.getTTL();
+            this._validUntil = timeToLive > 0 && timeToLive != Long.MAX_VALUE ? SystemTime.timeMillis() + timeToLive : Long.MAX_VALUE;
+        }
+    }
+
+    public static class Key {
+        private final String _typeName;
+        private final Object _id;
+        private final long _modifications;
+
+        private Key(String typeName, Object id, long modifications) {
+            this._typeName = typeName;
+            this._id = id;
+            this._modifications = modifications;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key other = (Key) o;
+            return _typeName.equals(other._typeName) && _id.equals(other._id);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * _typeName.hashCode() + _id.hashCode();
+        }
+    }
+}
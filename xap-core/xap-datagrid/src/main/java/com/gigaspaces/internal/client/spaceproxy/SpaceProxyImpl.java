@@ -20,6 +20,7 @@ import com.gigaspaces.admin.demote.DemoteFailedException;
 import com.gigaspaces.admin.quiesce.QuiesceToken;
 import com.gigaspaces.client.DirectSpaceProxyFactory;
 import com.gigaspaces.executor.SpaceTask;
+import com.gigaspaces.internal.client.cache.SpaceNearCache;
 import com.gigaspaces.internal.client.spaceproxy.actioninfo.CommonProxyActionInfo;
 import com.gigaspaces.internal.client.spaceproxy.actioninfo.SnapshotProxyActionInfo;
 import com.gigaspaces.internal.client.spaceproxy.actions.AbstractSpaceProxyActionManager;
@@ -103,6 +104,7 @@ public class SpaceProxyImpl extends AbstractDirectSpaceProxy implements SameProx
     private final ISpaceProxyTypeManager _typeManager;
     private final IQueryManager _queryManager;
     private final SpaceProxyDataEventsManager _dataEventsManager;
+    private volatile SpaceNearCache _nearCache;
 
     private boolean _initializedNewRouter;
     private volatile SpaceProxyRouter _proxyRouter;
@@ -177,6 +179,31 @@ public class SpaceProxyImpl extends AbstractDirectSpaceProxy implements SameProx
         return _dataEventsManager;
     }
 
+    /**
+     * Keeps the entries of the given comma separated types which are read by id in a near cache of
+     * this proxy. Proxies derived from this proxy do not share its near cache.
+     */
+    public synchronized void enableNearCache(String typeNames) {
+        if (_nearCache == null && !closed)
+            _nearCache = SpaceNearCache.create(this, typeNames);
+    }
+
+    /**
+     * Returns the near cache of this proxy, or null if it is not enabled.
+     */
+    public SpaceNearCache getNearCache() {
+        return _nearCache;
+    }
+
+    /**
+     * Invalidates the near cached entries of the given type (or of all types if null), called
+     * before entries of the type are modified by this proxy.
+     */
+    public void invalidateNearCache(String typeName) {
+        if (_nearCache != null)
+            _nearCache.invalidate(typeName);
+    }
+
     @Override
     public IProxySecurityManager getSecurityManager() {
         return _securityManager;
@@ -495,6 +522,9 @@ public class SpaceProxyImpl extends AbstractDirectSpaceProxy implements SameProx
 
         closed = true;
 
+        if (_nearCache != null)
+            _nearCache.close();
+
         if (_dataEventsManager != null)
             _dataEventsManager.close();
 
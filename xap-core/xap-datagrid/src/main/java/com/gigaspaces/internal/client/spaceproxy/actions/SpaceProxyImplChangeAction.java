@@ -44,6 +44,7 @@ public class SpaceProxyImplChangeAction
 
         if (actionInfo.isSqlQuery)
             actionInfo.queryPacket = spaceProxy.getQueryManager().getSQLTemplate((SQLQueryTemplatePacket) actionInfo.queryPacket, actionInfo.txn);
+        spaceProxy.invalidateNearCache(actionInfo.queryPacket.getTypeName());
 
         ChangeEntriesSpaceOperationRequest request = new ChangeEntriesSpaceOperationRequest(actionInfo.queryPacket,
                 actionInfo.txn,
@@ -69,6 +70,7 @@ public class SpaceProxyImplChangeAction
 
         if (actionInfo.isSqlQuery)
             actionInfo.queryPacket = spaceProxy.getQueryManager().getSQLTemplate((SQLQueryTemplatePacket) actionInfo.queryPacket, actionInfo.txn);
+        spaceProxy.invalidateNearCache(actionInfo.queryPacket.getTypeName());
 
         ChangeEntriesSpaceOperationRequest request = new ChangeEntriesSpaceOperationRequest(actionInfo.queryPacket,
                 actionInfo.txn,
@@ -34,6 +34,8 @@ public class SpaceProxyImplCountClearAction extends CountClearProxyAction<SpaceP
     @Override
     public int execute(SpaceProxyImpl spaceProxy, CountClearProxyActionInfo actionInfo)
             throws RemoteException, UnusableEntryException, TransactionException {
+        if (actionInfo.isTake)
+            spaceProxy.invalidateNearCache(actionInfo.queryPacket.getTypeName());
         if (actionInfo.isSqlQuery)
             return spaceProxy.getQueryManager().countClear(actionInfo);
 
@@ -18,6 +18,7 @@ package com.gigaspaces.internal.client.spaceproxy.actions;
 
 import com.gigaspaces.async.AsyncFuture;
 import com.gigaspaces.cluster.replication.TakeConsistencyLevelCompromisedException;
+import com.gigaspaces.internal.client.cache.SpaceNearCache;
 import com.gigaspaces.internal.client.spaceproxy.SpaceProxyImpl;
 import com.gigaspaces.internal.client.spaceproxy.actioninfo.ReadTakeAsyncProxyActionInfo;
 import com.gigaspaces.internal.client.spaceproxy.actioninfo.ReadTakeProxyActionInfo;
@@ -55,6 +56,17 @@ public class SpaceProxyImplReadTakeAction extends ReadTakeProxyAction<SpaceProxy
 
         spaceProxy.beforeSpaceAction(actionInfo);
 
+        if (actionInfo.isTake)
+            spaceProxy.invalidateNearCache(actionInfo.queryPacket.getTypeName());
+        final SpaceNearCache nearCache = spaceProxy.getNearCache();
+        final SpaceNearCache.Key nearCacheKey = nearCache != null && !actionInfo.isTake && !actionInfo.isSqlQuery
+                ? nearCache.createKey(actionInfo.queryPacket, actionInfo.txn, actionInfo.modifiers) : null;
+        if (nearCacheKey != null) {
+            result = nearCache.get(nearCacheKey);
+            if (result != null)
+                return actionInfo.convertQueryResult(spaceProxy, result, null);
+        }
+
         if (actionInfo.isSqlQuery)
             result = spaceProxy.getQueryManager().readTake(actionInfo);
         else {
@@ -72,6 +84,8 @@ public class SpaceProxyImplReadTakeAction extends ReadTakeProxyAction<SpaceProxy
             if (actionInfo.isTake && request.getRemoteOperationResult().getSyncReplicationLevel() + 1 < SpaceProxyTypeManager.requiredConsistencyLevel()) {
                 throw new TakeConsistencyLevelCompromisedException(request.getRemoteOperationResult().getSyncReplicationLevel() + 1, actionInfo.convertQueryResult(spaceProxy, result, null));
             }
+            if (nearCacheKey != null && result != null)
+                nearCache.put(nearCacheKey, result);
         }
         return actionInfo.convertQueryResult(spaceProxy, result, null);
     }
@@ -91,6 +105,8 @@ public class SpaceProxyImplReadTakeAction extends ReadTakeProxyAction<SpaceProxy
     private AsyncFuture<?> asyncReadTake(SpaceProxyImpl spaceProxy, ReadTakeAsyncProxyActionInfo actionInfo)
             throws RemoteException, UnusableEntryException, TransactionException, InterruptedException {
         spaceProxy.beforeSpaceAction(actionInfo);
+        if (actionInfo.isTake)
+            spaceProxy.invalidateNearCache(actionInfo.queryPacket.getTypeName());
 
         final ReadTakeEntrySpaceOperationRequest request = new ReadTakeEntrySpaceOperationRequest(
                 actionInfo.queryPacket,
@@ -59,6 +59,8 @@ public class SpaceProxyImplReadTakeByIdsAction extends ReadTakeByIdsProxyAction<
                         actionInfo.modifiers,
                         actionInfo.txn);
                 spaceProxy.beforeSpaceAction(actionInfo);
+                if (actionInfo.isTake)
+                    spaceProxy.invalidateNearCache(actionInfo.queryPacket.getTypeName());
                 spaceProxy.getProxyRouter().execute(request);
                 final ReadTakeEntriesByIdsSpaceOperationResult result = request.getFinalResult();
                 packets = result.getEntryPackets();
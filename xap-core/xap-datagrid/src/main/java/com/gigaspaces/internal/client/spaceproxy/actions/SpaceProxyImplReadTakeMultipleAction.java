@@ -75,6 +75,8 @@ public class SpaceProxyImplReadTakeMultipleAction extends ReadTakeMultipleProxyA
             throw new IllegalArgumentException("returnOnlyUids=true is not supported in new router read/takeMultiple operation");
 
         spaceProxy.beforeSpaceAction(actionInfo);
+        if (actionInfo.isTake)
+            spaceProxy.invalidateNearCache(actionInfo.queryPacket.getTypeName());
 
         if (actionInfo.maxResults < 1)
             return new IEntryPacket[0];
@@ -23,6 +23,7 @@ import com.gigaspaces.internal.client.spaceproxy.operations.WriteEntriesSpaceOpe
 import com.gigaspaces.internal.client.spaceproxy.operations.WriteEntrySpaceOperationRequest;
 import com.gigaspaces.internal.client.spaceproxy.operations.WriteEntrySpaceOperationResult;
 import com.gigaspaces.internal.server.space.operations.WriteEntryResult;
+import com.gigaspaces.internal.transport.IEntryPacket;
 import com.j_spaces.core.LeaseContext;
 import com.j_spaces.core.client.Modifiers;
 
@@ -39,6 +40,7 @@ public class SpaceProxyImplWriteAction extends WriteProxyAction<SpaceProxyImpl>
     public LeaseContext<?> write(SpaceProxyImpl spaceProxy, WriteProxyActionInfo actionInfo)
             throws RemoteException, TransactionException, InterruptedException {
         spaceProxy.beforeSpaceAction(actionInfo);
+        spaceProxy.invalidateNearCache(actionInfo.entryPacket.getTypeName());
 
         WriteEntrySpaceOperationRequest request = new WriteEntrySpaceOperationRequest(actionInfo.entryPacket,
                 actionInfo.txn, actionInfo.lease, actionInfo.timeout, actionInfo.modifiers, actionInfo.isUpdate());
@@ -57,6 +59,10 @@ public class SpaceProxyImplWriteAction extends WriteProxyAction<SpaceProxyImpl>
     public LeaseContext<?>[] writeMultiple(SpaceProxyImpl spaceProxy, WriteMultipleProxyActionInfo actionInfo)
             throws RemoteException, TransactionException, InterruptedException {
         spaceProxy.beforeSpaceAction(actionInfo);
+        if (spaceProxy.getNearCache() != null) {
+            for (IEntryPacket entryPacket : actionInfo.entryPackets)
+                spaceProxy.invalidateNearCache(entryPacket.getTypeName());
+        }
         WriteEntriesSpaceOperationRequest request = new WriteEntriesSpaceOperationRequest(spaceProxy.getTypeManager(),
                 actionInfo.entries, actionInfo.entryPackets, actionInfo.txn,
                 actionInfo.lease, actionInfo.leases, actionInfo.timeout, actionInfo.modifiers, actionInfo.isBroadcast);
@@ -63,6 +63,8 @@ public class BroadcastTableSpaceTask extends SystemDistributedTask<BroadcastTabl
                 return new PullBroadcastTableEntriesSpaceRequestInfo();
             case CLEAR_ENTRIES:
                 return new ClearBroadcastTableEntriesSpaceRequestInfo();
+            case FLUSH_ENTRIES:
+                return new FlushBroadcastTableEntriesSpaceRequestInfo();
             default:
                 throw new NoSuchElementException("Couldn't match broadcast table action to value " + action);
         }
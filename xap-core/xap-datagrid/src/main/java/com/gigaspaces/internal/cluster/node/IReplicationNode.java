@@ -377,6 +377,11 @@ public interface IReplicationNode {
 
     void setDirectPersistencyBackupSyncIteratorHandler(DirectPersistencyBackupSyncIteratorHandler directPersistencyBackupSyncIteratorHandler);
 
+    /**
+     * Starts the async handlers of the node on platform threads from now on.
+     */
+    void disableVirtualThreads(String reason);
+
     /**
      * Closes the node, once closed the node is no longer usable.
      */
@@ -95,6 +95,7 @@ import com.gigaspaces.internal.utils.StringUtils;
 import com.gigaspaces.internal.utils.concurrent.CyclicAtomicInteger;
 import com.gigaspaces.internal.utils.concurrent.GSThreadFactory;
 import com.gigaspaces.internal.utils.concurrent.IAsyncHandlerProvider;
+import com.gigaspaces.internal.utils.concurrent.ScheduledThreadPoolAsyncHandlerProvider;
 import com.gigaspaces.internal.utils.threadlocal.PoolFactory;
 import com.gigaspaces.internal.utils.threadlocal.ThreadLocalPool;
 import com.gigaspaces.logger.Constants;
@@ -569,6 +570,12 @@ public class ReplicationNode
         }
     }
 
+    @Override
+    public void disableVirtualThreads(String reason) {
+        if (_asyncHandlerProvider instanceof ScheduledThreadPoolAsyncHandlerProvider)
+            ((ScheduledThreadPoolAsyncHandlerProvider) _asyncHandlerProvider).disableVirtualThreads(reason);
+    }
+
     public void close() {
         if (_closed)
             return;
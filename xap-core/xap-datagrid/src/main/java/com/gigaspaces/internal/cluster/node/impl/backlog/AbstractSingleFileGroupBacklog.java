@@ -69,6 +69,7 @@ import com.j_spaces.core.cluster.SwapBacklogConfig;
 import com.j_spaces.core.cluster.startup.CompactionResult;
 import com.j_spaces.core.exception.internal.ReplicationInternalSpaceException;
 import com.j_spaces.kernel.JSpaceUtilities;
+import com.j_spaces.kernel.SystemProperties;
 
 import java.io.IOException;
 import java.io.ObjectInput;
@@ -129,6 +130,7 @@ public abstract class AbstractSingleFileGroupBacklog<T extends IReplicationOrder
     private final ICaluclateMinUnconfirmedKey _getMinUnconfirmedKeyProcedure;
     private boolean _closed;
     private RedoLogCompaction _redoLogCompaction;
+    private final long _checkpointRetention;
 
     public AbstractSingleFileGroupBacklog(DynamicSourceGroupConfigHolder groupConfigHolder,
                                           String name, IReplicationPacketDataProducer<?> dataProducer) {
@@ -152,6 +154,8 @@ public abstract class AbstractSingleFileGroupBacklog<T extends IReplicationOrder
         _mirrorMemberName = groupConfig.getBacklogConfig().getMirrorMemberName();
         _redoLogCompaction = groupConfig.getBacklogConfig().getRedoLogCompaction();
         _getMinUnconfirmedKeyProcedure = isRedoLogCompactionEnabled() ? new CompactionEnabledCaluclateMinUnconfirmedKeyProcedure() : new CaluclateMinUnconfirmedKeyProcedure();
+        _checkpointRetention = Math.max(0, Long.getLong(SystemProperties.REPLICATION_BACKLOG_CHECKPOINT_RETENTION,
+                SystemProperties.REPLICATION_BACKLOG_CHECKPOINT_RETENTION_DEFAULT));
     }
 
     protected void updateBacklogLimitations(SourceGroupConfig groupConfig) {
@@ -768,8 +772,51 @@ public abstract class AbstractSingleFileGroupBacklog<T extends IReplicationOrder
         }
     }
 
+    public boolean beginDeltaSynchronizing(String memberName, long lastProcessedKey) {
+        _rwLock.writeLock().lock();
+        try {
+            final long lastInsertedKey = getLastInsertedKeyToBacklogUnsafe();
+            final boolean covered;
+            if (_outOfSyncDueToDeletionTargets.contains(memberName) || lastProcessedKey > lastInsertedKey)
+                covered = false;
+            else if (getBacklogFile().isEmpty())
+                covered = lastProcessedKey == lastInsertedKey;
+            else
+                covered = getFirstKeyInBacklogInternal() <= lastProcessedKey + 1;
+
+            if (!covered || !onBeginDeltaSynchronization(memberName, lastProcessedKey)) {
+                if (_loggerReplica.isInfoEnabled())
+                    _loggerReplica.info(getLogPrefix() + "cannot synchronize member [" + memberName
+                            + "] from checkpoint key " + lastProcessedKey + ", the backlog holds keys "
+                            + getFirstKeyInBacklogInternal() + " to " + lastInsertedKey);
+                return false;
+            }
+
+            String beginSyncMsg = "begin synchronization with member [" + memberName
+                    + "] from checkpoint key " + lastProcessedKey + ", current key " + lastInsertedKey;
+            if (_loggerReplica.isInfoEnabled())
+                _loggerReplica.info(getLogPrefix() + beginSyncMsg);
+            logEventInHistory(memberName, beginSyncMsg);
+            clearConfirmedPackets();
+            // the packets following the checkpoint are replayed as is, nothing should be filtered
+            _activeSynchronizingTarget.put(memberName, new SynchronizingData(_logger, true));
+            _backlogCapacityAllowedBreachingTargets.add(memberName);
+            return true;
+        } finally {
+            _rwLock.writeLock().unlock();
+        }
+    }
+
     protected abstract void onBeginSynchronization(String memberName);
 
+    /**
+     * Sets the last confirmed key of the given member to the given checkpoint key, returns false if
+     * this backlog does not support synchronization from a checkpoint. Called under write lock.
+     */
+    protected boolean onBeginDeltaSynchronization(String memberName, long lastProcessedKey) {
+        return false;
+    }
+
     public boolean synchronizationDataGenerated(String memberName, String uid) {
         _rwLock.writeLock().lock();
         try {
@@ -1078,7 +1125,8 @@ public abstract class AbstractSingleFileGroupBacklog<T extends IReplicationOrder
 
         // Nothing to delete, we have a channel that was never connected
         if (minUnconfirmedKey != -1) {
-            long deletionBatchSize = minUnconfirmedKey - firstKeyInBacklog;
+            // keep the most recent confirmed packets for members which restart from a checkpoint
+            long deletionBatchSize = minUnconfirmedKey - _checkpointRetention - firstKeyInBacklog;
             if (deletionBatchSize > 0) {
                 getBacklogFile().deleteOldestPackets(deletionBatchSize);
                 IReplicationBacklogStateListener stateListener = _stateListener;
@@ -1818,7 +1866,7 @@ public abstract class AbstractSingleFileGroupBacklog<T extends IReplicationOrder
         }
     }
 
-    private long getWeightForRangeUnsafe(long fromKey, long toKey) {
+    protected long getWeightForRangeUnsafe(long fromKey, long toKey) {
         if (_groupConfigHolder.getConfig().getBacklogConfig().getBackLogWeightPolicy() instanceof FixedBacklogWeightPolicy) {
             return toKey - fromKey + 1;
         }
@@ -95,6 +95,16 @@ public interface IReplicationGroupBacklog extends IDynamicSourceGroupStateListen
 
     void beginSynchronizing(String memberName, boolean isDirectPersistencySync);
 
+    /**
+     * Begins synchronizing the given member from a checkpoint it holds, such that only the
+     * packets following the given key are replicated to it.
+     *
+     * @return false if the backlog no longer holds all the packets following the given key, in
+     * which case a full synchronization is required
+     * @since 16.0
+     */
+    boolean beginDeltaSynchronizing(String memberName, long lastProcessedKey);
+
     boolean synchronizationDataGenerated(String memberName, String uid);
 
     void synchronizationCopyStageDone(String memberName);
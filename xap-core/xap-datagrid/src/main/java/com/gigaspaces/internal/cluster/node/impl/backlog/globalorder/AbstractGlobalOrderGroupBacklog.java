@@ -234,6 +234,16 @@ public abstract class AbstractGlobalOrderGroupBacklog
         updateLastConfirmedKeyUnsafe(memberName, key);
     }
 
+    @Override
+    protected boolean onBeginDeltaSynchronization(String memberName, long lastProcessedKey) {
+        GlobalOrderConfirmationHolder confirmationHolder = getConfirmationHolderUnsafe(memberName);
+        long lastInsertedKey = getLastInsertedKeyToBacklogUnsafe();
+        // the weight of the member is the weight of the packets it did not process yet
+        long weight = lastProcessedKey >= lastInsertedKey ? 0 : getWeightForRangeUnsafe(lastProcessedKey + 1, lastInsertedKey);
+        confirmationHolder.setLastConfirmedKey(lastProcessedKey, weight);
+        return true;
+    }
+
     public IReplicationOrderedPacket replaceWithDiscarded(
             IReplicationOrderedPacket packet, boolean forceDiscard) {
         return new GlobalOrderDiscardedReplicationPacket(packet.getKey());
@@ -120,6 +120,7 @@ public abstract class AbstractReplicationSourceChannel
     private final ReplicationMode _channelType;
     private final Object _customBacklogMetadata;
     private final boolean _isNetworkCompressionEnabled;
+    private final ReplicationBatchCompressor _batchCompressor;
 
     protected final SegmentedAtomicInteger _statisticsCounter = new SegmentedAtomicInteger();
     protected final ThreadLocalPool<ReplicatedDataPacketResource> _packetsPool;
@@ -196,11 +197,12 @@ public abstract class AbstractReplicationSourceChannel
         _generatedTrafficStatistics.addSample(SystemTime.timeMillis(), 0L);
         _receivedTrafficStatistics.addSample(SystemTime.timeMillis(), 0L);
         _isNetworkCompressionEnabled = groupConfig.getConfig().isNetworkCompressionEnabled();
+        _batchCompressor = ReplicationBatchCompressor.createIfEnabled();
         _tag = tag;
         this.resetTarget = resetTarget;
         _packetsPool = new ThreadLocalPool<ReplicatedDataPacketResource>(new PoolFactory<ReplicatedDataPacketResource>() {
             public ReplicatedDataPacketResource create() {
-                return new ReplicatedDataPacketResource(getGroupName());
+                return new ReplicatedDataPacketResource(getGroupName(), _batchCompressor);
             }
         });
     }
@@ -541,6 +543,19 @@ public abstract class AbstractReplicationSourceChannel
         beginSynchronizing(false);
     }
 
+    public synchronized boolean beginDeltaSynchronizing(long lastProcessedKey)
+            throws CannotExecuteSynchronizeReplicaException {
+        if (pingTarget())
+            throw new CannotExecuteSynchronizeReplicaException("replication group ["
+                    + getGroupName()
+                    + "] has a connected channel to ["
+                    + getMemberName() + "]");
+        if (!getGroupBacklog().beginDeltaSynchronizing(getMemberName(), lastProcessedKey))
+            return false;
+        _synchronizing = true;
+        return true;
+    }
+
     public synchronized void stopSynchronization() {
         if (!_synchronizing)
             return;
@@ -677,7 +692,10 @@ public abstract class AbstractReplicationSourceChannel
         try {
             BatchReplicatedDataPacket batchPacket = replicatedDataPacketResource.getBatchPacket();
             batchPacket.setBatch(packets);
+            final long dispatchTime = System.nanoTime();
             Object wiredProcessResult = getConnection().dispatch(batchPacket);
+            if (_batchCompressor != null)
+                _batchCompressor.onDispatched(batchPacket.getWireSize(), System.nanoTime() - dispatchTime);
             IProcessResult processResult = _groupBacklog.fromWireForm(wiredProcessResult);
 
             logProcessResultReceivedIfNecessary(processResult, packets);
@@ -887,6 +905,8 @@ public abstract class AbstractReplicationSourceChannel
                 }
             }
 
+            final BatchReplicatedDataPacket dispatchedPacket = batchPacket;
+            final long dispatchTime = System.nanoTime();
             AsyncFuture<Object> processResultFuture = getConnection().dispatchAsync(batchPacket);
             final ReplicateFuture resultFuture = new ReplicateFuture();
             processResultFuture.setListener(new AsyncFutureListener<Object>() {
@@ -897,6 +917,8 @@ public abstract class AbstractReplicationSourceChannel
                         Exception exception = wiredResult.getException();
                         if (exception != null)
                             throw exception;
+                        if (_batchCompressor != null)
+                            _batchCompressor.onDispatched(dispatchedPacket.getWireSize(), System.nanoTime() - dispatchTime);
                         processResult = _groupBacklog.fromWireForm(wiredResult.getResult());
                         logProcessResultReceivedIfNecessary(processResult, finalPackets);
                         _groupBacklog.processResult(_memberName,
@@ -1405,6 +1427,32 @@ public abstract class AbstractReplicationSourceChannel
                 return getGroupBacklog().size(getMemberName());
             }
         });
+        if (_batchCompressor != null) {
+            metricRegister.register("compressed-batches", new Gauge<Long>() {
+                @Override
+                public Long getValue() throws Exception {
+                    return _batchCompressor.getCompressedBatches();
+                }
+            });
+            metricRegister.register("batch-compression-ratio", new Gauge<Double>() {
+                @Override
+                public Double getValue() throws Exception {
+                    return _batchCompressor.getCompressionRatio();
+                }
+            });
+            metricRegister.register("batch-compression-saved-bytes", new Gauge<Long>() {
+                @Override
+                public Long getValue() throws Exception {
+                    return _batchCompressor.getSavedBytes();
+                }
+            });
+            metricRegister.register("batch-compression-time-ms", new Gauge<Long>() {
+                @Override
+                public Long getValue() throws Exception {
+                    return TimeUnit.NANOSECONDS.toMillis(_batchCompressor.getCompressionTimeNanos());
+                }
+            });
+        }
     }
 
     public abstract ReplicationOperatingMode getChannelOpertingMode();
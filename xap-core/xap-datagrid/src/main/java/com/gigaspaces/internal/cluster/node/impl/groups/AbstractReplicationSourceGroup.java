@@ -299,6 +299,11 @@ public abstract class AbstractReplicationSourceGroup<T extends SourceGroupConfig
         beginSynchronizing(synchronizingMemberLookupName, synchronizingSourceUniqueId, false);
     }
 
+    public boolean beginDeltaSynchronizing(String synchronizingMemberLookupName, long lastProcessedKey) {
+        AbstractReplicationSourceChannel channel = getChannelSafe(synchronizingMemberLookupName);
+        return channel.beginDeltaSynchronizing(lastProcessedKey);
+    }
+
     protected AbstractReplicationSourceChannel getChannelSafe(
             String synchronizingMemberLookupName) {
         AbstractReplicationSourceChannel channel = _channels.get(synchronizingMemberLookupName);
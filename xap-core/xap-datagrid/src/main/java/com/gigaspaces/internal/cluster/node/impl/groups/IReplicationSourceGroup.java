@@ -96,6 +96,16 @@ public interface IReplicationSourceGroup {
 
     void beginSynchronizing(String synchronizingMemberLookupName, Object synchronizingSourceUniqueId, boolean isDirectPersistencySync);
 
+    /**
+     * Signal this source group that one of its channel is now used for synchronizing a target from
+     * a checkpoint it holds, only the packets following the given key are replicated to it.
+     *
+     * @return false if the backlog does not cover the packets following the given key, in which
+     * case a full synchronization is required
+     * @since 16.0
+     */
+    boolean beginDeltaSynchronizing(String synchronizingMemberLookupName, long lastProcessedKey);
+
     /**
      * During synchronization process, notify the channel specified by the target name, that a sync
      * data was generated in order for it to know to filter older data when replicating to target
@@ -20,4 +20,6 @@ import com.gigaspaces.internal.cluster.node.impl.processlog.IReplicationTargetPr
 
 public interface IReplicationTargetChannel {
     IReplicationTargetProcessLog getProcessLog();
+
+    Object getSourceUniqueId();
 }
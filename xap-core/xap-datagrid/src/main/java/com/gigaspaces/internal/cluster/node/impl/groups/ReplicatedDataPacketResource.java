@@ -28,7 +28,12 @@ public class ReplicatedDataPacketResource extends AbstractResource {
     private final IdleStateDataReplicatedPacket _idleStateDataPacket;
 
     public ReplicatedDataPacketResource(String groupName) {
+        this(groupName, null);
+    }
+
+    public ReplicatedDataPacketResource(String groupName, ReplicationBatchCompressor batchCompressor) {
         _batchPacket = new BatchReplicatedDataPacket(groupName);
+        _batchPacket.setBatchCompressor(batchCompressor);
         _packet = new ReplicatedDataPacket(groupName);
         _idleStateDataPacket = new IdleStateDataReplicatedPacket(groupName);
     }
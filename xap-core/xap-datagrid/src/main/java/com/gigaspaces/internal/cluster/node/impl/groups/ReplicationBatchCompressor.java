@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.gigaspaces.internal.cluster.node.impl.groups;
+
+import com.gigaspaces.internal.io.LZ4BlockCodec;
+import com.j_spaces.kernel.SystemProperties;
+
+/**
+ * Decides which replication batches of a source channel are worth compressing and keeps the
+ * compression statistics of the channel. A batch is compressed when the bytes it is expected to
+ * save on the wire take longer to send over the link than compressing it takes, based on moving
+ * averages of the compression ratio, the compression speed and the link throughput. The link
+ * throughput is measured from the round trip of each dispatched batch, which includes the target
+ * processing time, so it errs towards compressing. While compression is not worthwhile every
+ * {@link #PROBE_INTERVAL}th batch is still compressed to keep the estimates up to date.
+ *
+ * @since 16.0
+ */
+@com.gigaspaces.api.InternalApi
+public class ReplicationBatchCompressor {
+    private static final int PROBE_INTERVAL = 32;
+    private static final double WEIGHT = 0.2;
+
+    private final int _minSize;
+
+    private double _ratio;
+    private double _compressBytesPerNano;
+    private double _linkBytesPerNano;
+    private int _skippedBatches;
+
+    private long _compressedBatches;
+    private long _uncompressedBytes;
+    private long _compressedBytes;
+    private long _compressionNanos;
+
+    public ReplicationBatchCompressor(int minSize) {
+        this._minSize = minSize;
+    }
+
+    /**
+     * @return a compressor if batch compression is enabled, null otherwise
+     */
+    public static ReplicationBatchCompressor createIfEnabled() {
+        final boolean enabled = Boolean.parseBoolean(System.getProperty(SystemProperties.REPLICATION_BATCH_COMPRESSION,
+                String.valueOf(SystemProperties.REPLICATION_BATCH_COMPRESSION_DEFAULT)));
+        if (!enabled)
+            return null;
+        return new ReplicationBatchCompressor(Integer.getInteger(SystemProperties.REPLICATION_BATCH_COMPRESSION_MIN_SIZE,
+                SystemProperties.REPLICATION_BATCH_COMPRESSION_MIN_SIZE_DEFAULT));
+    }
+
+    public synchronized boolean shouldCompress(int size) {
+        if (size < _minSize)
+            return false;
+        if (_compressBytesPerNano == 0 || _linkBytesPerNano == 0)
+            return true;
+        if ((1 - _ratio) * _compressBytesPerNano > _linkBytesPerNano)
+            return true;
+        return ++_skippedBatches % PROBE_INTERVAL == 0;
+    }
+
+    /**
+     * Compresses the given serialized batch.
+     *
+     * @return the compressed batch, or null if it does not compress
+     */
+    public byte[] compress(byte[] buffer, int length) {
+        final long startTime = System.nanoTime();
+        final byte[] compressed = new byte[LZ4BlockCodec.maxCompressedLength(length)];
+        final int compressedLength = LZ4BlockCodec.compress(buffer, 0, length, compressed, 0);
+        final long duration = Math.max(System.nanoTime() - startTime, 1);
+        synchronized (this) {
+            _ratio = average(_ratio, (double) compressedLength / length);
+            _compressBytesPerNano = average(_compressBytesPerNano, (double) length / duration);
+            _compressionNanos += duration;
+            if (compressedLength >= length)
+                return null;
+            _compressedBatches++;
+            _uncompressedBytes += length;
+            _compressedBytes += compressedLength;
+        }
+        final byte[] result = new byte[compressedLength];
+        System.arraycopy(compressed, 0, result, 0, compressedLength);
+        return result;
+    }
+
+    /**
+     * Called once a batch of the given serialized size was dispatched and its result received.
+     */
+    public synchronized void onDispatched(int wireSize, long durationNanos) {
+        if (wireSize > 0 && durationNanos > 0)
+            _linkBytesPerNano = average(_linkBytesPerNano, (double) wireSize / durationNanos);
+    }
+
+    public synchronized long getCompressedBatches() {
+        return _compressedBatches;
+    }
+
+    /**
+     * @return compressed size out of the original size of all the compressed batches
+     */
+    public synchronized double getCompressionRatio() {
+        return _uncompressedBytes == 0 ? 1 : (double) _compressedBytes / _uncompressedBytes;
+    }
+
+    public synchronized long getSavedBytes() {
+        return _uncompressedBytes - _compressedBytes;
+    }
+
+    public synchronized long getCompressionTimeNanos() {
+        return _compressionNanos;
+    }
+
+    private static double average(double average, double sample) {
+        return average == 0 ? sample : average + WEIGHT * (sample - average);
+    }
+}
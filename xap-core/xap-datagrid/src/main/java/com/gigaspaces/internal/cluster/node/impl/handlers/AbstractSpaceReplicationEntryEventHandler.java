@@ -22,6 +22,7 @@ import com.gigaspaces.internal.cluster.node.handlers.AbstractReplicationEntryEve
 import com.gigaspaces.internal.cluster.node.handlers.IReplicationInEvictEntryHandler;
 import com.gigaspaces.internal.metadata.ITypeDesc;
 import com.gigaspaces.internal.server.space.SpaceEngine;
+import com.gigaspaces.internal.server.space.recovery.checkpoint.BackupCheckpointHandler;
 import com.gigaspaces.internal.server.storage.IEntryData;
 import com.gigaspaces.internal.transport.IEntryPacket;
 import com.gigaspaces.internal.transport.ITemplatePacket;
@@ -74,9 +75,19 @@ public abstract class AbstractSpaceReplicationEntryEventHandler
                 && !_engine.hasMirror();
     }
 
+    /**
+     * @since 16.0
+     */
+    protected void beforeReplicatedOperation(String uid) {
+        BackupCheckpointHandler checkpointHandler = _engine.getBackupCheckpointHandler();
+        if (checkpointHandler != null)
+            checkpointHandler.beforeReplicatedOperation(uid);
+    }
+
     @Override
     public void writeEntry(IReplicationInContext context, Transaction txn,
                            boolean twoPhaseCommit, IEntryPacket entry) throws Exception {
+        beforeReplicatedOperation(entry.getUID());
         _engine.getTypeManager().loadServerTypeDesc(entry);
         long lease = entry.getTTL();
 
@@ -94,6 +105,7 @@ public abstract class AbstractSpaceReplicationEntryEventHandler
     public void updateEntry(IReplicationInContext context, Transaction txn,
                             boolean twoPhaseCommit, IEntryPacket entry,
                             IEntryPacket previousEntry, boolean partialUpdate, boolean overrideVersion) throws Exception {
+        beforeReplicatedOperation(entry.getUID());
         _engine.getTypeManager().loadServerTypeDesc(entry);
         long lease = entry.getTTL();
 
@@ -114,6 +126,7 @@ public abstract class AbstractSpaceReplicationEntryEventHandler
     @Override
     public void removeEntry(IReplicationInContext context, Transaction txn,
                             boolean twoPhaseCommit, IEntryPacket entry) throws Exception {
+        beforeReplicatedOperation(entry.getUID());
         _engine.getTypeManager().loadServerTypeDesc(entry);
         ITemplatePacket template;
         // Entry may have arrived from an old server (before 9.0)
@@ -132,6 +145,7 @@ public abstract class AbstractSpaceReplicationEntryEventHandler
     @Override
     public void removeEntryByUid(IReplicationInContext context, Transaction transaction, boolean twoPhaseCommit, String uid, boolean isTransient, OperationID operationID, String typeName)
             throws Exception {
+        beforeReplicatedOperation(uid);
         if (!shouldRemoveEntryFromSpace(isTransient))
             return;
 
@@ -153,6 +167,7 @@ public abstract class AbstractSpaceReplicationEntryEventHandler
                             boolean twoPhaseCommit, String typeName, String uid,
                             Object id, int routingHash,
                             int version, int previousVersion, long timeToLive, Collection<SpaceEntryMutator> mutators, boolean isTransient, OperationID operationID, IEntryData previousEntry) throws Exception {
+        beforeReplicatedOperation(uid);
         if (!shouldChangeEntryInSpace(context, txn, twoPhaseCommit, typeName, uid, isTransient, version))
             return;
 
@@ -274,6 +289,7 @@ public abstract class AbstractSpaceReplicationEntryEventHandler
     @Override
     public void inEvictEntry(IReplicationInContext context, String uid, boolean isTransient, OperationID operationID)
             throws Exception {
+        beforeReplicatedOperation(uid);
         try {
             if (!_engine.getCacheManager().isEvictableCachePolicy())
                 return;
@@ -21,6 +21,7 @@ import com.gigaspaces.internal.cluster.node.handlers.IReplicationInEntryLeaseCan
 import com.gigaspaces.internal.cluster.node.handlers.IReplicationInEntryLeaseExpiredHandler;
 import com.gigaspaces.internal.cluster.node.handlers.IReplicationInEntryLeaseExtendedHandler;
 import com.gigaspaces.internal.server.space.SpaceEngine;
+import com.gigaspaces.internal.server.space.recovery.checkpoint.BackupCheckpointHandler;
 import com.gigaspaces.internal.server.storage.IEntryData;
 import com.gigaspaces.internal.server.storage.IEntryHolder;
 import com.gigaspaces.internal.transport.IEntryPacket;
@@ -66,8 +67,15 @@ public class SpaceReplicationEntryLeaseEventHandler implements
         return !isTransient && _engine.getCacheManager().isCentralDB() && _engine.getCacheManager().isCacheExternalDB() && _engine.getCacheManager().isEvictableCachePolicy();
     }
 
+    private void beforeReplicatedOperation(String uid) {
+        BackupCheckpointHandler checkpointHandler = _engine.getBackupCheckpointHandler();
+        if (checkpointHandler != null)
+            checkpointHandler.beforeReplicatedOperation(uid);
+    }
+
     @Override
     public void inCancelEntryLeaseByUID(IReplicationInContext context, String typeName, String uid, boolean isTransient, int routingValue) {
+        beforeReplicatedOperation(uid);
         if (_isPrimaryBackupSpace && ignoreOperation(isTransient))
             return;
 
@@ -114,6 +122,7 @@ public class SpaceReplicationEntryLeaseEventHandler implements
     @Override
     public void inExtendEntryLeasePeriod(IReplicationInContext context, String typeName, String uid, boolean isTransient, long lease, int routingValue)
             throws UnknownLeaseException {
+        beforeReplicatedOperation(uid);
         if (_isPrimaryBackupSpace && ignoreOperation(isTransient))
             return;
         getLeaseManager().renew(uid, typeName, ObjectTypes.ENTRY,
@@ -122,6 +131,7 @@ public class SpaceReplicationEntryLeaseEventHandler implements
 
     @Override
     public void inEntryLeaseExpiredByUID(IReplicationInContext context, String typeName, String uid, boolean isTransient, OperationID operationID) {
+        beforeReplicatedOperation(uid);
         if (_isPrimaryBackupSpace && ignoreOperation(isTransient))
             return;
 
@@ -19,8 +19,14 @@ package com.gigaspaces.internal.cluster.node.impl.packets;
 import com.gigaspaces.internal.cluster.node.impl.IIncomingReplicationFacade;
 import com.gigaspaces.internal.cluster.node.impl.backlog.globalorder.GlobalOrderDiscardedReplicationPacket;
 import com.gigaspaces.internal.cluster.node.impl.groups.IReplicationTargetGroup;
+import com.gigaspaces.internal.cluster.node.impl.groups.ReplicationBatchCompressor;
 import com.gigaspaces.internal.cluster.node.impl.router.AbstractGroupNameReplicationPacket;
+import com.gigaspaces.internal.io.GSByteArrayInputStream;
+import com.gigaspaces.internal.io.GSByteArrayOutputStream;
 import com.gigaspaces.internal.io.IOUtils;
+import com.gigaspaces.internal.io.LZ4BlockCodec;
+import com.gigaspaces.internal.io.MarshalInputStream;
+import com.gigaspaces.internal.io.MarshalOutputStream;
 import com.gigaspaces.internal.utils.Textualizer;
 import com.gigaspaces.internal.version.PlatformLogicalVersion;
 import com.gigaspaces.lrmi.LRMIInvocationContext;
@@ -36,6 +42,11 @@ import java.util.List;
 public class BatchReplicatedDataPacket
         extends AbstractGroupNameReplicationPacket<Object> {
     private static final long serialVersionUID = 1L;
+
+    private static final byte BATCH_OBJECT = 0;
+    private static final byte BATCH_SERIALIZED = 1;
+    private static final byte BATCH_LZ4 = 2;
+
     private List<IReplicationOrderedPacket> _batch;
 
     private long _startKey = 0;
@@ -46,6 +57,10 @@ public class BatchReplicatedDataPacket
 
     private transient boolean _clean = true;
 
+    private transient ReplicationBatchCompressor _batchCompressor;
+
+    private transient int _wireSize;
+
     public BatchReplicatedDataPacket() {
     }
 
@@ -66,7 +81,10 @@ public class BatchReplicatedDataPacket
 
     public void readExternalImpl(ObjectInput in, PlatformLogicalVersion endpointLogicalVersion) throws IOException,
             ClassNotFoundException {
-        _batch = IOUtils.readObject(in);
+        if (endpointLogicalVersion.greaterOrEquals(PlatformLogicalVersion.v16_0_0))
+            _batch = readBatch(in);
+        else
+            _batch = IOUtils.readObject(in);
         if(endpointLogicalVersion.greaterOrEquals(PlatformLogicalVersion.v14_0_0)) {
             _compressed = in.readBoolean();
             if (_compressed) {
@@ -83,7 +101,10 @@ public class BatchReplicatedDataPacket
         }
 
         else{
-            IOUtils.writeObject(out, _batch);
+            if (endpointLogicalVersion.greaterOrEquals(PlatformLogicalVersion.v16_0_0))
+                writeBatch(out);
+            else
+                IOUtils.writeObject(out, _batch);
             out.writeBoolean(_compressed);
             if (_compressed) {
                 out.writeLong(_startKey);
@@ -92,6 +113,65 @@ public class BatchReplicatedDataPacket
         }
     }
 
+    private void writeBatch(ObjectOutput out) throws IOException {
+        if (_batchCompressor == null) {
+            out.writeByte(BATCH_OBJECT);
+            IOUtils.writeObject(out, _batch);
+            return;
+        }
+
+        final GSByteArrayOutputStream bytes = new GSByteArrayOutputStream();
+        final MarshalOutputStream mos = new MarshalOutputStream(bytes);
+        IOUtils.writeObject(mos, _batch);
+        mos.flush();
+        final int length = bytes.size();
+        final byte[] compressed = _batchCompressor.shouldCompress(length)
+                ? _batchCompressor.compress(bytes.getBuffer(), length)
+                : null;
+        if (compressed != null) {
+            out.writeByte(BATCH_LZ4);
+            out.writeInt(length);
+            out.writeInt(compressed.length);
+            out.write(compressed);
+            _wireSize = compressed.length;
+        } else {
+            out.writeByte(BATCH_SERIALIZED);
+            out.writeInt(length);
+            out.write(bytes.getBuffer(), 0, length);
+            _wireSize = length;
+        }
+    }
+
+    private static List<IReplicationOrderedPacket> readBatch(ObjectInput in) throws IOException, ClassNotFoundException {
+        final byte format = in.readByte();
+        if (format == BATCH_OBJECT)
+            return IOUtils.readObject(in);
+
+        final byte[] bytes = new byte[in.readInt()];
+        if (format == BATCH_LZ4) {
+            final byte[] compressed = new byte[in.readInt()];
+            in.readFully(compressed);
+            LZ4BlockCodec.decompress(compressed, 0, compressed.length, bytes, 0, bytes.length);
+        } else if (format == BATCH_SERIALIZED) {
+            in.readFully(bytes);
+        } else {
+            throw new IOException("Unknown replication batch format: " + format);
+        }
+        return IOUtils.readObject(new MarshalInputStream(new GSByteArrayInputStream(bytes)));
+    }
+
+    public void setBatchCompressor(ReplicationBatchCompressor batchCompressor) {
+        _batchCompressor = batchCompressor;
+    }
+
+    /**
+     * @return the serialized size of the batch the last time this packet was written with a batch
+     * compressor, or 0 if it was not
+     */
+    public int getWireSize() {
+        return _wireSize;
+    }
+
     public void setBatch(List<IReplicationOrderedPacket> batch) {
         if (!_clean || batch == null)
             throw new IllegalStateException("Attempt to override packet batch when it was not released");
@@ -111,6 +191,7 @@ public class BatchReplicatedDataPacket
         _compressed = false;
         _startKey = 0;
         _totalBatchKeySize = 0;
+        _wireSize = 0;
     }
 
     @Override
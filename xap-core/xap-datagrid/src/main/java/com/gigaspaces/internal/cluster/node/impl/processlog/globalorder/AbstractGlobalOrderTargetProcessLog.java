@@ -77,6 +77,16 @@ public abstract class AbstractGlobalOrderTargetProcessLog
         }
     }
 
+    /**
+     * Returns the lock which is held while packets are processed, holding it keeps the state of
+     * the target consistent with {@link #getLastProcessedKey()}.
+     *
+     * @since 16.0
+     */
+    public Lock getProcessLock() {
+        return _lock;
+    }
+
     public boolean isFirstHandshakeForTarget() {
         _lock.lock();
         try {
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.cluster.node.impl.replica;
+
+import com.gigaspaces.internal.cluster.node.impl.replica.data.CheckpointReplicaData;
+import com.j_spaces.core.cluster.IReplicationFilterEntry;
+
+/**
+ * Produces a single {@link CheckpointReplicaData}, used instead of the space types and entries
+ * producers when the target is synchronized from its checkpoint.
+ *
+ * @since 16.0
+ */
+@com.gigaspaces.api.InternalApi
+public class CheckpointReplicaDataProducer
+        implements ISingleStageReplicaDataProducer<CheckpointReplicaData> {
+    private final long _checkpointKey;
+    private boolean _isClosed;
+
+    public CheckpointReplicaDataProducer(long checkpointKey) {
+        _checkpointKey = checkpointKey;
+    }
+
+    public synchronized CloseStatus close(boolean forced) {
+        _isClosed = true;
+        return CloseStatus.CLOSED;
+    }
+
+    public synchronized CheckpointReplicaData produceNextData(ISynchronizationCallback synchCallback) {
+        if (_isClosed)
+            return null;
+        // Any consecutive call should return null
+        _isClosed = true;
+        return new CheckpointReplicaData(_checkpointKey);
+    }
+
+    public IReplicationFilterEntry toFilterEntry(CheckpointReplicaData data) {
+        return null;
+    }
+
+    public String dumpState() {
+        return "Checkpoint replica producer: key [" + _checkpointKey + "] completed [" + _isClosed + "]";
+    }
+
+    @Override
+    public String getName() {
+        return "CheckpointReplicaDataProducer";
+    }
+}
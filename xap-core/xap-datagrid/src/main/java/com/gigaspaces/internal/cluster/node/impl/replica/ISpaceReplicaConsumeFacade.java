@@ -38,4 +38,12 @@ public interface ISpaceReplicaConsumeFacade {
 
     GSEventRegistration insertNotifyTemplate(ITemplatePacket templatePacket, String templateUid, NotifyInfo notifyInfo) throws Exception;
 
+    /**
+     * Restores the local checkpoint taken at the given replication key, called when the source
+     * accepted to synchronize this target from it.
+     *
+     * @since 16.0
+     */
+    void restoreCheckpoint(long checkpointKey) throws Exception;
+
 }
@@ -129,9 +129,10 @@ public class ReplicationNodeReplicaHandler {
 
                 boolean syncListRecovery = isDirectPersistencySyncReplicaRequest(replicaRequestPacket);
 
-                sourceGroup.beginSynchronizing(channelName,
-                        replicaRequestPacket.getSourceUniqueId(),
-                        syncListRecovery);
+                if (syncListRecovery || !beginDeltaSynchronizing(sourceGroup, channelName, replicaRequestPacket))
+                    sourceGroup.beginSynchronizing(channelName,
+                            replicaRequestPacket.getSourceUniqueId(),
+                            syncListRecovery);
 
                 // handle receiving sync list from backup by chunks
                 if (syncListRecovery)
@@ -185,6 +186,33 @@ public class ReplicationNodeReplicaHandler {
         }
     }
 
+    /**
+     * Begins synchronizing the requester from the checkpoint it holds if the backlog still covers
+     * it, returns false if a full synchronization is required.
+     */
+    private boolean beginDeltaSynchronizing(IReplicationSourceGroup sourceGroup, String channelName,
+                                            ReplicaRequestPacket replicaRequestPacket) {
+        if (!(replicaRequestPacket.getParameters() instanceof SpaceCopyReplicaParameters))
+            return false;
+        SpaceCopyReplicaParameters parameters = (SpaceCopyReplicaParameters) replicaRequestPacket.getParameters();
+        if (parameters.getCheckpointKey() < 0)
+            return false;
+        // keys of a previous primary are meaningless
+        if (!_replicationNode.getUniqueId().equals(parameters.getCheckpointSourceUniqueId())) {
+            if (_logger.isInfoEnabled())
+                _logger.info(_replicationNode.getLogPrefix() + "ignoring checkpoint of " + channelName
+                        + " which was taken from another source, performing full synchronization");
+            return false;
+        }
+        if (!sourceGroup.beginDeltaSynchronizing(channelName, parameters.getCheckpointKey()))
+            return false;
+        parameters.setDeltaRecovery(true);
+        if (_logger.isInfoEnabled())
+            _logger.info(_replicationNode.getLogPrefix() + "synchronizing " + channelName
+                    + " from its checkpoint at key " + parameters.getCheckpointKey());
+        return true;
+    }
+
     private boolean isDirectPersistencySyncReplicaRequest(ReplicaRequestPacket replicaRequestPacket) {
         return replicaRequestPacket.getParameters() instanceof SpaceCopyReplicaParameters
                 && ((SpaceCopyReplicaParameters) replicaRequestPacket.getParameters()).getSynchronizationListFetcher() != null;
@@ -46,6 +46,25 @@ public class SynchronizeReplicaDataProducer
     protected List<ISingleStageReplicaDataProducer<? extends IExecutableSpaceReplicaData>> buildDataProducers(
             SpaceCopyReplicaParameters parameters) {
         ArrayList<ISingleStageReplicaDataProducer<? extends IExecutableSpaceReplicaData>> dataProducers = new ArrayList<ISingleStageReplicaDataProducer<? extends IExecutableSpaceReplicaData>>();
+        if (parameters.isDeltaRecovery()) {
+            // the target holds the types and entries up to its checkpoint, the following packets are replicated from the backlog
+            dataProducers.add(new CheckpointReplicaDataProducer(parameters.getCheckpointKey()));
+            if (_logger.isTraceEnabled())
+                _logger.trace(_engine.getReplicationNode() + "created CheckpointReplicaDataProducer");
+        } else {
+            addSpaceDataProducers(dataProducers, parameters);
+        }
+
+        if (parameters.isCopyNotifyTemplates()) {
+            dataProducers.add(new NotifyTemplateReplicaProducer(_engine, _requestContext));
+            if (_logger.isTraceEnabled())
+                _logger.trace(_engine.getReplicationNode() + "created NotifyTemplateReplicaProducer");
+        }
+        return dataProducers;
+    }
+
+    private void addSpaceDataProducers(List<ISingleStageReplicaDataProducer<? extends IExecutableSpaceReplicaData>> dataProducers,
+                                       SpaceCopyReplicaParameters parameters) {
         dataProducers.add(new SpaceTypeReplicaDataProducer(_engine));
         if (_logger.isTraceEnabled())
             _logger.trace(_engine.getReplicationNode() + "created SpaceTypeReplicaDataProducer");
@@ -59,13 +78,6 @@ public class SynchronizeReplicaDataProducer
             if (_logger.isTraceEnabled())
                 _logger.trace(_engine.getReplicationNode() + "created EntryReplicaProducer for templatePacket " + templatePacket);
         }
-
-        if (parameters.isCopyNotifyTemplates()) {
-            dataProducers.add(new NotifyTemplateReplicaProducer(_engine, _requestContext));
-            if (_logger.isTraceEnabled())
-                _logger.trace(_engine.getReplicationNode() + "created NotifyTemplateReplicaProducer");
-        }
-        return dataProducers;
     }
 
     @Override
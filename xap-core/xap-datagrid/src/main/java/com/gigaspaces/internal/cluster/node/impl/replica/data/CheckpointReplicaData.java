@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.cluster.node.impl.replica.data;
+
+import com.gigaspaces.internal.cluster.node.impl.IIncomingReplicationFacade;
+import com.gigaspaces.internal.cluster.node.impl.replica.IExecutableSpaceReplicaData;
+import com.gigaspaces.internal.cluster.node.impl.replica.ISpaceReplicaConsumeFacade;
+import com.gigaspaces.internal.cluster.node.impl.replica.SpaceCopyIntermediateResult;
+import com.gigaspaces.internal.server.space.metadata.SpaceTypeManager;
+import com.j_spaces.core.cluster.IReplicationFilterEntry;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * Replaces the copy of the space types and entries when the source accepted to synchronize the
+ * target from its checkpoint, signals the target that its checkpoint is used.
+ *
+ * @since 16.0
+ */
+@com.gigaspaces.api.InternalApi
+public class CheckpointReplicaData
+        implements IExecutableSpaceReplicaData {
+    private static final long serialVersionUID = 1L;
+
+    private long _checkpointKey;
+
+    public CheckpointReplicaData() {
+    }
+
+    public CheckpointReplicaData(long checkpointKey) {
+        _checkpointKey = checkpointKey;
+    }
+
+    public long getCheckpointKey() {
+        return _checkpointKey;
+    }
+
+    public String getUid() {
+        return null;
+    }
+
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeLong(_checkpointKey);
+    }
+
+    public void readExternal(ObjectInput in) throws IOException,
+            ClassNotFoundException {
+        _checkpointKey = in.readLong();
+    }
+
+    public void execute(ISpaceReplicaConsumeFacade consumeFacade,
+                        SpaceCopyIntermediateResult intermediateResult, IIncomingReplicationFacade incomingReplicationFacade) throws Exception {
+        consumeFacade.restoreCheckpoint(_checkpointKey);
+    }
+
+    public boolean supportsReplicationFilter() {
+        return false;
+    }
+
+    @Override
+    public boolean isEntryReplicaData() {
+        return false;
+    }
+
+    public IReplicationFilterEntry toFilterEntry(SpaceTypeManager typeManager) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String toString() {
+        return "CheckpointReplicaData key=" + _checkpointKey;
+    }
+}
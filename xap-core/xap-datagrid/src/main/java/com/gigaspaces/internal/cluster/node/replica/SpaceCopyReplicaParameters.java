@@ -46,6 +46,9 @@ public class SpaceCopyReplicaParameters implements ISpaceCopyReplicaParameters {
     private SpaceContext _spaceContext;
     private DirectPersistencySyncListFetcher _fetcher;
     private transient List<String> _syncList;
+    private long _checkpointKey = -1;
+    private Object _checkpointSourceUniqueId;
+    private transient boolean _deltaRecovery;
 
     public SpaceCopyReplicaParameters() {
     }
@@ -68,6 +71,10 @@ public class SpaceCopyReplicaParameters implements ISpaceCopyReplicaParameters {
         if (LRMIInvocationContext.getEndpointLogicalVersion().greaterOrEquals(PlatformLogicalVersion.v10_2_0)) {
             IOUtils.writeObject(out, _fetcher);
         }
+        if (LRMIInvocationContext.getEndpointLogicalVersion().greaterOrEquals(PlatformLogicalVersion.v16_0_0)) {
+            out.writeLong(_checkpointKey);
+            IOUtils.writeObject(out, _checkpointSourceUniqueId);
+        }
 
     }
 
@@ -88,6 +95,10 @@ public class SpaceCopyReplicaParameters implements ISpaceCopyReplicaParameters {
         if (LRMIInvocationContext.getEndpointLogicalVersion().greaterOrEquals(PlatformLogicalVersion.v10_2_0)) {
             _fetcher = IOUtils.readObject(in);
         }
+        if (LRMIInvocationContext.getEndpointLogicalVersion().greaterOrEquals(PlatformLogicalVersion.v16_0_0)) {
+            _checkpointKey = in.readLong();
+            _checkpointSourceUniqueId = IOUtils.readObject(in);
+        }
     }
 
     public boolean isCopyNotifyTemplates() {
@@ -162,6 +173,45 @@ public class SpaceCopyReplicaParameters implements ISpaceCopyReplicaParameters {
         return _includeEvictionReplicationMarkers;
     }
 
+    /**
+     * Returns the replication key of the checkpoint the requesting backup holds, or -1 if it holds
+     * none.
+     *
+     * @since 16.0
+     */
+    public long getCheckpointKey() {
+        return _checkpointKey;
+    }
+
+    /**
+     * Returns the unique id of the source the checkpoint key belongs to, keys of other sources are
+     * meaningless.
+     *
+     * @since 16.0
+     */
+    public Object getCheckpointSourceUniqueId() {
+        return _checkpointSourceUniqueId;
+    }
+
+    public void setCheckpoint(long checkpointKey, Object checkpointSourceUniqueId) {
+        _checkpointKey = checkpointKey;
+        _checkpointSourceUniqueId = checkpointSourceUniqueId;
+    }
+
+    /**
+     * Returns true if the source decided to replicate only the packets following the checkpoint
+     * instead of copying the space, set at the source.
+     *
+     * @since 16.0
+     */
+    public boolean isDeltaRecovery() {
+        return _deltaRecovery;
+    }
+
+    public void setDeltaRecovery(boolean deltaRecovery) {
+        _deltaRecovery = deltaRecovery;
+    }
+
     @Override
     public String toString() {
         return "ReplicaType=" + _replicaType + StringUtils.NEW_LINE +
@@ -170,6 +220,7 @@ public class SpaceCopyReplicaParameters implements ISpaceCopyReplicaParameters {
                 "MemoryOnly=" + _memoryOnly + StringUtils.NEW_LINE +
                 "IncludeEvictionReplicationMarkers=" + _includeEvictionReplicationMarkers + StringUtils.NEW_LINE +
                 "TemplatePackets=" + _templatePackets + StringUtils.NEW_LINE +
+                "CheckpointKey=" + _checkpointKey + StringUtils.NEW_LINE +
                 "SpaceContext=" + String.valueOf(_spaceContext != null);
     }
 
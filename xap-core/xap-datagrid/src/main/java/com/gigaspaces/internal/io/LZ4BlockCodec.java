@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.gigaspaces.internal.io;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Pure java implementation of the LZ4 block format - a byte oriented LZ77 codec which trades
+ * compression ratio for speed. The compressor is greedy, with a single hash probe per position and
+ * an accelerating skip over incompressible data. The decompressor validates all offsets and lengths
+ * against the given buffers and fails with an {@link IOException} on malformed input.
+ *
+ * @since 16.0
+ */
+@com.gigaspaces.api.InternalApi
+public class LZ4BlockCodec {
+    private static final int MIN_MATCH = 4;
+    private static final int HASH_LOG = 12;
+    private static final int MAX_DISTANCE = 0xFFFF;
+    private static final int LAST_LITERALS = 5;
+    private static final int MF_LIMIT = 12;
+    private static final int SKIP_TRIGGER = 6;
+    private static final int RUN_MASK = 0x0F;
+
+    private LZ4BlockCodec() {
+    }
+
+    /**
+     * Returns the maximum length of the compressed form of the given number of bytes.
+     */
+    public static int maxCompressedLength(int length) {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * Compresses the given source range into the destination array, which should have at least
+     * {@link #maxCompressedLength(int)} bytes available from the given offset.
+     *
+     * @return the compressed length
+     */
+    public static int compress(byte[] src, int srcOff, int srcLen, byte[] dest, int destOff) {
+        final int srcEnd = srcOff + srcLen;
+        final int matchLimit = srcEnd - LAST_LITERALS;
+        final int mfLimit = srcEnd - MF_LIMIT;
+
+        int dOff = destOff;
+        int anchor = srcOff;
+        if (srcLen > MF_LIMIT) {
+            final int[] hashTable = new int[1 << HASH_LOG];
+            Arrays.fill(hashTable, -1);
+            int sOff = srcOff;
+            while (sOff < mfLimit) {
+                final int sequence = readInt(src, sOff);
+                final int h = hash(sequence);
+                int ref = hashTable[h];
+                hashTable[h] = sOff;
+                if (ref < 0 || sOff - ref > MAX_DISTANCE || readInt(src, ref) != sequence) {
+                    sOff += 1 + ((sOff - anchor) >>> SKIP_TRIGGER);
+                    continue;
+                }
+                while (sOff > anchor && ref > srcOff && src[sOff - 1] == src[ref - 1]) {
+                    sOff--;
+                    ref--;
+                }
+                int matchLen = MIN_MATCH;
+                while (sOff + matchLen < matchLimit && src[sOff + matchLen] == src[ref + matchLen])
+                    matchLen++;
+
+                dOff = writeSequence(src, anchor, sOff - anchor, sOff - ref, matchLen, dest, dOff);
+                sOff += matchLen;
+                anchor = sOff;
+            }
+        }
+
+        final int literals = srcEnd - anchor;
+        final int token = dOff++;
+        if (literals >= RUN_MASK) {
+            dest[token] = (byte) (RUN_MASK << 4);
+            dOff = writeLength(literals - RUN_MASK, dest, dOff);
+        } else {
+            dest[token] = (byte) (literals << 4);
+        }
+        System.arraycopy(src, anchor, dest, dOff, literals);
+        return dOff + literals - destOff;
+    }
+
+    /**
+     * Decompresses the given source range into exactly destLen bytes of the destination array.
+     */
+    public static void decompress(byte[] src, int srcOff, int srcLen, byte[] dest, int destOff, int destLen) throws IOException {
+        final int srcEnd = srcOff + srcLen;
+        final int destEnd = destOff + destLen;
+        int sOff = srcOff;
+        int dOff = destOff;
+        while (sOff < srcEnd) {
+            final int token = src[sOff++] & 0xFF;
+
+            int literals = token >>> 4;
+            if (literals == RUN_MASK) {
+                int b;
+                do {
+                    if (sOff == srcEnd)
+                        throw malformed(sOff);
+                    b = src[sOff++] & 0xFF;
+                    literals += b;
+                } while (b == 0xFF);
+            }
+            if (literals > srcEnd - sOff || literals > destEnd - dOff)
+                throw malformed(sOff);
+            System.arraycopy(src, sOff, dest, dOff, literals);
+            sOff += literals;
+            dOff += literals;
+            if (sOff == srcEnd)
+                break;
+
+            if (srcEnd - sOff < 2)
+                throw malformed(sOff);
+            final int offset = (src[sOff] & 0xFF) | ((src[sOff + 1] & 0xFF) << 8);
+            sOff += 2;
+            if (offset == 0 || offset > dOff - destOff)
+                throw malformed(sOff);
+
+            int matchLen = token & RUN_MASK;
+            if (matchLen == RUN_MASK) {
+                int b;
+                do {
+                    if (sOff == srcEnd)
+                        throw malformed(sOff);
+                    b = src[sOff++] & 0xFF;
+                    matchLen += b;
+                } while (b == 0xFF);
+            }
+            matchLen += MIN_MATCH;
+            if (matchLen > destEnd - dOff)
+                throw malformed(sOff);
+
+            final int ref = dOff - offset;
+            if (offset >= matchLen) {
+                System.arraycopy(dest, ref, dest, dOff, matchLen);
+            } else {
+                for (int i = 0; i < matchLen; i++)
+                    dest[dOff + i] = dest[ref + i];
+            }
+            dOff += matchLen;
+        }
+        if (dOff != destEnd)
+            throw new IOException("Malformed LZ4 block - decompressed " + (dOff - destOff) + " bytes, expected " + destLen);
+    }
+
+    private static int writeSequence(byte[] src, int literalsOff, int literals, int offset, int matchLen, byte[] dest, int dOff) {
+        final int token = dOff++;
+        int tokenValue;
+        if (literals >= RUN_MASK) {
+            tokenValue = RUN_MASK << 4;
+            dOff = writeLength(literals - RUN_MASK, dest, dOff);
+        } else {
+            tokenValue = literals << 4;
+        }
+        System.arraycopy(src, literalsOff, dest, dOff, literals);
+        dOff += literals;
+
+        dest[dOff++] = (byte) offset;
+        dest[dOff++] = (byte) (offset >>> 8);
+
+        final int matchLenCode = matchLen - MIN_MATCH;
+        if (matchLenCode >= RUN_MASK) {
+            tokenValue |= RUN_MASK;
+            dOff = writeLength(matchLenCode - RUN_MASK, dest, dOff);
+        } else {
+            tokenValue |= matchLenCode;
+        }
+        dest[token] = (byte) tokenValue;
+        return dOff;
+    }
+
+    private static int writeLength(int length, byte[] dest, int dOff) {
+        while (length >= 0xFF) {
+            dest[dOff++] = (byte) 0xFF;
+            length -= 0xFF;
+        }
+        dest[dOff++] = (byte) length;
+        return dOff;
+    }
+
+    private static int readInt(byte[] buf, int off) {
+        return (buf[off] & 0xFF) | ((buf[off + 1] & 0xFF) << 8) | ((buf[off + 2] & 0xFF) << 16) | ((buf[off + 3] & 0xFF) << 24);
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+    private static IOException malformed(int position) {
+        return new IOException("Malformed LZ4 block at position " + position);
+    }
+}
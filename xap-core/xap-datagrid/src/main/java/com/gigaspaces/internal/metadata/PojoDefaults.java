@@ -36,4 +36,5 @@ public abstract class PojoDefaults {
     public static final StorageType STORAGE_TYPE = StorageType.DEFAULT;
     public static final boolean BLOBSTORE_ENABLED = true;
     public static final boolean BROADCAST = false;
+    public static final boolean DICTIONARY_ENCODING = false;
 }
@@ -127,6 +127,8 @@ public class SpaceTypeInfo implements SmartExternalizable {
 
     private Boolean _broadcast;
 
+    private Boolean _dictionaryEncoding;
+
     /**
      * Default constructor for externalizable.
      */
@@ -236,6 +238,10 @@ public class SpaceTypeInfo implements SmartExternalizable {
         return _broadcast;
     }
 
+    public boolean isDictionaryEncoding() {
+        return _dictionaryEncoding;
+    }
+
     public int getNumOfProperties() {
         return _properties.size();
     }
@@ -511,6 +517,9 @@ public class SpaceTypeInfo implements SmartExternalizable {
 
             if (_idAutoGenerate == null)
                 _idAutoGenerate = _superTypeInfo._idAutoGenerate;
+
+            if (_dictionaryEncoding == null)
+                _dictionaryEncoding = _superTypeInfo._dictionaryEncoding;
         }
 
         if (_idAutoGenerate == null)
@@ -518,6 +527,9 @@ public class SpaceTypeInfo implements SmartExternalizable {
 
         if(_broadcast == null)
             _broadcast = PojoDefaults.BROADCAST;
+
+        if (_dictionaryEncoding == null)
+            _dictionaryEncoding = PojoDefaults.DICTIONARY_ENCODING;
     }
 
     private SpacePropertyInfo updatePropertyBySuper(SpacePropertyInfo currProperty, SpacePropertyInfo superProperty) {
@@ -539,6 +551,7 @@ public class SpaceTypeInfo implements SmartExternalizable {
         _replicate = XmlUtils.getAttributeBoolean(classNode, "replicate");
         _blobstoreEnabled = XmlUtils.getAttributeBoolean(classNode, "blobstore-enabled");
         _broadcast = XmlUtils.getAttributeBoolean(classNode, "broadcast");
+        _dictionaryEncoding = XmlUtils.getAttributeBoolean(classNode, "dictionary-encoding");
         _fifoSupport = XmlUtils.getAttributeEnum(classNode, "fifo-support", FifoSupport.class);
         _inheritIndexes = XmlUtils.getAttributeBoolean(classNode, "inherit-indexes");
         _includeProperties = XmlUtils.getAttributeEnum(classNode, "include-properties", IncludeProperties.class);
@@ -809,6 +822,7 @@ public class SpaceTypeInfo implements SmartExternalizable {
             _storageType = classAnnotation.storageType();
             _blobstoreEnabled = classAnnotation.blobstoreEnabled();
             _broadcast = classAnnotation.broadcast();
+            _dictionaryEncoding = classAnnotation.dictionaryEncoding();
         }
         SpaceSystemClass systemClassAnnotation = _type.getAnnotation(SpaceSystemClass.class);
         if (systemClassAnnotation != null) {
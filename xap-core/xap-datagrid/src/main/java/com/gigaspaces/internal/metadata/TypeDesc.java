@@ -82,6 +82,7 @@ public class TypeDesc implements ITypeDesc {
     private ClassBinaryStorageAdapter classBinaryStorageAdapter;
     private int[] positionsForScanning;
     private boolean _broadcast;
+    private boolean _dictionaryEncoding;
 
     private int _sequenceNumberFixedPropertyPos;  //-1  if none
 
@@ -138,6 +139,23 @@ public class TypeDesc implements ITypeDesc {
                     Class<? extends ExternalEntry> externalEntryClass, Class<? extends SpaceDocument> documentWrapperClass,
                     String dotnetDocumentWrapperType, byte dotnetStorageType, boolean blobstoreEnabled, String sequenceNumberPropertyName,
                     TypeQueryExtensions queryExtensionsInfo, Class<? extends ClassBinaryStorageAdapter> binaryStorageAdapter,boolean broadcast) {
+        this(typeName, codeBase, superTypesNames, properties, supportsDynamicProperties, indexes, idPropertyName, idAutoGenerate,
+                defaultPropertyName, routingPropertyName, fifoGroupingName, fifoGroupingIndexes, systemType, fifoMode, replicable,
+                supportsOptimisticLocking, storageType, entryType, objectClass, externalEntryClass, documentWrapperClass,
+                dotnetDocumentWrapperType, dotnetStorageType, blobstoreEnabled, sequenceNumberPropertyName, queryExtensionsInfo,
+                binaryStorageAdapter, broadcast, false);
+    }
+
+    public TypeDesc(String typeName, String codeBase, String[] superTypesNames,
+                    PropertyInfo[] properties, boolean supportsDynamicProperties, Map<String, SpaceIndex> indexes,
+                    String idPropertyName, boolean idAutoGenerate, String defaultPropertyName, String routingPropertyName,
+                    String fifoGroupingName, Set<String> fifoGroupingIndexes,
+                    boolean systemType, FifoSupport fifoMode, boolean replicable, boolean supportsOptimisticLocking,
+                    StorageType storageType, EntryType entryType, Class<? extends Object> objectClass,
+                    Class<? extends ExternalEntry> externalEntryClass, Class<? extends SpaceDocument> documentWrapperClass,
+                    String dotnetDocumentWrapperType, byte dotnetStorageType, boolean blobstoreEnabled, String sequenceNumberPropertyName,
+                    TypeQueryExtensions queryExtensionsInfo, Class<? extends ClassBinaryStorageAdapter> binaryStorageAdapter, boolean broadcast,
+                    boolean dictionaryEncoding) {
         _typeName = typeName;
         _codeBase = codeBase;
         _superTypesNames = superTypesNames;
@@ -184,6 +202,7 @@ public class TypeDesc implements ITypeDesc {
         initializeV9_0_0();
         addFifoGroupingIndexesIfNeeded(_indexes, _fifoGroupingName, _fifoGroupingIndexes);
         _broadcast = broadcast;
+        _dictionaryEncoding = dictionaryEncoding;
     }
 
     private void initHybridProperties() {
@@ -251,6 +270,7 @@ public class TypeDesc implements ITypeDesc {
         newTypeDesc._blobstoreEnabled = this.isBlobstoreEnabled();
         newTypeDesc.queryExtensionsInfo = this.getQueryExtensions();
         newTypeDesc._broadcast = this.isBroadcast();
+        newTypeDesc._dictionaryEncoding = this.isDictionaryEncoding();
         newTypeDesc.classBinaryStorageAdapter = this.getClassBinaryStorageAdapter();
         newTypeDesc._sequenceNumberFixedPropertyPos = this._sequenceNumberFixedPropertyPos;
 
@@ -537,6 +557,11 @@ public class TypeDesc implements ITypeDesc {
         return _broadcast;
     }
 
+    @Override
+    public boolean isDictionaryEncoding() {
+        return _dictionaryEncoding;
+    }
+
     public EntryType getObjectType() {
         return _objectType;
     }
@@ -752,6 +777,7 @@ public class TypeDesc implements ITypeDesc {
         sb.append("replicatable=").append(_replicable).append(", ");
         sb.append("blobstoreEnabled=").append(_blobstoreEnabled).append(", ");
         sb.append("broadcast").append(_broadcast).append(", ");
+        sb.append("dictionaryEncoding=").append(_dictionaryEncoding).append(", ");
         sb.append("storageType=").append(_storageType).append(", ");
         sb.append("fifoSupport=").append(_fifoSupport).append(", ");
         sb.append("idPropertyName=").append(_idPropertyName).append(", ");
@@ -925,6 +951,11 @@ public class TypeDesc implements ITypeDesc {
         } else {
             _broadcast = false;
         }
+        // New in 16.0.0: dictionary encoding
+        if (version.greaterOrEquals(PlatformLogicalVersion.v16_0_0))
+            _dictionaryEncoding = in.readBoolean();
+        else
+            _dictionaryEncoding = false;
 
         initializeV9_0_0();
         initHybridProperties();
@@ -1268,6 +1299,9 @@ public class TypeDesc implements ITypeDesc {
                 IOUtils.writeString(out, null);
             }
         }
+        // New in 16.0.0: dictionary encoding
+        if (version.greaterOrEquals(PlatformLogicalVersion.v16_0_0))
+            out.writeBoolean(_dictionaryEncoding);
     }
 
     private void writeExternalV10_1(ObjectOutput out, PlatformLogicalVersion version, boolean swap) throws IOException {
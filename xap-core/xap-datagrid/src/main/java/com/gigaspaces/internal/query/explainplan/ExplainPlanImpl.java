@@ -151,6 +151,10 @@ public class ExplainPlanImpl implements ExplainPlan {
 
     protected void append(TextReportFormatter report, String partitionId, SingleExplainPlan singleExplainPlan) {
         report.line("Partition Id: " + partitionId);
+        if (singleExplainPlan.isResultCacheHit()) {
+            report.line("Result served from the query result cache");
+            return;
+        }
         final Map<String, List<IndexChoiceNode>> indexesInfo = singleExplainPlan.getIndexesInfo();
         final Map<String, ScanningInfo> scanningInfo = singleExplainPlan.getScanningInfo();
         if (indexesInfo.isEmpty()) {
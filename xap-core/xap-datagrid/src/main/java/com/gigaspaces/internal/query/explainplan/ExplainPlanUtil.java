@@ -158,6 +158,46 @@ public class ExplainPlanUtil {
         }
     }
 
+    /**
+     * Returns the query tree of the given template, or null if it has no criteria.
+     */
+    public static QueryOperationNode buildQueryTree(QueryTemplatePacket templatePacket) {
+        if (hasValue(templatePacket) || hasMatchCodes(templatePacket)) {
+            QueryOperationNode root = BuildMatchCodes(templatePacket);
+            if (templatePacket.getCustomQuery() != null) {
+                root.getChildren().add(buildQueryTree(templatePacket.getCustomQuery()));
+            }
+            return root;
+        }
+        if (templatePacket.getCustomQuery() != null) {
+            return buildQueryTree(templatePacket.getCustomQuery());
+        }
+        return null;
+    }
+
+    private static boolean hasValue(QueryTemplatePacket packet) {
+        Object[] fieldValues = packet.getFieldValues();
+        for (Object fieldValue : fieldValues) {
+            if(fieldValue != null)
+                return  true;
+        }
+
+        return false;
+    }
+
+    //GS-14491, added by Evgeny on 4.05 in order to display Filter's info in explain plan for IS NULL and NOT NULL operations
+    private static boolean hasMatchCodes(QueryTemplatePacket packet) {
+
+        short[] extendedMatchCodes = packet.getExtendedMatchCodes();
+        for (short extendedMatchCode : extendedMatchCodes) {
+            if(extendedMatchCode == TemplateMatchCodes.IS_NULL || extendedMatchCode == TemplateMatchCodes.NOT_NULL) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     public static QueryOperationNode buildQueryTree(ICustomQuery customQuery) {
         QueryOperationNode currentNode = QueryTypes.getNode(customQuery);
         List<ICustomQuery> subQueries = getSubQueries(customQuery);
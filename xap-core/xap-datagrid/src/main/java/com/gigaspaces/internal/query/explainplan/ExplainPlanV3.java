@@ -85,6 +85,7 @@ public class ExplainPlanV3 extends ExplainPlanImpl {
         final Map<String, List<IndexChoiceNode>> indexesInfo = singleExplainPlan.getIndexesInfo();
         indexInspection.setUsedTiers(singleExplainPlan.getTiersInfo().values().stream().flatMap(List::stream).collect(Collectors.toList()));
         indexInspection.setPartition(partitionId);
+        indexInspection.setResultCacheHit(singleExplainPlan.isResultCacheHit());
         indexInspection.setAggregators(singleExplainPlan.getAggregatorsInfo().entrySet().stream()
                 .map((entry) -> new Pair<String, String>(entry.getKey(), String.join(", ", entry.getValue())))
                 .collect(Collectors.toList()));
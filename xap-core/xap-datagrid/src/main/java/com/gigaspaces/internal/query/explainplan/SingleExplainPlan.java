@@ -47,6 +47,7 @@ public class SingleExplainPlan implements SmartExternalizable {
     private Map<String, ScanningInfo> scanningInfo; // Pair = (int scanned, int matched)
     private Map<String, List<String>> tiersInfo;
     private Map<String, List<String>> aggregatorsInfo;
+    private boolean resultCacheHit;
 
     public SingleExplainPlan() {
         this.scanningInfo = new HashMap<>();
@@ -99,6 +100,18 @@ public class SingleExplainPlan implements SmartExternalizable {
         return partitionId;
     }
 
+    /**
+     * Returns true if the partition served the query result from its query result cache, in which
+     * case there is no index and scanning info.
+     */
+    public boolean isResultCacheHit() {
+        return resultCacheHit;
+    }
+
+    public void setResultCacheHit(boolean resultCacheHit) {
+        this.resultCacheHit = resultCacheHit;
+    }
+
     public QueryOperationNode getRoot() {
         return root;
     }
@@ -189,6 +202,9 @@ public class SingleExplainPlan implements SmartExternalizable {
         if (!Objects.equals(aggregatorsInfo, that.aggregatorsInfo)) {
             return false;
         }
+        if (resultCacheHit != that.resultCacheHit) {
+            return false;
+        }
         return Objects.equals(scanningInfo, that.scanningInfo);
     }
 
@@ -200,6 +216,7 @@ public class SingleExplainPlan implements SmartExternalizable {
         result = 31 * result + (scanningInfo != null ? scanningInfo.hashCode() : 0);
         result = 31 * result + (tiersInfo != null ? tiersInfo.hashCode() : 0);
         result = 31 * result + (aggregatorsInfo != null ? aggregatorsInfo.hashCode() : 0);
+        result = 31 * result + (resultCacheHit ? 1 : 0);
         return result;
     }
 
@@ -213,6 +230,9 @@ public class SingleExplainPlan implements SmartExternalizable {
             IOUtils.writeMapStringListString(objectOutput, tiersInfo);
         }
         IOUtils.writeMapStringListString(objectOutput, aggregatorsInfo);
+        if(LRMIInvocationContext.getEndpointLogicalVersion().greaterOrEquals(PlatformLogicalVersion.v16_0_0)){
+            objectOutput.writeBoolean(resultCacheHit);
+        }
     }
 
     private void writeScannigInfo(ObjectOutput objectOutput) throws IOException {
@@ -250,6 +270,9 @@ public class SingleExplainPlan implements SmartExternalizable {
             this.tiersInfo = IOUtils.readMapStringListString(objectInput);
         }
         this.aggregatorsInfo = IOUtils.readMapStringListString(objectInput);
+        if(LRMIInvocationContext.getEndpointLogicalVersion().greaterOrEquals(PlatformLogicalVersion.v16_0_0)){
+            this.resultCacheHit = objectInput.readBoolean();
+        }
     }
 
     private Map<String, ScanningInfo> readScanningInfo(ObjectInput objectInput) throws IOException, ClassNotFoundException {
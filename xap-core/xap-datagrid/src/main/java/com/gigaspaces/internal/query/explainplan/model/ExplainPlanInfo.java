@@ -79,6 +79,14 @@ public class ExplainPlanInfo extends JdbcExplainPlan {
             formatter.line("Execution type: " + "Single Partition");
         }
 
+        String resultCachePartitions = indexInspectionsPerPartition.stream()
+                .filter(PartitionIndexInspectionDetail::isResultCacheHit)
+                .map(PartitionIndexInspectionDetail::getPartition)
+                .collect(joining(", "));
+        if (notEmpty(resultCachePartitions)) {
+            formatter.line(String.format("Result cache hit: [%s]", resultCachePartitions));
+        }
+
         if (!verbose) {
             Map<PartitionFinalSelectedIndexes, List<PartitionAndSizes>> groupedSelectedIndexes = getFinalSelectedIndexesMap().entrySet().stream().collect(
                     groupingBy(Map.Entry::getValue
@@ -15,6 +15,7 @@ public class PartitionIndexInspectionDetail {
     private List<IndexChoiceDetail> indexes;
     private List<String> usedTiers;
     private List<Pair<String, String>> aggregators;
+    private boolean resultCacheHit;
 
     public PartitionIndexInspectionDetail() {
     }
@@ -50,4 +51,12 @@ public class PartitionIndexInspectionDetail {
     public void setAggregators(List<Pair<String, String>> aggregators) {
         this.aggregators = aggregators;
     }
+
+    public boolean isResultCacheHit() {
+        return resultCacheHit;
+    }
+
+    public void setResultCacheHit(boolean resultCacheHit) {
+        this.resultCacheHit = resultCacheHit;
+    }
 }
@@ -17,6 +17,7 @@
 package com.gigaspaces.internal.server.metadata;
 
 import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.gigaspaces.internal.server.storage.PropertyValueDictionary;
 import com.gigaspaces.metrics.LongCounter;
 
 /**
@@ -66,4 +67,11 @@ public interface IServerTypeDesc {
     LongCounter getReadCounter();
 
     LongCounter getRAMReadCounter();
+
+    /**
+     * @return the dictionary of the fixed property values of this type, or null if the type is not
+     * dictionary encoded
+     * @since 16.0
+     */
+    PropertyValueDictionary getPropertyValueDictionary();
 }
@@ -191,6 +191,11 @@ import java.util.Set;
        return false;
     }
 
+    @Override
+    public boolean isDictionaryEncoding() {
+        return false;
+    }
+
 
     public boolean supportsDynamicProperties() {
         throw new UnsupportedOperationException();
@@ -17,6 +17,9 @@
 package com.gigaspaces.internal.server.space;
 
 import com.gigaspaces.internal.transport.ITemplatePacket;
+import com.j_spaces.core.cache.IEntryCacheInfo;
+import com.j_spaces.core.sadapter.SAException;
+import com.j_spaces.kernel.list.IScanListIterator;
 
 import java.util.HashSet;
 
@@ -26,8 +29,29 @@ import java.util.HashSet;
 @com.gigaspaces.api.InternalApi
 public class AggregateOperationContext extends BatchQueryOperationContext {
 
+    private final int _slice;
+    private final AggregationScanSlices _slices;
+
     public AggregateOperationContext(ITemplatePacket template, int maxEntries, int minEntries) {
+        this(template, maxEntries, minEntries, 0, null);
+    }
+
+    /**
+     * Creates a context which aggregates only the given slice of the candidate entries, the
+     * candidates are split between the slices by the given shared slices.
+     */
+    public AggregateOperationContext(ITemplatePacket template, int maxEntries, int minEntries, int slice, AggregationScanSlices slices) {
         super(template, maxEntries, minEntries);
+        this._slice = slice;
+        this._slices = slices;
+    }
+
+    @Override
+    public IScanListIterator<IEntryCacheInfo> getScanSlice(String typeName, IScanListIterator<IEntryCacheInfo> toScan)
+            throws SAException {
+        if (_slices == null)
+            return toScan;
+        return _slices.getSlice(typeName, toScan, _slice);
     }
 
     @Override
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space;
+
+import com.j_spaces.core.cache.IEntryCacheInfo;
+import com.j_spaces.core.sadapter.SAException;
+import com.j_spaces.kernel.list.IScanListIterator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The candidate entries of a parallel aggregation, shared by its slices. The first slice which
+ * scans a type collects the candidate entries of the type once, and each slice scans only its own
+ * contiguous range of them, so the slices match disjoint entries without walking the candidates of
+ * the other slices.
+ *
+ * @since 16.0
+ */
+@com.gigaspaces.api.InternalApi
+public class AggregationScanSlices {
+
+    private final int _slices;
+    private final Map<String, Candidates> _candidates = new HashMap<String, Candidates>();
+
+    public AggregationScanSlices(int slices) {
+        this._slices = slices;
+    }
+
+    public int getSlices() {
+        return _slices;
+    }
+
+    /**
+     * Returns the given slice of the candidate entries of the given type. The candidates are
+     * collected from the given scan by the first slice, the scans of the other slices are released.
+     */
+    public IScanListIterator<IEntryCacheInfo> getSlice(String typeName, IScanListIterator<IEntryCacheInfo> toScan, int slice)
+            throws SAException {
+        Candidates candidates;
+        synchronized (_candidates) {
+            candidates = _candidates.get(typeName);
+            if (candidates == null) {
+                candidates = new Candidates();
+                _candidates.put(typeName, candidates);
+            }
+        }
+        synchronized (candidates) {
+            if (candidates._entries == null)
+                candidates.collect(toScan);
+            else if (toScan.isIterator())
+                toScan.releaseScan();
+        }
+        final int size = candidates._entries.length;
+        return new SliceIterator(candidates, (int) ((long) size * slice / _slices), (int) ((long) size * (slice + 1) / _slices));
+    }
+
+    private static class Candidates {
+        private IEntryCacheInfo[] _entries;
+        private boolean _alreadyMatched;
+        private int _alreadyMatchedFixedPropertyIndexPos = -1;
+        private String _alreadyMatchedIndexPath;
+
+        private void collect(IScanListIterator<IEntryCacheInfo> toScan) throws SAException {
+            if (!toScan.isIterator()) {
+                _entries = new IEntryCacheInfo[]{toScan.next()};
+                return;
+            }
+            try {
+                // a scan of several index lists may return an entry more than once
+                final Set<IEntryCacheInfo> collected = toScan.isMultiListsIterator()
+                        ? Collections.newSetFromMap(new IdentityHashMap<IEntryCacheInfo, Boolean>()) : null;
+                final List<IEntryCacheInfo> entries = new ArrayList<IEntryCacheInfo>();
+                while (toScan.hasNext()) {
+                    IEntryCacheInfo pEntry = toScan.next();
+                    if (pEntry != null && (collected == null || collected.add(pEntry)))
+                        entries.add(pEntry);
+                }
+                _alreadyMatched = toScan.isAlreadyMatched();
+                _alreadyMatchedFixedPropertyIndexPos = toScan.getAlreadyMatchedFixedPropertyIndexPos();
+                _alreadyMatchedIndexPath = toScan.getAlreadyMatchedIndexPath();
+                _entries = entries.toArray(new IEntryCacheInfo[entries.size()]);
+            } finally {
+                toScan.releaseScan();
+            }
+        }
+    }
+
+    private static class SliceIterator implements IScanListIterator<IEntryCacheInfo> {
+        private final Candidates _candidates;
+        private final int _end;
+        private int _nextPos;
+
+        private SliceIterator(Candidates candidates, int start, int end) {
+            this._candidates = candidates;
+            this._nextPos = start;
+            this._end = end;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return _nextPos < _end;
+        }
+
+        @Override
+        public IEntryCacheInfo next() {
+            return _candidates._entries[_nextPos++];
+        }
+
+        @Override
+        public void releaseScan() {
+        }
+
+        @Override
+        public int getAlreadyMatchedFixedPropertyIndexPos() {
+            return _candidates._alreadyMatchedFixedPropertyIndexPos;
+        }
+
+        @Override
+        public String getAlreadyMatchedIndexPath() {
+            return _candidates._alreadyMatchedIndexPath;
+        }
+
+        @Override
+        public boolean isAlreadyMatched() {
+            return _candidates._alreadyMatched;
+        }
+
+        @Override
+        public boolean isIterator() {
+            return true;
+        }
+    }
+}
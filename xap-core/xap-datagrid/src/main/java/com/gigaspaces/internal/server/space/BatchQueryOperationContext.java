@@ -20,6 +20,9 @@ import com.gigaspaces.internal.server.storage.ITemplateHolder;
 import com.gigaspaces.internal.transport.IEntryPacket;
 import com.gigaspaces.internal.transport.ITemplatePacket;
 import com.gigaspaces.internal.transport.TemplatePacketFactory;
+import com.j_spaces.core.cache.IEntryCacheInfo;
+import com.j_spaces.core.sadapter.SAException;
+import com.j_spaces.kernel.list.IScanListIterator;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -151,6 +154,15 @@ public abstract class BatchQueryOperationContext {
     protected void createProcessedUidsIfNeeded() {
     }
 
+    /**
+     * Returns the part of the given candidate entries of the given type this operation should scan,
+     * used to split a scan between several operations.
+     */
+    public IScanListIterator<IEntryCacheInfo> getScanSlice(String typeName, IScanListIterator<IEntryCacheInfo> toScan)
+            throws SAException {
+        return toScan;
+    }
+
     public boolean isInProcessedUids(String uid) {
         return (_processedUids != null && _processedUids.contains(uid));
     }
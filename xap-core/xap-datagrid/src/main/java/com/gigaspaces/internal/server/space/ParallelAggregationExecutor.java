@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space;
+
+import com.gigaspaces.logger.Constants;
+import com.gigaspaces.metrics.Gauge;
+import com.gigaspaces.metrics.LongCounter;
+import com.gigaspaces.metrics.MetricRegistrator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+
+import static com.j_spaces.core.Constants.Engine.*;
+
+/**
+ * Executes the scan of large aggregations in parallel - the candidate entries are split to
+ * contiguous slices (see {@link AggregationScanSlices}), each slice is aggregated by a separate task
+ * with its own aggregators, and the partial results are merged by the caller. Aggregations of types with less than twice the
+ * configured threshold of entries are executed by the calling thread.
+ *
+ * @since 16.0
+ */
+@com.gigaspaces.api.InternalApi
+public class ParallelAggregationExecutor {
+    private static final Logger _logger = LoggerFactory.getLogger(Constants.LOGGER_ENGINE);
+
+    private final int _parallelism;
+    private final int _threshold;
+    private final ForkJoinPool _pool;
+    private final LongCounter _parallelAggregations = new LongCounter();
+    private final LongCounter _parallelTasks = new LongCounter();
+    private volatile int _lastParallelism = 1;
+
+    public ParallelAggregationExecutor(SpaceConfigReader configReader, final String spaceName) {
+        _parallelism = configReader.getIntSpaceProperty(ENGINE_AGGREGATION_PARALLELISM_PROP, ENGINE_AGGREGATION_PARALLELISM_DEFAULT);
+        _threshold = Math.max(1, configReader.getIntSpaceProperty(ENGINE_AGGREGATION_PARALLEL_THRESHOLD_PROP, ENGINE_AGGREGATION_PARALLEL_THRESHOLD_DEFAULT));
+        if (_parallelism > 1) {
+            _pool = new ForkJoinPool(_parallelism, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+                @Override
+                public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName(spaceName + "-aggregation-" + thread.getPoolIndex());
+                    return thread;
+                }
+            }, null, false);
+            if (_logger.isDebugEnabled())
+                _logger.debug("Parallel aggregation is enabled [parallelism=" + _parallelism + ", threshold=" + _threshold + "]");
+        } else {
+            _pool = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return _pool != null;
+    }
+
+    public void registerMetrics(MetricRegistrator registrator) {
+        registrator.register("parallel-aggregations", _parallelAggregations);
+        registrator.register("parallel-aggregation-tasks", _parallelTasks);
+        registrator.register("aggregation-parallelism", new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return _lastParallelism;
+            }
+        });
+    }
+
+    /**
+     * Returns the number of slices an aggregation over the given number of entries should be split
+     * to, 1 means it should not be executed in parallel.
+     */
+    public int getParallelism(int numOfEntries) {
+        if (_pool == null)
+            return 1;
+        return Math.max(1, Math.min(_parallelism, numOfEntries / _threshold));
+    }
+
+    /**
+     * Executes the given tasks in parallel and returns their results, if a task fails its exception
+     * is thrown after all the tasks completed.
+     */
+    public <T> List<T> execute(List<Callable<T>> tasks) throws Exception {
+        _parallelAggregations.inc();
+        _parallelTasks.inc(tasks.size());
+        _lastParallelism = tasks.size();
+
+        List<Future<T>> futures = _pool.invokeAll(tasks);
+        List<T> results = new ArrayList<T>(futures.size());
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception)
+                    throw (Exception) e.getCause();
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    int getLastParallelism() {
+        return _lastParallelism;
+    }
+
+    public void close() {
+        if (_pool != null)
+            _pool.shutdownNow();
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space;
+
+import com.gigaspaces.internal.io.PooledObjectConverter;
+import com.gigaspaces.internal.server.metadata.IServerTypeDesc;
+import com.gigaspaces.internal.transport.IEntryPacket;
+import com.gigaspaces.internal.transport.ITemplatePacket;
+import com.gigaspaces.logger.Constants;
+import com.gigaspaces.metrics.LongCounter;
+import com.gigaspaces.metrics.MetricRegistrator;
+import com.gigaspaces.time.SystemTime;
+import com.j_spaces.core.OperationID;
+import com.j_spaces.core.client.Modifiers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.j_spaces.core.Constants.Engine.*;
+
+/**
+ * An opt-in cache of read multiple results, for types which are repeatedly queried with the same
+ * templates. Results are cached per type in an LRU map, keyed by the serialized template (without
+ * its operation id) and the operation parameters. <p/> Each cached type has a modification counter
+ * which the {@link com.j_spaces.core.cache.CacheManager} increments after an entry of the type (or
+ * of one of its sub types) is inserted, updated or removed, and the cache has a counter which is
+ * incremented whenever a transaction starts or ends. A result is served only if none of these
+ * counters changed since it was computed, and only until the earliest lease of its entries
+ * expires.
+ *
+ * @since 16.0
+ */
+@com.gigaspaces.api.InternalApi
+public class QueryResultCache {
+    private static final Logger _logger = LoggerFactory.getLogger(Constants.LOGGER_ENGINE);
+
+    private final Map<String, TypeResults> _types = new HashMap<String, TypeResults>();
+    private final int _maxResultSize;
+    private final AtomicLong _transactionsCounter = new AtomicLong();
+    private final LongCounter _hits = new LongCounter();
+    private final LongCounter _misses = new LongCounter();
+
+    public QueryResultCache(SpaceConfigReader configReader) {
+        Set<String> typeNames = configReader.getSetSpaceProperty(ENGINE_QUERY_RESULT_CACHE_TYPES_PROP, ENGINE_QUERY_RESULT_CACHE_TYPES_DEFAULT, ",");
+        int size = configReader.getIntSpaceProperty(ENGINE_QUERY_RESULT_CACHE_SIZE_PROP, ENGINE_QUERY_RESULT_CACHE_SIZE_DEFAULT);
+        _maxResultSize = configReader.getIntSpaceProperty(ENGINE_QUERY_RESULT_CACHE_MAX_RESULT_SIZE_PROP, ENGINE_QUERY_RESULT_CACHE_MAX_RESULT_SIZE_DEFAULT);
+        if (typeNames != null && size > 0) {
+            for (String typeName : typeNames)
+                _types.put(typeName, new TypeResults(size));
+            if (_logger.isDebugEnabled())
+                _logger.debug("Query result cache is enabled for types " + typeNames + " [size=" + size + ", max-result-size=" + _maxResultSize + "]");
+        }
+    }
+
+    public boolean isEnabled() {
+        return !_types.isEmpty();
+    }
+
+    public void registerMetrics(MetricRegistrator registrator) {
+        registrator.register("query-result-cache-hits", _hits);
+        registrator.register("query-result-cache-misses", _misses);
+    }
+
+    long getHits() {
+        return _hits.getCount();
+    }
+
+    long getMisses() {
+        return _misses.getCount();
+    }
+
+    /**
+     * Invalidates the cached results of the given type and its super types, called after an entry
+     * of the type was inserted, updated or removed.
+     */
+    public void onEntryModified(IServerTypeDesc serverTypeDesc) {
+        if (_types.isEmpty())
+            return;
+        for (IServerTypeDesc superType : serverTypeDesc.getSuperTypes()) {
+            TypeResults typeResults = _types.get(superType.getTypeName());
+            if (typeResults != null)
+                typeResults._modifications.incrementAndGet();
+        }
+    }
+
+    /**
+     * Invalidates all the cached results, called when a transaction starts or ends.
+     */
+    public void onTransactionsModified() {
+        if (!_types.isEmpty())
+            _transactionsCounter.incrementAndGet();
+    }
+
+    /**
+     * Returns the key of the given query result, or null if the query type is not cached. The key
+     * captures the current modification counters, so it must be created before the query is
+     * executed (and before checking that no transaction is active).
+     */
+    public Key createKey(ITemplatePacket template, int maxEntries, int modifiers, boolean returnOnlyUid) {
+        TypeResults typeResults = template.getTypeName() != null ? _types.get(template.getTypeName()) : null;
+        if (typeResults == null)
+            return null;
+        long modifications = typeResults._modifications.get();
+        long transactions = _transactionsCounter.get();
+
+        byte[] serializedTemplate;
+        OperationID operationID = template.getOperationID();
+        template.setOperationID(null);
+        try {
+            serializedTemplate = PooledObjectConverter.serialize(template);
+        } catch (Exception e) {
+            if (_logger.isDebugEnabled())
+                _logger.debug("Query of type " + template.getTypeName() + " is not cached - failed to serialize its template", e);
+            return null;
+        } finally {
+            template.setOperationID(operationID);
+        }
+        return new Key(typeResults, serializedTemplate, maxEntries, Modifiers.remove(modifiers, Modifiers.EXPLAIN_PLAN), returnOnlyUid,
+                modifications, transactions);
+    }
+
+    /**
+     * Returns the cached result of the given key, or null if it is not cached or no longer valid.
+     */
+    public Result get(Key key) {
+        Result result;
+        synchronized (key._typeResults) {
+            result = key._typeResults.get(key);
+        }
+        if (result != null && result._modifications == key._modifications && result._transactions == key._transactions
+                && SystemTime.timeMillis() < result._validUntil) {
+            _hits.inc();
+            return result;
+        }
+        _misses.inc();
+        return null;
+    }
+
+    /**
+     * Caches the result of the query executed with the given key, unless the type was modified
+     * meanwhile.
+     */
+    public void put(Key key, IEntryPacket[] entryPackets, IServerTypeDesc serverTypeDesc) {
+        if (entryPackets.length > _maxResultSize)
+            return;
+        final long now = SystemTime.timeMillis();
+        long validUntil = Long.MAX_VALUE;
+        IEntryPacket[] copy = new IEntryPacket[entryPackets.length];
+        for (int i = 0; i < entryPackets.length; i++) {
+            long timeToLive = entryPackets[i].getTTL();
+            if (timeToLive <= 0)
+                return;
+            if (timeToLive != Long.MAX_VALUE)
+                validUntil = Math.min(validUntil, now + timeToLive);
+            copy[i] = entryPackets[i].clone();
+        }
+        if (key._typeResults._modifications.get() != key._modifications || _transactionsCounter.get() != key._transactions)
+            return;
+        Result result = new Result(copy, serverTypeDesc, key._modifications, key._transactions, validUntil);
+        synchronized (key._typeResults) {
+            key._typeResults.put(key, result);
+        }
+    }
+
+    private static class TypeResults extends LinkedHashMap<Key, Result> {
+        private static final long serialVersionUID = 1L;
+
+        private final int _maxSize;
+        private final AtomicLong _modifications = new AtomicLong();
+
+        private TypeResults(int maxSize) {
+            super(16, 0.75f, true /*accessOrder*/);
+            this._maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Result> eldest) {
+            return size() > _maxSize;
+        }
+    }
+
+    public static class Key {
+        private final TypeResults _typeResults;
+        private final byte[] _serializedTemplate;
+        private final int _maxEntries;
+        private final int _modifiers;
+        private final boolean _returnOnlyUid;
+        private final long _modifications;
+        private final long _transactions;
+        private final int _hashCode;
+
+        private Key(TypeResults typeResults, byte[] serializedTemplate, int maxEntries, int modifiers, boolean returnOnlyUid,
+                    long modifications, long transactions) {
+            this._typeResults = typeResults;
+            this._serializedTemplate = serializedTemplate;
+            this._maxEntries = maxEntries;
+            this._modifiers = modifiers;
+            this._returnOnlyUid = returnOnlyUid;
+            this._modifications = modifications;
+            this._transactions = transactions;
+            this._hashCode = 31 * (31 * (31 * Arrays.hashCode(serializedTemplate) + maxEntries) + modifiers) + (returnOnlyUid ? 1 : 0);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key other = (Key) o;
+            return _hashCode == other._hashCode && _maxEntries == other._maxEntries && _modifiers == other._modifiers
+                    && _returnOnlyUid == other._returnOnlyUid && Arrays.equals(_serializedTemplate, other._serializedTemplate);
+        }
+
+        @Override
+        public int hashCode() {
+            return _hashCode;
+        }
+    }
+
+    public static class Result {
+        private final IEntryPacket[] _entryPackets;
+        private final IServerTypeDesc _serverTypeDesc;
+        private final long _modifications;
+        private final long _transactions;
+        private final long _validUntil;
+
+        private Result(IEntryPacket[] entryPackets, IServerTypeDesc serverTypeDesc, long modifications, long transactions, long validUntil) {
+            this._entryPackets = entryPackets;
+            this._serverTypeDesc = serverTypeDesc;
+            this._modifications = modifications;
+            this._transactions = transactions;
+            this._validUntil = validUntil;
+        }
+
+        /**
+         * Returns a copy of the cached entries, which the caller may modify.
+         */
+        public IEntryPacket[] getEntryPackets() {
+            IEntryPacket[] entryPackets = new IEntryPacket[_entryPackets.length];
+            for (int i = 0; i < entryPackets.length; i++)
+                entryPackets[i] = _entryPackets[i].clone();
+            return entryPackets;
+        }
+
+        public IServerTypeDesc getServerTypeDesc() {
+            return _serverTypeDesc;
+        }
+    }
+}
@@ -77,6 +77,8 @@ import com.gigaspaces.internal.remoting.routing.partitioned.PartitionedClusterUt
 import com.gigaspaces.internal.server.metadata.AddTypeDescResult;
 import com.gigaspaces.internal.server.metadata.AddTypeDescResultType;
 import com.gigaspaces.internal.server.metadata.IServerTypeDesc;
+import com.gigaspaces.internal.server.space.broadcast_table.BroadcastTableAsyncPusher;
+import com.gigaspaces.internal.server.space.broadcast_table.BroadcastTableHandler;
 import com.gigaspaces.internal.server.space.events.SpaceDataEventManager;
 import com.gigaspaces.internal.server.space.iterator.ServerIteratorInfo;
 import com.gigaspaces.internal.server.space.iterator.ServerIteratorRequestInfo;
@@ -85,9 +87,11 @@ import com.gigaspaces.internal.server.space.metadata.ServerTypeDesc;
 import com.gigaspaces.internal.server.space.metadata.SpaceTypeManager;
 import com.gigaspaces.internal.server.space.operations.WriteEntriesResult;
 import com.gigaspaces.internal.server.space.operations.WriteEntryResult;
+import com.gigaspaces.internal.server.space.recovery.checkpoint.BackupCheckpointHandler;
 import com.gigaspaces.internal.server.space.recovery.direct_persistency.StorageConsistencyModes;
 import com.gigaspaces.internal.server.space.replication.SpaceReplicationInitializer;
 import com.gigaspaces.internal.server.space.replication.SpaceReplicationManager;
+import com.gigaspaces.internal.server.space.repartitioning.ChunksChangeCapture;
 import com.gigaspaces.internal.server.space.tiered_storage.*;
 import com.gigaspaces.internal.server.space.tiered_storage.error.TieredStorageConfigException;
 import com.gigaspaces.internal.server.storage.*;
@@ -97,6 +101,7 @@ import com.gigaspaces.internal.sync.hybrid.SyncHybridTransactionException;
 import com.gigaspaces.internal.transport.*;
 import com.gigaspaces.internal.utils.StringUtils;
 import com.gigaspaces.internal.utils.collections.IAddOnlySet;
+import com.gigaspaces.internal.utils.concurrent.VirtualThreads;
 import com.gigaspaces.logger.LogLevel;
 import com.gigaspaces.lrmi.LRMIRuntime;
 import com.gigaspaces.lrmi.TransportProtocolHelper;
@@ -104,6 +109,7 @@ import com.gigaspaces.lrmi.nio.IResponseContext;
 import com.gigaspaces.lrmi.nio.ResponseContext;
 import com.gigaspaces.management.space.SpaceQueryDetails;
 import com.gigaspaces.metrics.*;
+import com.gigaspaces.query.aggregators.AggregationInternalUtils;
 import com.gigaspaces.query.aggregators.DistinctAggregator;
 import com.gigaspaces.query.aggregators.OrderByAggregator;
 import com.gigaspaces.query.aggregators.SpaceEntriesAggregator;
@@ -160,8 +166,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.transaction.xa.Xid;
+import java.io.Serializable;
 import java.rmi.RemoteException;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
@@ -185,6 +193,9 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
     private final FifoException _fifoException = new FifoException();
     //---------------  constant exceptions ---------------
 
+    //number of times a non-blocking read of a concurrently modified entry is retried before locking it
+    private final static int OPTIMISTIC_READ_ATTEMPTS = 8;
+
     private final SpaceImpl _spaceImpl;
     private final String _spaceName;
     private final String _containerName;
@@ -209,6 +220,7 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
     private final SpaceReplicationManager _replicationManager;
     private final TransactionHandler _transactionHandler;
     private final CacheManager _cacheManager;
+    private final BackupCheckpointHandler _backupCheckpointHandler;
     private final FilterManager _filterManager;
     private final SpaceDataEventManager _dataEventManager;
     private final TemplateScanner _templateScanner;
@@ -261,6 +273,7 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
      * Synchronize replication, if true synchronize replication enabled.
      */
     private final boolean _isSyncReplication;
+    private final boolean _pinsVirtualThreads;
     private final IDuplicateOperationFilter _duplicateOperationIDFilter;
     private boolean _coldStart;
 
@@ -275,8 +288,12 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
 
     private final int _resultsSizeLimit;
     private final int _resultsSizeLimitMemoryCheckBatchSize;
+    private final QueryResultCache _queryResultCache;
+    private final ParallelAggregationExecutor _parallelAggregationExecutor;
+    private final boolean _tieredStorageAggregationPushDown;
 
     private TieredStorageManager tieredStorageManager;
+    private volatile ChunksChangeCapture _chunksChangeCapture;
 
     public SpaceEngine(SpaceImpl spaceImpl) throws CreateException, RemoteException {
         _logger = LoggerFactory.getLogger(com.gigaspaces.logger.Constants.LOGGER_ENGINE + "." + spaceImpl.getNodeName());
@@ -314,6 +331,9 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
         _uidFactory = new SpaceUidFactory(extractMemberIdFromContainer(spaceImpl));
 
         _directProxy = spaceImpl.getSingleProxy();
+        _queryResultCache = new QueryResultCache(_configReader);
+        _parallelAggregationExecutor = new ParallelAggregationExecutor(_configReader, getFullSpaceName());
+        _tieredStorageAggregationPushDown = _configReader.getBooleanSpaceProperty(TIERED_STORAGE_AGGREGATION_PUSH_DOWN_PROP, TIERED_STORAGE_AGGREGATION_PUSH_DOWN_DEFAULT);
 
         try {
             initTieredStorageManager();
@@ -350,6 +370,17 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
 
         _cacheManager = new CacheManager(_configReader, _clusterPolicy, _typeManager,
                 _replicationManager.getReplicationNode(), storageAdapter, this, _spaceImpl.getCustomProperties());
+        // storage I/O under entry locks would pin virtual threads to their carriers
+        _pinsVirtualThreads = VirtualThreads.isEnabled() && (!_cacheManager.isMemorySpace() || _cacheManager.isBlobStoreCachePolicy() || _cacheManager.isTieredStorage());
+        if (_pinsVirtualThreads) {
+            final String reason = "space " + getFullSpaceName() + " is not a memory space";
+            LRMIRuntime.getRuntime().disableVirtualThreads(reason);
+            _replicationManager.getReplicationNode().disableVirtualThreads(reason);
+        }
+        final String backupCheckpointDir = System.getProperty(SystemProperties.REPLICATION_BACKUP_CHECKPOINT_DIR);
+        _backupCheckpointHandler = backupCheckpointDir != null && _isReplicated && _clusterPolicy != null && _clusterPolicy.isPrimaryElectionAvailable()
+                && _cacheManager.isMemorySpace() && !_cacheManager.isBlobStoreCachePolicy() && !_cacheManager.isTieredStorage()
+                ? new BackupCheckpointHandler(this, backupCheckpointDir) : null;
 
         // create and start working groups
         final int minThreads = _configReader.getIntSpaceProperty(ENGINE_MIN_THREADS_PROP, ENGINE_MIN_THREADS_DEFAULT);
@@ -391,12 +422,32 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
             String className = System.getProperty(TIERED_STORAGE_INTERNAL_RDBMS_CLASS_PROP, TIERED_STORAGE_INTERNAL_RDBMS_CLASS_DEFAULT);
             InternalRDBMS rdbms = ClassLoaderHelper.newInstance(className);
             rdbms.setLogger(_fullSpaceName);
-            InternalRDBMSManager internalRDBMSManager = new InternalRDBMSManager(rdbms);
+            InternalRDBMSManager internalRDBMSManager = new InternalRDBMSManager(rdbms, createTieredStorageWriteBehind(rdbms), createTieredStorageAdmission());
             this.tieredStorageManager = new TieredStorageManagerImpl(storageConfig, internalRDBMSManager, _fullSpaceName);
         }
     }
 
 
+    private TieredStorageAdmission createTieredStorageAdmission() {
+        if (!_configReader.getBooleanSpaceProperty(TIERED_STORAGE_ADMISSION_ENABLED_PROP, TIERED_STORAGE_ADMISSION_ENABLED_DEFAULT))
+            return null;
+        int maxEntries = _configReader.getIntSpaceProperty(TIERED_STORAGE_ADMISSION_MAX_ENTRIES_PROP, TIERED_STORAGE_ADMISSION_MAX_ENTRIES_DEFAULT);
+        int minFrequency = _configReader.getIntSpaceProperty(TIERED_STORAGE_ADMISSION_MIN_FREQUENCY_PROP, TIERED_STORAGE_ADMISSION_MIN_FREQUENCY_DEFAULT);
+        long demotionInterval = _configReader.getLongSpaceProperty(TIERED_STORAGE_ADMISSION_DEMOTION_INTERVAL_PROP, TIERED_STORAGE_ADMISSION_DEMOTION_INTERVAL_DEFAULT);
+        return new TieredStorageAdmission(maxEntries, minFrequency, demotionInterval, LoggerFactory.getLogger(getLoggerName(_fullSpaceName)));
+    }
+
+    private TieredStorageWriteBehind createTieredStorageWriteBehind(InternalRDBMS rdbms) {
+        TieredStorageWriteBehind.Mode mode = TieredStorageWriteBehind.Mode.parse(_configReader.getSpaceProperty(
+                TIERED_STORAGE_WRITE_BEHIND_MODE_PROP, TIERED_STORAGE_WRITE_BEHIND_MODE_DEFAULT));
+        if (mode == TieredStorageWriteBehind.Mode.OFF)
+            return null;
+        long flushInterval = _configReader.getLongSpaceProperty(TIERED_STORAGE_WRITE_BEHIND_FLUSH_INTERVAL_PROP, TIERED_STORAGE_WRITE_BEHIND_FLUSH_INTERVAL_DEFAULT);
+        int maxBatchSize = _configReader.getIntSpaceProperty(TIERED_STORAGE_WRITE_BEHIND_MAX_BATCH_SIZE_PROP, TIERED_STORAGE_WRITE_BEHIND_MAX_BATCH_SIZE_DEFAULT);
+        return new TieredStorageWriteBehind(rdbms, mode, flushInterval, maxBatchSize,
+                LoggerFactory.getLogger(getLoggerName(_fullSpaceName)), _fullSpaceName);
+    }
+
     private void validateTieredStorage(TieredStorageConfig storageConfig) {
         for (TieredStorageTableConfig tableConfig : storageConfig.getTables().values()) {
             if(tableConfig.isTransient()){
@@ -512,6 +563,51 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
                 return countTransactions(TransactionInfo.Types.ALL, TransactionConstants.ACTIVE);
             }
         });
+
+        _spaceImpl.getOperationsExecutor().registerMetrics(registrator.extend(MetricConstants.OPERATIONS_METRIC_NAME));
+        if (_queryResultCache.isEnabled())
+            _queryResultCache.registerMetrics(registrator.extend(MetricConstants.OPERATIONS_METRIC_NAME));
+        if (_parallelAggregationExecutor.isEnabled())
+            _parallelAggregationExecutor.registerMetrics(registrator.extend(MetricConstants.OPERATIONS_METRIC_NAME));
+        if (BroadcastTableHandler.isAsyncPushEnabled(_spaceImpl.getConfigReader()))
+            registerBroadcastTableMetrics(registrator.extend(MetricConstants.OPERATIONS_METRIC_NAME));
+    }
+
+    private void registerBroadcastTableMetrics(MetricRegistrator registrator) {
+        // the handler is recreated on recovery, so the pusher is looked up on each sample
+        registrator.register("broadcast-table-pending", new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                BroadcastTableAsyncPusher pusher = getBroadcastTableAsyncPusher();
+                return pusher != null ? pusher.getPendingCount() : 0;
+            }
+        });
+        registrator.register("broadcast-table-push-lag", new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                BroadcastTableAsyncPusher pusher = getBroadcastTableAsyncPusher();
+                return pusher != null ? pusher.getPushLag() : 0L;
+            }
+        });
+        registrator.register("broadcast-table-coalesced", new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                BroadcastTableAsyncPusher pusher = getBroadcastTableAsyncPusher();
+                return pusher != null ? pusher.getCoalescedCount() : 0L;
+            }
+        });
+        registrator.register("broadcast-table-push-failures", new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                BroadcastTableAsyncPusher pusher = getBroadcastTableAsyncPusher();
+                return pusher != null ? pusher.getFailedPushCount() : 0L;
+            }
+        });
+    }
+
+    private BroadcastTableAsyncPusher getBroadcastTableAsyncPusher() {
+        BroadcastTableHandler handler = _spaceImpl.getBroadcastTableHandler();
+        return handler != null ? handler.getAsyncPusher() : null;
     }
 
     private IDuplicateOperationFilter createDuplicateOperationIDFilter() {
@@ -749,6 +845,14 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
         return _filterManager;
     }
 
+    public QueryResultCache getQueryResultCache() {
+        return _queryResultCache;
+    }
+
+    ParallelAggregationExecutor getParallelAggregationExecutor() {
+        return _parallelAggregationExecutor;
+    }
+
     public LeaseManager getLeaseManager() {
         return _leaseManager;
     }
@@ -828,6 +932,21 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
                                    int modifiers, boolean fromReplication, boolean origin, SpaceContext sc,
                                    boolean reInsertedEntry, boolean fromWriteMultiple)
             throws TransactionException, UnusableEntryException, UnknownTypeException, RemoteException {
+        final ChunksChangeCapture chunksChangeCapture = beforeMovingEntriesOperation(_typeManager.loadServerTypeDesc(entryPacket).getTypeDesc(),
+                entryPacket.getRoutingFieldValue(), false /*template*/, fromReplication, modifiers);
+        if (chunksChangeCapture == null)
+            return writeImpl(context, entryPacket, txn, lease, modifiers, fromReplication, origin, sc, reInsertedEntry, fromWriteMultiple);
+        try {
+            return writeImpl(context, entryPacket, txn, lease, modifiers, fromReplication, origin, sc, reInsertedEntry, fromWriteMultiple);
+        } finally {
+            chunksChangeCapture.afterOperation();
+        }
+    }
+
+    private WriteEntryResult writeImpl(Context context, IEntryPacket entryPacket, Transaction txn, long lease,
+                                       int modifiers, boolean fromReplication, boolean origin, SpaceContext sc,
+                                       boolean reInsertedEntry, boolean fromWriteMultiple)
+            throws TransactionException, UnusableEntryException, UnknownTypeException, RemoteException {
         context.setFromReplication(fromReplication);
         context.setOrigin(origin);
         context.setOperationID(entryPacket.getOperationID());
@@ -1090,7 +1209,11 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
                 context.setBlobStoreBulkInfo(new BlobStoreBulkInfo(_cacheManager, true /*takeMultipleBulk*/));
             }
             for (int i = 0; i < ids.length; i++) {
+                ChunksChangeCapture chunksChangeCapture = null;
                 try {
+                    if (take)
+                        chunksChangeCapture = beforeMovingEntriesOperation(typeDesc, templatePackets[i].getRoutingFieldValue(),
+                                true /*template*/, false /*fromReplication*/, operationModifiers);
                     AnswerHolder answerHolder = unsafeRead_impl(templatePackets[i],
                             txn,
                             0,
@@ -1110,6 +1233,9 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
                         exceptions = new Exception[ids.length];
                     exceptions[i] = e;
                     readByIdsContext.addFailure(ids[i], e);
+                } finally {
+                    if (chunksChangeCapture != null)
+                        chunksChangeCapture.afterOperation();
                 }
             }
         } finally {
@@ -1201,8 +1327,15 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
         if (take)
             monitorReplicationStateForModifyingOperation(txn, OperationWeightInfoFactory.create(1, WeightInfoOperationType.TAKE));
 
-        return unsafeRead(template, txn, timeout, ifExists, take, sc,
-                returnOnlyUid, fromReplication, origin, operationModifiers, null, null /* prefetchedEntries */);
+        final ChunksChangeCapture chunksChangeCapture = take && !TakeModifiers.isEvictOnly(operationModifiers) ? beforeMovingEntriesOperation(_typeManager.loadServerTypeDesc(template).getTypeDesc(),
+                template.getRoutingFieldValue(), true /*template*/, fromReplication, operationModifiers) : null;
+        try {
+            return unsafeRead(template, txn, timeout, ifExists, take, sc,
+                    returnOnlyUid, fromReplication, origin, operationModifiers, null, null /* prefetchedEntries */);
+        } finally {
+            if (chunksChangeCapture != null)
+                chunksChangeCapture.afterOperation();
+        }
     }
 
     private AnswerHolder unsafeRead(ITemplatePacket template, Transaction txn, long timeout, boolean ifExists,
@@ -1983,6 +2116,26 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
                                      BatchQueryOperationContext batchOperationContext,
                                      List<SpaceEntriesAggregator> aggregators, ServerIteratorRequestInfo serverIteratorRequestInfo)
             throws TransactionException, UnusableEntryException, UnknownTypeException, RemoteException, InterruptedException {
+        // evicting entries does not remove them from the space
+        final ChunksChangeCapture chunksChangeCapture = take && !TakeModifiers.isEvictOnly(operationModifiers)
+                ? beforeMovingEntriesOperation(_typeManager.loadServerTypeDesc(template).getTypeDesc(), template.getRoutingFieldValue(),
+                true /*template*/, false /*fromReplication*/, operationModifiers) : null;
+        if (chunksChangeCapture == null)
+            return readMultipleImpl(template, txn, timeout, ifExists, take, sc, returnOnlyUid, operationModifiers, batchOperationContext,
+                    aggregators, serverIteratorRequestInfo);
+        try {
+            return readMultipleImpl(template, txn, timeout, ifExists, take, sc, returnOnlyUid, operationModifiers, batchOperationContext,
+                    aggregators, serverIteratorRequestInfo);
+        } finally {
+            chunksChangeCapture.afterOperation();
+        }
+    }
+
+    private AnswerHolder readMultipleImpl(ITemplatePacket template, Transaction txn, long timeout, boolean ifExists,
+                                          boolean take, SpaceContext sc, boolean returnOnlyUid, int operationModifiers,
+                                          BatchQueryOperationContext batchOperationContext,
+                                          List<SpaceEntriesAggregator> aggregators, ServerIteratorRequestInfo serverIteratorRequestInfo)
+            throws TransactionException, UnusableEntryException, UnknownTypeException, RemoteException, InterruptedException {
         monitorMemoryUsage(false);
         if (Modifiers.contains(operationModifiers, Modifiers.EXPLAIN_PLAN)) {
             SingleExplainPlan.validate(timeout, _cacheManager.isBlobStoreCachePolicy(), operationModifiers, template.getCustomQuery(), getClassTypeInfo(template.getTypeName()).getIndexes());
@@ -2476,6 +2629,21 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
                                         long lease, long timeout, SpaceContext sc, boolean fromReplication,
                                         boolean newRouter, int modifiers, UpdateOrWriteContext ctx, MultipleIdsContext multipleIdsContext)
             throws UnusableEntryException, UnknownTypeException, TransactionException, RemoteException, InterruptedException {
+        final ChunksChangeCapture chunksChangeCapture = beforeMovingEntriesOperation(_typeManager.loadServerTypeDesc(updated_entry).getTypeDesc(),
+                updated_entry.getRoutingFieldValue(), false /*template*/, fromReplication, modifiers);
+        if (chunksChangeCapture == null)
+            return updateImpl(context, updated_entry, txn, lease, timeout, sc, fromReplication, newRouter, modifiers, ctx, multipleIdsContext);
+        try {
+            return updateImpl(context, updated_entry, txn, lease, timeout, sc, fromReplication, newRouter, modifiers, ctx, multipleIdsContext);
+        } finally {
+            chunksChangeCapture.afterOperation();
+        }
+    }
+
+    private ExtendedAnswerHolder updateImpl(Context context, IEntryPacket updated_entry, Transaction txn,
+                                            long lease, long timeout, SpaceContext sc, boolean fromReplication,
+                                            boolean newRouter, int modifiers, UpdateOrWriteContext ctx, MultipleIdsContext multipleIdsContext)
+            throws UnusableEntryException, UnknownTypeException, TransactionException, RemoteException, InterruptedException {
         //verify that each entry has a UID and its type is known
         // must be done before getUID() to ensure unmarsh of MarshalledExternalEntry in embedded space.
         IServerTypeDesc serverTypeDesc = _typeManager.loadServerTypeDesc(updated_entry);
@@ -2646,6 +2814,21 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
                                        SpaceContext sc, boolean fromReplication, boolean origin,
                                        Collection<SpaceEntryMutator> mutators, int operationModifiers, boolean returnOnlyUid)
             throws UnusableEntryException, UnknownTypeException, TransactionException, RemoteException, InterruptedException {
+        final ChunksChangeCapture chunksChangeCapture = beforeMovingEntriesOperation(_typeManager.loadServerTypeDesc(template).getTypeDesc(),
+                template.getRoutingFieldValue(), true /*template*/, fromReplication, operationModifiers);
+        if (chunksChangeCapture == null)
+            return changeImpl(template, txn, lease, timeout, sc, fromReplication, origin, mutators, operationModifiers, returnOnlyUid);
+        try {
+            return changeImpl(template, txn, lease, timeout, sc, fromReplication, origin, mutators, operationModifiers, returnOnlyUid);
+        } finally {
+            chunksChangeCapture.afterOperation();
+        }
+    }
+
+    private ExtendedAnswerHolder changeImpl(ITemplatePacket template, Transaction txn, long lease, long timeout,
+                                            SpaceContext sc, boolean fromReplication, boolean origin,
+                                            Collection<SpaceEntryMutator> mutators, int operationModifiers, boolean returnOnlyUid)
+            throws UnusableEntryException, UnknownTypeException, TransactionException, RemoteException, InterruptedException {
         monitorMemoryUsage(true /*writeOp*/);
         if (Modifiers.contains(operationModifiers, Modifiers.EXPLAIN_PLAN)) {
             throw new UnsupportedOperationException("Sql explain plan is not supported for change operation");
@@ -3622,6 +3805,8 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
      */
     public void close() {
         _spaceImpl.removeInternalSpaceModeListener(this);
+        if (_backupCheckpointHandler != null)
+            _backupCheckpointHandler.close();
         _cacheManager.closeQueryExtensionManagers();
 
         if (_replicationManager != null)
@@ -3631,6 +3816,8 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
         if (_processorWG != null)
             _processorWG.shutdown();
 
+        _parallelAggregationExecutor.close();
+
         if (_leaseManager != null)
             _leaseManager.close();
 
@@ -4300,6 +4487,9 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
         IScanListIterator<IEntryCacheInfo> toScan = template.isServerIterator()? getOrCreateScanListIteratorFromServerIterator(context, entryTypeDesc, template, serverTypeDesc) : _cacheManager.getMatchingMemoryEntriesForScanning(context, entryTypeDesc, template, serverTypeDesc);
         if (toScan == null)
             return;
+        // a slice of a parallel aggregation scans only its part of the candidates
+        if (template.getBatchOperationContext() != null)
+            toScan = template.getBatchOperationContext().getScanSlice(entryTypeDesc.getTypeName(), toScan);
 
         if (!toScan.isIterator()) {
             getMatchedEntriesAndOperateSA_Entry(context,
@@ -4422,6 +4612,9 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
             ILockObject templateLock = null;
             boolean need_xtn_lock = false;
             boolean upgrade_lock = false;
+            //entry was modified while matched- retry without locking before falling back to the entry lock
+            if (context.isUnstableEntry() && template.isNonBlockingRead() && !context.isTransactionalMultipleOperation())
+                retakeStableSnapshot(context, template, entry);
             while (true) {
                 context.setNonBlockingReadOp(template.isNonBlockingRead() && !context.isUnstableEntry() && !context.isTransactionalMultipleOperation());
                 if (!template.isFifoSearch())
@@ -4516,6 +4709,28 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
         }
     }
 
+    /**
+     * Re-takes the snapshot of an entry which was modified while a non-blocking read matched it,
+     * waiting for the modification to end. The entry remains unstable in the context if no stable
+     * snapshot was taken, in which case the operation is performed under the entry lock.
+     */
+    private void retakeStableSnapshot(Context context, ITemplateHolder template, IEntryHolder entry) {
+        if (_cacheManager.isEvictableCachePolicy() || _cacheManager.isBlobStoreCachePolicy() || isTieredStorage())
+            return;
+        for (int i = 0; i < OPTIMISTIC_READ_ATTEMPTS; i++) {
+            if (entry.isUnstable()) {
+                Thread.yield();
+                continue;
+            }
+            if (template.isMatchByID())
+                _templateScanner.takeMatchByIdSnapshot(context, entry);
+            else if (!_templateScanner.match(context, entry, template))
+                return; //rematched under the entry lock
+            if (!context.isUnstableEntry())
+                return;
+        }
+    }
+
     private boolean performTemplateOnEntryXtnAwareSA(Context context,
                                                      ITemplateHolder tmpl, IEntryHolder ent,
                                                      boolean needXtnLocked, boolean makeWaitForInfo)
@@ -5933,6 +6148,14 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
         return _isReplicated;
     }
 
+    /**
+     * @return true if operations of this space would pin virtual threads to their carriers, so
+     * they are executed on platform threads
+     */
+    public boolean isPinningVirtualThreads() {
+        return _pinsVirtualThreads;
+    }
+
     public boolean isReplicatedPersistentBlobstore() {
         return _isReplicatedPersistentBlobstore;
     }
@@ -6507,6 +6730,15 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
             SingleExplainPlan.validate(0, _cacheManager.isBlobStoreCachePolicy(), readModifiers,
                     queryPacket.getCustomQuery(), getClassTypeInfo(queryPacket.getTypeName()).getIndexes());
         }
+        if (isTieredStorage()) {
+            AnswerHolder answerHolder = aggregateInTieredStorage(queryPacket, aggregators, readModifiers);
+            if (answerHolder != null)
+                return answerHolder;
+        }
+        final int parallelism = getAggregationParallelism(queryPacket, aggregators, readModifiers);
+        if (parallelism > 1)
+            return aggregateInParallel(queryPacket, aggregators, readModifiers, sc, parallelism);
+
         BatchQueryOperationContext batchContext = new AggregateOperationContext(queryPacket, Integer.MAX_VALUE, 1);
         AnswerHolder answerHolder = readMultiple(queryPacket,
                 null /*txn*/,
@@ -6526,6 +6758,121 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
         return answerHolder;
     }
 
+    /**
+     * Computes the aggregation inside the tiered storage internal RDBMS instead of loading and
+     * scanning the matching cold entries. Every non transient entry is kept in the cold tier, so
+     * the database result covers the hot entries as well. Queries which may see transient or
+     * locked entries, or which are intercepted by filters, fall back to a regular scan.
+     *
+     * @return the answer, or null if the aggregation should be computed by scanning the entries
+     */
+    private AnswerHolder aggregateInTieredStorage(ITemplatePacket queryPacket, List<SpaceEntriesAggregator> aggregators, int readModifiers)
+            throws Exception {
+        if (!_tieredStorageAggregationPushDown || Modifiers.contains(readModifiers, Modifiers.EXPLAIN_PLAN)
+                || queryPacket.getUID() != null || queryPacket.getMultipleUIDs() != null
+                || queryPacket.isFifo() || ReadModifiers.isFifo(readModifiers) || ReadModifiers.isFifoGroupingPoll(readModifiers))
+            return null;
+        if (_filterManager.hasNonStatisticsFilter(FilterOperationCodes.BEFORE_READ_MULTIPLE) || _filterManager.hasNonStatisticsFilter(FilterOperationCodes.AFTER_READ_MULTIPLE))
+            return null;
+        // entries locked by a transaction may be hidden from a regular scan
+        if (!getTransactionHandler().getXtnTable().isEmpty())
+            return null;
+        final IServerTypeDesc typeDesc = _typeManager.loadServerTypeDesc(queryPacket);
+        if (typeDesc.isRootType() || typeDesc.hasSubTypes())
+            return null;
+        final OrderByAggregator orderBy = aggregators.size() == 1 && aggregators.get(0).getClass() == OrderByAggregator.class
+                ? (OrderByAggregator) aggregators.get(0) : null;
+        final RDBMSAggregation aggregation = orderBy == null ? RDBMSAggregation.create(typeDesc.getTypeDesc(), aggregators) : null;
+        if (aggregation == null && (orderBy == null || orderBy.getLimit() == Integer.MAX_VALUE
+                || !RDBMSAggregation.isOrderable(typeDesc.getTypeDesc(), orderBy.getOrderByPaths())))
+            return null;
+
+        final long startTime = SystemTime.timeMillis();
+        final ITemplateHolder tHolder = TemplateHolderFactory.createTemplateHolder(typeDesc, queryPacket,
+                null /*uid*/, LeaseManager.toAbsoluteTime(0, startTime), null /*txnEntry*/, startTime, SpaceOperations.READ,
+                null /*respContext*/, false /*returnOnlyUid*/, readModifiers, false /*isFifo*/);
+        if (tHolder.isMemoryOnlySearch() || getTieredStorageManager().guessTemplateTier(tHolder) == TemplateMatchTier.MATCH_HOT)
+            return null;
+
+        final InternalRDBMSManager internalStorage = getTieredStorageManager().getInternalStorage();
+        Context context = null;
+        try {
+            context = _cacheManager.getCacheContext();
+            if (aggregation != null) {
+                List<Object[]> rows = internalStorage.aggregate(context, typeDesc.getTypeName(), tHolder, aggregation);
+                if (rows == null)
+                    return null;
+                aggregation.merge(rows);
+            } else {
+                ISAdapterIterator<IEntryHolder> iterator = internalStorage.makeEntriesIter(context, typeDesc.getTypeName(), tHolder,
+                        orderBy.getOrderByPaths(), orderBy.getLimit());
+                if (iterator == null)
+                    return null;
+                try {
+                    EntryHolderAggregatorContext aggregatorContext = new EntryHolderAggregatorContext(aggregators, tHolder, getPartitionIdZeroBased());
+                    for (IEntryHolder entryHolder = iterator.next(); entryHolder != null; entryHolder = iterator.next())
+                        aggregatorContext.scan(context, entryHolder.getEntryData(), entryHolder.getUID(), entryHolder.isTransient());
+                } finally {
+                    iterator.close();
+                }
+            }
+        } finally {
+            _cacheManager.freeCacheContext(context);
+        }
+        return new AnswerHolder();
+    }
+
+    private int getAggregationParallelism(ITemplatePacket queryPacket, List<SpaceEntriesAggregator> aggregators, int readModifiers) {
+        if (!_parallelAggregationExecutor.isEnabled() || !_cacheManager.isAllInCachePolicy() || isTieredStorage())
+            return 1;
+        // explain plan, fifo and by id queries are not split
+        if (Modifiers.contains(readModifiers, Modifiers.EXPLAIN_PLAN) || queryPacket.getUID() != null || queryPacket.getMultipleUIDs() != null
+                || queryPacket.isFifo() || ReadModifiers.isFifo(readModifiers) || ReadModifiers.isFifoGroupingPoll(readModifiers))
+            return 1;
+        if (!AggregationInternalUtils.supportsParallelScan(aggregators))
+            return 1;
+        String typeName = queryPacket.getTypeName() != null ? queryPacket.getTypeName() : IServerTypeDesc.ROOT_TYPE_NAME;
+        return _parallelAggregationExecutor.getParallelism(_cacheManager.getNumberOfEntries(typeName, true /*includeSubtypes*/));
+    }
+
+    /**
+     * Aggregates each slice of the matching entries with a clone of the aggregators, and merges
+     * their intermediate results into the given aggregators.
+     */
+    private AnswerHolder aggregateInParallel(final ITemplatePacket queryPacket, List<SpaceEntriesAggregator> aggregators, final int readModifiers,
+                                             final SpaceContext sc, final int parallelism)
+            throws Exception {
+        List<Callable<List<SpaceEntriesAggregator>>> tasks = new ArrayList<Callable<List<SpaceEntriesAggregator>>>(parallelism);
+        final AggregationScanSlices slices = new AggregationScanSlices(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            final int slice = i;
+            final ITemplatePacket slicePacket = i == 0 ? queryPacket : queryPacket.clone();
+            final List<SpaceEntriesAggregator> sliceAggregators = new ArrayList<SpaceEntriesAggregator>(aggregators.size());
+            for (SpaceEntriesAggregator aggregator : aggregators)
+                sliceAggregators.add(aggregator.clone());
+            tasks.add(new Callable<List<SpaceEntriesAggregator>>() {
+                @Override
+                public List<SpaceEntriesAggregator> call() throws Exception {
+                    BatchQueryOperationContext batchContext = new AggregateOperationContext(slicePacket, Integer.MAX_VALUE, 1, slice, slices);
+                    AnswerHolder answerHolder = readMultiple(slicePacket, null /*txn*/, 0 /*timeout*/, false /*ifExists*/, false /*take*/, sc,
+                            false /*returnOnlyUid*/, readModifiers, batchContext, sliceAggregators, null);
+                    if (answerHolder != null && answerHolder.getException() != null)
+                        throw answerHolder.getException();
+                    return sliceAggregators;
+                }
+            });
+        }
+
+        for (List<SpaceEntriesAggregator> sliceAggregators : _parallelAggregationExecutor.execute(tasks)) {
+            for (int i = 0; i < aggregators.size(); i++) {
+                Serializable intermediateResult = sliceAggregators.get(i).getIntermediateResult();
+                if (intermediateResult != null)
+                    aggregators.get(i).aggregateIntermediateResult(intermediateResult);
+            }
+        }
+        return new AnswerHolder();
+    }
+
     public int countIncomingConnections() throws RemoteException {
         if (isLocalCache())
             return 0;
@@ -6727,9 +7074,13 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
                 getCacheManager().isBlobStoreCachePolicy(),
                 directPersistencySyncListRecovery ? directPersistencySyncListFetcher : null);
 
-        ISpaceSynchronizeReplicaState spaceSynchronizeReplicaRequest = getReplicationNode().spaceSynchronizeReplicaRequest(context);
+        // a restarting backup may recover from its own checkpoint and the primary backlog
+        final boolean checkpointRecovery = _backupCheckpointHandler != null && !transientOnly && !directPersistencySyncListRecovery;
+        if (checkpointRecovery)
+            _backupCheckpointHandler.beforeSynchronizeReplica((SpaceCopyReplicaParameters) context.getParameters());
 
         try {
+            ISpaceSynchronizeReplicaState spaceSynchronizeReplicaRequest = getReplicationNode().spaceSynchronizeReplicaRequest(context);
             waitForCopyResultAndLogStatus(sourceRemoteUrl,
                     recoveryStartTime,
                     spaceSynchronizeReplicaRequest,
@@ -6741,6 +7092,9 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
                 _logger.warn("", ex);
             }
             return FailedSyncSpaceReplicateState.createFailedSyncState(ex);
+        } finally {
+            if (checkpointRecovery)
+                _backupCheckpointHandler.afterSynchronizeReplica();
         }
     }
 
@@ -7033,6 +7387,14 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
         return _cacheManager;
     }
 
+    /**
+     * @return the handler of the local checkpoint of this backup, or null if not enabled
+     * @since 16.0
+     */
+    public BackupCheckpointHandler getBackupCheckpointHandler() {
+        return _backupCheckpointHandler;
+    }
+
     /**
      * why is entry removed.
      */
@@ -7135,6 +7497,54 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
         return _memoryRecoveryEnabled;
     }
 
+    /**
+     * @return the capture of changes of entries moving to other partitions during an online copy
+     * of chunks, or null if no such copy is in progress
+     */
+    public ChunksChangeCapture getChunksChangeCapture() {
+        return _chunksChangeCapture;
+    }
+
+    /**
+     * Installs the capture of an online copy of chunks, closing the capture of a previous copy. The
+     * capture is removed when it is closed.
+     */
+    public void setChunksChangeCapture(ChunksChangeCapture chunksChangeCapture) {
+        final ChunksChangeCapture previous = _chunksChangeCapture;
+        _chunksChangeCapture = chunksChangeCapture;
+        if (previous != null && previous != chunksChangeCapture) {
+            _logger.warn("Closing the change capture of a previous online copy of chunks which did not complete");
+            previous.close();
+        }
+    }
+
+    public void removeChunksChangeCapture(ChunksChangeCapture chunksChangeCapture) {
+        if (_chunksChangeCapture == chunksChangeCapture)
+            _chunksChangeCapture = null;
+    }
+
+    /**
+     * Passes an operation which writes, changes or removes entries with the given routing value
+     * through the capture of an online copy of chunks, which holds it while the barrier is raised
+     * and rejects it once the entries moved. Operations of the copy itself are sent with {@link
+     * Modifiers#BACKUP_ONLY} and are not passed.
+     *
+     * @param template true if the entries are matched by a template, which may match moving
+     *                 entries without a routing value
+     * @return the capture whose {@link ChunksChangeCapture#afterOperation()} must be called when
+     * the operation is done, or null if the operation is not of moving entries
+     */
+    private ChunksChangeCapture beforeMovingEntriesOperation(ITypeDesc typeDesc, Object routingValue, boolean template,
+                                                             boolean fromReplication, int modifiers) {
+        final ChunksChangeCapture chunksChangeCapture = _chunksChangeCapture;
+        if (chunksChangeCapture == null || fromReplication || Modifiers.contains(modifiers, Modifiers.BACKUP_ONLY))
+            return null;
+        final boolean admitted = template
+                ? chunksChangeCapture.beforeTemplateOperation(typeDesc, routingValue)
+                : chunksChangeCapture.beforeOperation(typeDesc, routingValue);
+        return admitted ? chunksChangeCapture : null;
+    }
+
     /**
      * @return the transactionHandler
      */
@@ -7318,6 +7728,15 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
         if (_unhealthyReason != null)
             errors.add(_unhealthyReason);
 
+        BroadcastTableAsyncPusher broadcastTablePusher = getBroadcastTableAsyncPusher();
+        Exception broadcastTablePushFailure = broadcastTablePusher != null ? broadcastTablePusher.getPushFailure() : null;
+        if (broadcastTablePushFailure != null)
+            errors.add(broadcastTablePushFailure);
+
+        TieredStorageWriteBehind writeBehind = isTieredStorage() ? getTieredStorageManager().getInternalStorage().getWriteBehind() : null;
+        if (writeBehind != null && writeBehind.getFailure() != null)
+            errors.add(writeBehind.getFailure());
+
         return errors;
     }
 
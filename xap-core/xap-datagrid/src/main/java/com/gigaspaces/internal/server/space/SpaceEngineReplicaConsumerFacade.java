@@ -22,6 +22,7 @@ import com.gigaspaces.internal.cluster.node.impl.backlog.sync.IMarker;
 import com.gigaspaces.internal.cluster.node.impl.replica.ISpaceReplicaConsumeFacade;
 import com.gigaspaces.internal.cluster.node.replica.SpaceCopyReplicaParameters.ReplicaType;
 import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.gigaspaces.internal.server.space.recovery.checkpoint.BackupCheckpointHandler;
 import com.gigaspaces.internal.transport.IEntryPacket;
 import com.gigaspaces.internal.transport.ITemplatePacket;
 import com.gigaspaces.logger.Constants;
@@ -42,6 +43,7 @@ public class SpaceEngineReplicaConsumerFacade
     }
 
     public void addTypeDesc(ITypeDesc typeDescriptor) throws Exception {
+        onSpaceCopy();
         _spaceEngine.getTypeManager().addTypeDesc(typeDescriptor);
         if (_spaceEngine.getCacheManager().isBlobStoreCachePolicy()) //need to be stored in case blobStore recovery will be used
             _spaceEngine.getCacheManager().getStorageAdapter().introduceDataType(typeDescriptor);
@@ -53,6 +55,7 @@ public class SpaceEngineReplicaConsumerFacade
         if (_logger.isTraceEnabled())
             _logger.trace(_spaceEngine.getReplicationNode()
                     + " inserting entry " + entryPacket);
+        onSpaceCopy();
         if (evictionMarker != null && _spaceEngine.getCacheManager().requiresEvictionReplicationProtection()) {
             _spaceEngine.getCacheManager()
                     .getEvictionReplicationsMarkersRepository()
@@ -86,4 +89,19 @@ public class SpaceEngineReplicaConsumerFacade
                 notifyInfo);
     }
 
+    @Override
+    public void restoreCheckpoint(long checkpointKey) throws Exception {
+        BackupCheckpointHandler checkpointHandler = _spaceEngine.getBackupCheckpointHandler();
+        if (checkpointHandler == null)
+            throw new IllegalStateException("Primary requested to recover from checkpoint at key " + checkpointKey
+                    + " while backup checkpoint is not enabled");
+        checkpointHandler.restoreCheckpoint(checkpointKey);
+    }
+
+    private void onSpaceCopy() {
+        BackupCheckpointHandler checkpointHandler = _spaceEngine.getBackupCheckpointHandler();
+        if (checkpointHandler != null)
+            checkpointHandler.onSpaceCopy();
+    }
+
 }
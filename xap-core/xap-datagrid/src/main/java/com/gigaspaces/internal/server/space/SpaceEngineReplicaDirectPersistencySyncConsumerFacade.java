@@ -136,4 +136,9 @@ public class SpaceEngineReplicaDirectPersistencySyncConsumerFacade implements IS
         }
     }
 
+    @Override
+    public void restoreCheckpoint(long checkpointKey) throws Exception {
+        throw new UnsupportedOperationException("restore checkpoint operation is not supported in SpaceEngineReplicaDirectPersistencySyncConsumerFacade");
+    }
+
 }
@@ -71,6 +71,7 @@ import com.gigaspaces.internal.naming.LookupNamingService;
 import com.gigaspaces.internal.os.OSDetails;
 import com.gigaspaces.internal.os.OSHelper;
 import com.gigaspaces.internal.os.OSStatistics;
+import com.gigaspaces.internal.query.explainplan.ExplainPlanUtil;
 import com.gigaspaces.internal.query.explainplan.SingleExplainPlan;
 import com.gigaspaces.internal.remoting.RemoteOperationRequest;
 import com.gigaspaces.internal.remoting.RemoteOperationResult;
@@ -147,6 +148,7 @@ import com.j_spaces.core.service.Service;
 import com.j_spaces.jdbc.IQueryProcessor;
 import com.j_spaces.jdbc.QueryProcessor;
 import com.j_spaces.jdbc.QueryProcessorFactory;
+import com.j_spaces.jdbc.builder.QueryTemplatePacket;
 import com.j_spaces.kernel.ClassLoaderHelper;
 import com.j_spaces.kernel.JSpaceUtilities;
 import com.j_spaces.kernel.ResourceLoader;
@@ -358,6 +360,8 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
         if (_clusterPolicy != null && _clusterPolicy.isPersistentStartupEnabled())
             initSpaceStartupStateManager();
 
+        if (_broadcastTableHandler != null)
+            _broadcastTableHandler.close();
         _broadcastTableHandler = new BroadcastTableHandler(this);
         xnioServer = XNioSettings.ENABLED ? XNioServer.create(this) : null;
     }
@@ -519,6 +523,10 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
         return _operationLogger;
     }
 
+    public SpaceOperationsExecutor getOperationsExecutor() {
+        return _operationsExecutor;
+    }
+
     public boolean isPrivate() {
         return _jspaceAttr != null ? _jspaceAttr.isPrivate() : false;
     }
@@ -738,6 +746,10 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
     }
 
     private void close() {
+        // push the pending broadcast table entries before the workers are closed
+        if (_broadcastTableHandler != null)
+            _broadcastTableHandler.close();
+
         // close by proper way all generic workers
         if (_workerManager != null) {
             _workerManager.shutdown();
@@ -2428,6 +2440,13 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
         beginPacketOperation(true, sc, (take ? SpacePrivilege.TAKE : SpacePrivilege.READ), template);
 
         try {
+            final QueryResultCache.Key resultCacheKey = take || txn != null || timeout != 0 || isIfExist ? null
+                    : createQueryResultCacheKey(template, maxEntries, modifiers, returnOnlyUid);
+            if (resultCacheKey != null) {
+                AnswerHolder cached = getCachedQueryResult(resultCacheKey, template, sc, modifiers);
+                if (cached != null)
+                    return cached;
+            }
             BatchQueryOperationContext operationContext = take
                     ? new TakeMultipleContext(template, maxEntries, minEntries)
                     : new ReadMultipleContext(template, maxEntries, minEntries);
@@ -2468,6 +2487,8 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
             for (IEntryPacket packet : results) {
                 applyEntryPacketOutFilter(packet, modifiers, template.getProjectionTemplate());
             }
+            if (resultCacheKey != null && !Modifiers.contains(modifiers, Modifiers.EXPLAIN_PLAN))
+                _engine.getQueryResultCache().put(resultCacheKey, results, ah.getServerTypeDesc());
             return ah;
         } catch (BatchQueryException batchEx) {
             if (batchEx.getResults() != null) {
@@ -2488,6 +2509,45 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
         }
     }
 
+    /**
+     * Returns the query result cache key of a non blocking, non transactional read multiple, or null
+     * if its result should not be cached.
+     */
+    private QueryResultCache.Key createQueryResultCacheKey(ITemplatePacket template, int maxEntries, int modifiers, boolean returnOnlyUid) {
+        final QueryResultCache resultCache = _engine.getQueryResultCache();
+        if (!resultCache.isEnabled() || !_engine.getCacheManager().isAllInCachePolicy() || _engine.getCacheManager().isTieredStorage())
+            return null;
+        // the statistics filter only counts the operations, so it does not prevent caching
+        final FilterManager filterManager = _engine.getFilterManager();
+        if (filterManager.hasNonStatisticsFilter(FilterOperationCodes.BEFORE_READ_MULTIPLE) || filterManager.hasNonStatisticsFilter(FilterOperationCodes.AFTER_READ_MULTIPLE))
+            return null;
+        final QueryResultCache.Key key = resultCache.createKey(template, maxEntries, modifiers, returnOnlyUid);
+        // results of queries executed while transactions are active are not cached
+        return key != null && _engine.getTransactionHandler().getXtnTable().isEmpty() ? key : null;
+    }
+
+    private AnswerHolder getCachedQueryResult(QueryResultCache.Key key, ITemplatePacket template, SpaceContext sc, int modifiers) {
+        final QueryResultCache.Result result = _engine.getQueryResultCache().get(key);
+        if (result == null)
+            return null;
+        // keep the read multiple operations counted by the statistics filter
+        final FilterManager filterManager = _engine.getFilterManager();
+        if (filterManager._isFilter[FilterOperationCodes.AFTER_READ_MULTIPLE])
+            filterManager.invokeFilters(FilterOperationCodes.AFTER_READ_MULTIPLE, sc, result.getEntryPackets());
+        AnswerHolder ah = new AnswerHolder();
+        ah.setEntryPackets(result.getEntryPackets());
+        ah.setServerTypeDesc(result.getServerTypeDesc());
+        if (Modifiers.contains(modifiers, Modifiers.EXPLAIN_PLAN)) {
+            SingleExplainPlan explainPlan = new SingleExplainPlan();
+            explainPlan.setRoot(ExplainPlanUtil.buildQueryTree((QueryTemplatePacket) template));
+            explainPlan.setPartitionId(Integer.toString(_engine.getPartitionIdOneBased()));
+            explainPlan.setResultCacheHit(true);
+            ah.setExplainPlan(explainPlan);
+        }
+        _engine.updateObjectTypeReadCounts(ah.getServerTypeDesc(), template);
+        return ah;
+    }
+
     public static void applyEntryPacketOutFilter(IEntryPacket entryPacket, int modifiers, AbstractProjectionTemplate projectionTemplate) {
         if (projectionTemplate != null)
             projectionTemplate.filterOutNonProjectionProperties(entryPacket);
@@ -3424,6 +3484,8 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
         // create a recovery manager
         _recoveryManager = new RecoveryManager(this);
 
+        if (_broadcastTableHandler != null)
+            _broadcastTableHandler.close();
         _broadcastTableHandler = new BroadcastTableHandler(this);
 
         // Perform space recovery according to election state
@@ -4131,6 +4193,10 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
         return types.isEmpty();
     }
 
+    public BroadcastTableHandler getBroadcastTableHandler() {
+        return _broadcastTableHandler;
+    }
+
     private void pushBroadcastEntry(IEntryPacket entryPacket, long lease, boolean isUpdate, long timeout, int modifiers) {
         _broadcastTableHandler.pushEntry(entryPacket, lease, isUpdate, timeout, modifiers);
     }
@@ -425,12 +425,8 @@ public class TemplateScanner {
             return;
 
         try {
-            if (template.isMatchByID() && template.isNonBlockingRead()) {
-                ITransactionalEntryData ed = entry.getTxnEntryData();
-                context.setLastRawMatchSnapshot(ed);
-                context.setLastMatchResult(ed.getOtherUpdateUnderXtnEntry() != null ? MatchResult.MASTER_AND_SHADOW : MatchResult.MASTER);
-                context.setUnstableEntry(entry.isUnstable());
-            }
+            if (template.isMatchByID() && template.isNonBlockingRead())
+                takeMatchByIdSnapshot(context, entry);
             if (!template.isMatchByID()  // backward used only if matching is done by uid only.
                     && !match(context, entry, template))
                 return;
@@ -467,6 +463,18 @@ public class TemplateScanner {
      * @param skipIndex if != -1, the method assumes the template field at skipIndex matches the
      *                  entry field at skipIndex, and hence does not check this index.
      */
+    /**
+     * Takes the snapshot a non-blocking read by id operates on, the entry is marked unstable in the
+     * context if it was modified while the snapshot was taken.
+     */
+    public void takeMatchByIdSnapshot(Context context, IEntryHolder entry) {
+        final int modificationStamp = entry.getModificationStamp();
+        ITransactionalEntryData ed = entry.getTxnEntryData();
+        context.setLastRawMatchSnapshot(ed);
+        context.setLastMatchResult(ed.getOtherUpdateUnderXtnEntry() != null ? MatchResult.MASTER_AND_SHADOW : MatchResult.MASTER);
+        context.setUnstableEntry(entry.isModifiedSince(modificationStamp));
+    }
+
     public boolean match(Context context, IEntryHolder entry, ITemplateHolder template,
                          int skipAlreadyMatchedFixedPropertyIndex, String skipAlreadyMatchedIndexPath, boolean safeEntry) {
         MatchResult res = template.match(_cacheManager, entry, skipAlreadyMatchedFixedPropertyIndex, skipAlreadyMatchedIndexPath, safeEntry, context, _regexCache);
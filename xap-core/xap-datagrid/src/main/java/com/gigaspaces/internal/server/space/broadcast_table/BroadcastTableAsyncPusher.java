@@ -0,0 +1,300 @@
+package com.gigaspaces.internal.server.space.broadcast_table;
+
+import com.gigaspaces.internal.space.requests.PushBroadcastTableEntriesSpaceRequestInfo;
+import com.gigaspaces.internal.transport.IEntryPacket;
+import com.gigaspaces.internal.utils.concurrent.GSThread;
+import com.gigaspaces.time.SystemTime;
+import com.j_spaces.core.client.UpdateModifiers;
+import net.jini.core.lease.Lease;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pushes the broadcast table writes of the first partition to the other partitions in the
+ * background. Writes are queued per type and coalesced by id (or uid) - if an entry is written
+ * again before it was pushed only its last state is pushed. A single thread drains the queues once
+ * the oldest queued write is older than the push window, and pushes them as update-or-write batches,
+ * so the writes of each entry reach the other partitions in order. <p/> Writers are blocked while
+ * the number of queued entries exceeds the configured max, which bounds the staleness of the other
+ * partitions. <p/> A batch which failed to be pushed is retried with an exponential backoff
+ * until it is pushed or the pusher is closed, and the writes queued after it wait for it. Once a
+ * batch failed {@link #UNHEALTHY_ATTEMPTS} times in a row the failure is reported as a health
+ * failure of the space until a push succeeds.
+ *
+ * @since 16.0
+ */
+@com.gigaspaces.api.InternalApi
+public class BroadcastTableAsyncPusher {
+    private final Logger _logger = LoggerFactory.getLogger(com.gigaspaces.logger.Constants.LOGGER_BROADCAST_TABLE);
+
+    static final int UNHEALTHY_ATTEMPTS = 3;
+    private static final long INITIAL_RETRY_DELAY = 100;
+    private static final long MAX_RETRY_DELAY = 10000;
+
+    private final BroadcastTableHandler _handler;
+    private final long _pushWindow;
+    private final int _batchSize;
+    private final int _maxPending;
+    private final Thread _thread;
+
+    private Map<String, LinkedHashMap<Object, PendingEntry>> _pending = new LinkedHashMap<String, LinkedHashMap<Object, PendingEntry>>();
+    private int _pendingCount;
+    private long _oldestPendingTime;
+    private long _oldestInFlightTime;
+    private long _enqueuedSequence;
+    private long _pushedSequence;
+    private boolean _flushRequested;
+    private boolean _closed;
+    private boolean _terminated;
+    private long _coalesced;
+    private long _failedPushes;
+    private Exception _pushFailure;
+
+    public BroadcastTableAsyncPusher(BroadcastTableHandler handler, String spaceName, long pushWindow, int batchSize, int maxPending) {
+        this._handler = handler;
+        this._pushWindow = pushWindow;
+        this._batchSize = Math.max(1, batchSize);
+        this._maxPending = Math.max(1, maxPending);
+        this._thread = new GSThread(new Runnable() {
+            @Override
+            public void run() {
+                pushLoop();
+            }
+        }, spaceName + "-broadcast-table-pusher");
+        this._thread.setDaemon(true);
+        this._thread.start();
+    }
+
+    /**
+     * Queues the given entry to be pushed, returns false if the pusher is closed and the entry
+     * should be pushed by the caller.
+     */
+    public synchronized boolean push(IEntryPacket entryPacket, long lease) throws InterruptedException {
+        while (_pendingCount >= _maxPending && !_closed) {
+            _flushRequested = true;
+            notifyAll();
+            wait();
+        }
+        if (_closed) {
+            // let the pending entries be pushed first to keep the order of writes
+            while (!_terminated)
+                wait();
+            return false;
+        }
+
+        LinkedHashMap<Object, PendingEntry> typeEntries = _pending.get(entryPacket.getTypeName());
+        if (typeEntries == null) {
+            typeEntries = new LinkedHashMap<Object, PendingEntry>();
+            _pending.put(entryPacket.getTypeName(), typeEntries);
+        }
+        Object key = entryPacket.getID() != null ? entryPacket.getID() : entryPacket.getUID();
+        if (key == null)
+            key = new Object();
+        // remove before put so the entry is pushed after the entries queued before its last write
+        if (typeEntries.remove(key) != null)
+            _coalesced++;
+        else
+            _pendingCount++;
+        typeEntries.put(key, new PendingEntry(entryPacket.clone(), lease));
+        if (_oldestPendingTime == 0)
+            _oldestPendingTime = SystemTime.timeMillis();
+        _enqueuedSequence++;
+        notifyAll();
+        return true;
+    }
+
+    /**
+     * Blocks until all the entries of the given type which were queued so far were pushed, or all
+     * the queued entries if the type is null.
+     */
+    public synchronized void flush(String typeName) throws InterruptedException {
+        if (typeName != null && !_pending.containsKey(typeName) && _oldestInFlightTime == 0)
+            return;
+        final long sequence = _enqueuedSequence;
+        while (_pushedSequence < sequence && !_terminated) {
+            _flushRequested = true;
+            notifyAll();
+            wait();
+        }
+    }
+
+    public void close() {
+        synchronized (this) {
+            _closed = true;
+            notifyAll();
+        }
+        try {
+            _thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public synchronized int getPendingCount() {
+        return _pendingCount;
+    }
+
+    /**
+     * Returns the age in milliseconds of the oldest write which was not pushed yet, or 0 if all the
+     * writes were pushed.
+     */
+    public synchronized long getPushLag() {
+        long oldest = _oldestInFlightTime != 0 ? _oldestInFlightTime : _oldestPendingTime;
+        return oldest == 0 ? 0 : Math.max(0, SystemTime.timeMillis() - oldest);
+    }
+
+    public synchronized long getCoalescedCount() {
+        return _coalesced;
+    }
+
+    /**
+     * Returns the number of push attempts which failed so far.
+     */
+    public synchronized long getFailedPushCount() {
+        return _failedPushes;
+    }
+
+    /**
+     * Returns the failure of a batch which could not be pushed after repeated attempts, or null if
+     * the last push succeeded.
+     */
+    public synchronized Exception getPushFailure() {
+        return _pushFailure;
+    }
+
+    private void pushLoop() {
+        while (true) {
+            final Map<String, LinkedHashMap<Object, PendingEntry>> batch;
+            final long sequence;
+            synchronized (this) {
+                try {
+                    while (_pendingCount == 0 && !_closed)
+                        wait();
+                    long now = SystemTime.timeMillis();
+                    while (_pendingCount != 0 && !_closed && !_flushRequested && now < _oldestPendingTime + _pushWindow) {
+                        wait(_oldestPendingTime + _pushWindow - now);
+                        now = SystemTime.timeMillis();
+                    }
+                } catch (InterruptedException e) {
+                    _closed = true;
+                }
+                if (_pendingCount == 0) {
+                    _pushedSequence = _enqueuedSequence;
+                    if (_closed)
+                        _terminated = true;
+                    notifyAll();
+                    if (_terminated)
+                        return;
+                    continue;
+                }
+                batch = _pending;
+                sequence = _enqueuedSequence;
+                _pending = new LinkedHashMap<String, LinkedHashMap<Object, PendingEntry>>();
+                _pendingCount = 0;
+                _oldestInFlightTime = _oldestPendingTime;
+                _oldestPendingTime = 0;
+                _flushRequested = false;
+                notifyAll();
+            }
+
+            for (Map.Entry<String, LinkedHashMap<Object, PendingEntry>> typeEntries : batch.entrySet())
+                pushTypeEntries(typeEntries.getValue().values());
+
+            synchronized (this) {
+                _pushedSequence = sequence;
+                _oldestInFlightTime = 0;
+                notifyAll();
+            }
+        }
+    }
+
+    private void pushTypeEntries(Collection<PendingEntry> entries) {
+        Iterator<PendingEntry> iterator = entries.iterator();
+        while (iterator.hasNext()) {
+            List<PendingEntry> chunk = new ArrayList<PendingEntry>(Math.min(_batchSize, entries.size()));
+            while (iterator.hasNext() && chunk.size() < _batchSize)
+                chunk.add(iterator.next());
+            IEntryPacket[] entryPackets = new IEntryPacket[chunk.size()];
+            long[] leases = new long[chunk.size()];
+            for (int i = 0; i < entryPackets.length; i++) {
+                entryPackets[i] = chunk.get(i).entryPacket;
+                leases[i] = chunk.get(i).lease;
+            }
+            pushWithRetry(new PushBroadcastTableEntriesSpaceRequestInfo(entryPackets, Lease.FOREVER, leases, 0, UpdateModifiers.UPDATE_OR_WRITE),
+                    entryPackets.length, entryPackets[0].getTypeName());
+        }
+    }
+
+    private void pushWithRetry(PushBroadcastTableEntriesSpaceRequestInfo requestInfo, int size, String typeName) {
+        long delay = INITIAL_RETRY_DELAY;
+        for (int attempt = 1; ; attempt++) {
+            boolean closed;
+            synchronized (this) {
+                closed = _closed;
+            }
+            boolean pushed;
+            try {
+                pushed = executePush(requestInfo);
+            } catch (RuntimeException e) {
+                _logger.warn("Failed to push " + size + " entries of broadcast table " + typeName + " (attempt " + attempt + ")", e);
+                pushed = false;
+            }
+            synchronized (this) {
+                if (pushed) {
+                    _pushFailure = null;
+                    return;
+                }
+                _failedPushes++;
+                if (attempt >= UNHEALTHY_ATTEMPTS && _pushFailure == null)
+                    _pushFailure = new BroadcastTablePushException("Failed to push " + size + " entries of broadcast table " + typeName
+                            + " to the other partitions after " + attempt + " attempts, retrying");
+                if (closed) {
+                    // the space is closing or no longer primary, there is no one to retry the push
+                    _logger.error("Failed to push " + size + " entries of broadcast table " + typeName + " while closing"
+                            + ". Notice that broadcast table data is not up to date in the other partitions");
+                    return;
+                }
+                try {
+                    // woken up by close to make a last attempt
+                    wait(delay);
+                } catch (InterruptedException e) {
+                    _closed = true;
+                }
+            }
+            delay = Math.min(delay * 2, MAX_RETRY_DELAY);
+        }
+    }
+
+    /**
+     * Pushes the given entries to the other partitions, returns false if the push failed in any of
+     * them.
+     */
+    boolean executePush(PushBroadcastTableEntriesSpaceRequestInfo requestInfo) {
+        return _handler.executePush(requestInfo);
+    }
+
+    static class BroadcastTablePushException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        BroadcastTablePushException(String message) {
+            super(message);
+        }
+    }
+
+    private static class PendingEntry {
+        private final IEntryPacket entryPacket;
+        private final long lease;
+
+        private PendingEntry(IEntryPacket entryPacket, long lease) {
+            this.entryPacket = entryPacket;
+            this.lease = lease;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.gigaspaces.internal.server.space.broadcast_table;
 import com.gigaspaces.async.AsyncFuture;
 import com.gigaspaces.internal.client.spaceproxy.IDirectSpaceProxy;
 import com.gigaspaces.internal.client.spaceproxy.executors.BroadcastTableSpaceTask;
+import com.gigaspaces.internal.server.space.SpaceConfigReader;
 import com.gigaspaces.internal.server.space.SpaceImpl;
 import com.gigaspaces.internal.space.requests.*;
 import com.gigaspaces.internal.space.responses.BroadcastTableSpaceResponseInfo;
@@ -11,13 +12,18 @@ import com.gigaspaces.internal.transport.ITemplatePacket;
 import com.j_spaces.core.SpaceContext;
 import com.j_spaces.core.UnknownTypesException;
 import com.j_spaces.core.client.Modifiers;
+import com.j_spaces.core.client.UpdateModifiers;
 import net.jini.core.lease.Lease;
 import net.jini.core.transaction.TransactionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.rmi.RemoteException;
+import java.util.Arrays;
 import java.util.concurrent.ExecutionException;
+
+import static com.j_spaces.core.Constants.Engine.*;
+
 /**
  * @author alon shoham
  * @since 15.8.0
@@ -27,20 +33,91 @@ public class BroadcastTableHandler {
     private Logger _logger = LoggerFactory.getLogger(com.gigaspaces.logger.Constants.LOGGER_BROADCAST_TABLE);
     private final SpaceImpl space;
     private final IDirectSpaceProxy _proxy;
+    private final BroadcastTableAsyncPusher _asyncPusher;
 
     public BroadcastTableHandler(SpaceImpl space) throws RemoteException {
         this.space = space;
         _proxy = space.getSpaceProxy().getDirectProxy();
+        if (isAsyncPushEnabled(space.getConfigReader())) {
+            _asyncPusher = new BroadcastTableAsyncPusher(this, space.getServiceName(),
+                    space.getConfigReader().getLongSpaceProperty(ENGINE_BROADCAST_TABLE_PUSH_WINDOW_PROP, ENGINE_BROADCAST_TABLE_PUSH_WINDOW_DEFAULT),
+                    space.getConfigReader().getIntSpaceProperty(ENGINE_BROADCAST_TABLE_PUSH_BATCH_SIZE_PROP, ENGINE_BROADCAST_TABLE_PUSH_BATCH_SIZE_DEFAULT),
+                    space.getConfigReader().getIntSpaceProperty(ENGINE_BROADCAST_TABLE_MAX_PENDING_PROP, ENGINE_BROADCAST_TABLE_MAX_PENDING_DEFAULT));
+        } else {
+            _asyncPusher = null;
+        }
+    }
+
+    public static boolean isAsyncPushEnabled(SpaceConfigReader configReader) {
+        return configReader.getBooleanSpaceProperty(ENGINE_BROADCAST_TABLE_ASYNC_PUSH_PROP, ENGINE_BROADCAST_TABLE_ASYNC_PUSH_DEFAULT);
+    }
+
+    public BroadcastTableAsyncPusher getAsyncPusher() {
+        return _asyncPusher;
     }
 
     public void pushEntry(IEntryPacket entryPacket, long lease, boolean isUpdate, long timeout, int modifiers) {
+        if (_asyncPusher != null) {
+            // partial updates can't be coalesced, the queued writes of the type are pushed before them
+            if (!UpdateModifiers.isPartialUpdate(modifiers) && pushAsync(entryPacket, lease))
+                return;
+            flush(entryPacket.getTypeName());
+        }
         executeTask(new PushBroadcastTableEntrySpaceRequestInfo(entryPacket, lease, isUpdate, timeout, modifiers), null);
     }
 
     public void pushEntries(IEntryPacket[] entryPackets, long lease, long[] leases, long timeout, int modifiers) {
+        if (_asyncPusher != null && !UpdateModifiers.isPartialUpdate(modifiers)) {
+            int pushed = 0;
+            while (pushed < entryPackets.length && pushAsync(entryPackets[pushed], leases != null ? leases[pushed] : lease))
+                pushed++;
+            if (pushed == entryPackets.length)
+                return;
+            if (pushed != 0) {
+                entryPackets = Arrays.copyOfRange(entryPackets, pushed, entryPackets.length);
+                if (leases != null)
+                    leases = Arrays.copyOfRange(leases, pushed, leases.length);
+            }
+        }
+        if (_asyncPusher != null && entryPackets.length != 0)
+            flush(entryPackets[0].getTypeName());
         executeTask(new PushBroadcastTableEntriesSpaceRequestInfo(entryPackets, lease, leases, timeout, modifiers), null);
     }
 
+    /**
+     * Blocks until the entries of the given type (or of all types, if null) which were written so
+     * far were pushed to the other partitions. Returns immediately if writes are pushed
+     * synchronously.
+     */
+    public void flush(String typeName) {
+        if (_asyncPusher == null)
+            return;
+        try {
+            _asyncPusher.flush(typeName);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            handleException(e, BroadcastTableSpaceRequestInfo.Action.FLUSH_ENTRIES);
+        }
+    }
+
+    public void close() {
+        if (_asyncPusher != null)
+            _asyncPusher.close();
+    }
+
+    private boolean pushAsync(IEntryPacket entryPacket, long lease) {
+        try {
+            return _asyncPusher.push(entryPacket, lease);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    boolean executePush(PushBroadcastTableEntriesSpaceRequestInfo requestInfo) {
+        return executeTask(requestInfo, null) != null;
+    }
+
     public boolean pullEntries(String typeName, Integer targetPartitionId) {
         BroadcastTableSpaceResponseInfo result = executeTask(new PullBroadcastTableEntriesSpaceRequestInfo(typeName), targetPartitionId);
         if(result != null && result.getEntries() != null) {
@@ -55,6 +132,7 @@ public class BroadcastTableHandler {
     }
 
     public void clearEntries(ITemplatePacket template, int modifiers) {
+        flush(template.getTypeName());
         executeTask(new ClearBroadcastTableEntriesSpaceRequestInfo(template, modifiers), null);
     }
 
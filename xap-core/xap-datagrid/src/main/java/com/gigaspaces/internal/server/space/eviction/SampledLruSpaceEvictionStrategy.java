@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space.eviction;
+
+import com.gigaspaces.internal.server.space.SpaceConfigReader;
+import com.gigaspaces.server.eviction.EvictableServerEntry;
+import com.gigaspaces.server.eviction.SpaceEvictionStrategy;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.j_spaces.core.Constants.CacheManager.CACHE_MANAGER_SAMPLED_LRU_SAMPLE_SIZE_DEFAULT;
+import static com.j_spaces.core.Constants.CacheManager.CACHE_MANAGER_SAMPLED_LRU_SAMPLE_SIZE_PROP;
+
+/**
+ * Approximated LRU - instead of keeping the entries ordered by access, each entry records its last
+ * access time and eviction picks the least recently used of a random sample of entries (keeping the
+ * best candidates of previous samples in a small pool). <br> A read or update only stores a time
+ * stamp in the entry's own eviction payload, so unlike {@link ConcurrentLruSpaceEvictionStrategy}
+ * no shared structure is touched on the read path. Insert and remove update one of several
+ * segments, chosen by the entry uid.
+ *
+ * @since 16.0
+ */
+@com.gigaspaces.api.InternalApi
+public class SampledLruSpaceEvictionStrategy extends SpaceEvictionStrategy {
+    private static final Logger _logger = LoggerFactory.getLogger(com.gigaspaces.logger.Constants.LOGGER_CACHE);
+    private static final int MIN_SAMPLE_SIZE = 1;
+    private static final int MAX_SAMPLE_SIZE = 64;
+    private static final int CANDIDATES_POOL_SIZE = 16;
+    //an access is recorded only if the previous one is older than this, so hot entries don't keep dirtying their cache line
+    private static final long TOUCH_RESOLUTION_NANOS = 1000 * 1000;
+
+    private final int _sampleSize;
+    private final Segment[] _segments;
+    private final AtomicInteger _estimatedNumCachedEntries; //including pinned
+
+    public SampledLruSpaceEvictionStrategy(SpaceConfigReader configReader) {
+        this(configReader.getIntSpaceProperty(CACHE_MANAGER_SAMPLED_LRU_SAMPLE_SIZE_PROP, CACHE_MANAGER_SAMPLED_LRU_SAMPLE_SIZE_DEFAULT));
+    }
+
+    public SampledLruSpaceEvictionStrategy(int sampleSize) {
+        if (sampleSize > MAX_SAMPLE_SIZE || sampleSize < MIN_SAMPLE_SIZE)
+            throw new IllegalArgumentException("Illegal sampled LRU sample size " + sampleSize + " - must be between " +
+                    MIN_SAMPLE_SIZE + " and " + MAX_SAMPLE_SIZE + " (inclusive).");
+        this._sampleSize = sampleSize;
+        this._segments = new Segment[Integer.highestOneBit(Math.max(16, Runtime.getRuntime().availableProcessors() * 4))];
+        for (int i = 0; i < _segments.length; i++)
+            _segments[i] = new Segment();
+        this._estimatedNumCachedEntries = new AtomicInteger();
+
+        if (_logger.isDebugEnabled())
+            _logger.debug(this.getClass().getSimpleName() + " started: [" +
+                    "sample-size= " + _sampleSize +
+                    ", segments= " + _segments.length +
+                    "]");
+    }
+
+    /**
+     * Determines whether this eviction strategy implementation requires concurrency protection from
+     * the space.
+     */
+    @Override
+    public boolean requiresConcurrencyProtection() {
+        return false;
+    }
+
+    @Override
+    public void onInsert(EvictableServerEntry entry) {
+        introduce(entry);
+    }
+
+    @Override
+    public void onLoad(EvictableServerEntry entry) {
+        introduce(entry);
+    }
+
+    @Override
+    public void onRead(EvictableServerEntry entry) {
+        touch(entry);
+    }
+
+    @Override
+    public void onUpdate(EvictableServerEntry entry) {
+        touch(entry);
+    }
+
+    @Override
+    public void onRemove(EvictableServerEntry entry) {
+        AccessInfo info = (AccessInfo) entry.getEvictionPayLoad();
+        if (info == null || !getSegment(entry).remove(info))
+            throw new IllegalStateException("The removed entry is not registered in the eviction strategy - [type=" + entry.getSpaceTypeDescriptor().getTypeName() + ", uid=" + entry.getUID() + "]");
+
+        _estimatedNumCachedEntries.decrementAndGet();
+    }
+
+    @Override
+    public int evict(int numOfEntries) {
+        int numToEvict = Math.min(numOfEntries, _estimatedNumCachedEntries.get());
+        return numToEvict > 0 ? evictEntriesFromCache(numToEvict) : 0;
+    }
+
+    public int getSampleSize() {
+        return _sampleSize;
+    }
+
+    private void introduce(EvictableServerEntry entry) {
+        // Note: the estimated is intentionally incremented before the entry is added to avoid actual# > limit.
+        _estimatedNumCachedEntries.incrementAndGet();
+        AccessInfo info = new AccessInfo(entry, System.nanoTime());
+        entry.setEvictionPayLoad(info);
+        getSegment(entry).add(info);
+    }
+
+    private void touch(EvictableServerEntry entry) {
+        AccessInfo info = (AccessInfo) entry.getEvictionPayLoad();
+        if (info == null)
+            return;
+        long now = System.nanoTime();
+        if (now - info._lastAccess >= TOUCH_RESOLUTION_NANOS)
+            info._lastAccess = now;
+    }
+
+    private Segment getSegment(EvictableServerEntry entry) {
+        int h = entry.getUID().hashCode() * 0x9E3779B9;
+        return _segments[(h ^ (h >>> 16)) & (_segments.length - 1)];
+    }
+
+    private int evictEntriesFromCache(int numToEvict) {
+        AccessInfo[] pool = new AccessInfo[CANDIDATES_POOL_SIZE + _sampleSize];
+        long[] poolAccess = new long[pool.length];
+        int poolSize = 0;
+        int evicted = 0;
+        //each round either evicts or drops a candidate, bound the rounds in case nothing is evictable
+        int maxRounds = numToEvict * 4 + CANDIDATES_POOL_SIZE;
+        for (int round = 0; round < maxRounds && evicted < numToEvict; round++) {
+            if (isClosed())
+                return evicted;
+            poolSize = sample(pool, poolAccess, poolSize);
+            if (poolSize == 0)
+                break;
+            //the pool is ordered by access time, the first candidate is the least recently used
+            AccessInfo candidate = pool[0];
+            long sampledAccess = poolAccess[0];
+            System.arraycopy(pool, 1, pool, 0, poolSize - 1);
+            System.arraycopy(poolAccess, 1, poolAccess, 0, poolSize - 1);
+            pool[--poolSize] = null;
+
+            //removed or accessed since it was sampled - it will be sampled again if still relevant
+            if (candidate._removed || candidate._lastAccess != sampledAccess)
+                continue;
+            if (getEvictionManager().tryEvict(candidate._entry))
+                evicted++;
+        }
+        return evicted;
+    }
+
+    /**
+     * Adds a random sample of entries to the candidates pool and keeps the pool ordered by access
+     * time, dropping the most recently used ones beyond the pool size.
+     */
+    private int sample(AccessInfo[] pool, long[] poolAccess, int poolSize) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < _sampleSize; i++) {
+            AccessInfo info = null;
+            int segment = random.nextInt(_segments.length);
+            for (int j = 0; j < _segments.length && info == null; j++)
+                info = _segments[(segment + j) & (_segments.length - 1)].random(random);
+            if (info == null)
+                break; //empty
+            if (contains(pool, poolSize, info))
+                continue;
+            long access = info._lastAccess;
+            int pos = poolSize;
+            while (pos > 0 && poolAccess[pos - 1] > access) {
+                pool[pos] = pool[pos - 1];
+                poolAccess[pos] = poolAccess[pos - 1];
+                pos--;
+            }
+            pool[pos] = info;
+            poolAccess[pos] = access;
+            poolSize++;
+        }
+        for (int i = CANDIDATES_POOL_SIZE; i < poolSize; i++)
+            pool[i] = null;
+        return Math.min(poolSize, CANDIDATES_POOL_SIZE);
+    }
+
+    private static boolean contains(AccessInfo[] pool, int poolSize, AccessInfo info) {
+        for (int i = 0; i < poolSize; i++) {
+            if (pool[i] == info)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * The eviction payload of an entry.
+     */
+    private static final class AccessInfo {
+        private final EvictableServerEntry _entry;
+        //not volatile - a stale or lost access time only affects the accuracy of the approximation
+        private long _lastAccess;
+        private int _index = -1;
+        private volatile boolean _removed;
+
+        private AccessInfo(EvictableServerEntry entry, long lastAccess) {
+            this._entry = entry;
+            this._lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * An array of entries which supports removal and random sampling in constant time.
+     */
+    private static final class Segment {
+        private AccessInfo[] _entries = new AccessInfo[16];
+        private int _size;
+
+        synchronized void add(AccessInfo info) {
+            if (_size == _entries.length) {
+                AccessInfo[] entries = new AccessInfo[_size * 2];
+                System.arraycopy(_entries, 0, entries, 0, _size);
+                _entries = entries;
+            }
+            info._index = _size;
+            _entries[_size++] = info;
+        }
+
+        synchronized boolean remove(AccessInfo info) {
+            int index = info._index;
+            if (index < 0 || _entries[index] != info)
+                return false;
+            info._removed = true;
+            info._index = -1;
+            AccessInfo last = _entries[--_size];
+            _entries[_size] = null;
+            if (last != info) {
+                _entries[index] = last;
+                last._index = index;
+            }
+            if (_entries.length > 64 && _size < _entries.length / 4) {
+                AccessInfo[] entries = new AccessInfo[_entries.length / 2];
+                System.arraycopy(_entries, 0, entries, 0, _size);
+                _entries = entries;
+            }
+            return true;
+        }
+
+        synchronized AccessInfo random(ThreadLocalRandom random) {
+            return _size == 0 ? null : _entries[random.nextInt(_size)];
+        }
+    }
+}
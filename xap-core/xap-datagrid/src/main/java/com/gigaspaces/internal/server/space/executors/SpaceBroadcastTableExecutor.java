@@ -29,6 +29,12 @@ public class SpaceBroadcastTableExecutor extends SpaceActionExecutor {
         BroadcastTableSpaceResponseInfo responseInfo = new BroadcastTableSpaceResponseInfo();
         int partitionId = space.getPartitionId();
         BroadcastTableSpaceRequestInfo requestInfo = (BroadcastTableSpaceRequestInfo) spaceRequestInfo;
+        if(requestInfo.getAction() == FLUSH_ENTRIES) {
+            // only the first partition pushes broadcast table entries
+            if(partitionId == 0 && space.getBroadcastTableHandler() != null)
+                space.getBroadcastTableHandler().flush(null);
+            return responseInfo;
+        }
         if(partitionId == 0 && !requestInfo.getAction().equals(PULL_ENTRIES))
             return responseInfo;
         if(requestInfo.getAction() == PUSH_ENTRY) {
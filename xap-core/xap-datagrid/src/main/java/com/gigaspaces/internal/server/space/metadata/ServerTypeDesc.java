@@ -20,6 +20,7 @@ import com.gigaspaces.internal.metadata.EntryIntrospector;
 import com.gigaspaces.internal.metadata.ITypeDesc;
 import com.gigaspaces.internal.server.metadata.IServerTypeDesc;
 import com.gigaspaces.internal.server.metadata.InactiveTypeDesc;
+import com.gigaspaces.internal.server.storage.PropertyValueDictionary;
 import com.gigaspaces.metrics.LongCounter;
 
 import java.util.concurrent.ConcurrentHashMap;
@@ -40,6 +41,7 @@ public class ServerTypeDesc implements IServerTypeDesc {
 
     private ITypeDesc _typeDesc;
     private boolean _inactive;
+    private volatile PropertyValueDictionary _propertyValueDictionary;
 
     private IServerTypeDesc[] _subTypes;
     private IServerTypeDesc[] _assignableTypes;
@@ -117,6 +119,13 @@ public class ServerTypeDesc implements IServerTypeDesc {
 
         this._typeDesc = typeDesc;
         this._inactive = typeDesc.isInactive();
+        // fixed properties may have changed - start over with a new dictionary
+        this._propertyValueDictionary = typeDesc.isDictionaryEncoding() ? new PropertyValueDictionary(typeDesc) : null;
+    }
+
+    @Override
+    public PropertyValueDictionary getPropertyValueDictionary() {
+        return _propertyValueDictionary;
     }
 
     public boolean isActive() {
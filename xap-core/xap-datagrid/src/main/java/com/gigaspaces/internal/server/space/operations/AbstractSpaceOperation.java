@@ -33,4 +33,12 @@ public abstract class AbstractSpaceOperation<TResult extends RemoteOperationResu
         return true;
     }
 
+    /**
+     * @return the latency metric this request is measured by, or null if its latency is not
+     * measured.
+     */
+    public SpaceOperationLatency getLatency(TRequest request) {
+        return null;
+    }
+
 }
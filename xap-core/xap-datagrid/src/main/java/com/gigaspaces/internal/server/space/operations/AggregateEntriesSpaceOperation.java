@@ -92,4 +92,9 @@ public class AggregateEntriesSpaceOperation extends AbstractSpaceOperation<Aggre
     public String getLogName(AggregateEntriesSpaceOperationRequest request, AggregateEntriesSpaceOperationResult result) {
         return "scan";
     }
+
+    @Override
+    public SpaceOperationLatency getLatency(AggregateEntriesSpaceOperationRequest request) {
+        return SpaceOperationLatency.AGGREGATE;
+    }
 }
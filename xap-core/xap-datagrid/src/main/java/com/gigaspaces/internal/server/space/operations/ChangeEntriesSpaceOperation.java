@@ -213,5 +213,8 @@ public class ChangeEntriesSpaceOperation
         return "change";
     }
 
-
+    @Override
+    public SpaceOperationLatency getLatency(ChangeEntriesSpaceOperationRequest request) {
+        return SpaceOperationLatency.isById(request.getTemplatePacket()) ? SpaceOperationLatency.CHANGE_BY_ID : SpaceOperationLatency.CHANGE;
+    }
 }
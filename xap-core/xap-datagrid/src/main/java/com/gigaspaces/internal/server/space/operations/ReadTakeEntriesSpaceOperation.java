@@ -61,4 +61,9 @@ public class ReadTakeEntriesSpaceOperation extends AbstractSpaceOperation<ReadTa
                              ReadTakeEntriesSpaceOperationResult result) {
         return request.isTake() ? "take entries" : "read entries";
     }
+
+    @Override
+    public SpaceOperationLatency getLatency(ReadTakeEntriesSpaceOperationRequest request) {
+        return SpaceOperationLatency.readTake(request.isTake(), SpaceOperationLatency.isById(request.getTemplatePacket()));
+    }
 }
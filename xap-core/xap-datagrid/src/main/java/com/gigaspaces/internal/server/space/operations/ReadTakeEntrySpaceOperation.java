@@ -65,4 +65,9 @@ public class ReadTakeEntrySpaceOperation extends AbstractSpaceOperation<ReadTake
                              ReadTakeEntrySpaceOperationResult result) {
         return request.isTake() ? "take" : "read";
     }
+
+    @Override
+    public SpaceOperationLatency getLatency(ReadTakeEntrySpaceOperationRequest request) {
+        return SpaceOperationLatency.readTake(request.isTake(), SpaceOperationLatency.isById(request.getTemplatePacket()));
+    }
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space.operations;
+
+import com.gigaspaces.internal.transport.ITemplatePacket;
+
+/**
+ * The space operations whose latency is measured by the {@link SpaceOperationsExecutor}, operations
+ * which match entries by id are measured separately from operations which match by template.
+ *
+ * @since 16.0
+ */
+public enum SpaceOperationLatency {
+    READ("read"),
+    READ_BY_ID("read-by-id"),
+    TAKE("take"),
+    TAKE_BY_ID("take-by-id"),
+    WRITE("write"),
+    CHANGE("change"),
+    CHANGE_BY_ID("change-by-id"),
+    EXECUTE("execute"),
+    AGGREGATE("aggregate");
+
+    private final String metricName;
+
+    SpaceOperationLatency(String name) {
+        this.metricName = name + "-latency";
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+
+    public static SpaceOperationLatency readTake(boolean isTake, boolean byId) {
+        if (isTake)
+            return byId ? TAKE_BY_ID : TAKE;
+        return byId ? READ_BY_ID : READ;
+    }
+
+    public static boolean isById(ITemplatePacket template) {
+        return template != null && (template.isIdQuery() || template.isIdsQuery());
+    }
+}
@@ -19,6 +19,8 @@ package com.gigaspaces.internal.server.space.operations;
 import com.gigaspaces.internal.remoting.RemoteOperationRequest;
 import com.gigaspaces.internal.remoting.RemoteOperationResult;
 import com.gigaspaces.internal.server.space.SpaceImpl;
+import com.gigaspaces.metrics.LatencyHistogram;
+import com.gigaspaces.metrics.MetricRegistrator;
 import com.j_spaces.core.exception.ClosedResourceException;
 
 import java.rmi.RemoteException;
@@ -31,6 +33,7 @@ import java.rmi.RemoteException;
 @com.gigaspaces.api.InternalApi
 public class SpaceOperationsExecutor {
     private final AbstractSpaceOperation<?, ?>[] _operations;
+    private final LatencyHistogram[] _latencies = createLatencies();
 
     public SpaceOperationsExecutor() {
         this._operations = new AbstractSpaceOperation[SpaceOperationsCodes.NUM_OF_OPERATIONS];
@@ -61,6 +64,22 @@ public class SpaceOperationsExecutor {
         this._operations = operations;
     }
 
+    private static LatencyHistogram[] createLatencies() {
+        LatencyHistogram[] latencies = new LatencyHistogram[SpaceOperationLatency.values().length];
+        for (int i = 0; i < latencies.length; i++)
+            latencies[i] = new LatencyHistogram();
+        return latencies;
+    }
+
+    public void registerMetrics(MetricRegistrator registrator) {
+        for (SpaceOperationLatency latency : SpaceOperationLatency.values())
+            registrator.register(latency.getMetricName(), _latencies[latency.ordinal()]);
+    }
+
+    public LatencyHistogram getLatencyHistogram(SpaceOperationLatency latency) {
+        return _latencies[latency.ordinal()];
+    }
+
     public <T extends RemoteOperationResult> T executeOperation(RemoteOperationRequest<T> request, SpaceImpl space, boolean oneway) {
         // Get operation code from request:
         int operationCode = request.getOperationCode();
@@ -72,6 +91,7 @@ public class SpaceOperationsExecutor {
 
         // Initialize operation result:
         T result = request.createRemoteOperationResult();
+        final long startTime = System.nanoTime();
         try {
             // TODO: Handle availability aspect.
             // TODO: Handle security aspect.
@@ -92,6 +112,9 @@ public class SpaceOperationsExecutor {
             result.setExecutionException(e);
         }
 
+        SpaceOperationLatency latency = operation.getLatency(request);
+        if (latency != null)
+            _latencies[latency.ordinal()].recordSince(startTime);
         return result;
     }
 }
@@ -71,4 +71,9 @@ public class WriteEntrySpaceOperation extends AbstractSpaceOperation<WriteEntryS
                              WriteEntrySpaceOperationResult result) {
         return "write";
     }
+
+    @Override
+    public SpaceOperationLatency getLatency(WriteEntrySpaceOperationRequest request) {
+        return SpaceOperationLatency.WRITE;
+    }
 }
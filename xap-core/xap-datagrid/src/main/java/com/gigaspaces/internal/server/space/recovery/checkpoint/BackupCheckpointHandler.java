@@ -0,0 +1,528 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space.recovery.checkpoint;
+
+import com.gigaspaces.internal.cluster.node.impl.ReplicationNode;
+import com.gigaspaces.internal.cluster.node.impl.groups.IReplicationTargetChannel;
+import com.gigaspaces.internal.cluster.node.impl.groups.IReplicationTargetGroup;
+import com.gigaspaces.internal.cluster.node.impl.processlog.IReplicationTargetProcessLog;
+import com.gigaspaces.internal.cluster.node.impl.processlog.globalorder.AbstractGlobalOrderTargetProcessLog;
+import com.gigaspaces.internal.cluster.node.impl.replica.EntryReplicaProducer;
+import com.gigaspaces.internal.cluster.node.impl.replica.ISpaceReplicaData;
+import com.gigaspaces.internal.cluster.node.impl.replica.ISynchronizationCallback;
+import com.gigaspaces.internal.cluster.node.impl.replica.data.AbstractEntryReplicaData;
+import com.gigaspaces.internal.cluster.node.replica.SpaceCopyReplicaParameters;
+import com.gigaspaces.internal.cluster.node.replica.SpaceCopyReplicaParameters.ReplicaType;
+import com.gigaspaces.internal.extension.XapExtensions;
+import com.gigaspaces.internal.io.IOUtils;
+import com.gigaspaces.internal.io.MarshalInputStream;
+import com.gigaspaces.internal.io.MarshalOutputStream;
+import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.gigaspaces.internal.server.metadata.IServerTypeDesc;
+import com.gigaspaces.internal.server.space.SpaceEngine;
+import com.gigaspaces.internal.server.storage.IEntryHolder;
+import com.gigaspaces.internal.transport.EntryPacketFactory;
+import com.gigaspaces.internal.transport.IEntryPacket;
+import com.gigaspaces.internal.utils.concurrent.GSThread;
+import com.gigaspaces.logger.Constants;
+import com.gigaspaces.time.SystemTime;
+import com.j_spaces.core.client.EntryAlreadyInSpaceException;
+import com.j_spaces.kernel.SystemProperties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Periodically writes a checkpoint of the entries of a backup space to a local directory, together
+ * with the replication key of the last packet the checkpoint includes. When the backup restarts it
+ * requests the primary to replicate only the packets following that key, and restores the
+ * checkpoint instead of copying the space - the primary falls back to a full copy if its backlog
+ * no longer holds these packets. <p/> Replication is not paused while the entries are written:
+ * the uids of the entries which are replicated meanwhile are tracked, and their state is captured
+ * again together with the replication key while no packet is processed. While the backup waits
+ * for the decision of the primary, incoming replication is held so it is applied on top of the
+ * restored checkpoint.
+ *
+ * @since 16.0
+ */
+@com.gigaspaces.api.InternalApi
+public class BackupCheckpointHandler {
+    private static final Logger _logger = LoggerFactory.getLogger(Constants.LOGGER_REPLICATION_REPLICA);
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int RESET_INTERVAL = 1000;
+
+    private final SpaceEngine _engine;
+    private final File _dataFile;
+    private final File _infoFile;
+    private final long _interval;
+    private final Thread _thread;
+
+    private volatile Set<String> _touchedUids;
+    private volatile boolean _unknownTouch;
+    private volatile CountDownLatch _recoveryGate;
+    private CheckpointInfo _recoveryCheckpoint;
+    private boolean _closed;
+
+    public BackupCheckpointHandler(SpaceEngine engine, String directory) {
+        this._engine = engine;
+        File dir = new File(directory);
+        String fileName = engine.getFullSpaceName().replaceAll("[^a-zA-Z0-9._-]", "_");
+        this._dataFile = new File(dir, fileName + ".checkpoint.data");
+        this._infoFile = new File(dir, fileName + ".checkpoint.info");
+        this._interval = Long.getLong(SystemProperties.REPLICATION_BACKUP_CHECKPOINT_INTERVAL,
+                SystemProperties.REPLICATION_BACKUP_CHECKPOINT_INTERVAL_DEFAULT);
+        this._thread = new GSThread(new Runnable() {
+            @Override
+            public void run() {
+                checkpointLoop();
+            }
+        }, engine.getFullSpaceName() + "-backup-checkpoint");
+        this._thread.setDaemon(true);
+        this._thread.start();
+        if (_logger.isInfoEnabled())
+            _logger.info("[" + engine.getFullSpaceName() + "] backup checkpoint is written to " + _infoFile.getParent() + " every " + _interval + "ms");
+    }
+
+    public void close() {
+        synchronized (this) {
+            _closed = true;
+            notifyAll();
+        }
+        releaseRecoveryGate();
+        _thread.interrupt();
+    }
+
+    /**
+     * Called before a replicated entry operation is executed, holds it while waiting for the
+     * primary to decide whether the checkpoint is used, and tracks it while a checkpoint is
+     * written.
+     */
+    public void beforeReplicatedOperation(String uid) {
+        CountDownLatch recoveryGate = _recoveryGate;
+        if (recoveryGate != null) {
+            try {
+                recoveryGate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Set<String> touchedUids = _touchedUids;
+        if (touchedUids != null) {
+            if (uid != null)
+                touchedUids.add(uid);
+            else
+                _unknownTouch = true;
+        }
+    }
+
+    /**
+     * Called before a synchronization replica request is sent, sets the checkpoint held by this
+     * backup (if any) in the request parameters.
+     */
+    public synchronized void beforeSynchronizeReplica(SpaceCopyReplicaParameters parameters) {
+        if (_closed)
+            return;
+        if (_recoveryCheckpoint == null) {
+            if (!_infoFile.exists() || !_dataFile.exists())
+                return;
+            try {
+                _recoveryCheckpoint = readInfo();
+            } catch (Exception e) {
+                _logger.warn("[" + _engine.getFullSpaceName() + "] failed to read backup checkpoint " + _infoFile + ", performing full recovery", e);
+                return;
+            }
+        }
+        parameters.setCheckpoint(_recoveryCheckpoint.key, _recoveryCheckpoint.sourceUniqueId);
+        _recoveryGate = new CountDownLatch(1);
+        if (_logger.isInfoEnabled())
+            _logger.info("[" + _engine.getFullSpaceName() + "] requesting recovery from backup checkpoint at key " + _recoveryCheckpoint.key
+                    + " taken from " + _recoveryCheckpoint.sourceLookupName);
+    }
+
+    /**
+     * Called when the primary started a full copy of the space, the checkpoint is not used.
+     */
+    public void onSpaceCopy() {
+        if (_recoveryGate == null)
+            return;
+        synchronized (this) {
+            if (_recoveryCheckpoint != null && _logger.isInfoEnabled())
+                _logger.info("[" + _engine.getFullSpaceName() + "] primary cannot recover from backup checkpoint at key "
+                        + _recoveryCheckpoint.key + ", performing full recovery");
+            _recoveryCheckpoint = null;
+        }
+        releaseRecoveryGate();
+    }
+
+    /**
+     * Called when the synchronization replica request is done, successfully or not.
+     */
+    public synchronized void afterSynchronizeReplica() {
+        _recoveryCheckpoint = null;
+        releaseRecoveryGate();
+    }
+
+    /**
+     * Restores the checkpoint the primary decided to synchronize this backup from.
+     */
+    public synchronized void restoreCheckpoint(long checkpointKey) throws Exception {
+        final CheckpointInfo checkpoint = _recoveryCheckpoint;
+        if (checkpoint == null || checkpoint.key != checkpointKey)
+            throw new IllegalStateException("Primary requested to recover from checkpoint at key " + checkpointKey
+                    + " while the backup checkpoint is " + (checkpoint == null ? "not available" : "at key " + checkpoint.key));
+        final long startTime = SystemTime.timeMillis();
+        for (ITypeDesc typeDesc : checkpoint.types)
+            _engine.getTypeManager().addTypeDesc(typeDesc);
+
+        long restored = 0;
+        MarshalInputStream in = new MarshalInputStream(new BufferedInputStream(new FileInputStream(_dataFile)));
+        try {
+            if (in.readInt() != FORMAT_VERSION || in.readLong() != checkpoint.id)
+                throw new IOException("Backup checkpoint data file " + _dataFile + " does not match " + _infoFile);
+            while (in.readBoolean()) {
+                long expirationTime = in.readLong();
+                IEntryPacket entryPacket = IOUtils.readObject(in);
+                if (!checkpoint.overrides.containsKey(entryPacket.getUID()) && restoreEntry(entryPacket, expirationTime))
+                    restored++;
+            }
+        } finally {
+            in.close();
+        }
+        for (OverrideEntry override : checkpoint.overrides.values()) {
+            if (override.entryPacket != null && restoreEntry(override.entryPacket, override.expirationTime))
+                restored++;
+        }
+        _recoveryCheckpoint = null;
+        if (_logger.isInfoEnabled())
+            _logger.info("[" + _engine.getFullSpaceName() + "] restored " + restored + " entries from backup checkpoint at key "
+                    + checkpointKey + " in " + (SystemTime.timeMillis() - startTime) + "ms");
+        releaseRecoveryGate();
+    }
+
+    private boolean restoreEntry(IEntryPacket entryPacket, long expirationTime) throws Exception {
+        long ttl = expirationTime == Long.MAX_VALUE ? Long.MAX_VALUE : expirationTime - SystemTime.timeMillis();
+        if (ttl <= 0)
+            return false;
+        entryPacket.setTTL(ttl);
+        try {
+            _engine.write(entryPacket, null /* txn */, ttl, 0 /* modifiers */, true /* fromRepl */, false /* origin */, null);
+            return true;
+        } catch (EntryAlreadyInSpaceException e) {
+            return false;
+        }
+    }
+
+    private void releaseRecoveryGate() {
+        CountDownLatch recoveryGate = _recoveryGate;
+        if (recoveryGate != null) {
+            _recoveryGate = null;
+            recoveryGate.countDown();
+        }
+    }
+
+    private void checkpointLoop() {
+        while (true) {
+            synchronized (this) {
+                try {
+                    if (!_closed)
+                        wait(_interval);
+                } catch (InterruptedException e) {
+                    // closed
+                }
+                if (_closed)
+                    return;
+            }
+            if (!_engine.getSpaceImpl().isBackup() || _engine.getSpaceImpl().isRecovering())
+                continue;
+            try {
+                checkpoint();
+            } catch (Exception e) {
+                _logger.warn("[" + _engine.getFullSpaceName() + "] failed to write backup checkpoint", e);
+            }
+        }
+    }
+
+    private void checkpoint() throws Exception {
+        final String primaryMemberName = _engine.getSpaceImpl().getLeaderSelector() != null
+                ? _engine.getSpaceImpl().getLeaderSelector().getPrimaryMemberName() : null;
+        if (primaryMemberName == null)
+            return;
+        final String sourceLookupName = XapExtensions.getInstance().getReplicationUtils().toChannelName(primaryMemberName);
+        IReplicationTargetGroup targetGroup = ((ReplicationNode) _engine.getReplicationNode()).getReplicationTargetGroup(_engine.generateGroupName());
+        IReplicationTargetChannel channel = targetGroup.getChannel(sourceLookupName);
+        IReplicationTargetProcessLog processLog = channel != null ? channel.getProcessLog() : null;
+        if (!(processLog instanceof AbstractGlobalOrderTargetProcessLog)) {
+            if (_logger.isDebugEnabled())
+                _logger.debug("[" + _engine.getFullSpaceName() + "] skipping backup checkpoint, no supported replication channel from " + sourceLookupName);
+            return;
+        }
+        final AbstractGlobalOrderTargetProcessLog globalOrderProcessLog = (AbstractGlobalOrderTargetProcessLog) processLog;
+        final Object sourceUniqueId = channel.getSourceUniqueId();
+        writeCheckpoint(globalOrderProcessLog.getProcessLock(), new ReplicationPosition() {
+            @Override
+            public boolean isReconnected() {
+                return globalOrderProcessLog.isFirstHandshakeForTarget() || !sourceUniqueId.equals(channel.getSourceUniqueId());
+            }
+
+            @Override
+            public long getLastProcessedKey() {
+                return globalOrderProcessLog.getLastProcessedKey();
+            }
+        }, sourceLookupName, sourceUniqueId);
+    }
+
+    /**
+     * Writes a checkpoint of the entries which includes all the packets processed under the given
+     * process lock up to the returned key.
+     */
+    Long writeCheckpoint(Lock processLock, ReplicationPosition position, String sourceLookupName, Object sourceUniqueId) throws Exception {
+        final long startTime = SystemTime.timeMillis();
+        final long id = new Random().nextLong();
+        final File tempDataFile = new File(_dataFile.getPath() + ".tmp");
+        final File tempInfoFile = new File(_infoFile.getPath() + ".tmp");
+        tempDataFile.getParentFile().mkdirs();
+
+        // a packet which is being processed without being tracked may be applied after the scan
+        // passed its entry, so tracking starts while no packet is processed
+        processLock.lock();
+        try {
+            _unknownTouch = false;
+            _touchedUids = newConcurrentSet();
+        } finally {
+            processLock.unlock();
+        }
+        try {
+            long entries = writeEntries(tempDataFile, id);
+
+            final CheckpointInfo checkpoint;
+            processLock.lock();
+            try {
+                String skipReason = null;
+                if (_unknownTouch)
+                    skipReason = "an entry without uid was replicated";
+                else if (!_engine.getTransactionHandler().getXtnTable().isEmpty())
+                    skipReason = "there are active transactions";
+                else if (position.isReconnected())
+                    skipReason = "the replication channel was reconnected";
+                if (skipReason != null) {
+                    if (_logger.isDebugEnabled())
+                        _logger.debug("[" + _engine.getFullSpaceName() + "] skipping backup checkpoint, " + skipReason);
+                    return null;
+                }
+                checkpoint = new CheckpointInfo(id, position.getLastProcessedKey(), sourceLookupName, sourceUniqueId);
+                for (IServerTypeDesc serverTypeDesc : _engine.getTypeManager().getSafeTypeTable().values()) {
+                    if (!serverTypeDesc.getTypeDesc().isInactive())
+                        checkpoint.types.add(serverTypeDesc.getTypeDesc());
+                }
+                for (String uid : _touchedUids)
+                    checkpoint.overrides.put(uid, captureEntry(uid));
+                _touchedUids = null;
+            } finally {
+                processLock.unlock();
+            }
+
+            writeInfo(tempInfoFile, checkpoint);
+            // the info file is replaced last, it is only valid with the data file of the same id
+            if (!replace(tempDataFile, _dataFile) || !replace(tempInfoFile, _infoFile))
+                throw new IOException("Failed to replace backup checkpoint files in " + _infoFile.getParent());
+            if (_logger.isInfoEnabled())
+                _logger.info("[" + _engine.getFullSpaceName() + "] wrote backup checkpoint at key " + checkpoint.key + " with "
+                        + entries + " entries and " + checkpoint.overrides.size() + " replicated meanwhile in "
+                        + (SystemTime.timeMillis() - startTime) + "ms");
+            return checkpoint.key;
+        } finally {
+            _touchedUids = null;
+            tempDataFile.delete();
+            tempInfoFile.delete();
+        }
+    }
+
+    private long writeEntries(File file, long id) throws IOException {
+        SpaceCopyReplicaParameters parameters = new SpaceCopyReplicaParameters();
+        parameters.setReplicaType(ReplicaType.SYNCRONIZE);
+        parameters.setMemoryOnly(true);
+        EntryReplicaProducer producer = new EntryReplicaProducer(_engine, parameters, null, "backup-checkpoint");
+        ISynchronizationCallback synchronizationCallback = new ISynchronizationCallback() {
+            @Override
+            public boolean synchronizationDataGenerated(ISpaceReplicaData data) {
+                return false;
+            }
+        };
+        long count = 0;
+        MarshalOutputStream out = new MarshalOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try {
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(id);
+            AbstractEntryReplicaData data;
+            while ((data = producer.produceNextData(synchronizationCallback)) != null) {
+                synchronized (this) {
+                    if (_closed)
+                        throw new IOException("Space is closed");
+                }
+                IEntryPacket entryPacket = data.getEntryPacket();
+                out.writeBoolean(true);
+                out.writeLong(toExpirationTime(entryPacket.getTTL()));
+                entryPacket.setSerializeTypeDesc(false);
+                IOUtils.writeObject(out, entryPacket);
+                // release the references kept by the stream
+                if (++count % RESET_INTERVAL == 0)
+                    out.reset();
+            }
+            out.writeBoolean(false);
+        } finally {
+            producer.close(false);
+            out.close();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the current state of the entry with the given uid, called while no packet is
+     * processed.
+     */
+    private OverrideEntry captureEntry(String uid) {
+        IEntryHolder entryHolder = _engine.getCacheManager().getEntryByUidFromPureCache(uid);
+        if (entryHolder == null || entryHolder.isDeleted())
+            return new OverrideEntry(null, 0);
+        long expirationTime = entryHolder.getEntryData().getExpirationTime();
+        long ttl = expirationTime == Long.MAX_VALUE ? Long.MAX_VALUE : expirationTime - SystemTime.timeMillis();
+        if (ttl <= 0)
+            return new OverrideEntry(null, 0);
+        IEntryPacket entryPacket = EntryPacketFactory.createFullPacketForReplication(entryHolder, null, uid, ttl);
+        entryPacket.setSerializeTypeDesc(false);
+        return new OverrideEntry(entryPacket, expirationTime);
+    }
+
+    private void writeInfo(File file, CheckpointInfo checkpoint) throws IOException {
+        MarshalOutputStream out = new MarshalOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try {
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(checkpoint.id);
+            out.writeLong(checkpoint.key);
+            IOUtils.writeString(out, checkpoint.sourceLookupName);
+            IOUtils.writeObject(out, checkpoint.sourceUniqueId);
+            out.writeInt(checkpoint.types.size());
+            for (ITypeDesc typeDesc : checkpoint.types)
+                IOUtils.writeObject(out, typeDesc);
+            out.writeInt(checkpoint.overrides.size());
+            for (Map.Entry<String, OverrideEntry> override : checkpoint.overrides.entrySet()) {
+                IOUtils.writeString(out, override.getKey());
+                IEntryPacket entryPacket = override.getValue().entryPacket;
+                out.writeBoolean(entryPacket != null);
+                if (entryPacket != null) {
+                    out.writeLong(override.getValue().expirationTime);
+                    IOUtils.writeObject(out, entryPacket);
+                }
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    private CheckpointInfo readInfo() throws IOException, ClassNotFoundException {
+        MarshalInputStream in = new MarshalInputStream(new BufferedInputStream(new FileInputStream(_infoFile)));
+        try {
+            int version = in.readInt();
+            if (version != FORMAT_VERSION)
+                throw new IOException("Unsupported backup checkpoint format version " + version);
+            CheckpointInfo checkpoint = new CheckpointInfo(in.readLong(), in.readLong(), IOUtils.readString(in), IOUtils.readObject(in));
+            int numOfTypes = in.readInt();
+            for (int i = 0; i < numOfTypes; i++)
+                checkpoint.types.add(IOUtils.<ITypeDesc>readObject(in));
+            int numOfOverrides = in.readInt();
+            for (int i = 0; i < numOfOverrides; i++) {
+                String uid = IOUtils.readString(in);
+                if (in.readBoolean()) {
+                    long expirationTime = in.readLong();
+                    checkpoint.overrides.put(uid, new OverrideEntry(IOUtils.<IEntryPacket>readObject(in), expirationTime));
+                } else {
+                    checkpoint.overrides.put(uid, new OverrideEntry(null, 0));
+                }
+            }
+            return checkpoint;
+        } finally {
+            in.close();
+        }
+    }
+
+    private static long toExpirationTime(long ttl) {
+        return ttl == Long.MAX_VALUE ? Long.MAX_VALUE : SystemTime.timeMillis() + ttl;
+    }
+
+    private static boolean replace(File source, File target) {
+        if (target.exists() && !target.delete())
+            return false;
+        return source.renameTo(target);
+    }
+
+    private static Set<String> newConcurrentSet() {
+        return java.util.Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    }
+
+    /**
+     * The position of the replication channel a checkpoint is taken from, accessed under its
+     * process lock.
+     */
+    interface ReplicationPosition {
+        boolean isReconnected();
+
+        long getLastProcessedKey();
+    }
+
+    private static class CheckpointInfo {
+        private final long id;
+        private final long key;
+        private final String sourceLookupName;
+        private final Object sourceUniqueId;
+        private final List<ITypeDesc> types = new ArrayList<ITypeDesc>();
+        private final Map<String, OverrideEntry> overrides = new HashMap<String, OverrideEntry>();
+
+        private CheckpointInfo(long id, long key, String sourceLookupName, Object sourceUniqueId) {
+            this.id = id;
+            this.key = key;
+            this.sourceLookupName = sourceLookupName;
+            this.sourceUniqueId = sourceUniqueId;
+        }
+    }
+
+    private static class OverrideEntry {
+        private final IEntryPacket entryPacket;
+        private final long expirationTime;
+
+        private OverrideEntry(IEntryPacket entryPacket, long expirationTime) {
+            this.entryPacket = entryPacket;
+            this.expirationTime = expirationTime;
+        }
+    }
+}
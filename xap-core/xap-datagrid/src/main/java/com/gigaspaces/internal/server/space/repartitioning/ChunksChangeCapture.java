@@ -0,0 +1,330 @@
+package com.gigaspaces.internal.server.space.repartitioning;
+
+import com.gigaspaces.internal.client.QueryResultTypeInternal;
+import com.gigaspaces.internal.client.spaceproxy.ISpaceProxy;
+import com.gigaspaces.internal.cluster.ClusterTopology;
+import com.gigaspaces.internal.exceptions.ChunksMapGenerationException;
+import com.gigaspaces.internal.io.BootIOUtils;
+import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.gigaspaces.internal.remoting.routing.partitioned.PartitionedClusterUtils;
+import com.gigaspaces.internal.server.space.SpaceImpl;
+import com.gigaspaces.internal.server.storage.IEntryData;
+import com.gigaspaces.internal.server.storage.IEntryHolder;
+import com.gigaspaces.internal.transport.EmptyQueryPacket;
+import com.gigaspaces.internal.transport.IEntryPacket;
+import com.gigaspaces.query.IdsQuery;
+import com.j_spaces.core.SpaceContext;
+import com.j_spaces.core.client.Modifiers;
+import net.jini.core.lease.Lease;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Captures the changes of entries which move to another partition while an online copy of chunks
+ * is in progress, so the copy does not require quiescing the space:
+ * <ol>
+ * <li>The capture is installed before the snapshot copy, and records the uid of every written,
+ * updated or taken entry whose routing value maps to another partition in the new topology.</li>
+ * <li>After the snapshot, {@link #catchUp()} replays the captured changes in rounds - entries which
+ * still exist are written to their new partition with update or write, and entries which were
+ * taken are cleared from it - until a round is small enough.</li>
+ * <li>It then raises a barrier which holds the writes, updates, changes, takes and clears of the
+ * moving entries, transactional or not, for at most {@link #BARRIER_TIMEOUT}, and replays the last
+ * changes. Changes and takes by a template without a routing value may match moving entries, so
+ * they are held as well.</li>
+ * <li>Once the routing is switched, the delete chunks step calls {@link #complete()}: the held
+ * operations and any later operation of a moving entry fail with a {@link
+ * ChunksMapGenerationException}, so the client routes them again with the new topology. The
+ * operations which were admitted before are awaited, then the capture stops and the changes made
+ * since the last replay are replayed.</li>
+ * </ol>
+ * Rescaling chunk by chunk is done by a sequence of such copy and delete steps, each with a
+ * topology which moves only the next chunks, so each barrier covers only the moving chunks.
+ *
+ * @since 16.0
+ */
+public class ChunksChangeCapture {
+
+    public static Logger logger = LoggerFactory.getLogger("org.openspaces.admin.internal.pu.scale_horizontal.ScaleManager");
+
+    static final long BARRIER_TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_CATCH_UP_ROUNDS = 10;
+    private static final int BARRIER_THRESHOLD = 1000;
+    private static final int BROADCAST_PARTITION = -1;
+    // entries may have been copied already, and keep the version they have in this partition
+    static final int WRITE_MODIFIERS = Modifiers.BACKUP_ONLY | Modifiers.UPDATE_OR_WRITE | Modifiers.OVERRIDE_VERSION;
+
+    private final SpaceImpl space;
+    private final SpaceContext spaceContext;
+    private final ClusterTopology newMap;
+    private final ScaleType scaleType;
+    private final Map<Integer, ISpaceProxy> proxyMap;
+    private final int partitionId;
+
+    private final Map<String, CapturedChange> changes = new ConcurrentHashMap<>();
+    // changes made under a transaction may be committed or aborted after they were replayed
+    private final Map<String, CapturedChange> transactionalChanges = new ConcurrentHashMap<>();
+    // changes are recorded under the read lock, so none is recorded once the write lock set closed
+    private final ReadWriteLock captureLock = new ReentrantReadWriteLock();
+    private final Object barrierLock = new Object();
+    private volatile long barrierDeadline;
+    private volatile boolean moved;
+    private volatile boolean closed;
+    // admitted operations of moving entries, guarded by barrierLock
+    private int inFlightOperations;
+
+    ChunksChangeCapture(SpaceImpl space, CopyChunksRequestInfo info, Map<Integer, ISpaceProxy> proxyMap) {
+        this.space = space;
+        this.spaceContext = info.getSpaceContext();
+        this.newMap = info.getNewMap();
+        this.scaleType = info.getScaleType();
+        this.proxyMap = proxyMap;
+        this.partitionId = space.getPartitionIdOneBased();
+    }
+
+    /**
+     * Called after an entry was written, updated or taken.
+     */
+    public void onChange(IEntryHolder entryHolder) {
+        if (closed)
+            return;
+        captureLock.readLock().lock();
+        try {
+            if (!closed)
+                record(entryHolder);
+        } finally {
+            captureLock.readLock().unlock();
+        }
+    }
+
+    private void record(IEntryHolder entryHolder) {
+        final ITypeDesc typeDesc = entryHolder.getServerTypeDesc().getTypeDesc();
+        final IEntryData entryData = entryHolder.getEntryData();
+        final int targetPartition;
+        if (typeDesc.isBroadcast()) {
+            if (scaleType == ScaleType.IN || partitionId != 1)
+                return;
+            targetPartition = BROADCAST_PARTITION;
+        } else {
+            final Object routingValue = getRoutingValue(typeDesc, entryData);
+            if (routingValue == null)
+                return;
+            targetPartition = PartitionedClusterUtils.getPartitionId(routingValue, newMap) + 1;
+            if (targetPartition == partitionId)
+                return;
+        }
+        final int idPosition = typeDesc.getIdentifierPropertyId();
+        final Object id = idPosition >= 0 ? entryData.getFixedPropertyValue(idPosition) : null;
+        final CapturedChange change = new CapturedChange(entryHolder.getUID(), typeDesc.getTypeName(), id, targetPartition);
+        changes.put(change.uid, change);
+        if (entryHolder.getXidOriginatedTransaction() != null || entryHolder.isMaybeUnderXtn())
+            transactionalChanges.put(change.uid, change);
+    }
+
+    /**
+     * Called before a write or update of an entry, before any entry lock is acquired. Holds the
+     * operation while the barrier is raised, and rejects it once the entries moved.
+     *
+     * @return true if the operation is of a moving entry, in which case {@link #afterOperation()}
+     * must be called when it is done
+     */
+    public boolean beforeOperation(ITypeDesc typeDesc, Object routingValue) {
+        if ((closed && !moved) || typeDesc.isBroadcast() || routingValue == null)
+            return false;
+        if (PartitionedClusterUtils.getPartitionId(routingValue, newMap) + 1 == partitionId)
+            return false;
+        return admit("routing value " + routingValue);
+    }
+
+    /**
+     * Called before a change, take or clear by a template, before any entry lock is acquired. A
+     * template without a routing value may match moving entries, so it is held and rejected as an
+     * operation of a moving entry.
+     *
+     * @return true if the operation may be of a moving entry, in which case {@link
+     * #afterOperation()} must be called when it is done
+     */
+    public boolean beforeTemplateOperation(ITypeDesc typeDesc, Object routingValue) {
+        if (routingValue != null)
+            return beforeOperation(typeDesc, routingValue);
+        if ((closed && !moved) || typeDesc.isBroadcast())
+            return false;
+        return admit("entries of type " + typeDesc.getTypeName() + " matched without a routing value");
+    }
+
+    private boolean admit(String movingEntries) {
+        synchronized (barrierLock) {
+            long remaining;
+            while (!moved && !closed && (remaining = barrierDeadline - System.currentTimeMillis()) > 0) {
+                try {
+                    barrierLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ChunksMapGenerationException("Interrupted while waiting for chunks of partition " + partitionId + " to move");
+                }
+            }
+            if (moved) {
+                final ChunksMapGenerationException exception = new ChunksMapGenerationException(movingEntries
+                        + " moved from partition " + partitionId + " at generation " + newMap.getGeneration());
+                exception.setNewMap(newMap);
+                throw exception;
+            }
+            if (closed)
+                return false;
+            inFlightOperations++;
+            return true;
+        }
+    }
+
+    public void afterOperation() {
+        synchronized (barrierLock) {
+            if (--inFlightOperations == 0)
+                barrierLock.notifyAll();
+        }
+    }
+
+    /**
+     * Replays the changes captured during the snapshot copy, and the last changes under the
+     * barrier.
+     */
+    void catchUp() throws Exception {
+        for (int round = 0; round < MAX_CATCH_UP_ROUNDS; round++) {
+            final Collection<CapturedChange> delta = drain(false);
+            replay(delta);
+            if (delta.size() <= BARRIER_THRESHOLD)
+                break;
+        }
+        synchronized (barrierLock) {
+            barrierDeadline = System.currentTimeMillis() + BARRIER_TIMEOUT;
+        }
+        // let open transactions end so their outcome is replayed, a transaction whose next operation
+        // of a moving entry is held by the barrier ends only after the barrier times out
+        if (!BootIOUtils.waitFor(() -> space.getEngine().getTransactionHandler().getXtnTable().isEmpty(), BARRIER_TIMEOUT / 2, 10))
+            logger.warn("Open transactions did not end before the last changes of partition " + partitionId + " were replayed");
+        replay(drain(true));
+    }
+
+    /**
+     * Called once the routing is switched: rejects the operations of moving entries, stops
+     * capturing and replays the changes made since the last replay. The capture remains installed
+     * to reject the operations of clients which did not switch yet, until it is closed.
+     */
+    void complete() throws Exception {
+        synchronized (barrierLock) {
+            moved = true;
+            barrierLock.notifyAll();
+            final long deadline = System.currentTimeMillis() + BARRIER_TIMEOUT;
+            long remaining;
+            while (inFlightOperations > 0 && (remaining = deadline - System.currentTimeMillis()) > 0)
+                barrierLock.wait(remaining);
+            if (inFlightOperations > 0)
+                logger.warn(inFlightOperations + " operations of moving entries did not end before the last changes of partition " + partitionId + " were replayed");
+        }
+        stopCapture();
+        replay(drain(true));
+    }
+
+    /**
+     * Stops capturing and removes the capture, operations held by the barrier are released unless
+     * the entries moved.
+     */
+    public void close() {
+        stopCapture();
+        synchronized (barrierLock) {
+            barrierDeadline = 0;
+            barrierLock.notifyAll();
+        }
+        space.getEngine().removeChunksChangeCapture(this);
+    }
+
+    private void stopCapture() {
+        captureLock.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            captureLock.writeLock().unlock();
+        }
+    }
+
+    private Collection<CapturedChange> drain(boolean includeTransactional) {
+        final Map<String, CapturedChange> delta = new HashMap<>();
+        for (CapturedChange change : changes.values()) {
+            // a newer change of the same entry stays for the next replay
+            if (changes.remove(change.uid, change))
+                delta.put(change.uid, change);
+        }
+        if (includeTransactional)
+            delta.putAll(transactionalChanges);
+        return delta.values();
+    }
+
+    private void replay(Collection<CapturedChange> delta) throws Exception {
+        if (delta.isEmpty())
+            return;
+        final Map<String, CapturedChange> removed = new HashMap<>(delta.size());
+        for (CapturedChange change : delta)
+            removed.put(change.uid, change);
+
+        // re-read the current state of the changed entries and write it to their new partition
+        final BlockingQueue<Batch> queue = new LinkedBlockingQueue<>();
+        final CopyChunksProducer producer = new CopyChunksProducer(newMap, queue, BATCH_SIZE, scaleType, proxyMap.keySet());
+        final EmptyQueryPacket queryPacket = new EmptyQueryPacket();
+        queryPacket.setQueryResultType(QueryResultTypeInternal.NOT_SET);
+        queryPacket.setMultipleUIDs(removed.keySet().toArray(new String[0]));
+        space.getEngine().aggregate(queryPacket, Collections.singletonList(producer), Modifiers.NONE, spaceContext);
+        producer.getIntermediateResult();
+        for (Batch batch = queue.poll(); batch != null; batch = queue.poll()) {
+            final WriteBatch writeBatch = (WriteBatch) batch;
+            proxyMap.get(writeBatch.getPartitionId()).writeMultiple(writeBatch.getEntries().toArray(), null, Lease.FOREVER, WRITE_MODIFIERS);
+            for (IEntryPacket entryPacket : writeBatch.getEntries())
+                removed.remove(entryPacket.getUID());
+        }
+
+        // entries which no longer exist were taken after they were copied
+        final Map<Integer, Map<String, List<Object>>> removedIds = new HashMap<>();
+        for (CapturedChange change : removed.values()) {
+            if (change.id == null) {
+                logger.warn("Cannot remove entry " + change.uid + " of type " + change.typeName + " without an id from its new partition");
+                continue;
+            }
+            final Collection<Integer> targets = change.targetPartition == BROADCAST_PARTITION
+                    ? proxyMap.keySet() : Collections.singleton(change.targetPartition);
+            for (Integer target : targets)
+                removedIds.computeIfAbsent(target, key -> new HashMap<>()).computeIfAbsent(change.typeName, key -> new ArrayList<>()).add(change.id);
+        }
+        for (Map.Entry<Integer, Map<String, List<Object>>> partitionEntry : removedIds.entrySet()) {
+            for (Map.Entry<String, List<Object>> typeEntry : partitionEntry.getValue().entrySet())
+                proxyMap.get(partitionEntry.getKey()).clear(new IdsQuery<>(typeEntry.getKey(), typeEntry.getValue().toArray()), null, Modifiers.BACKUP_ONLY);
+        }
+        if (logger.isDebugEnabled())
+            logger.debug("Partition " + partitionId + " replayed " + delta.size() + " changes, " + removed.size() + " of them removals");
+    }
+
+    private static Object getRoutingValue(ITypeDesc typeDesc, IEntryData entryData) {
+        final String routingPropertyName = typeDesc.getRoutingPropertyName();
+        return routingPropertyName != null ? entryData.getPathValue(routingPropertyName) : null;
+    }
+
+    private static class CapturedChange {
+        private final String uid;
+        private final String typeName;
+        private final Object id;
+        private final int targetPartition;
+
+        private CapturedChange(String uid, String typeName, Object id, int targetPartition) {
+            this.uid = uid;
+            this.typeName = typeName;
+            this.id = id;
+            this.targetPartition = targetPartition;
+        }
+    }
+}
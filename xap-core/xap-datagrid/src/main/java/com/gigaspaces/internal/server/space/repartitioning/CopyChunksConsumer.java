@@ -19,12 +19,18 @@ public class CopyChunksConsumer implements Runnable {
     private BlockingQueue<Batch> batchQueue;
     private CopyChunksResponseInfo responseInfo;
     private CopyBarrier copyBarrier;
+    private int writeModifiers;
 
     CopyChunksConsumer(Map<Integer, ISpaceProxy> proxyMap, BlockingQueue<Batch> batchQueue, CopyChunksResponseInfo responseInfo, CopyBarrier copyBarrier) {
+        this(proxyMap, batchQueue, responseInfo, copyBarrier, Modifiers.BACKUP_ONLY);
+    }
+
+    CopyChunksConsumer(Map<Integer, ISpaceProxy> proxyMap, BlockingQueue<Batch> batchQueue, CopyChunksResponseInfo responseInfo, CopyBarrier copyBarrier, int writeModifiers) {
         this.proxyMap = proxyMap;
         this.batchQueue = batchQueue;
         this.responseInfo = responseInfo;
         this.copyBarrier = copyBarrier;
+        this.writeModifiers = writeModifiers;
     }
 
     @Override
@@ -41,7 +47,7 @@ public class CopyChunksConsumer implements Runnable {
                     if (batch != null) {
                         writeBatch = ((WriteBatch) batch);
                         ISpaceProxy spaceProxy = proxyMap.get(writeBatch.getPartitionId());
-                        spaceProxy.writeMultiple(writeBatch.getEntries().toArray(), null, Lease.FOREVER, Modifiers.BACKUP_ONLY);
+                        spaceProxy.writeMultiple(writeBatch.getEntries().toArray(), null, Lease.FOREVER, writeModifiers);
                         responseInfo.getMovedToPartition().get((short) writeBatch.getPartitionId()).addAndGet(writeBatch.getEntries().size());
                     }
                 } catch (InterruptedException e) {
@@ -20,6 +20,7 @@ public class CopyChunksRequestInfo implements SpaceRequestInfo {
     private Map<Integer, String> instanceIds;
     private QuiesceToken token;
     private ScaleType scaleType;
+    private boolean online;
 
     public CopyChunksRequestInfo() {
     }
@@ -32,6 +33,11 @@ public class CopyChunksRequestInfo implements SpaceRequestInfo {
         this.scaleType = scaleType;
     }
 
+    CopyChunksRequestInfo(ClusterTopology newMap, String spaceName, Map<Integer, String> instanceIds, QuiesceToken token, ScaleType scaleType, boolean online) {
+        this(newMap, spaceName, instanceIds, token, scaleType);
+        this.online = online;
+    }
+
     public ClusterTopology getNewMap() {
         return newMap;
     }
@@ -62,6 +68,14 @@ public class CopyChunksRequestInfo implements SpaceRequestInfo {
         return scaleType;
     }
 
+    /**
+     * @return true if the space is not quiesced, and changes made during the copy should be
+     * captured and replayed, see {@link ChunksChangeCapture}
+     */
+    public boolean isOnline() {
+        return online;
+    }
+
     @Override
     public void writeExternal(ObjectOutput out) throws IOException {
         IOUtils.writeObject(out, newMap);
@@ -73,6 +87,7 @@ public class CopyChunksRequestInfo implements SpaceRequestInfo {
             IOUtils.writeString(out, entry.getValue());
         }
         out.writeByte(scaleType.value);
+        out.writeBoolean(online);
     }
 
     @Override
@@ -86,5 +101,6 @@ public class CopyChunksRequestInfo implements SpaceRequestInfo {
             instanceIds.put((int) IOUtils.readShort(in), IOUtils.readString(in));
         }
         this.scaleType = in.readByte() == 0 ? ScaleType.IN : ScaleType.OUT;
+        this.online = in.readBoolean();
     }
 }
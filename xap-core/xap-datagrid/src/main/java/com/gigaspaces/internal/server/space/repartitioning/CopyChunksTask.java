@@ -26,6 +26,10 @@ public class CopyChunksTask extends SystemDistributedTask<SpaceResponseInfo> imp
         this.requestInfo = new CopyChunksRequestInfo(newMap, spaceName, instanceIds, token, scaleType);
     }
 
+    public CopyChunksTask(ClusterTopology newMap, String spaceName, Map<Integer, String> instanceIds, QuiesceToken token, ScaleType scaleType, boolean online) {
+        this.requestInfo = new CopyChunksRequestInfo(newMap, spaceName, instanceIds, token, scaleType, online);
+    }
+
     @Override
     public SpaceRequestInfo getSpaceRequestInfo() {
         return this.requestInfo;
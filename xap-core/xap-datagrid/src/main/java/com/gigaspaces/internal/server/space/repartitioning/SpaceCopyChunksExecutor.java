@@ -36,14 +36,24 @@ public class SpaceCopyChunksExecutor extends SpaceActionExecutor {
         BlockingQueue<Batch> batchQueue = new ArrayBlockingQueue<>(queueSize);
         CopyChunksRequestInfo info = (CopyChunksRequestInfo) requestInfo;
         CopyChunksResponseInfo responseInfo = new CopyChunksResponseInfo(space.getPartitionIdOneBased(),info.getInstanceIds().keySet());
+        ChunksChangeCapture capture = null;
+        boolean caughtUp = false;
         try {
 
             HashMap<Integer, ISpaceProxy> proxyMap = createProxyMap(info.getSpaceName(), info.getInstanceIds(), info.getToken());
 
+            int writeModifiers = Modifiers.BACKUP_ONLY;
+            if (info.isOnline()) {
+                // capture changes before the snapshot, so nothing written during the copy is missed
+                capture = new ChunksChangeCapture(space, info, proxyMap);
+                space.getEngine().setChunksChangeCapture(capture);
+                writeModifiers = ChunksChangeCapture.WRITE_MODIFIERS;
+            }
+
             CopyBarrier barrier = new CopyBarrier(threadCount);
             for (int i = 0; i < threadCount; i++) {
                 executorService.submit(new CopyChunksConsumer(proxyMap,
-                        batchQueue, responseInfo, barrier));
+                        batchQueue, responseInfo, barrier, writeModifiers));
             }
             CopyChunksProducer aggregator = new CopyChunksProducer(info.getNewMap(), batchQueue, batchSize, info.getScaleType(), info.getInstanceIds().keySet());
             EmptyQueryPacket queryPacket = new EmptyQueryPacket();
@@ -59,6 +69,10 @@ public class SpaceCopyChunksExecutor extends SpaceActionExecutor {
                 logger.error("Failed while waiting for cyclic barrier , response =  " + responseInfo);
                 responseInfo.setException(new IOException(e));
             }
+            if (capture != null && responseInfo.getException() == null) {
+                capture.catchUp();
+                caughtUp = true;
+            }
         } catch (AutoGeneratedIdNotSupportedException e) {
             logger.error("Copy chunks executor failed", e);
             throw e;
@@ -67,6 +81,8 @@ public class SpaceCopyChunksExecutor extends SpaceActionExecutor {
             throw new RuntimeException("Copy chunks executor failed", e);
         }finally {
             executorService.shutdownNow();
+            if (capture != null && !caughtUp)
+                capture.close();
         }
         return responseInfo;
     }
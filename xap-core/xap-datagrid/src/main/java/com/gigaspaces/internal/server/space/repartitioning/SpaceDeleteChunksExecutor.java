@@ -30,7 +30,12 @@ public class SpaceDeleteChunksExecutor extends SpaceActionExecutor {
         BlockingQueue<Batch> batchQueue = new ArrayBlockingQueue<>(queueSize);
         DeleteChunksRequestInfo info = (DeleteChunksRequestInfo) requestInfo;
         DeleteChunksResponseInfo responseInfo = new DeleteChunksResponseInfo(space.getPartitionIdOneBased());
+        ChunksChangeCapture capture = space.getEngine().getChunksChangeCapture();
         try {
+            if (capture != null) {
+                // replay the changes made since the copy ended, before they are deleted here
+                capture.complete();
+            }
             for (int i = 0; i < threadCount; i++) {
                 SpaceProxyImpl proxy = space.getServiceProxy();
                 proxy.setQuiesceToken(info.getToken());
@@ -52,6 +57,9 @@ public class SpaceDeleteChunksExecutor extends SpaceActionExecutor {
             executorService.awaitTermination(5, TimeUnit.MINUTES);
         } catch (Exception e) {
             throw new RuntimeException("Copy chunks executor failed", e);
+        } finally {
+            if (capture != null)
+                capture.close();
         }
         return responseInfo;
     }
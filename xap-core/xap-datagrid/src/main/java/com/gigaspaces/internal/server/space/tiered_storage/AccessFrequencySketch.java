@@ -0,0 +1,88 @@
+package com.gigaspaces.internal.server.space.tiered_storage;
+
+/**
+ * Count-min sketch of access frequencies. Each key is counted in one byte counter, saturating at
+ * 15, of each of the four rows, and its frequency is estimated by the smallest of them, so
+ * estimates may be too high but never too low. Once the number of increments reaches ten times the width all counters are
+ * halved, so the estimates follow the recent accesses and keys which are no longer accessed decay
+ * to zero.
+ * <p>
+ * Concurrent increments are not synchronized, an increment lost to a race only makes the estimate
+ * slightly lower.
+ *
+ * @since 16.0
+ */
+public class AccessFrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+    private final byte[] counters;
+    private final int width;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * @param expectedKeys the number of distinct keys expected to be tracked, the width of the
+     *                     sketch is the next power of two
+     */
+    public AccessFrequencySketch(int expectedKeys) {
+        int width = 16;
+        while (width < expectedKeys && width < (1 << 26))
+            width <<= 1;
+        this.width = width;
+        this.counters = new byte[DEPTH * width];
+        this.sampleSize = 10 * width;
+    }
+
+    public void increment(Object key) {
+        final int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < DEPTH; i++) {
+            final int index = indexOf(hash, i);
+            if (counters[index] < MAX_COUNT) {
+                counters[index]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize)
+            age();
+    }
+
+    public int estimate(Object key) {
+        final int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < DEPTH; i++)
+            frequency = Math.min(frequency, counters[indexOf(hash, i)]);
+        return frequency;
+    }
+
+    /**
+     * @return the size of the counters in bytes
+     */
+    public int getMemorySize() {
+        return counters.length;
+    }
+
+    /**
+     * Halves all counters, package private for tests.
+     */
+    void age() {
+        for (int i = 0; i < counters.length; i++)
+            counters[i] = (byte) (counters[i] >>> 1);
+        additions = additions >>> 1;
+    }
+
+    private int indexOf(int hash, int row) {
+        int h = hash * SEEDS[row];
+        h ^= h >>> 16;
+        return row * width + (h & (width - 1));
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x45D9F3B;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,59 @@
+package com.gigaspaces.internal.server.space.tiered_storage;
+
+import com.gigaspaces.internal.server.storage.IEntryData;
+import com.gigaspaces.internal.server.storage.ITemplateHolder;
+import com.j_spaces.core.cache.context.TemplateMatchTier;
+
+/**
+ * Cache rule which keeps in the hot tier the entries matching the static rule it wraps, and the
+ * entries admitted to the hot tier by {@link TieredStorageAdmission} for being read frequently.
+ * Templates are evaluated by the static rule, except for templates of a single admitted entry by
+ * uid or id, which are answered by the hot tier first. Admitted entries are kept in the cold tier as
+ * well, so other templates which don't fit the static rule are still answered by the cold tier.
+ *
+ * @since 16.0
+ */
+public class FrequencyAdmissionPredicate implements CachePredicate {
+    private final CachePredicate rule;
+    private final TieredStorageAdmission admission;
+
+    public FrequencyAdmissionPredicate(CachePredicate rule, TieredStorageAdmission admission) {
+        this.rule = rule;
+        this.admission = admission;
+    }
+
+    public CachePredicate getRule() {
+        return rule;
+    }
+
+    @Override
+    public boolean evaluate(IEntryData entryData) {
+        return rule.evaluate(entryData) || admission.isAdmitted(entryData);
+    }
+
+    @Override
+    public TemplateMatchTier evaluate(ITemplateHolder template) {
+        final TemplateMatchTier templateMatchTier = rule.evaluate(template);
+        if (templateMatchTier == TemplateMatchTier.MATCH_COLD && admission.isAdmitted(template))
+            // the cold tier still answers if the entry is demoted before it is looked up
+            return TemplateMatchTier.MATCH_HOT_AND_COLD;
+        return templateMatchTier;
+    }
+
+    @Override
+    public boolean isTransient() {
+        return rule.isTransient();
+    }
+
+    @Override
+    public boolean isTimeRule() {
+        return rule.isTimeRule();
+    }
+
+    @Override
+    public String toString() {
+        return "FrequencyAdmissionPredicate{" +
+                "rule=" + rule +
+                '}';
+    }
+}
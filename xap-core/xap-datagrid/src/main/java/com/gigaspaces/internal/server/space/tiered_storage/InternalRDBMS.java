@@ -6,12 +6,16 @@ import com.gigaspaces.internal.server.space.SpaceEngine;
 import com.gigaspaces.internal.server.space.metadata.SpaceTypeManager;
 import com.gigaspaces.internal.server.storage.IEntryHolder;
 import com.gigaspaces.internal.server.storage.ITemplateHolder;
+import com.gigaspaces.query.aggregators.OrderByPath;
 import com.j_spaces.core.cache.InitialLoadInfo;
 import com.j_spaces.core.cache.context.Context;
 import com.j_spaces.core.sadapter.ISAdapterIterator;
 import com.j_spaces.core.sadapter.SAException;
 
 import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 @InternalApi
 public interface InternalRDBMS {
@@ -57,12 +61,92 @@ public interface InternalRDBMS {
      */
     boolean removeEntry(Context context, IEntryHolder entryHolder) throws SAException;
 
+    /**
+     * Inserts a batch of new entries of the same type, implementations should write them with
+     * multi-row statements in a single transaction.
+     */
+    default void insertEntries(Context context, List<IEntryHolder> entryHolders) throws SAException {
+        for (IEntryHolder entryHolder : entryHolders)
+            insertEntry(context, entryHolder);
+    }
+
+    /**
+     * Updates a batch of entries of the same type.
+     */
+    default void updateEntries(Context context, List<IEntryHolder> updatedEntries) throws SAException {
+        for (IEntryHolder updatedEntry : updatedEntries)
+            updateEntry(context, updatedEntry);
+    }
+
+    /**
+     * Removes a batch of entries of the same type.
+     */
+    default void removeEntries(Context context, List<IEntryHolder> entryHolders) throws SAException {
+        for (IEntryHolder entryHolder : entryHolders)
+            removeEntry(context, entryHolder);
+    }
+
     IEntryHolder getEntryById(Context context, String typeName, Object id) throws SAException;
 
     IEntryHolder getEntryByUID(Context context, String typeName, String uid) throws SAException;
 
     ISAdapterIterator<IEntryHolder> makeEntriesIter(Context context, String typeName, ITemplateHolder templateHolder) throws SAException;
 
+    /**
+     * Selects the given columns of the entries of the type matching the template, followed by the
+     * given group by, order by and limit clauses. Implementations which support it render the
+     * table and the where clause of the template as they do for {@link #makeEntriesIter(Context,
+     * String, ITemplateHolder)}, and the columns and clauses are rendered by {@link SqliteUtils}.
+     *
+     * @return the result, or null if custom selects are not supported by the implementation
+     */
+    default RDBMSResult executeSelect(Context context, String typeName, ITemplateHolder templateHolder, String columns, String clauses) throws SAException {
+        return null;
+    }
+
+    /**
+     * Computes the aggregation over the entries of the type matching the template in the database.
+     *
+     * @return a row per group, or null if the aggregation is not supported by the implementation
+     */
+    default List<Object[]> aggregate(Context context, String typeName, ITemplateHolder templateHolder, RDBMSAggregation aggregation) throws SAException {
+        StringBuilder columns = new StringBuilder();
+        SqliteUtils.appendAggregationSelectString(aggregation, columns);
+        StringBuilder clauses = new StringBuilder();
+        SqliteUtils.appendGroupByString(aggregation, clauses);
+        RDBMSResult result = executeSelect(context, typeName, templateHolder, columns.toString(), clauses.toString());
+        if (result == null)
+            return null;
+        try {
+            List<Object[]> rows = new ArrayList<>();
+            while (result.next())
+                rows.add(SqliteUtils.getAggregationRow(result.getResultSet(), aggregation));
+            return rows;
+        } catch (SQLException e) {
+            throw new SAException("failed to aggregate entries of type " + typeName, e);
+        } finally {
+            try {
+                result.close();
+            } catch (IOException e) {
+                throw new SAException("failed to close result set for type " + typeName, e);
+            }
+        }
+    }
+
+    /**
+     * Iterates the first limit entries of the type matching the template, in the given order.
+     *
+     * @return the entries, or null if ordering is not supported by the implementation
+     */
+    default ISAdapterIterator<IEntryHolder> makeEntriesIter(Context context, String typeName, ITemplateHolder templateHolder, List<OrderByPath> orderByPaths, int limit) throws SAException {
+        StringBuilder clauses = new StringBuilder();
+        SqliteUtils.appendOrderByString(orderByPaths, limit, clauses);
+        RDBMSResult result = executeSelect(context, typeName, templateHolder, "*", clauses.toString());
+        if (result == null)
+            return null;
+        return new SingleTypeRDBMSIterator(result, getTypeManager().getTypeDesc(typeName), getTypeManager());
+    }
+
     boolean isKnownType(String name);
 
     void shutDown();
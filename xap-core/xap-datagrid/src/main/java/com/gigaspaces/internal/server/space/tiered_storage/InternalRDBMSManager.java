@@ -2,10 +2,12 @@ package com.gigaspaces.internal.server.space.tiered_storage;
 
 import com.gigaspaces.internal.metadata.ITypeDesc;
 import com.gigaspaces.internal.server.space.SpaceEngine;
+import com.gigaspaces.internal.server.metadata.IServerTypeDesc;
 import com.gigaspaces.internal.server.space.metadata.SpaceTypeManager;
 import com.gigaspaces.internal.server.storage.IEntryHolder;
 import com.gigaspaces.internal.server.storage.ITemplateHolder;
 import com.gigaspaces.metrics.LongCounter;
+import com.gigaspaces.query.aggregators.OrderByPath;
 import com.j_spaces.core.cache.CacheManager;
 import com.j_spaces.core.cache.InitialLoadInfo;
 import com.j_spaces.core.cache.context.Context;
@@ -14,6 +16,7 @@ import com.j_spaces.core.sadapter.ISAdapterIterator;
 import com.j_spaces.core.sadapter.SAException;
 
 import java.io.IOException;
+import java.util.List;
 
 public class InternalRDBMSManager {
 
@@ -21,9 +24,25 @@ public class InternalRDBMSManager {
     private final LongCounter readDisk = new LongCounter();
     private final LongCounter writeDisk = new LongCounter();
     private final TypesMetaData metaData = new TypesMetaData();
+    private final TieredStorageWriteBehind writeBehind;
+    private final TieredStorageAdmission admission;
 
     public InternalRDBMSManager(InternalRDBMS internalRDBMS) {
+        this(internalRDBMS, null, null);
+    }
+
+    public InternalRDBMSManager(InternalRDBMS internalRDBMS, TieredStorageWriteBehind writeBehind, TieredStorageAdmission admission) {
         this.internalRDBMS = internalRDBMS;
+        this.writeBehind = writeBehind;
+        this.admission = admission;
+    }
+
+    public TieredStorageWriteBehind getWriteBehind() {
+        return writeBehind;
+    }
+
+    public TieredStorageAdmission getAdmission() {
+        return admission;
     }
 
     public boolean initialize(String spaceName, String fullMemberName, SpaceTypeManager typeManager, boolean isBackup) throws SAException{
@@ -54,7 +73,10 @@ public class InternalRDBMSManager {
      */
     public void insertEntry(Context context, IEntryHolder entryHolder, CacheManager.InitialLoadOrigin initialLoadOrigin) throws SAException{
         if(initialLoadOrigin != CacheManager.InitialLoadOrigin.FROM_TIERED_STORAGE && context.isDiskEntry() && entryHolder.getXidOriginatedTransaction() == null) {
-            internalRDBMS.insertEntry(context, entryHolder);
+            if (writeBehind != null)
+                writeBehind.insertEntry(entryHolder);
+            else
+                internalRDBMS.insertEntry(context, entryHolder);
             writeDisk.inc();
         }
         String type = entryHolder.getServerTypeDesc().getTypeName();
@@ -70,7 +92,10 @@ public class InternalRDBMSManager {
      * @param updatedEntry new content, same UID and class
      */
     public void updateEntry(Context context, IEntryHolder updatedEntry) throws SAException{
-        internalRDBMS.updateEntry(context, updatedEntry);
+        if (writeBehind != null)
+            writeBehind.updateEntry(updatedEntry);
+        else
+            internalRDBMS.updateEntry(context, updatedEntry);
 
     }
 
@@ -82,7 +107,11 @@ public class InternalRDBMSManager {
     public boolean removeEntry(Context context, IEntryHolder entryHolder) throws SAException{
         boolean removed = false;
         if(context.getEntryTieredState() != TieredState.TIERED_HOT) {
-            removed = internalRDBMS.removeEntry(context, entryHolder);
+            if (writeBehind != null) {
+                removed = writeBehind.removeEntry(context, entryHolder);
+            } else {
+                removed = internalRDBMS.removeEntry(context, entryHolder);
+            }
         }
         String type = entryHolder.getServerTypeDesc().getTypeName();
         if(removed || context.getEntryTieredState() == TieredState.TIERED_HOT){
@@ -108,25 +137,32 @@ public class InternalRDBMSManager {
     }
 
     public IEntryHolder getEntryById(Context context, String typeName, Object id, ITemplateHolder templateHolder) throws SAException{
+        flushBeforeRead(typeName);
         IEntryHolder entryById = internalRDBMS.getEntryById(context, typeName, id);
 
         if (templateHolder != null && templateHolder.isReadOperation()){
             readDisk.inc();
+            if (admission != null && entryById != null)
+                admission.onColdRead(entryById);
         }
 
         return entryById;
     }
 
     public IEntryHolder getEntryByUID(Context context, String typeName, String uid, ITemplateHolder templateHolder) throws SAException{
+        flushBeforeRead(typeName);
         IEntryHolder entryByUID = internalRDBMS.getEntryByUID(context, typeName, uid);
 
         if (templateHolder != null && templateHolder.isReadOperation()){
             readDisk.inc();
+            if (admission != null && entryByUID != null)
+                admission.onColdRead(entryByUID);
         }
         return entryByUID;
     }
 
     public ISAdapterIterator<IEntryHolder> makeEntriesIter(Context context, String typeName, ITemplateHolder templateHolder) throws SAException{
+        flushBeforeRead(typeName);
         ISAdapterIterator<IEntryHolder> iEntryHolderISAdapterIterator = internalRDBMS.makeEntriesIter(context, typeName, templateHolder);
 
         if (templateHolder != null && templateHolder.isReadOperation() && !context.isDisableTieredStorageMetric()){
@@ -136,11 +172,35 @@ public class InternalRDBMSManager {
         return iEntryHolderISAdapterIterator;
     }
 
+    public List<Object[]> aggregate(Context context, String typeName, ITemplateHolder templateHolder, RDBMSAggregation aggregation) throws SAException{
+        flushBeforeRead(typeName);
+        List<Object[]> rows = internalRDBMS.aggregate(context, typeName, templateHolder, aggregation);
+
+        if (rows != null){
+            readDisk.inc();
+        }
+
+        return rows;
+    }
+
+    public ISAdapterIterator<IEntryHolder> makeEntriesIter(Context context, String typeName, ITemplateHolder templateHolder, List<OrderByPath> orderByPaths, int limit) throws SAException{
+        flushBeforeRead(typeName);
+        ISAdapterIterator<IEntryHolder> iEntryHolderISAdapterIterator = internalRDBMS.makeEntriesIter(context, typeName, templateHolder, orderByPaths, limit);
+
+        if (iEntryHolderISAdapterIterator != null){
+            readDisk.inc();
+        }
+
+        return iEntryHolderISAdapterIterator;
+    }
+
     public boolean isKnownType(String name){
         return internalRDBMS.isKnownType(name);
     }
 
     public void shutDown(){
+        if (writeBehind != null)
+            writeBehind.close();
         internalRDBMS.shutDown();
     }
 
@@ -153,6 +213,8 @@ public class InternalRDBMSManager {
     }
 
     public void deleteData() throws SAException {
+        if (writeBehind != null)
+            writeBehind.clear();
         internalRDBMS.deleteData();
     }
 
@@ -167,5 +229,13 @@ public class InternalRDBMSManager {
     public SpaceTypeManager getTypeManager() {
         return internalRDBMS.getTypeManager();
     }
+
+    private void flushBeforeRead(String typeName) throws SAException {
+        if (writeBehind == null)
+            return;
+        // reads of a super type may return entries of its sub types
+        IServerTypeDesc serverTypeDesc = getTypeManager().getServerTypeDesc(typeName);
+        writeBehind.flush(serverTypeDesc == null || serverTypeDesc.hasSubTypes() ? null : typeName);
+    }
 }
 
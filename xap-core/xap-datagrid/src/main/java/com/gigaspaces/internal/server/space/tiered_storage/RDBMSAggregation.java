@@ -0,0 +1,254 @@
+package com.gigaspaces.internal.server.space.tiered_storage;
+
+import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.gigaspaces.internal.utils.math.MutableNumber;
+import com.gigaspaces.query.aggregators.AbstractPathAggregator;
+import com.gigaspaces.query.aggregators.AggregationInternalUtils;
+import com.gigaspaces.query.aggregators.AverageAggregator;
+import com.gigaspaces.query.aggregators.CountAggregator;
+import com.gigaspaces.query.aggregators.GroupByAggregator;
+import com.gigaspaces.query.aggregators.GroupByKey;
+import com.gigaspaces.query.aggregators.GroupByResult;
+import com.gigaspaces.query.aggregators.GroupByValue;
+import com.gigaspaces.query.aggregators.MaxValueAggregator;
+import com.gigaspaces.query.aggregators.MinValueAggregator;
+import com.gigaspaces.query.aggregators.OrderByPath;
+import com.gigaspaces.query.aggregators.SpaceEntriesAggregator;
+import com.gigaspaces.query.aggregators.SumAggregator;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregation computed inside the {@link InternalRDBMS} instead of scanning the matching entries.
+ * Supports count, sum, average, min value and max value aggregators on fixed properties, either
+ * alone or as the selectors of a single group by. The database returns one row per group, holding
+ * the group by values followed by the values of {@link #getColumns()}, and {@link #merge(List)}
+ * converts the rows to the intermediate results of the aggregators.
+ *
+ * @since 16.0
+ */
+public class RDBMSAggregation {
+
+    public enum Function {COUNT, SUM, MIN, MAX}
+
+    public static class Column {
+        private final Function function;
+        private final String path;
+        private final Class<?> type;
+
+        private Column(Function function, String path, Class<?> type) {
+            this.function = function;
+            this.path = path;
+            this.type = type;
+        }
+
+        public Function getFunction() {
+            return function;
+        }
+
+        /**
+         * @return the aggregated property, null for count(*)
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * @return the type the column value should be read as
+         */
+        public Class<?> getType() {
+            return type;
+        }
+    }
+
+    private final GroupByAggregator groupBy;
+    private final String[] groupByPaths;
+    private final Class<?>[] groupByTypes;
+    private final List<SpaceEntriesAggregator> selectors;
+    private final List<Column> columns = new ArrayList<>();
+    // index of the first column of each selector
+    private final int[] selectorColumns;
+    private final Class<?>[] selectorTypes;
+
+    private RDBMSAggregation(GroupByAggregator groupBy, String[] groupByPaths, Class<?>[] groupByTypes, List<SpaceEntriesAggregator> selectors) {
+        this.groupBy = groupBy;
+        this.groupByPaths = groupByPaths;
+        this.groupByTypes = groupByTypes;
+        this.selectors = selectors;
+        this.selectorColumns = new int[selectors.size()];
+        this.selectorTypes = new Class<?>[selectors.size()];
+    }
+
+    /**
+     * @return the aggregation of the given aggregators, or null if they can't be computed by the
+     * database
+     */
+    public static RDBMSAggregation create(ITypeDesc typeDesc, List<SpaceEntriesAggregator> aggregators) {
+        if (aggregators.isEmpty())
+            return null;
+        final RDBMSAggregation aggregation;
+        if (aggregators.get(0) instanceof GroupByAggregator) {
+            if (aggregators.size() != 1)
+                return null;
+            final GroupByAggregator groupBy = (GroupByAggregator) aggregators.get(0);
+            final String[] paths = groupBy.getGroupByPaths();
+            final List<SpaceEntriesAggregator> selectors = AggregationInternalUtils.getSelectors(groupBy);
+            if (paths == null || paths.length == 0 || selectors == null)
+                return null;
+            final Class<?>[] types = new Class<?>[paths.length];
+            for (int i = 0; i < paths.length; i++) {
+                types[i] = getPropertyType(typeDesc, paths[i]);
+                if (types[i] == null || types[i] == byte[].class || types[i] == Byte[].class)
+                    return null;
+            }
+            aggregation = new RDBMSAggregation(groupBy, paths, types, selectors);
+        } else {
+            aggregation = new RDBMSAggregation(null, new String[0], new Class<?>[0], aggregators);
+        }
+        return aggregation.addColumns(typeDesc) ? aggregation : null;
+    }
+
+    /**
+     * @return true if the entries of the type can be ordered by the given paths in the database
+     */
+    public static boolean isOrderable(ITypeDesc typeDesc, List<OrderByPath> orderByPaths) {
+        for (OrderByPath orderByPath : orderByPaths) {
+            final Class<?> type = getPropertyType(typeDesc, orderByPath.getPath());
+            if (type == null || type == byte[].class || type == Byte[].class)
+                return false;
+        }
+        return true;
+    }
+
+    public String[] getGroupByPaths() {
+        return groupByPaths;
+    }
+
+    public Class<?>[] getGroupByTypes() {
+        return groupByTypes;
+    }
+
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Merges the rows returned by the database into the intermediate results of the aggregators.
+     */
+    public void merge(List<Object[]> rows) {
+        if (groupBy == null) {
+            for (Object[] row : rows) {
+                for (int i = 0; i < selectors.size(); i++) {
+                    final Serializable result = toIntermediateResult(i, row);
+                    if (result != null)
+                        selectors.get(i).aggregateIntermediateResult(result);
+                }
+            }
+            return;
+        }
+        final Map<GroupByKey, GroupByValue> groups = new HashMap<>();
+        for (Object[] row : rows) {
+            final Object[] key = Arrays.copyOf(row, groupByPaths.length);
+            // entries with a null group by value are not grouped
+            if (Arrays.asList(key).contains(null))
+                continue;
+            final Object[] values = new Object[selectors.size()];
+            for (int i = 0; i < values.length; i++)
+                values[i] = toIntermediateResult(i, row);
+            groups.put(new GroupByKey(key), new GroupByValue(values));
+        }
+        if (!groups.isEmpty())
+            groupBy.aggregateIntermediateResult(new GroupByResult(groups));
+    }
+
+    private boolean addColumns(ITypeDesc typeDesc) {
+        for (int i = 0; i < selectors.size(); i++) {
+            final SpaceEntriesAggregator selector = selectors.get(i);
+            selectorColumns[i] = columns.size();
+            final Class<?> selectorClass = selector.getClass();
+            if (selectorClass == CountAggregator.class) {
+                final String path = ((CountAggregator) selector).getPath();
+                if (path != null && getPropertyType(typeDesc, path) == null)
+                    return false;
+                columns.add(new Column(Function.COUNT, path, Long.class));
+                continue;
+            }
+            if (selectorClass != SumAggregator.class && selectorClass != AverageAggregator.class
+                    && selectorClass != MinValueAggregator.class && selectorClass != MaxValueAggregator.class)
+                return false;
+            final String path = ((AbstractPathAggregator) selector).getPath();
+            final Class<?> type = getPropertyType(typeDesc, path);
+            if (type == null)
+                return false;
+            selectorTypes[i] = type;
+            if (selectorClass == MinValueAggregator.class || selectorClass == MaxValueAggregator.class) {
+                if (type == byte[].class || type == Byte[].class)
+                    return false;
+                columns.add(new Column(selectorClass == MinValueAggregator.class ? Function.MIN : Function.MAX, path, type));
+                continue;
+            }
+            final Class<?> sumType = getSumType(type);
+            if (sumType == null)
+                return false;
+            columns.add(new Column(Function.SUM, path, sumType));
+            if (selectorClass == AverageAggregator.class)
+                columns.add(new Column(Function.COUNT, path, Long.class));
+        }
+        return true;
+    }
+
+    private Serializable toIntermediateResult(int selector, Object[] row) {
+        final Class<?> selectorClass = selectors.get(selector).getClass();
+        final int column = groupByPaths.length + selectorColumns[selector];
+        final Object value = row[column];
+        if (selectorClass == CountAggregator.class)
+            return value != null ? (Long) value : 0L;
+        if (value == null)
+            return null;
+        if (selectorClass == SumAggregator.class) {
+            final MutableNumber sum = MutableNumber.fromClass(box(selectorTypes[selector]), true);
+            sum.add((Number) value);
+            return sum;
+        }
+        if (selectorClass == AverageAggregator.class) {
+            final long count = (Long) row[column + 1];
+            return count == 0 ? null : new AverageAggregator.AverageTuple((Number) value).add(0L, count - 1);
+        }
+        return (Serializable) value;
+    }
+
+    private static Class<?> getPropertyType(ITypeDesc typeDesc, String path) {
+        if (path == null)
+            return null;
+        final int position = typeDesc.getFixedPropertyPosition(path);
+        return position < 0 ? null : typeDesc.getFixedProperty(position).getType();
+    }
+
+    private static Class<?> getSumType(Class<?> type) {
+        type = box(type);
+        if (type == Byte.class || type == Short.class || type == Integer.class || type == Long.class)
+            return Long.class;
+        if (type == Float.class || type == Double.class)
+            return Double.class;
+        return null;
+    }
+
+    private static Class<?> box(Class<?> type) {
+        if (!type.isPrimitive())
+            return type;
+        if (type == byte.class) return Byte.class;
+        if (type == short.class) return Short.class;
+        if (type == int.class) return Integer.class;
+        if (type == long.class) return Long.class;
+        if (type == float.class) return Float.class;
+        if (type == double.class) return Double.class;
+        if (type == boolean.class) return Boolean.class;
+        if (type == char.class) return Character.class;
+        return type;
+    }
+}
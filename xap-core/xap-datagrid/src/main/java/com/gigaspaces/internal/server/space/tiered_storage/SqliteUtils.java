@@ -11,6 +11,8 @@ import com.gigaspaces.internal.server.storage.TemplateEntryData;
 import com.gigaspaces.internal.transport.ITemplatePacket;
 import com.gigaspaces.internal.transport.TemplatePacket;
 import com.gigaspaces.metadata.SpacePropertyDescriptor;
+import com.gigaspaces.query.aggregators.OrderBy;
+import com.gigaspaces.query.aggregators.OrderByPath;
 import com.j_spaces.core.cache.context.TemplateMatchTier;
 import com.j_spaces.core.client.TemplateMatchCodes;
 import com.j_spaces.jdbc.builder.QueryTemplatePacket;
@@ -313,6 +315,73 @@ public class SqliteUtils {
 
     }
 
+    /**
+     * Appends the select list of an aggregation - the group by paths followed by its columns. Null
+     * values are written as 'Null' on insert, so they are converted back to NULL to be ignored by
+     * the aggregate functions.
+     */
+    public static void appendAggregationSelectString(RDBMSAggregation aggregation, StringBuilder queryBuilder) {
+        StringJoiner select = new StringJoiner(", ");
+        for (String path : aggregation.getGroupByPaths()) {
+            select.add(nullableColumn(path));
+        }
+        for (RDBMSAggregation.Column column : aggregation.getColumns()) {
+            String argument = column.getPath() != null ? nullableColumn(column.getPath()) : "*";
+            select.add(column.getFunction().name() + "(" + argument + ")");
+        }
+        queryBuilder.append(select);
+    }
+
+    public static void appendGroupByString(RDBMSAggregation aggregation, StringBuilder queryBuilder) {
+        if (aggregation.getGroupByPaths().length == 0) {
+            return;
+        }
+        StringJoiner groupBy = new StringJoiner(", ", " GROUP BY ", "");
+        for (String path : aggregation.getGroupByPaths()) {
+            groupBy.add(nullableColumn(path));
+        }
+        queryBuilder.append(groupBy);
+    }
+
+    /**
+     * Appends an order by clause matching {@link com.gigaspaces.query.aggregators.OrderByAggregator},
+     * which orders nulls first unless nulls last is requested, regardless of the direction.
+     */
+    public static void appendOrderByString(List<OrderByPath> orderByPaths, int limit, StringBuilder queryBuilder) {
+        if (!orderByPaths.isEmpty()) {
+            StringJoiner orderBy = new StringJoiner(", ", " ORDER BY ", "");
+            for (OrderByPath orderByPath : orderByPaths) {
+                String column = nullableColumn(orderByPath.getPath());
+                orderBy.add(column + " IS NULL" + (orderByPath.isNullsLast() ? " ASC" : " DESC"));
+                orderBy.add(column + (orderByPath.getOrderBy() == OrderBy.DESC ? " DESC" : " ASC"));
+            }
+            queryBuilder.append(orderBy);
+        }
+        if (limit != Integer.MAX_VALUE) {
+            queryBuilder.append(" LIMIT ").append(limit);
+        }
+    }
+
+    /**
+     * @return the values of the current row of an aggregation query
+     */
+    public static Object[] getAggregationRow(ResultSet resultSet, RDBMSAggregation aggregation) throws SQLException {
+        Class<?>[] groupByTypes = aggregation.getGroupByTypes();
+        List<RDBMSAggregation.Column> columns = aggregation.getColumns();
+        Object[] row = new Object[groupByTypes.length + columns.size()];
+        for (int i = 0; i < groupByTypes.length; i++) {
+            row[i] = getPropertyValue(resultSet, groupByTypes[i], i + 1);
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            row[groupByTypes.length + i] = getPropertyValue(resultSet, columns.get(i).getType(), groupByTypes.length + i + 1);
+        }
+        return row;
+    }
+
+    private static String nullableColumn(String path) {
+        return "NULLIF(" + path + ", 'Null')";
+    }
+
     static boolean checkEquals(Class<?> type, Object val1, Object val2) {
         if (typeEqualsFunctionMap.containsKey(type.getName())) {
             return typeEqualsFunctionMap.get(type.getName()).equals(val1, val2);
@@ -0,0 +1,335 @@
+package com.gigaspaces.internal.server.space.tiered_storage;
+
+import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.gigaspaces.internal.server.space.SpaceEngine;
+import com.gigaspaces.internal.server.storage.IEntryData;
+import com.gigaspaces.internal.server.storage.IEntryHolder;
+import com.gigaspaces.internal.server.storage.ITemplateHolder;
+import com.gigaspaces.metrics.LongCounter;
+import com.j_spaces.core.cache.CacheManager;
+import com.j_spaces.core.cache.IEntryCacheInfo;
+import com.j_spaces.core.cache.context.Context;
+import com.j_spaces.core.cache.context.TieredState;
+import com.j_spaces.core.client.TemplateMatchCodes;
+import com.j_spaces.kernel.locks.ILockObject;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits cold tier entries which are read frequently to the hot tier, in addition to the entries
+ * kept there by the static cache rule of their type. Reads by id are counted in an {@link
+ * AccessFrequencySketch} per type, and a cold read of an entry whose estimated frequency reached
+ * min frequency makes it a candidate. A background thread loads candidates into the hot tier, and
+ * once max entries are admitted a candidate replaces the oldest admitted entry only if it is read
+ * more frequently. Admitted entries whose frequency decayed to zero are evicted from the hot tier
+ * every demotion interval.
+ * <p>
+ * Admission is applied to types with a criteria cache rule and a non auto generated id, by
+ * wrapping their rule with a {@link FrequencyAdmissionPredicate}.
+ *
+ * @since 16.0
+ */
+public class TieredStorageAdmission {
+
+    private static final int MAX_PENDING_CANDIDATES = 1024;
+
+    private final int maxEntries;
+    private final int minFrequency;
+    private final long demotionInterval;
+    private final Logger logger;
+
+    private final Map<String, AccessFrequencySketch> sketches = new ConcurrentHashMap<>();
+    // type name -> id -> uid of the admitted entries
+    private final Map<String, Map<Object, String>> admitted = new ConcurrentHashMap<>();
+    private final Set<String> admittedUids = ConcurrentHashMap.newKeySet();
+    private final BlockingQueue<AdmittedKey> candidates = new ArrayBlockingQueue<>(MAX_PENDING_CANDIDATES);
+    // admission order, accessed by the admission thread only
+    private final LinkedHashMap<AdmittedKey, AdmittedKey> admissionOrder = new LinkedHashMap<>();
+
+    private SpaceEngine engine;
+    private Thread worker;
+    private volatile boolean closed;
+
+    private final LongCounter promotions = new LongCounter();
+    private final LongCounter demotions = new LongCounter();
+    private final LongCounter hotReads = new LongCounter();
+    private final LongCounter coldReads = new LongCounter();
+
+    public TieredStorageAdmission(int maxEntries, int minFrequency, long demotionInterval, Logger logger) {
+        this.maxEntries = maxEntries;
+        this.minFrequency = minFrequency;
+        this.demotionInterval = demotionInterval;
+        this.logger = logger;
+    }
+
+    public synchronized void initialize(SpaceEngine engine) {
+        this.engine = engine;
+        if (worker == null && !closed) {
+            worker = new Thread(this::admitCandidates, "TieredStorageAdmission-" + engine.getFullSpaceName());
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    /**
+     * @return the given cache rule of the type, wrapped to admit frequently read entries if it is
+     * a criteria rule
+     */
+    public CachePredicate wrap(String typeName, CachePredicate cacheRule) {
+        if (!TieredStorageRetiering.isRetierable(cacheRule) || cacheRule.isTimeRule() || cacheRule instanceof AllPredicate)
+            return cacheRule;
+        if (cacheRule instanceof FrequencyAdmissionPredicate)
+            return cacheRule;
+        sketches.computeIfAbsent(typeName, name -> new AccessFrequencySketch(maxEntries));
+        admitted.computeIfAbsent(typeName, name -> new ConcurrentHashMap<>());
+        return new FrequencyAdmissionPredicate(cacheRule, this);
+    }
+
+    public boolean isAdmitted(IEntryData entryData) {
+        final Map<Object, String> typeAdmitted = admitted.get(entryData.getSpaceTypeDescriptor().getTypeName());
+        if (typeAdmitted == null || typeAdmitted.isEmpty())
+            return false;
+        final Object id = getId(entryData);
+        return id != null && typeAdmitted.containsKey(id);
+    }
+
+    /**
+     * @return true if the given template matches a single entry by uid or id, and that entry is
+     * admitted to the hot tier
+     */
+    public boolean isAdmitted(ITemplateHolder template) {
+        final Map<Object, String> typeAdmitted = admitted.get(template.getServerTypeDesc().getTypeName());
+        if (typeAdmitted == null || typeAdmitted.isEmpty())
+            return false;
+        if (template.getUidToOperateBy() != null)
+            return admittedUids.contains(template.getUidToOperateBy());
+        final ITypeDesc typeDesc = template.getServerTypeDesc().getTypeDesc();
+        final int idPosition = typeDesc.getIdentifierPropertyId();
+        if (idPosition < 0 || typeDesc.isAutoGenerateId() || template.getCustomQuery() != null || template.getTemplateEntryData() == null)
+            return false;
+        final short[] matchCodes = template.getExtendedMatchCodes();
+        if (matchCodes != null && matchCodes[idPosition] != TemplateMatchCodes.EQ)
+            return false;
+        final Object id = template.getTemplateEntryData().getFixedPropertyValue(idPosition);
+        return id != null && typeAdmitted.containsKey(id);
+    }
+
+    /**
+     * Called when an entry is read by id from the hot tier.
+     */
+    public void onHotRead(String typeName, Object id) {
+        final AccessFrequencySketch sketch = sketches.get(typeName);
+        if (sketch == null || id == null)
+            return;
+        hotReads.inc();
+        sketch.increment(id);
+    }
+
+    /**
+     * Called when an entry is read from the cold tier.
+     */
+    public void onColdRead(IEntryHolder entryHolder) {
+        final String typeName = entryHolder.getServerTypeDesc().getTypeName();
+        final AccessFrequencySketch sketch = sketches.get(typeName);
+        if (sketch == null)
+            return;
+        coldReads.inc();
+        final Object id = getId(entryHolder.getEntryData());
+        if (id == null)
+            return;
+        sketch.increment(id);
+        if (sketch.estimate(id) >= minFrequency)
+            candidates.offer(new AdmittedKey(typeName, id, entryHolder.getUID()));
+    }
+
+    public synchronized void close() {
+        closed = true;
+        if (worker == null)
+            return;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public LongCounter getPromotions() {
+        return promotions;
+    }
+
+    public LongCounter getDemotions() {
+        return demotions;
+    }
+
+    public int getAdmittedEntries() {
+        int count = 0;
+        for (Map<Object, String> typeAdmitted : admitted.values())
+            count += typeAdmitted.size();
+        return count;
+    }
+
+    /**
+     * @return the fraction of the reads by id of admission types which were served by the hot tier
+     */
+    public double getHotReadRatio() {
+        final long hot = hotReads.getCount();
+        final long total = hot + coldReads.getCount();
+        return total == 0 ? 0 : (double) hot / total;
+    }
+
+    private void admitCandidates() {
+        long nextDemotion = System.currentTimeMillis() + demotionInterval;
+        while (!closed) {
+            try {
+                final AdmittedKey candidate = candidates.poll(Math.max(1, nextDemotion - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                if (candidate != null)
+                    admit(candidate);
+                if (System.currentTimeMillis() >= nextDemotion) {
+                    demoteUnused();
+                    nextDemotion = System.currentTimeMillis() + demotionInterval;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable t) {
+                logger.error("Failed to admit entries to the hot tier", t);
+            }
+        }
+    }
+
+    private void admit(AdmittedKey candidate) throws Exception {
+        final Map<Object, String> typeAdmitted = admitted.get(candidate.typeName);
+        if (typeAdmitted == null || typeAdmitted.containsKey(candidate.id))
+            return;
+        if (admissionOrder.size() >= maxEntries) {
+            final AdmittedKey victim = admissionOrder.keySet().iterator().next();
+            if (estimate(victim) >= estimate(candidate))
+                return;
+            demote(victim);
+        }
+        final CacheManager cacheManager = engine.getCacheManager();
+        final ILockObject entryLock = cacheManager.getLockManager().getLockObject(candidate.uid);
+        Context context = null;
+        try {
+            context = cacheManager.getCacheContext();
+            synchronized (entryLock) {
+                if (cacheManager.getPEntryByUid(candidate.uid) != null)
+                    return;
+                final IEntryHolder entryHolder = getInternalStorage().getEntryByUID(context, candidate.typeName, candidate.uid, null);
+                if (entryHolder == null || !candidate.id.equals(getId(entryHolder.getEntryData())))
+                    return;
+                typeAdmitted.put(candidate.id, candidate.uid);
+                admittedUids.add(candidate.uid);
+                try {
+                    context.setEntryTieredState(TieredState.TIERED_HOT_AND_COLD);
+                    cacheManager.safeInsertEntryToCache(context, entryHolder, false /* newEntry */, null /*pType*/, false /*pin*/, CacheManager.InitialLoadOrigin.FROM_TIERED_STORAGE);
+                } catch (Exception e) {
+                    typeAdmitted.remove(candidate.id);
+                    admittedUids.remove(candidate.uid);
+                    throw e;
+                }
+                getInternalStorage().updateRamCounterAfterUpdate(candidate.typeName, true, false);
+                admissionOrder.put(candidate, candidate);
+                promotions.inc();
+            }
+        } finally {
+            if (context != null)
+                cacheManager.freeCacheContext(context);
+            cacheManager.getLockManager().freeLockObject(entryLock);
+        }
+    }
+
+    private void demoteUnused() {
+        final List<AdmittedKey> unused = new ArrayList<>();
+        for (AdmittedKey key : admissionOrder.keySet()) {
+            if (estimate(key) == 0)
+                unused.add(key);
+        }
+        for (AdmittedKey key : unused)
+            demote(key);
+    }
+
+    private void demote(AdmittedKey key) {
+        admissionOrder.remove(key);
+        final Map<Object, String> typeAdmitted = admitted.get(key.typeName);
+        final CacheManager cacheManager = engine.getCacheManager();
+        final ILockObject entryLock = cacheManager.getLockManager().getLockObject(key.uid);
+        try {
+            synchronized (entryLock) {
+                typeAdmitted.remove(key.id);
+                admittedUids.remove(key.uid);
+                final IEntryCacheInfo pEntry = cacheManager.getPEntryByUid(key.uid);
+                if (pEntry == null)
+                    return;
+                final IEntryHolder entryHolder = pEntry.getEntryHolder(cacheManager);
+                if (entryHolder.isDeleted() || entryHolder.isMaybeUnderXtn() || entryHolder.hasShadow()) {
+                    // locked by an operation, try again on the next demotion
+                    typeAdmitted.put(key.id, key.uid);
+                    admittedUids.add(key.uid);
+                    admissionOrder.put(key, key);
+                    return;
+                }
+                final CachePredicate cacheRule = engine.getTieredStorageManager().getCacheRule(key.typeName);
+                if (cacheRule != null && cacheRule.evaluate(entryHolder.getEntryData()))
+                    return; // matches the static rule
+                cacheManager.removeEntryFromCache(entryHolder, false /*initiatedByEvictionStrategy*/, true /*locked*/, pEntry, CacheManager.RecentDeleteCodes.NONE);
+                getInternalStorage().updateRamCounterAfterUpdate(key.typeName, false, true);
+                demotions.inc();
+            }
+        } finally {
+            cacheManager.getLockManager().freeLockObject(entryLock);
+        }
+    }
+
+    private int estimate(AdmittedKey key) {
+        final AccessFrequencySketch sketch = sketches.get(key.typeName);
+        return sketch != null ? sketch.estimate(key.id) : 0;
+    }
+
+    private InternalRDBMSManager getInternalStorage() {
+        return engine.getTieredStorageManager().getInternalStorage();
+    }
+
+    private static Object getId(IEntryData entryData) {
+        final ITypeDesc typeDesc = entryData.getSpaceTypeDescriptor();
+        final int idPosition = typeDesc.getIdentifierPropertyId();
+        if (idPosition < 0 || typeDesc.isAutoGenerateId())
+            return null;
+        return entryData.getFixedPropertyValue(idPosition);
+    }
+
+    private static class AdmittedKey {
+        private final String typeName;
+        private final Object id;
+        private final String uid;
+
+        private AdmittedKey(String typeName, Object id, String uid) {
+            this.typeName = typeName;
+            this.id = id;
+            this.uid = uid;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof AdmittedKey)) return false;
+            AdmittedKey that = (AdmittedKey) o;
+            return typeName.equals(that.typeName) && id.equals(that.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(typeName, id);
+        }
+    }
+}
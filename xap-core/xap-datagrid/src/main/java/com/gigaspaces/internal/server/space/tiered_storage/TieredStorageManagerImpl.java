@@ -34,6 +34,7 @@ public class TieredStorageManagerImpl implements TieredStorageManager {
     private ConcurrentHashMap<String, CachePredicate> hotCacheRules = new ConcurrentHashMap<>();
 
     private InternalRDBMSManager internalDiskStorage;
+    private TieredStorageRetiering retiering;
     private InternalMetricRegistrator diskSizeRegistrator;
     private InternalMetricRegistrator operationsRegistrator;
 
@@ -51,11 +52,17 @@ public class TieredStorageManagerImpl implements TieredStorageManager {
     @Override
     public void initialize(SpaceEngine engine) throws SAException, RemoteException {
         containsData = getInternalStorage().initialize(engine.getSpaceName(), engine.getFullSpaceName(), engine.getTypeManager(), engine.getSpaceImpl().isBackup());
+        int batchSize = engine.getConfigReader().getIntSpaceProperty(Constants.TieredStorage.TIERED_STORAGE_RETIERING_BATCH_SIZE_PROP, Constants.TieredStorage.TIERED_STORAGE_RETIERING_BATCH_SIZE_DEFAULT);
+        long batchInterval = engine.getConfigReader().getLongSpaceProperty(Constants.TieredStorage.TIERED_STORAGE_RETIERING_BATCH_INTERVAL_PROP, Constants.TieredStorage.TIERED_STORAGE_RETIERING_BATCH_INTERVAL_DEFAULT);
+        retiering = new TieredStorageRetiering(engine, batchSize, batchInterval, logger);
+        if (getInternalStorage().getAdmission() != null) {
+            getInternalStorage().getAdmission().initialize(engine);
+        }
     }
 
     @Override
     public boolean hasCacheRule(String typeName) {
-        return storageConfig.getTables().get(typeName) != null;
+        return storageConfig.getTables().get(typeName) != null || hotCacheRules.containsKey(typeName);
     }
 
     @Override
@@ -67,7 +74,7 @@ public class TieredStorageManagerImpl implements TieredStorageManager {
     public CachePredicate getCacheRule(String typeName) {
         if (hasCacheRule(typeName)) {
             try{
-                return hotCacheRules.computeIfAbsent(typeName, typeName1 -> createCacheRule(storageConfig.getTables().get(typeName1), internalDiskStorage.getTypeManager()));
+                return hotCacheRules.computeIfAbsent(typeName, typeName1 -> withAdmission(typeName1, createCacheRule(storageConfig.getTables().get(typeName1), internalDiskStorage.getTypeManager())));
             } catch (RuntimeException e){
                 logger.error("failed to compute cache rule", e);
                 throw e;
@@ -89,8 +96,17 @@ public class TieredStorageManagerImpl implements TieredStorageManager {
 
     @Override
     public void setCacheRule(String typeName, CachePredicate newRule) {
+        CachePredicate oldRule = getCacheRule(typeName);
+        newRule = withAdmission(typeName, newRule);
         hotCacheRules.put(typeName, newRule);
-        //TODO - handle update (shuffle / evict)
+        if (retiering != null && oldRule != newRule) {
+            retiering.schedule(typeName, oldRule, newRule);
+        }
+    }
+
+    private CachePredicate withAdmission(String typeName, CachePredicate cacheRule) {
+        TieredStorageAdmission admission = getInternalStorage().getAdmission();
+        return admission != null ? admission.wrap(typeName, cacheRule) : cacheRule;
     }
 
     @Override
@@ -158,6 +174,62 @@ public class TieredStorageManagerImpl implements TieredStorageManager {
 
         registratorForPrimary.register( ("tiered-storage-read-tp"), getInternalStorage().getReadDisk());
         registratorForPrimary.register("tiered-storage-write-tp", getInternalStorage().getWriteDisk());
+        TieredStorageWriteBehind writeBehind = getInternalStorage().getWriteBehind();
+        if (writeBehind != null) {
+            registratorForPrimary.register("tiered-storage-write-behind-queue-depth", new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                    return writeBehind.getQueueDepth();
+                }
+            });
+            registratorForPrimary.register("tiered-storage-write-behind-batch-size", new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                    return writeBehind.getLastBatchSize();
+                }
+            });
+            registratorForPrimary.register("tiered-storage-write-behind-flush-latency", new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return writeBehind.getLastFlushLatency();
+                }
+            });
+            registratorForPrimary.register("tiered-storage-write-behind-failed-flushes", new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                    return writeBehind.getFailedFlushes();
+                }
+            });
+        }
+        if (retiering != null) {
+            registratorForPrimary.register("tiered-storage-retiering-scanned", retiering.getScannedEntries());
+            registratorForPrimary.register("tiered-storage-retiering-evicted", retiering.getEvictedEntries());
+            registratorForPrimary.register("tiered-storage-retiering-promoted", retiering.getPromotedEntries());
+            registratorForPrimary.register("tiered-storage-retiering-retimed", retiering.getRetimedEntries());
+            registratorForPrimary.register("tiered-storage-retiering-pending-types", new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                    return retiering.getPendingTypes();
+                }
+            });
+        }
+        TieredStorageAdmission admission = getInternalStorage().getAdmission();
+        if (admission != null) {
+            registratorForPrimary.register("tiered-storage-admission-promotions", admission.getPromotions());
+            registratorForPrimary.register("tiered-storage-admission-demotions", admission.getDemotions());
+            registratorForPrimary.register("tiered-storage-admission-entries", new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                    return admission.getAdmittedEntries();
+                }
+            });
+            registratorForPrimary.register("tiered-storage-admission-hot-read-ratio", new Gauge<Double>() {
+                @Override
+                public Double getValue() {
+                    return admission.getHotReadRatio();
+                }
+            });
+        }
         this.operationsRegistrator = registratorForPrimary;
     }
 
@@ -227,6 +299,12 @@ public class TieredStorageManagerImpl implements TieredStorageManager {
         if(operationsRegistrator != null) {
             operationsRegistrator.clear();
         }
+        if (retiering != null) {
+            retiering.close();
+        }
+        if (getInternalStorage().getAdmission() != null) {
+            getInternalStorage().getAdmission().close();
+        }
         internalDiskStorage.shutDown();
     }
 
@@ -0,0 +1,338 @@
+package com.gigaspaces.internal.server.space.tiered_storage;
+
+import com.gigaspaces.internal.server.metadata.IServerTypeDesc;
+import com.gigaspaces.internal.server.space.SpaceEngine;
+import com.gigaspaces.internal.server.storage.IEntryData;
+import com.gigaspaces.internal.server.storage.IEntryHolder;
+import com.gigaspaces.internal.server.storage.ITemplateHolder;
+import com.gigaspaces.internal.server.storage.TemplateHolderFactory;
+import com.gigaspaces.metrics.LongCounter;
+import com.j_spaces.core.LeaseManager;
+import com.j_spaces.core.ObjectTypes;
+import com.j_spaces.core.cache.CacheManager;
+import com.j_spaces.core.cache.IEntryCacheInfo;
+import com.j_spaces.core.cache.TypeData;
+import com.j_spaces.core.cache.context.Context;
+import com.j_spaces.core.cache.context.TieredState;
+import com.j_spaces.core.sadapter.ISAdapterIterator;
+import com.j_spaces.core.sadapter.SAException;
+import com.j_spaces.kernel.list.IScanListIterator;
+import com.j_spaces.kernel.locks.ILockObject;
+import net.jini.core.lease.Lease;
+import org.slf4j.Logger;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves the entries of a type between the tiers after its cache rule is changed. A background
+ * thread scans the hot tier and evicts the entries which no longer match the new rule, then scans
+ * the cold tier and loads the entries which now match it into the hot tier. Each entry is moved
+ * under its own entry lock, so foreground operations are only blocked for a single entry at a
+ * time, and the scan pauses for batch interval after every batch size scanned entries. A rule
+ * change of a type which is being re-tiered restarts its scan with the newer rule.
+ * <p>
+ * Hot entries of a time rule are evicted by their lease, so the entries which still match the new
+ * rule get the lease of the new rule: the end of their time window for a time rule, and forever for
+ * any other rule. Types which had no rule have all their entries in the cold tier only. Transient
+ * types have no cold copy, and are not re-tiered.
+ *
+ * @since 16.0
+ */
+public class TieredStorageRetiering {
+
+    private final SpaceEngine engine;
+    private final int batchSize;
+    private final long batchInterval;
+    private final Logger logger;
+
+    private final Object lock = new Object();
+    private final LinkedHashMap<String, CachePredicate> pending = new LinkedHashMap<>();
+    private Thread worker;
+    private volatile String currentType;
+    private volatile boolean closed;
+
+    private final LongCounter scannedEntries = new LongCounter();
+    private final LongCounter evictedEntries = new LongCounter();
+    private final LongCounter promotedEntries = new LongCounter();
+    private final LongCounter retimedEntries = new LongCounter();
+
+    public TieredStorageRetiering(SpaceEngine engine, int batchSize, long batchInterval, Logger logger) {
+        this.engine = engine;
+        this.batchSize = batchSize;
+        this.batchInterval = batchInterval;
+        this.logger = logger;
+    }
+
+    public static boolean isRetierable(CachePredicate cacheRule) {
+        return cacheRule != null && !cacheRule.isTransient();
+    }
+
+    /**
+     * Schedules the re-tiering of the entries of the given type, after its cache rule was replaced.
+     * The old rule is null if the type had no rule.
+     */
+    public void schedule(String typeName, CachePredicate oldRule, CachePredicate newRule) {
+        if ((oldRule != null && !isRetierable(oldRule)) || !isRetierable(newRule)) {
+            logger.info("Cache rule of type {} was changed from {} to {}, existing entries are not re-tiered", typeName, oldRule, newRule);
+            return;
+        }
+        synchronized (lock) {
+            if (closed)
+                return;
+            pending.remove(typeName);
+            pending.put(typeName, newRule);
+            if (worker == null) {
+                worker = new Thread(this::retierPending, "TieredStorageRetiering-" + engine.getFullSpaceName());
+                worker.setDaemon(true);
+                worker.start();
+            }
+            lock.notifyAll();
+        }
+    }
+
+    public void close() {
+        final Thread thread;
+        synchronized (lock) {
+            closed = true;
+            pending.clear();
+            thread = worker;
+            lock.notifyAll();
+        }
+        if (thread == null)
+            return;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the number of types which are being re-tiered or are waiting to be re-tiered
+     */
+    public int getPendingTypes() {
+        synchronized (lock) {
+            return pending.size() + (currentType != null ? 1 : 0);
+        }
+    }
+
+    public LongCounter getScannedEntries() {
+        return scannedEntries;
+    }
+
+    public LongCounter getEvictedEntries() {
+        return evictedEntries;
+    }
+
+    public LongCounter getPromotedEntries() {
+        return promotedEntries;
+    }
+
+    public LongCounter getRetimedEntries() {
+        return retimedEntries;
+    }
+
+    private void retierPending() {
+        while (true) {
+            final String typeName;
+            final CachePredicate cacheRule;
+            synchronized (lock) {
+                try {
+                    while (pending.isEmpty() && !closed)
+                        lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (closed)
+                    return;
+                final Iterator<Map.Entry<String, CachePredicate>> iterator = pending.entrySet().iterator();
+                final Map.Entry<String, CachePredicate> next = iterator.next();
+                iterator.remove();
+                typeName = next.getKey();
+                cacheRule = next.getValue();
+                currentType = typeName;
+            }
+            try {
+                retier(typeName, cacheRule);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable t) {
+                logger.error("Failed to re-tier entries of type " + typeName + " after its cache rule was changed", t);
+            } finally {
+                currentType = null;
+            }
+        }
+    }
+
+    private void retier(String typeName, CachePredicate cacheRule) throws SAException, InterruptedException {
+        final IServerTypeDesc serverTypeDesc = engine.getTypeManager().getServerTypeDesc(typeName);
+        if (serverTypeDesc == null)
+            return;
+        final long startTime = System.currentTimeMillis();
+        final long evictedBefore = evictedEntries.getCount();
+        final long promotedBefore = promotedEntries.getCount();
+        final long retimedBefore = retimedEntries.getCount();
+        final CacheManager cacheManager = engine.getCacheManager();
+        Context context = null;
+        try {
+            context = cacheManager.getCacheContext();
+            context.setDisableTieredStorageMetric(true);
+            if (!evictNonMatching(cacheManager, serverTypeDesc, cacheRule) || !promoteMatching(context, cacheManager, typeName, cacheRule)) {
+                logger.debug("Re-tiering of type {} was superseded by a newer cache rule", typeName);
+                return;
+            }
+        } finally {
+            if (context != null)
+                cacheManager.freeCacheContext(context);
+        }
+        logger.info("Re-tiered type {} to cache rule {} [evicted={}, promoted={}, retimed={}, duration={}ms]", typeName, cacheRule,
+                evictedEntries.getCount() - evictedBefore, promotedEntries.getCount() - promotedBefore,
+                retimedEntries.getCount() - retimedBefore, System.currentTimeMillis() - startTime);
+    }
+
+    private boolean evictNonMatching(CacheManager cacheManager, IServerTypeDesc serverTypeDesc, CachePredicate cacheRule) throws SAException, InterruptedException {
+        final TypeData typeData = cacheManager.getTypeData(serverTypeDesc);
+        final IScanListIterator<IEntryCacheInfo> entries = typeData != null ? typeData.scanTypeEntries() : null;
+        if (entries == null)
+            return true;
+        int scanned = 0;
+        try {
+            while (entries.hasNext()) {
+                final IEntryCacheInfo pEntry = entries.next();
+                if (pEntry == null)
+                    continue;
+                scannedEntries.inc();
+                final IEntryHolder entryHolder = pEntry.getEntryHolder(cacheManager);
+                if (!cacheRule.evaluate(entryHolder.getEntryData())) {
+                    if (evict(cacheManager, pEntry, entryHolder, cacheRule))
+                        evictedEntries.inc();
+                } else if (retime(cacheManager, pEntry, entryHolder, cacheRule)) {
+                    retimedEntries.inc();
+                }
+                if (++scanned % batchSize == 0 && !pause(serverTypeDesc.getTypeName(), cacheRule))
+                    return false;
+            }
+        } finally {
+            entries.releaseScan();
+        }
+        return true;
+    }
+
+    private boolean evict(CacheManager cacheManager, IEntryCacheInfo pEntry, IEntryHolder entryHolder, CachePredicate cacheRule) {
+        final ILockObject entryLock = cacheManager.getLockManager().getLockObject(entryHolder);
+        try {
+            synchronized (entryLock) {
+                // entries which were changed since the scan, or are locked by a transaction, are left for their next update
+                if (cacheManager.getPEntryByUid(entryHolder.getUID()) != pEntry || entryHolder.isDeleted()
+                        || entryHolder.isMaybeUnderXtn() || entryHolder.hasShadow() || cacheRule.evaluate(entryHolder.getEntryData()))
+                    return false;
+                cacheManager.removeEntryFromCache(entryHolder, false /*initiatedByEvictionStrategy*/, true /*locked*/, pEntry, CacheManager.RecentDeleteCodes.NONE);
+                getInternalStorage().updateRamCounterAfterUpdate(entryHolder.getServerTypeDesc().getTypeName(), false, true);
+                return true;
+            }
+        } finally {
+            cacheManager.getLockManager().freeLockObject(entryLock);
+        }
+    }
+
+    /**
+     * Replaces the lease of a hot entry which still matches the rule with the lease of the rule.
+     */
+    private boolean retime(CacheManager cacheManager, IEntryCacheInfo pEntry, IEntryHolder entryHolder, CachePredicate cacheRule) {
+        final ILockObject entryLock = cacheManager.getLockManager().getLockObject(entryHolder);
+        try {
+            synchronized (entryLock) {
+                if (cacheManager.getPEntryByUid(entryHolder.getUID()) != pEntry || entryHolder.isDeleted()
+                        || entryHolder.isMaybeUnderXtn() || entryHolder.hasShadow() || !cacheRule.evaluate(entryHolder.getEntryData()))
+                    return false;
+                final long originalExpiration = entryHolder.getEntryData().getExpirationTime();
+                final long expiration = getHotExpiration(cacheRule, entryHolder.getEntryData());
+                if (originalExpiration == expiration)
+                    return false;
+                entryHolder.setExpirationTime(expiration);
+                engine.getLeaseManager().reRegisterLease(pEntry, entryHolder, originalExpiration, expiration, ObjectTypes.ENTRY);
+                return true;
+            }
+        } finally {
+            cacheManager.getLockManager().freeLockObject(entryLock);
+        }
+    }
+
+    /**
+     * @return the expiration time of a hot entry of the given rule, as set by the lease manager when
+     * the entry is written
+     */
+    long getHotExpiration(CachePredicate cacheRule, IEntryData entryData) {
+        if (!cacheRule.isTimeRule())
+            return Lease.FOREVER;
+        final TimePredicate timeRule = (TimePredicate) cacheRule;
+        return timeRule.getExpirationTime(entryData.getPropertyValue(timeRule.getTimeColumn()),
+                engine.getLeaseManager().getTieredStorageEvictionGracePeriod());
+    }
+
+    private boolean promoteMatching(Context context, CacheManager cacheManager, String typeName, CachePredicate cacheRule) throws SAException, InterruptedException {
+        final ITemplateHolder template = TemplateHolderFactory.createEmptyTemplateHolder(engine,
+                engine.createUIDFromCounter(), LeaseManager.toAbsoluteTime(0) /* expiration time*/, false /*isFifo*/);
+        final ISAdapterIterator<IEntryHolder> entries = getInternalStorage().makeEntriesIter(context, typeName, template);
+        if (entries == null)
+            return true;
+        int scanned = 0;
+        try {
+            while (true) {
+                final IEntryHolder entryHolder = entries.next();
+                if (entryHolder == null)
+                    break;
+                scannedEntries.inc();
+                if (entryHolder.getServerTypeDesc().getTypeName().equals(typeName) && cacheRule.evaluate(entryHolder.getEntryData())
+                        && cacheManager.getPEntryByUid(entryHolder.getUID()) == null && promote(context, cacheManager, typeName, entryHolder.getUID(), cacheRule))
+                    promotedEntries.inc();
+                if (++scanned % batchSize == 0 && !pause(typeName, cacheRule))
+                    return false;
+            }
+        } finally {
+            entries.close();
+        }
+        return true;
+    }
+
+    private boolean promote(Context context, CacheManager cacheManager, String typeName, String uid, CachePredicate cacheRule) throws SAException {
+        final ILockObject entryLock = cacheManager.getLockManager().getLockObject(uid);
+        try {
+            synchronized (entryLock) {
+                if (cacheManager.getPEntryByUid(uid) != null)
+                    return false;
+                // the scanned copy may have been changed or removed since, reload it under the lock
+                final IEntryHolder entryHolder = getInternalStorage().getEntryByUID(context, typeName, uid, null);
+                if (entryHolder == null || !cacheRule.evaluate(entryHolder.getEntryData()))
+                    return false;
+                if (cacheRule.isTimeRule())
+                    entryHolder.updateEntryData(entryHolder.getEntryData(), getHotExpiration(cacheRule, entryHolder.getEntryData()));
+                context.setEntryTieredState(TieredState.TIERED_HOT_AND_COLD);
+                cacheManager.safeInsertEntryToCache(context, entryHolder, false /* newEntry */, null /*pType*/, false /*pin*/, CacheManager.InitialLoadOrigin.FROM_TIERED_STORAGE);
+                getInternalStorage().updateRamCounterAfterUpdate(typeName, true, false);
+                return true;
+            }
+        } finally {
+            cacheManager.getLockManager().freeLockObject(entryLock);
+        }
+    }
+
+    /**
+     * @return false if the re-tiering of the type should stop, because the space is closing or
+     * the cache rule was changed again
+     */
+    private boolean pause(String typeName, CachePredicate cacheRule) throws InterruptedException {
+        if (batchInterval > 0)
+            Thread.sleep(batchInterval);
+        return !closed && engine.getTieredStorageManager().getCacheRule(typeName) == cacheRule;
+    }
+
+    private InternalRDBMSManager getInternalStorage() {
+        return engine.getTieredStorageManager().getInternalStorage();
+    }
+}
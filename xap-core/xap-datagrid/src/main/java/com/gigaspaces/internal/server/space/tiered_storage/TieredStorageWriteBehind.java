@@ -0,0 +1,404 @@
+package com.gigaspaces.internal.server.space.tiered_storage;
+
+import com.gigaspaces.internal.server.storage.IEntryHolder;
+import com.j_spaces.core.cache.context.Context;
+import com.j_spaces.core.sadapter.SAException;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Group commit pipeline between the tiered storage manager and the {@link InternalRDBMS}. Inserts,
+ * updates and removes are queued per type, ordered by the first operation on each uid, and
+ * operations on the same uid are coalesced into one. A background thread flushes the queues every
+ * flush interval, or as soon as max batch size operations are pending, using the batch operations
+ * of the RDBMS. In {@link Mode#SYNC} the space operation waits until the batch holding its entry is
+ * committed, so concurrent operations share a single commit, in {@link Mode#ASYNC} it does not
+ * wait. Reads of a type flush its queue first, so they always see the queued operations.
+ * <p>
+ * In {@link Mode#ASYNC} the operations of a batch which failed to commit are queued again, ahead of
+ * the operations queued since, and retried with a growing delay. Once {@link #UNHEALTHY_FLUSHES}
+ * flushes failed in a row the failure is reported as a health failure of the space and new
+ * operations are rejected, until a flush succeeds.
+ *
+ * @since 16.0
+ */
+public class TieredStorageWriteBehind {
+
+    public enum Mode {
+        OFF, SYNC, ASYNC;
+
+        public static Mode parse(String mode) {
+            return valueOf(mode.trim().toUpperCase());
+        }
+    }
+
+    private enum OperationType {INSERT, UPDATE, REMOVE}
+
+    static final int UNHEALTHY_FLUSHES = 3;
+    private static final long MAX_RETRY_DELAY = 10000;
+
+    private final InternalRDBMS internalRDBMS;
+    private final Mode mode;
+    private final long flushInterval;
+    private final int maxBatchSize;
+    private final Logger logger;
+
+    private final Object lock = new Object();
+    private Map<String, TypeQueue> queues = new HashMap<>();
+    // queues which are being committed, so their operations are still visible
+    private final Map<String, TypeQueue> flushing = new HashMap<>();
+    private int pendingOperations;
+    private int failedFlushes;
+    private volatile SAException failure;
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Context flushContext = new Context();
+    private final Thread flusher;
+    private volatile boolean closed;
+
+    private volatile int lastBatchSize;
+    private volatile long lastFlushLatency;
+
+    public TieredStorageWriteBehind(InternalRDBMS internalRDBMS, Mode mode, long flushInterval, int maxBatchSize, Logger logger, String fullSpaceName) {
+        this.internalRDBMS = internalRDBMS;
+        this.mode = mode;
+        this.flushInterval = flushInterval;
+        this.maxBatchSize = maxBatchSize;
+        this.logger = logger;
+        this.flusher = new Thread(this::flushPeriodically, "TieredStorageWriteBehind-" + fullSpaceName);
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    public void insertEntry(IEntryHolder entryHolder) throws SAException {
+        enqueue(OperationType.INSERT, entryHolder);
+    }
+
+    public void updateEntry(IEntryHolder entryHolder) throws SAException {
+        enqueue(OperationType.UPDATE, entryHolder);
+    }
+
+    /**
+     * Queues the remove of the given entry, which is locked by the caller.
+     *
+     * @return true if the entry has a row to remove, either committed or queued
+     */
+    public boolean removeEntry(Context context, IEntryHolder entryHolder) throws SAException {
+        final String typeName = entryHolder.getServerTypeDesc().getTypeName();
+        PendingOperation pending;
+        synchronized (lock) {
+            pending = getPendingOperation(queues, typeName, entryHolder.getUID());
+            if (pending == null)
+                pending = getPendingOperation(flushing, typeName, entryHolder.getUID());
+        }
+        // no operation of the entry is queued, and none can be queued while it is locked
+        final boolean exists = pending != null ? pending.type != OperationType.REMOVE
+                : internalRDBMS.getEntryByUID(context, typeName, entryHolder.getUID()) != null;
+        if (exists)
+            enqueue(OperationType.REMOVE, entryHolder);
+        return exists;
+    }
+
+    /**
+     * Commits the queued operations of the given type, or of all types if it is null.
+     */
+    public void flush(String typeName) throws SAException {
+        flushLock.lock();
+        try {
+            final List<TypeQueue> toFlush = new ArrayList<>();
+            synchronized (lock) {
+                if (typeName == null) {
+                    toFlush.addAll(queues.values());
+                    queues = new HashMap<>();
+                    pendingOperations = 0;
+                } else {
+                    final TypeQueue queue = queues.remove(typeName);
+                    if (queue != null) {
+                        toFlush.add(queue);
+                        pendingOperations -= queue.operations.size();
+                    }
+                }
+                for (TypeQueue queue : toFlush)
+                    flushing.put(queue.typeName, queue);
+            }
+            if (toFlush.isEmpty())
+                return;
+
+            final long startTime = System.nanoTime();
+            int batchSize = 0;
+            SAException error = null;
+            for (TypeQueue queue : toFlush) {
+                batchSize += queue.operations.size();
+                try {
+                    commit(queue);
+                    synchronized (lock) {
+                        flushing.remove(queue.typeName);
+                    }
+                    queue.done(null);
+                } catch (Throwable t) {
+                    logger.error("Failed to flush " + queue.operations.size() + " queued operations of type " + queue.typeName, t);
+                    final SAException e = t instanceof SAException ? (SAException) t : new SAException(t);
+                    synchronized (lock) {
+                        flushing.remove(queue.typeName);
+                        // no one waits for an async batch, its operations are retried by the next flush
+                        if (mode == Mode.ASYNC)
+                            requeue(queue);
+                    }
+                    if (mode != Mode.ASYNC)
+                        queue.done(e);
+                    if (error == null)
+                        error = e;
+                }
+            }
+            lastBatchSize = batchSize;
+            lastFlushLatency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            synchronized (lock) {
+                if (error == null) {
+                    failedFlushes = 0;
+                    failure = null;
+                } else if (++failedFlushes >= UNHEALTHY_FLUSHES && mode == Mode.ASYNC && failure == null) {
+                    failure = new SAException("Tiered storage failed to commit queued operations " + failedFlushes
+                            + " times in a row, rejecting new operations until a commit succeeds", error);
+                }
+            }
+            if (error != null && typeName != null)
+                throw error;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Drops the queued operations, used when the storage data is deleted.
+     */
+    public void clear() {
+        final List<TypeQueue> dropped;
+        synchronized (lock) {
+            dropped = new ArrayList<>(queues.values());
+            queues = new HashMap<>();
+            pendingOperations = 0;
+            failedFlushes = 0;
+            failure = null;
+        }
+        for (TypeQueue queue : dropped)
+            queue.done(null);
+    }
+
+    public void close() {
+        closed = true;
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flush(null);
+        } catch (SAException e) {
+            logger.error("Failed to flush queued operations on close", e);
+        }
+    }
+
+    public int getQueueDepth() {
+        synchronized (lock) {
+            return pendingOperations;
+        }
+    }
+
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    public long getLastFlushLatency() {
+        return lastFlushLatency;
+    }
+
+    public int getFailedFlushes() {
+        synchronized (lock) {
+            return failedFlushes;
+        }
+    }
+
+    /**
+     * Returns the failure of the queued operations which could not be committed after repeated
+     * flushes, or null if the last flush succeeded.
+     */
+    public SAException getFailure() {
+        return failure;
+    }
+
+    private void enqueue(OperationType type, IEntryHolder entryHolder) throws SAException {
+        if (closed)
+            throw new SAException("Tiered storage write behind is closed");
+        final SAException failure = this.failure;
+        if (failure != null)
+            throw new SAException(failure.getMessage(), failure);
+        final TypeQueue queue;
+        synchronized (lock) {
+            final String typeName = entryHolder.getServerTypeDesc().getTypeName();
+            queue = queues.computeIfAbsent(typeName, TypeQueue::new);
+            pendingOperations += queue.add(type, entryHolder);
+            if (pendingOperations >= maxBatchSize)
+                lock.notifyAll();
+        }
+        if (mode == Mode.SYNC)
+            queue.await();
+    }
+
+    private void flushPeriodically() {
+        while (!closed) {
+            try {
+                synchronized (lock) {
+                    if (failedFlushes != 0 && !closed)
+                        lock.wait(Math.min(flushInterval << Math.min(failedFlushes, 16), Math.max(flushInterval, MAX_RETRY_DELAY)));
+                    else if (pendingOperations < maxBatchSize && !closed)
+                        lock.wait(flushInterval);
+                }
+                flush(null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable t) {
+                // already logged per type, keep flushing
+            }
+        }
+    }
+
+    private static PendingOperation getPendingOperation(Map<String, TypeQueue> queues, String typeName, String uid) {
+        final TypeQueue queue = queues.get(typeName);
+        return queue != null ? queue.operations.get(uid) : null;
+    }
+
+    /**
+     * Queues the operations of a batch which failed to commit again, ahead of the operations of its
+     * type which were queued since.
+     */
+    private void requeue(TypeQueue failed) {
+        final TypeQueue queued = queues.put(failed.typeName, failed);
+        if (queued == null) {
+            pendingOperations += failed.operations.size();
+            return;
+        }
+        pendingOperations -= queued.operations.size();
+        for (PendingOperation operation : queued.operations.values()) {
+            if (operation.removeFirst)
+                failed.add(OperationType.REMOVE, operation.entryHolder);
+            failed.add(operation.type, operation.entryHolder);
+        }
+        pendingOperations += failed.operations.size();
+    }
+
+    private void commit(TypeQueue queue) throws SAException {
+        final List<IEntryHolder> removes = new ArrayList<>();
+        final List<IEntryHolder> inserts = new ArrayList<>();
+        final List<IEntryHolder> updates = new ArrayList<>();
+        for (PendingOperation operation : queue.operations.values()) {
+            if (operation.removeFirst)
+                removes.add(operation.entryHolder);
+            switch (operation.type) {
+                case INSERT:
+                    inserts.add(operation.entryHolder);
+                    break;
+                case UPDATE:
+                    updates.add(operation.entryHolder);
+                    break;
+                case REMOVE:
+                    removes.add(operation.entryHolder);
+                    break;
+            }
+        }
+        if (!removes.isEmpty())
+            internalRDBMS.removeEntries(flushContext, removes);
+        if (!inserts.isEmpty())
+            internalRDBMS.insertEntries(flushContext, inserts);
+        if (!updates.isEmpty())
+            internalRDBMS.updateEntries(flushContext, updates);
+    }
+
+    private static class PendingOperation {
+        private OperationType type;
+        private IEntryHolder entryHolder;
+        // the row has to be removed before the operation is applied (remove followed by insert)
+        private boolean removeFirst;
+
+        private PendingOperation(OperationType type, IEntryHolder entryHolder) {
+            this.type = type;
+            this.entryHolder = entryHolder;
+        }
+    }
+
+    private static class TypeQueue {
+        private final String typeName;
+        private final LinkedHashMap<String, PendingOperation> operations = new LinkedHashMap<>();
+        private final CountDownLatch flushed = new CountDownLatch(1);
+        private volatile SAException error;
+
+        private TypeQueue(String typeName) {
+            this.typeName = typeName;
+        }
+
+        /**
+         * Coalesces the operation with the pending operation on the same uid.
+         *
+         * @return the change in the number of pending operations
+         */
+        private int add(OperationType type, IEntryHolder entryHolder) {
+            final String uid = entryHolder.getUID();
+            final PendingOperation pending = operations.get(uid);
+            if (pending == null) {
+                operations.put(uid, new PendingOperation(type, entryHolder));
+                return 1;
+            }
+            pending.entryHolder = entryHolder;
+            switch (type) {
+                case INSERT:
+                    if (pending.type != OperationType.INSERT)
+                        pending.removeFirst = true;
+                    pending.type = OperationType.INSERT;
+                    return 0;
+                case UPDATE:
+                    // an update of a pending insert is still an insert
+                    if (pending.type == OperationType.REMOVE)
+                        pending.type = OperationType.UPDATE;
+                    return 0;
+                case REMOVE:
+                    if (pending.type == OperationType.INSERT && !pending.removeFirst) {
+                        // the row was never written
+                        operations.remove(uid);
+                        return -1;
+                    }
+                    pending.type = OperationType.REMOVE;
+                    pending.removeFirst = false;
+                    return 0;
+                default:
+                    throw new IllegalArgumentException("Unexpected operation type " + type);
+            }
+        }
+
+        private void done(SAException error) {
+            this.error = error;
+            flushed.countDown();
+        }
+
+        private void await() throws SAException {
+            try {
+                flushed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SAException("Interrupted while waiting for tiered storage flush", e);
+            }
+            if (error != null)
+                throw error;
+        }
+    }
+}
@@ -48,9 +48,9 @@ public class EntryHolder extends AbstractSpaceItem implements IEntryHolder {
 
     //does entry has WF array ?  note- its non volatile !!!!!!!!!!!!!
     private boolean _hasWaitingFor;
-    //entry is being inserted/updated, in the process of fields insertion
-    //NOTE- currently not volatile,
-    private boolean _unStable;
+    //incremented when the entry starts and ends being inserted/updated (fields insertion),
+    //odd while unstable- used by non-blocking reads to validate the snapshot they took
+    private volatile int _modificationStamp;
 
 
     public EntryHolder(IServerTypeDesc typeDesc, String uid, long scn,
@@ -95,11 +95,21 @@ public class EntryHolder extends AbstractSpaceItem implements IEntryHolder {
     }
 
     public boolean isUnstable() {
-        return _unStable;
+        return (_modificationStamp & 1) != 0;
     }
 
     public void setunStable(boolean value) {
-        this._unStable = value;
+        //called under the entry lock
+        if (value != isUnstable())
+            _modificationStamp++;
+    }
+
+    public int getModificationStamp() {
+        return _modificationStamp;
+    }
+
+    public boolean isModifiedSince(int modificationStamp) {
+        return (modificationStamp & 1) != 0 || _modificationStamp != modificationStamp;
     }
 
     public IEntryData getEntryData() {
@@ -65,7 +65,7 @@ public class EntryHolderFactory {
                             xidOriginated, scn, versionID, keepExpiration);
 
         ITransactionalEntryData entryData =
-                createEntryData(entryPacket, entryDataType, versionID,
+                createEntryData(typeDesc, entryPacket, entryDataType, versionID,
                         expirationTime, xidOriginated != null, keepExpiration);
 
         if (xidOriginated != null)
@@ -87,7 +87,7 @@ public class EntryHolderFactory {
                     entryPacket.getPropertyValue(typeDesc.getTypeDesc().getDefaultPropertyName()));
 
         int version = entryPacket.getVersion();
-        ITransactionalEntryData entryData = createEntryData(entryPacket, entryDataType,
+        ITransactionalEntryData entryData = createEntryData(typeDesc, entryPacket, entryDataType,
                 version > 0 ? version : 1, -1 /*lease*/, false /*createEntryXtnInfo*/, false /*keepExpiration*/);
 
         return new EntryHolder(typeDesc, uid, SystemTime.timeMillis(), entryPacket.isTransient(), entryData);
@@ -110,7 +110,7 @@ public class EntryHolderFactory {
                                                            EntryDataType entryDataType, String uid, long expirationTime,
                                                            XtnEntry xidOriginated, long scn, int versionID, boolean keepExpiration) {
         ITransactionalEntryData entryData =
-                createEntryData(entryPacket, entryDataType, versionID,
+                createEntryData(null /*blobstore entries are not dictionary encoded*/, entryPacket, entryDataType, versionID,
                         expirationTime, xidOriginated != null, keepExpiration);
 
         if (xidOriginated != null)
@@ -121,7 +121,7 @@ public class EntryHolderFactory {
         return entryHolder;
     }
 
-    private static ITransactionalEntryData createEntryData(IEntryPacket entryPacket,
+    private static ITransactionalEntryData createEntryData(IServerTypeDesc typeDesc, IEntryPacket entryPacket,
                                                            EntryDataType entryDataType, int versionID, long expiration, boolean createXtnEntryInfo, boolean keepExpiration) {
         final EntryType entryType = entryPacket.getEntryType();
         if (entryType == null)
@@ -137,6 +137,9 @@ public class EntryHolderFactory {
                 return new HybridEntryData(((HybridEntryPacket) entryPacket).getPropertiesHolder(), entryPacket.getDynamicProperties(),
                         entryTypeDesc, version, lease, entryXtnInfo);
             } else {
+                final PropertyValueDictionary dictionary = typeDesc != null ? typeDesc.getPropertyValueDictionary() : null;
+                if (dictionary != null)
+                    dictionary.encode(entryPacket.getFieldValues());
                 return new FlatEntryData(entryPacket.getFieldValues(), entryPacket.getDynamicProperties(),
                         entryTypeDesc, version, lease, entryXtnInfo);
             }
@@ -108,6 +108,22 @@ public interface IEntryHolder extends ISpaceItem {
 
     void setunStable(boolean value);
 
+    /**
+     * Returns a stamp which changes whenever the entry starts or ends being inserted/updated, the
+     * stamp is odd while the entry is unstable.
+     *
+     * @since 16.0
+     */
+    int getModificationStamp();
+
+    /**
+     * Returns true if the entry was unstable when the given stamp was taken, or was modified since.
+     * A snapshot of the entry data taken after the stamp is consistent only if this returns false.
+     *
+     * @since 16.0
+     */
+    boolean isModifiedSince(int modificationStamp);
+
     boolean isExpired();
 
     boolean isExpired(long limit);
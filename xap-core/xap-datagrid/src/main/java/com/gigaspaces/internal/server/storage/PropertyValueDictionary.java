@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.storage;
+
+import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.j_spaces.kernel.SystemProperties;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Dictionary of the fixed property values of the entries of a dictionary encoded type. Equal
+ * strings and boxed primitives stored in the same property are replaced by a single shared
+ * instance, so low cardinality properties cost a reference per entry rather than an object per
+ * entry. A property stops growing its dictionary once it holds {@link
+ * SystemProperties#DICTIONARY_ENCODING_MAX_VALUES} distinct values.
+ *
+ * @since 16.0
+ */
+@com.gigaspaces.api.InternalApi
+public class PropertyValueDictionary {
+    private static final int MAX_VALUES = Integer.getInteger(SystemProperties.DICTIONARY_ENCODING_MAX_VALUES,
+            SystemProperties.DICTIONARY_ENCODING_MAX_VALUES_DEFAULT);
+
+    private final ConcurrentMap<Object, Object>[] _dictionaries;
+    private final int _maxValues;
+
+    public PropertyValueDictionary(ITypeDesc typeDesc) {
+        this(typeDesc.getNumOfFixedProperties(), MAX_VALUES);
+    }
+
+    @SuppressWarnings("unchecked")
+    PropertyValueDictionary(int numOfProperties, int maxValues) {
+        this._dictionaries = new ConcurrentMap[numOfProperties];
+        for (int i = 0; i < numOfProperties; i++)
+            _dictionaries[i] = new ConcurrentHashMap<Object, Object>();
+        this._maxValues = maxValues;
+    }
+
+    /**
+     * Replaces the given fixed property values with their shared instances.
+     */
+    public void encode(Object[] values) {
+        if (values == null || values.length != _dictionaries.length)
+            return;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null && isEncodable(values[i].getClass()))
+                values[i] = encode(_dictionaries[i], values[i]);
+        }
+    }
+
+    public int size(int propertyIndex) {
+        return _dictionaries[propertyIndex].size();
+    }
+
+    private Object encode(ConcurrentMap<Object, Object> dictionary, Object value) {
+        Object sharedValue = dictionary.get(value);
+        if (sharedValue != null)
+            return sharedValue;
+        if (dictionary.size() >= _maxValues)
+            return value;
+        sharedValue = dictionary.putIfAbsent(value, value);
+        return sharedValue != null ? sharedValue : value;
+    }
+
+    private static boolean isEncodable(Class<?> type) {
+        return type == String.class || type == Integer.class || type == Long.class || type == Double.class
+                || type == Float.class || type == Short.class || type == Byte.class || type == Character.class;
+    }
+}
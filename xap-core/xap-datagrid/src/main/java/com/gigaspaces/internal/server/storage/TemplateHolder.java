@@ -206,43 +206,12 @@ public class TemplateHolder extends AbstractSpaceItem implements ITemplateHolder
 
         setMemoryOnlySearch(Modifiers.contains(_operationModifiers, Modifiers.MEMORY_ONLY_SEARCH));
         if (Modifiers.contains(_operationModifiers, Modifiers.EXPLAIN_PLAN)) {
-            QueryTemplatePacket templatePacket = (QueryTemplatePacket) packet;
             SingleExplainPlan plan = new SingleExplainPlan();
-            if ( hasValue(templatePacket) || hasMatchCodes(templatePacket)) {
-                plan.setRoot(ExplainPlanUtil.BuildMatchCodes(templatePacket));
-                if (templatePacket.getCustomQuery() != null) {
-                    plan.getRoot().getChildren().add(ExplainPlanUtil.buildQueryTree(templatePacket.getCustomQuery()));
-                }
-            } else if (templatePacket.getCustomQuery() != null) {
-                plan.setRoot(ExplainPlanUtil.buildQueryTree(templatePacket.getCustomQuery()));
-            }
+            plan.setRoot(ExplainPlanUtil.buildQueryTree((QueryTemplatePacket) packet));
             this._singleExplainPlan = plan;
         }
     }
 
-    private boolean hasValue(QueryTemplatePacket packet) {
-        Object[] fieldValues = packet.getFieldValues();
-        for (Object fieldValue : fieldValues) {
-            if(fieldValue != null)
-                return  true;
-        }
-
-        return false;
-    }
-
-    //GS-14491, added by Evgeny on 4.05 in order to display Filter's info in explain plan for IS NULL and NOT NULL operations
-    private boolean hasMatchCodes(QueryTemplatePacket packet) {
-
-        short[] extendedMatchCodes = packet.getExtendedMatchCodes();
-        for (short extendedMatchCode : extendedMatchCodes) {
-            if(extendedMatchCode == TemplateMatchCodes.IS_NULL || extendedMatchCode == TemplateMatchCodes.NOT_NULL) {
-                return true;
-            }
-        }
-
-        return false;
-    }
-
     private TemplateHolder(IServerTypeDesc typeDesc, IEntryPacket packet, AbstractProjectionTemplate projectionTemplate,
                            String uid, long scn, long expirationTime, XtnEntry xidOriginated,
                            int templateOperation, IResponseContext respContext,
@@ -715,6 +684,7 @@ public class TemplateHolder extends AbstractSpaceItem implements ITemplateHolder
         MatchResult res = MatchResult.NONE;
         ITransactionalEntryData masterEntryData = null;
         IEntryData shadowEntryData = null;
+        int modificationStamp = 0;
         if (getCustomQuery() != null && context != null)
             context.setOnMatchUid(entry.getUID());
 
@@ -725,6 +695,7 @@ public class TemplateHolder extends AbstractSpaceItem implements ITemplateHolder
             res = MatchResult.NONE;
         else {
             //obtain the relevant field values
+            modificationStamp = entry.getModificationStamp();
             masterEntryData = entry.getTxnEntryData();
             if (safeEntry) {//entry is locked (or a clone)
                 if (entry.hasShadow(true /*safeEntry*/)) //use mayHaveShadow() not to touch volatile
@@ -758,9 +729,9 @@ public class TemplateHolder extends AbstractSpaceItem implements ITemplateHolder
                 context.setRawmatchResult(null, MatchResult.NONE, null, null);
             else {
                 context.setRawmatchResult(masterEntryData, res, entry, this);
-                //note- if entry insertion/update can be revoked in the middle (unique index
-                //setting unstable should be done differently with double check
-                context.setUnstableEntry(entry.isUnstable());
+                //insertion/update can be revoked in the middle (unique index)- the snapshot
+                //is stable only if the entry was not modified while it was taken and matched
+                context.setUnstableEntry(entry.isModifiedSince(modificationStamp));
             }
         }
         if(_singleExplainPlan != null){
@@ -918,6 +889,14 @@ public class TemplateHolder extends AbstractSpaceItem implements ITemplateHolder
         throw new UnsupportedOperationException("This operation is not supported for TemplateHolder");
     }
 
+    public int getModificationStamp() {
+        throw new UnsupportedOperationException("This operation is not supported for TemplateHolder");
+    }
+
+    public boolean isModifiedSince(int modificationStamp) {
+        throw new UnsupportedOperationException("This operation is not supported for TemplateHolder");
+    }
+
     @Override
     public int getPreviousVersion() {
         return _previousVersion;
@@ -17,7 +17,8 @@ public abstract class BroadcastTableSpaceRequestInfo extends AbstractSpaceReques
         PUSH_ENTRY (0),
         PUSH_ENTRIES (1),
         PULL_ENTRIES (2),
-        CLEAR_ENTRIES(3);
+        CLEAR_ENTRIES(3),
+        FLUSH_ENTRIES(4);
         public final byte value;
         Action(int value) {
             this.value = (byte) value;
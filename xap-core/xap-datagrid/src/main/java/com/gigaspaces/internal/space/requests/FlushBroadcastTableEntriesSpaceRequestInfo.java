@@ -0,0 +1,22 @@
+package com.gigaspaces.internal.space.requests;
+
+import static com.gigaspaces.internal.space.requests.BroadcastTableSpaceRequestInfo.Action.FLUSH_ENTRIES;
+
+/**
+ * Waits until the broadcast table entries written to the first partition so far were pushed to all
+ * the other partitions, see {@link com.j_spaces.core.Constants.Engine#ENGINE_BROADCAST_TABLE_ASYNC_PUSH_PROP}.
+ *
+ * @since 16.0
+ */
+@com.gigaspaces.api.InternalApi
+public class FlushBroadcastTableEntriesSpaceRequestInfo extends BroadcastTableSpaceRequestInfo {
+    private static final long serialVersionUID = 1L;
+
+    public FlushBroadcastTableEntriesSpaceRequestInfo() {
+    }
+
+    @Override
+    public Action getAction() {
+        return FLUSH_ENTRIES;
+    }
+}
@@ -21,12 +21,15 @@ package com.gigaspaces.internal.transport;
 
 import com.gigaspaces.internal.io.IOArrayException;
 import com.gigaspaces.internal.io.IOUtils;
+import com.gigaspaces.internal.io.MarshalInputStream;
+import com.gigaspaces.internal.io.MarshalOutputStream;
 import com.gigaspaces.internal.metadata.EntryType;
 import com.gigaspaces.internal.metadata.ITypeDesc;
 import com.gigaspaces.internal.metadata.PropertyInfo;
 import com.gigaspaces.internal.query.ICustomQuery;
 import com.gigaspaces.internal.version.PlatformLogicalVersion;
 import com.j_spaces.core.EntrySerializationException;
+import com.j_spaces.kernel.SystemProperties;
 
 import java.io.IOException;
 import java.io.ObjectInput;
@@ -221,6 +224,9 @@ public class EntryPacket extends AbstractEntryPacket {
     private static final short FLAG_RETURN_ONLY_UIDS = 1 << 9;
     private static final short FLAG_CUSTOM_QUERY = 1 << 10;
     private static final short FLAG_DYNAMIC_PROPERTIES = 1 << 11;
+    private static final short FLAG_FIELDS_VALUES_CODEC = 1 << 12;
+
+    private static final boolean USE_CODEC = Boolean.getBoolean(SystemProperties.LRMI_ENTRY_PACKET_CODEC);
 
     private short buildFlags() {
         short flags = 0;
@@ -279,7 +285,8 @@ public class EntryPacket extends AbstractEntryPacket {
     private final void serializePacket(ObjectOutput out,
                                        PlatformLogicalVersion version) {
         try {
-            out.writeShort(buildFlags());
+            final EntryPacketCodec codec = getCodec(out, version);
+            out.writeShort(codec != null ? (short) (buildFlags() | FLAG_FIELDS_VALUES_CODEC) : buildFlags());
 
             if (_typeName != null)
                 IOUtils.writeRepetitiveString(out, _typeName);
@@ -293,7 +300,11 @@ public class EntryPacket extends AbstractEntryPacket {
                 IOUtils.writeStringArray(out, _multipleUIDs);
             if (_fixedProperties != null) {
                 try {
-                    IOUtils.writeObjectArrayCompressed(out, _fixedProperties);
+                    if (codec != null) {
+                        ((MarshalOutputStream) out).writeRepetitiveObject(codec);
+                        codec.writeValues(out, _fixedProperties);
+                    } else
+                        IOUtils.writeObjectArrayCompressed(out, _fixedProperties);
                 } catch (IOArrayException e) {
                     throw createPropertySerializationException(e, true);
                 }
@@ -310,6 +321,18 @@ public class EntryPacket extends AbstractEntryPacket {
         }
     }
 
+    /**
+     * Returns the codec the fixed properties should be serialized with, or null if they should be
+     * serialized generically - the codec schema is cached per connection, so it's used only over
+     * LRMI streams.
+     */
+    private EntryPacketCodec getCodec(ObjectOutput out, PlatformLogicalVersion version) {
+        if (!USE_CODEC || _fixedProperties == null || !(out instanceof MarshalOutputStream) || version.lessThan(PlatformLogicalVersion.v16_0_0))
+            return null;
+        final EntryPacketCodec codec = EntryPacketCodec.getCodec(_typeDesc, _fixedProperties.length);
+        return codec != null && codec.canWrite(_fixedProperties) ? codec : null;
+    }
+
     @Override
     protected void readExternal(ObjectInput in, PlatformLogicalVersion version)
             throws IOException, ClassNotFoundException {
@@ -340,7 +363,10 @@ public class EntryPacket extends AbstractEntryPacket {
                 _multipleUIDs = IOUtils.readStringArray(in);
             if ((flags & FLAG_FIELDS_VALUES) != 0) {
                 try {
-                    _fixedProperties = IOUtils.readObjectArrayCompressed(in);
+                    if ((flags & FLAG_FIELDS_VALUES_CODEC) != 0)
+                        _fixedProperties = ((EntryPacketCodec) ((MarshalInputStream) in).readRepetitiveObject()).readValues(in);
+                    else
+                        _fixedProperties = IOUtils.readObjectArrayCompressed(in);
                 } catch (IOArrayException e) {
                     throw createPropertySerializationException(e, false);
                 }
@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.transport;
+
+import com.gigaspaces.internal.io.IOArrayException;
+import com.gigaspaces.internal.io.IOUtils;
+import com.gigaspaces.internal.metadata.ITypeDesc;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Schema aware serialization of the fixed properties of an entry packet. The codec of a type is
+ * built from the declared types of its fixed properties - values are written after a null bitmap,
+ * without a per value type tag, and integral values are varint (zigzag) encoded. Properties whose
+ * declared type is not a primitive, a primitive wrapper or a string are written with {@link
+ * IOUtils#writeObject(ObjectOutput, Object)}. <p/> The codec itself is the schema: it is written as
+ * a repetitive object before the values, so each connection transfers the schema of a type (name,
+ * checksum and property types) once, and the reader decodes by the schema it received rather than
+ * by its own type descriptor.
+ *
+ * @since 16.0
+ */
+@com.gigaspaces.api.InternalApi
+public class EntryPacketCodec implements Externalizable {
+    private static final long serialVersionUID = 1L;
+
+    private static final ConcurrentMap<String, EntryPacketCodec> _codecs = new ConcurrentHashMap<String, EntryPacketCodec>();
+
+    private String _typeName;
+    private int _checksum;
+    private String[] _propertyTypeNames;
+    private transient FieldCodec[] _fieldCodecs;
+
+    /**
+     * Required for Externalizable
+     */
+    public EntryPacketCodec() {
+    }
+
+    private EntryPacketCodec(String typeName, int checksum, String[] propertyTypeNames) {
+        this._typeName = typeName;
+        this._checksum = checksum;
+        this._propertyTypeNames = propertyTypeNames;
+        this._fieldCodecs = createFieldCodecs(propertyTypeNames);
+    }
+
+    /**
+     * Returns the codec of the given type, or null if the values of its entries should be
+     * serialized generically.
+     */
+    public static EntryPacketCodec getCodec(ITypeDesc typeDesc, int numOfValues) {
+        if (typeDesc == null || typeDesc.getNumOfFixedProperties() != numOfValues || !typeDesc.isAllPropertiesObjectStorageType())
+            return null;
+        final String key = typeDesc.getTypeName() + '#' + typeDesc.getChecksum();
+        EntryPacketCodec codec = _codecs.get(key);
+        if (codec == null) {
+            String[] propertyTypeNames = new String[numOfValues];
+            for (int i = 0; i < numOfValues; i++)
+                propertyTypeNames[i] = typeDesc.getFixedProperty(i).getTypeName();
+            codec = new EntryPacketCodec(typeDesc.getTypeName(), typeDesc.getChecksum(), propertyTypeNames);
+            EntryPacketCodec existing = _codecs.putIfAbsent(key, codec);
+            if (existing != null)
+                codec = existing;
+        }
+        return codec;
+    }
+
+    /**
+     * Returns true if all the given values are of their declared types, e.g. a document property
+     * declared as an integer may hold a long, in which case the values are serialized generically.
+     */
+    public boolean canWrite(Object[] values) {
+        for (int i = 0; i < _fieldCodecs.length; i++) {
+            final Class<?> valueClass = _fieldCodecs[i]._valueClass;
+            if (valueClass != null && values[i] != null && values[i].getClass() != valueClass)
+                return false;
+        }
+        return true;
+    }
+
+    public void writeValues(ObjectOutput out, Object[] values) throws IOException {
+        final int length = _fieldCodecs.length;
+        for (int i = 0; i < length; i += 8) {
+            int bits = 0;
+            for (int j = i; j < length && j < i + 8; j++)
+                if (values[j] != null)
+                    bits |= 1 << (j - i);
+            out.writeByte(bits);
+        }
+        int i = 0;
+        try {
+            for (; i < length; i++)
+                if (values[i] != null)
+                    _fieldCodecs[i].write(out, values[i]);
+        } catch (IOException e) {
+            throw new IOArrayException(i, "Failed to serialize item #" + i, e);
+        }
+    }
+
+    public Object[] readValues(ObjectInput in) throws IOException, ClassNotFoundException {
+        final int length = _fieldCodecs.length;
+        final Object[] values = new Object[length];
+        final byte[] bitmap = new byte[(length + 7) / 8];
+        in.readFully(bitmap);
+        int i = 0;
+        try {
+            for (; i < length; i++)
+                if ((bitmap[i >> 3] & (1 << (i & 7))) != 0)
+                    values[i] = _fieldCodecs[i].read(in);
+        } catch (IOException e) {
+            throw new IOArrayException(i, "Failed to deserialize item #" + i, e);
+        }
+        return values;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        IOUtils.writeString(out, _typeName);
+        out.writeInt(_checksum);
+        IOUtils.writeRepetitiveStringArray(out, _propertyTypeNames);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        _typeName = IOUtils.readString(in);
+        _checksum = in.readInt();
+        _propertyTypeNames = IOUtils.readRepetitiveStringArray(in);
+        _fieldCodecs = createFieldCodecs(_propertyTypeNames);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof EntryPacketCodec))
+            return false;
+        EntryPacketCodec other = (EntryPacketCodec) o;
+        return _checksum == other._checksum && _typeName.equals(other._typeName)
+                && Arrays.equals(_propertyTypeNames, other._propertyTypeNames);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * _typeName.hashCode() + _checksum;
+    }
+
+    @Override
+    public String toString() {
+        return "EntryPacketCodec[" + _typeName + ", checksum=" + _checksum + "]";
+    }
+
+    private static FieldCodec[] createFieldCodecs(String[] propertyTypeNames) {
+        FieldCodec[] fieldCodecs = new FieldCodec[propertyTypeNames.length];
+        for (int i = 0; i < fieldCodecs.length; i++)
+            fieldCodecs[i] = FieldCodec.fromTypeName(propertyTypeNames[i]);
+        return fieldCodecs;
+    }
+
+    private enum FieldCodec {
+        INT(Integer.class) {
+            void write(ObjectOutput out, Object value) throws IOException {
+                writeVarLong(out, (Integer) value);
+            }
+
+            Object read(ObjectInput in) throws IOException {
+                return (int) readVarLong(in);
+            }
+        },
+        LONG(Long.class) {
+            void write(ObjectOutput out, Object value) throws IOException {
+                writeVarLong(out, (Long) value);
+            }
+
+            Object read(ObjectInput in) throws IOException {
+                return readVarLong(in);
+            }
+        },
+        SHORT(Short.class) {
+            void write(ObjectOutput out, Object value) throws IOException {
+                writeVarLong(out, (Short) value);
+            }
+
+            Object read(ObjectInput in) throws IOException {
+                return (short) readVarLong(in);
+            }
+        },
+        BYTE(Byte.class) {
+            void write(ObjectOutput out, Object value) throws IOException {
+                out.writeByte((Byte) value);
+            }
+
+            Object read(ObjectInput in) throws IOException {
+                return in.readByte();
+            }
+        },
+        BOOLEAN(Boolean.class) {
+            void write(ObjectOutput out, Object value) throws IOException {
+                out.writeBoolean((Boolean) value);
+            }
+
+            Object read(ObjectInput in) throws IOException {
+                return in.readBoolean();
+            }
+        },
+        CHAR(Character.class) {
+            void write(ObjectOutput out, Object value) throws IOException {
+                out.writeChar((Character) value);
+            }
+
+            Object read(ObjectInput in) throws IOException {
+                return in.readChar();
+            }
+        },
+        FLOAT(Float.class) {
+            void write(ObjectOutput out, Object value) throws IOException {
+                out.writeFloat((Float) value);
+            }
+
+            Object read(ObjectInput in) throws IOException {
+                return in.readFloat();
+            }
+        },
+        DOUBLE(Double.class) {
+            void write(ObjectOutput out, Object value) throws IOException {
+                out.writeDouble((Double) value);
+            }
+
+            Object read(ObjectInput in) throws IOException {
+                return in.readDouble();
+            }
+        },
+        STRING(String.class) {
+            void write(ObjectOutput out, Object value) throws IOException {
+                IOUtils.writeString(out, (String) value);
+            }
+
+            Object read(ObjectInput in) throws IOException, ClassNotFoundException {
+                return IOUtils.readString(in);
+            }
+        },
+        OBJECT(null) {
+            void write(ObjectOutput out, Object value) throws IOException {
+                IOUtils.writeObject(out, value);
+            }
+
+            Object read(ObjectInput in) throws IOException, ClassNotFoundException {
+                return IOUtils.readObject(in);
+            }
+        };
+
+        private final Class<?> _valueClass;
+
+        FieldCodec(Class<?> valueClass) {
+            this._valueClass = valueClass;
+        }
+
+        abstract void write(ObjectOutput out, Object value) throws IOException;
+
+        abstract Object read(ObjectInput in) throws IOException, ClassNotFoundException;
+
+        static FieldCodec fromTypeName(String typeName) {
+            if (typeName == null)
+                return OBJECT;
+            if (typeName.equals("int") || typeName.equals("java.lang.Integer"))
+                return INT;
+            if (typeName.equals("long") || typeName.equals("java.lang.Long"))
+                return LONG;
+            if (typeName.equals("short") || typeName.equals("java.lang.Short"))
+                return SHORT;
+            if (typeName.equals("byte") || typeName.equals("java.lang.Byte"))
+                return BYTE;
+            if (typeName.equals("boolean") || typeName.equals("java.lang.Boolean"))
+                return BOOLEAN;
+            if (typeName.equals("char") || typeName.equals("java.lang.Character"))
+                return CHAR;
+            if (typeName.equals("float") || typeName.equals("java.lang.Float"))
+                return FLOAT;
+            if (typeName.equals("double") || typeName.equals("java.lang.Double"))
+                return DOUBLE;
+            if (typeName.equals("java.lang.String"))
+                return STRING;
+            return OBJECT;
+        }
+    }
+
+    private static void writeVarLong(ObjectOutput out, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.writeByte((int) zigzag);
+    }
+
+    private static long readVarLong(ObjectInput in) throws IOException {
+        long zigzag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = in.readByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+        throw new IOException("Malformed varint");
+    }
+}
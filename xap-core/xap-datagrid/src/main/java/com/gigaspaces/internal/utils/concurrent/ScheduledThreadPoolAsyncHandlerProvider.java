@@ -68,6 +68,13 @@ public class ScheduledThreadPoolAsyncHandlerProvider extends AbstractAsyncHandle
         return _threadAsyncHandlerProvider.startMayBlock(callable, idleDelayMilis, name, waitIdleDelayBeforeStart);
     }
 
+    /**
+     * Starts the handlers which may block on platform threads from now on.
+     */
+    public void disableVirtualThreads(String reason) {
+        _threadAsyncHandlerProvider.disableVirtualThreads(reason);
+    }
+
     @Override
     protected void onClose() {
         _executorService.shutdownNow();
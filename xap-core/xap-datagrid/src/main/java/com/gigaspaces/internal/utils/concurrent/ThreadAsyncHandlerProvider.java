@@ -22,6 +22,7 @@ import com.gigaspaces.logger.Constants;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
@@ -35,6 +36,7 @@ public class ThreadAsyncHandlerProvider extends AbstractAsyncHandlerProvider {
     private static final Logger _logger = LoggerFactory.getLogger(Constants.LOGGER_REPLICATION);
 
     private final Set<Thread> _threads = new HashSet<Thread>();
+    private volatile boolean _virtualThreadsDisabled;
 
     @Override
     public IAsyncHandler startImpl(AsyncCallable callable,
@@ -43,8 +45,11 @@ public class ThreadAsyncHandlerProvider extends AbstractAsyncHandlerProvider {
                 callable,
                 idleDelayMilis, waitIdleDelayBeforeStart);
         callable.setHandler(wrapper);
-        GSThread thread;
-        if (StringUtils.hasText(name))
+        Thread thread;
+        ThreadFactory virtualThreadFactory = _virtualThreadsDisabled ? null : VirtualThreads.newThreadFactory(StringUtils.hasText(name) ? name : "AsyncHandler");
+        if (virtualThreadFactory != null)
+            thread = virtualThreadFactory.newThread(wrapper);
+        else if (StringUtils.hasText(name))
             thread = new GSThread(wrapper, name);
         else
             thread = new GSThread(wrapper);
@@ -62,6 +67,16 @@ public class ThreadAsyncHandlerProvider extends AbstractAsyncHandlerProvider {
         return startImpl(callable, idleDelayMilis, name, waitIdleDelayBeforeStart);
     }
 
+    /**
+     * Starts the handlers of this provider on platform threads from now on.
+     */
+    public void disableVirtualThreads(String reason) {
+        if (VirtualThreads.isEnabled() && !_virtualThreadsDisabled) {
+            _virtualThreadsDisabled = true;
+            _logger.warn("Virtual threads of async handlers are disabled - " + reason);
+        }
+    }
+
     public void removeCurrent() {
         synchronized (_stateLock) {
             _threads.remove(Thread.currentThread());
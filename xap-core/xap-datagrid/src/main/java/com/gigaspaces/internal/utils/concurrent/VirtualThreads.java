@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.utils.concurrent;
+
+import com.gigaspaces.logger.Constants;
+import com.j_spaces.kernel.SystemProperties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates virtual threads when running on JDK 21 or later and {@link
+ * SystemProperties#VIRTUAL_THREADS_ENABLED} is set. The JDK api is accessed by reflection since the
+ * product is compiled for older JDKs. <p/> Virtual threads are pinned to their carrier thread
+ * while blocked inside a <code>synchronized</code> block, and the engine performs storage I/O
+ * while holding entry locks when the space is not a pure memory space - such spaces disable virtual
+ * threads in the executors which run their operations, and those executors create platform threads
+ * from then on.
+ *
+ * @since 16.0
+ */
+@com.gigaspaces.api.InternalApi
+public class VirtualThreads {
+    private static final Logger _logger = LoggerFactory.getLogger(Constants.LOGGER_COMMON);
+
+    private static final Method _ofVirtual;
+    private static final Method _builderName;
+    private static final Method _builderFactory;
+    private static final Method _isVirtual;
+    private static final boolean _enabled;
+
+    static {
+        Method ofVirtual = null, builderName = null, builderFactory = null, isVirtual = null;
+        boolean requested = Boolean.getBoolean(SystemProperties.VIRTUAL_THREADS_ENABLED);
+        try {
+            isVirtual = Thread.class.getMethod("isVirtual");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builderClass = ofVirtual.getReturnType();
+            builderName = builderClass.getMethod("name", String.class, long.class);
+            builderFactory = builderClass.getMethod("factory");
+        } catch (NoSuchMethodException e) {
+            if (requested)
+                _logger.warn("Virtual threads are not supported by this JVM (" + System.getProperty("java.version") + ") - using platform threads");
+            requested = false;
+        }
+        if (requested && Boolean.getBoolean(SystemProperties.VIRTUAL_THREADS_TRACE_PINNING)
+                && System.getProperty("jdk.tracePinnedThreads") == null) {
+            // read by the JDK when the first virtual thread is created
+            System.setProperty("jdk.tracePinnedThreads", "short");
+        }
+        _ofVirtual = ofVirtual;
+        _builderName = builderName;
+        _builderFactory = builderFactory;
+        _isVirtual = isVirtual;
+        _enabled = requested;
+        if (requested)
+            _logger.info("Virtual threads are enabled");
+    }
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isEnabled() {
+        return _enabled;
+    }
+
+    public static boolean isVirtual(Thread thread) {
+        if (_isVirtual == null)
+            return false;
+        try {
+            return (Boolean) _isVirtual.invoke(thread);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns a factory of virtual threads named with the given prefix and a running number, or
+     * null if virtual threads are disabled.
+     */
+    public static ThreadFactory newThreadFactory(String namePrefix) {
+        if (!_enabled)
+            return null;
+        try {
+            Object builder = _ofVirtual.invoke(null);
+            builder = _builderName.invoke(builder, namePrefix + "-", 1L);
+            return (ThreadFactory) _builderFactory.invoke(builder);
+        } catch (Exception e) {
+            _logger.warn("Failed to create a virtual thread factory for " + namePrefix + " - using platform threads", e);
+            return null;
+        }
+    }
+}
@@ -20,6 +20,7 @@ package com.gigaspaces.lrmi;
 import com.gigaspaces.exception.lrmi.ApplicationException;
 import com.gigaspaces.exception.lrmi.ProtocolException;
 import com.gigaspaces.internal.lrmi.LRMIProxyMonitoringDetailsImpl;
+import com.gigaspaces.lrmi.nio.MultiplexedConnection;
 import com.gigaspaces.lrmi.nio.async.FutureContext;
 import com.gigaspaces.lrmi.nio.async.LRMIFuture;
 
@@ -47,6 +48,9 @@ public class ConnPoolInvocationHandler
      **/
     public Object invoke(Object proxy, LRMIMethod lrmiMethod, Object[] args)
             throws Throwable {
+        if (_connPool.isMultiplexed(lrmiMethod))
+            return invokeMultiplexed(lrmiMethod, args);
+
         ConnectionResource clientPeer = null;
 
         //States whether the connection should be freed when this invocation is complete
@@ -58,15 +62,7 @@ public class ConnPoolInvocationHandler
             clientPeer = _connPool.getConnection(lrmiMethod);
         } catch (Exception e) {
             if (lrmiMethod.isAsync) {
-                ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
-                LRMIFuture result = (LRMIFuture) FutureContext.getFutureResult();
-                if (result == null) {
-                    result = new LRMIFuture(contextClassLoader);
-                } else {
-                    result.reset(contextClassLoader);
-                }
-                FutureContext.setFutureResult(result);
-                result.setResult(e);
+                setAsyncFailure(e);
                 return null;
             } else {
                 throw e;
@@ -88,6 +84,40 @@ public class ConnPoolInvocationHandler
 
     }
 
+    /**
+     * Remote invocation via the connection shared by all invoking threads, see {@link
+     * MultiplexedConnection}.
+     */
+    private Object invokeMultiplexed(LRMIMethod lrmiMethod, Object[] args) throws Throwable {
+        try {
+            MultiplexedConnection connection = _connPool.getMultiplexedConnection(lrmiMethod);
+            return connection.invoke(lrmiMethod, args);
+        } catch (ProtocolException ex) {
+            throw ex.getCause();
+        } catch (ApplicationException ex) {
+            throw ex.getCause();
+        } catch (Exception e) {
+            // in case of async method the failure is returned using the future
+            if (lrmiMethod.isAsync && !(e instanceof InterruptedException)) {
+                setAsyncFailure(e);
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private static void setAsyncFailure(Exception e) {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        LRMIFuture result = (LRMIFuture) FutureContext.getFutureResult();
+        if (result == null) {
+            result = new LRMIFuture(contextClassLoader);
+        } else {
+            result.reset(contextClassLoader);
+        }
+        FutureContext.setFutureResult(result);
+        result.setResult(e);
+    }
+
     public long getGeneratedTraffic() {
         return _connPool.getGeneratedTraffic();
     }
@@ -20,6 +20,9 @@ import com.gigaspaces.config.lrmi.ITransportConfig;
 import com.gigaspaces.internal.lrmi.ConnectionUrlDescriptor;
 import com.gigaspaces.internal.lrmi.LRMIProxyMonitoringDetailsImpl;
 import com.gigaspaces.internal.version.PlatformLogicalVersion;
+import com.gigaspaces.lrmi.nio.CPeer;
+import com.gigaspaces.lrmi.nio.MultiplexedConnection;
+import com.gigaspaces.lrmi.nio.filters.IOBlockFilterManager;
 import com.j_spaces.kernel.SystemProperties;
 import com.j_spaces.kernel.pool.BlockingResourcePool;
 import com.j_spaces.kernel.pool.IResourcePool;
@@ -43,7 +46,11 @@ import java.util.concurrent.atomic.LongAdder;
 public class ConnectionPool {
     private static final LongAdder activeConnections = new LongAdder();
     private final static boolean WAIT_INDEFINITELY_FOR_CONNECTION = !Boolean.valueOf(System.getProperty(SystemProperties.LRMI_ASYNC_THROW_RESOURCE_NOT_AVAILABLE, String.valueOf(SystemProperties.LRMI_ASYNC_THROW_RESOURCE_NOT_AVAILABLE_DEFAULT)));
+    private final static boolean MULTIPLEXED = Boolean.getBoolean(SystemProperties.LRMI_MULTIPLEXED);
+    private final ConnectionFactory _connectionFactory;
     private final IResourcePool<ConnectionResource> _peersPool;
+    private final boolean _multiplexed;
+    private volatile MultiplexedConnection _multiplexedConnection;
     private final String _connectionURL;
     private final String _serviceDetails;
     private final PlatformLogicalVersion _serviceVersion;
@@ -67,7 +74,11 @@ public class ConnectionPool {
         this._connectionURL = connectionURL;
         this._serviceVersion = serviceVersion;
         //this._peersPool = new ResourcePool<ClientPeer>(new ConnectionFactory(protocolAdapter, config), 0, maxConns);
-        this._peersPool = new BlockingResourcePool<ConnectionResource>(new ConnectionFactory(protocolAdapter, config, serviceVersion), 0, maxConns);
+        this._connectionFactory = new ConnectionFactory(protocolAdapter, config, serviceVersion);
+        this._peersPool = new BlockingResourcePool<ConnectionResource>(_connectionFactory, 0, maxConns);
+        // requests are tagged with a request id since 16.0, network filters work on whole messages and cannot be coalesced
+        this._multiplexed = MULTIPLEXED && serviceVersion != null && serviceVersion.greaterOrEquals(PlatformLogicalVersion.v16_0_0)
+                && IOBlockFilterManager.getFilterFactory() == null;
         this._serviceDetails = extractServiceDetailsFromConnectionUrl(_connectionURL);
     }
 
@@ -123,6 +134,58 @@ public class ConnectionPool {
         return conn;
     }
 
+    /**
+     * @return true if the invocation should use the multiplexed connection, callbacks and one way
+     * invocations always use a pooled connection.
+     * @since 16.0
+     */
+    public boolean isMultiplexed(LRMIMethod lrmiMethod) {
+        return _multiplexed && !lrmiMethod.isOneWay && !lrmiMethod.isCallBack
+                && !LRMIInvocationContext.getCurrentContext().isCallbackMethod();
+    }
+
+    /**
+     * Returns the connection shared by all multiplexed invocations, a new one is connected if there
+     * is none or the previous one was closed.
+     *
+     * @since 16.0
+     */
+    public MultiplexedConnection getMultiplexedConnection(LRMIMethod lrmiMethod) throws RemoteException, MalformedURLException {
+        MultiplexedConnection connection = _multiplexedConnection;
+        if (connection != null && !connection.isClosed())
+            return connection;
+
+        synchronized (this) {
+            connection = _multiplexedConnection;
+            if (connection != null && !connection.isClosed())
+                return connection;
+            if (_closed)
+                DynamicSmartStub.throwProxyClosedExeption(_connectionURL);
+            if (_disabled)
+                throw new RemoteException("LRMI force disconnection enabled for this stub");
+
+            ConnectionResource conn = _connectionFactory.allocate();
+            try {
+                conn.connect(_connectionURL, lrmiMethod);
+            } catch (RemoteException ex) {
+                conn.close();
+                throw ex;
+            } catch (MalformedURLException ex) {
+                conn.close();
+                throw ex;
+            }
+            connection = new MultiplexedConnection((CPeer) conn);
+            _multiplexedConnection = connection;
+            return connection;
+        }
+    }
+
+    private void closeMultiplexedConnection() {
+        MultiplexedConnection connection = _multiplexedConnection;
+        if (connection != null)
+            connection.close(null);
+    }
+
     /**
      * Free a connection (return it to pool).
      */
@@ -134,12 +197,18 @@ public class ConnectionPool {
     public long getGeneratedTraffic() {
         GeneratedTrafficProcedure procedure = new GeneratedTrafficProcedure();
         _peersPool.forAllResources(procedure);
+        MultiplexedConnection connection = _multiplexedConnection;
+        if (connection != null)
+            procedure.invoke(connection.getClientPeer());
         return procedure.getGeneratedTraffic();
     }
 
     public long getReceivedTraffic() {
         ReceivedTrafficProcedure procedure = new ReceivedTrafficProcedure();
         _peersPool.forAllResources(procedure);
+        MultiplexedConnection connection = _multiplexedConnection;
+        if (connection != null)
+            procedure.invoke(connection.getClientPeer());
         return procedure.getReceivedTraffic();
     }
 
@@ -147,6 +216,7 @@ public class ConnectionPool {
         _disabled = true;
         DisableStubProcedure procedure = new DisableStubProcedure();
         _peersPool.forAllResources(procedure);
+        closeMultiplexedConnection();
     }
 
     public void enable() {
@@ -161,6 +231,9 @@ public class ConnectionPool {
                 monitoringDetails.addConnectionResource(resource);
             }
         });
+        MultiplexedConnection connection = _multiplexedConnection;
+        if (connection != null && !connection.isClosed())
+            monitoringDetails.addConnectionResource(connection.getClientPeer());
         return monitoringDetails;
     }
 
@@ -169,6 +242,7 @@ public class ConnectionPool {
             return;
 
         _closed = true;
+        closeMultiplexedConnection();
         _peersPool.forAllResources(new IResourceProcedure<ConnectionResource>() {
             @Override
             public void invoke(
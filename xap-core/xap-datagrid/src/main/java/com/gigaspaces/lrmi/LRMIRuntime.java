@@ -147,6 +147,9 @@ public class LRMIRuntime {
                 Thread.NORM_PRIORITY,
                 "LRMI-Custom",
                 true, true);
+        // liveness and monitoring requests keep their dedicated platform threads
+        if (_lrmiThreadPool.useVirtualThreads("LRMI-Connection-Virtual"))
+            _customThreadPool.useVirtualThreads("LRMI-Custom-Virtual");
     }
 
 
@@ -215,6 +218,15 @@ public class LRMIRuntime {
         return _customThreadPool;
     }
 
+    /**
+     * Executes new requests of the connection and custom pools on platform threads, used by spaces
+     * whose operations would pin virtual threads.
+     */
+    public void disableVirtualThreads(String reason) {
+        _lrmiThreadPool.disableVirtualThreads(reason);
+        _customThreadPool.disableVirtualThreads(reason);
+    }
+
     public boolean isUseNetworkInJVM() {
         return _useNetworkInJVM;
     }
@@ -557,6 +557,15 @@ public class CPeer extends BaseClientPeer {
         return getProtocolAdapter().getClassProvider();
     }
 
+    /**
+     * Stops watching this peer, used once its channel is taken over by a {@link
+     * MultiplexedConnection} which is neither idle nor waiting for a single response between
+     * invocations.
+     */
+    void unwatch() {
+        _watchdogContext.watchNone();
+    }
+
 
     private class ClientRemoteClassProviderProvider implements IRemoteClassProviderProvider {
         private LRMIRemoteClassLoaderIdentifier _remoteClassLoaderIdentifier;
@@ -614,7 +623,7 @@ public class CPeer extends BaseClientPeer {
         }
     }
 
-    private OperationPriority getOperationPriority(LRMIMethod lrmiMethod, LRMIInvocationContext currentContext) {
+    static OperationPriority getOperationPriority(LRMIMethod lrmiMethod, LRMIInvocationContext currentContext) {
         if (lrmiMethod.isLivenessPriority && currentContext.isLivenessPriorityEnabled())
             return OperationPriority.LIVENESS;
 
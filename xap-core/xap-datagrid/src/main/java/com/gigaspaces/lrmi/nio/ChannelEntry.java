@@ -47,6 +47,9 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -102,6 +105,10 @@ public class ChannelEntry implements IWriteInterestManager {
     private final WriteExecutionPhaseListener _writeExecutionPhaseListener = new ChannelEntryWriteExecutionPhaseListener();
     private volatile State _currentChannelState = State.IDLE;
     private volatile boolean _firstMessage = true;
+    // once a multiplexed request arrived read interest is restored as soon as a request is read instead of after its reply is written
+    private volatile boolean _multiplexed;
+    private final Queue<MarshalInputStream> _multiplexedRequests = new ConcurrentLinkedQueue<MarshalInputStream>();
+    private final AtomicInteger _pendingMultiplexedRequests = new AtomicInteger();
 
 
     /**
@@ -174,6 +181,55 @@ public class ChannelEntry implements IWriteInterestManager {
         return requestPacket;
     }
 
+    /**
+     * Unmarshalls a multiplexed request. Since its reply cannot be matched to the request if it
+     * cannot be read, the connection is closed on failure so the client fails all the requests
+     * pending on it.
+     *
+     * @since 16.0
+     */
+    public RequestPacket unmarshallMultiplexed(MarshalInputStream stream) {
+        try {
+            return _reader.unmarshallRequest(stream);
+        } catch (Throwable ex) {
+            if (_logger.isWarnEnabled())
+                _logger.warn("Closing multiplexed connection to " + getClientEndPointAddress() + " because a request could not be unmarshalled", ex);
+            _pivot.closeConnection(this);
+            return null;
+        }
+    }
+
+    public boolean isMultiplexed() {
+        return _multiplexed;
+    }
+
+    public void setMultiplexed() {
+        _multiplexed = true;
+    }
+
+    /**
+     * Queues a multiplexed request to be unmarshalled after the ones that were read before it.
+     *
+     * @return true if the caller should dispatch a task which unmarshalls the queued requests.
+     * @since 16.0
+     */
+    public boolean offerMultiplexedRequest(MarshalInputStream stream) {
+        _multiplexedRequests.offer(stream);
+        return _pendingMultiplexedRequests.getAndIncrement() == 0;
+    }
+
+    public MarshalInputStream pollMultiplexedRequest() {
+        return _multiplexedRequests.poll();
+    }
+
+    /**
+     * @return true if more multiplexed requests are queued and should be unmarshalled by the
+     * caller.
+     */
+    public boolean completeMultiplexedRequest() {
+        return _pendingMultiplexedRequests.decrementAndGet() != 0;
+    }
+
     /**
      * Set the remote objectID this ChannelEntry belongs to.
      *
@@ -217,7 +273,8 @@ public class ChannelEntry implements IWriteInterestManager {
         _writeSelectorThread.removeWriteInterest(_writeSelectionKey);
         _writeSelectionKey = null;
 
-        if (restoreReadInterest)
+        // a multiplexed channel is returned to the read selector once a request is read
+        if (restoreReadInterest && !_multiplexed)
             returnSocket(); // reregister socket for read events
     }
 
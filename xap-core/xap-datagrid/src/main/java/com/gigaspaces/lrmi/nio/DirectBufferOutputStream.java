@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.lrmi.nio;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * An output stream which writes a message into a chain of direct buffers acquired from a {@link
+ * DirectBufferPool}, so the message can be written to a channel with a single gathering write
+ * without copying it. Each slab is twice the size of the previous one (up to the pool max slab
+ * size), and the first slab size is derived from the size of the previous message. <br> The stream
+ * is active between {@link #begin()} and {@link #finish()} / {@link #release()}, bytes written
+ * while it is not active are discarded (e.g. the TC_RESET written by a reset of a reused object
+ * stream).
+ *
+ * @since 16.0
+ */
+@com.gigaspaces.api.InternalApi
+public class DirectBufferOutputStream extends OutputStream {
+    private static final ByteBuffer[] EMPTY = new ByteBuffer[0];
+
+    private final DirectBufferPool _pool;
+    private final int _reservedSize;
+    private final ArrayList<ByteBuffer> _slabs = new ArrayList<ByteBuffer>();
+    private ByteBuffer _current;
+    private int _size;
+    private int _firstSlabSize = DirectBufferPool.MIN_SLAB_SIZE;
+    private boolean _active;
+
+    /**
+     * @param reservedSize number of bytes reserved at the beginning of every message, e.g. for the
+     *                     message length which is known only when the message is finished.
+     */
+    public DirectBufferOutputStream(DirectBufferPool pool, int reservedSize) {
+        this._pool = pool;
+        this._reservedSize = reservedSize;
+    }
+
+    /**
+     * Starts a new message, discarding any unfinished one.
+     */
+    public void begin() {
+        release();
+        _active = true;
+        nextSlab(_firstSlabSize);
+        _current.position(_reservedSize);
+        _size = _reservedSize;
+    }
+
+    /**
+     * Ends the current message and hands over its slabs, flipped for reading, to the caller, which is
+     * responsible to return them to the pool.
+     */
+    public ByteBuffer[] finish() {
+        if (!_active)
+            return EMPTY;
+        ByteBuffer[] res = _slabs.toArray(new ByteBuffer[_slabs.size()]);
+        for (ByteBuffer slab : res)
+            slab.flip();
+        _firstSlabSize = Math.min(_pool.getMaxSlabSize(), Math.max(DirectBufferPool.MIN_SLAB_SIZE, Integer.highestOneBit(_size - 1) << 1));
+        _slabs.clear();
+        _current = null;
+        _active = false;
+        return res;
+    }
+
+    /**
+     * Returns the slabs of the current message, if any, to the pool.
+     */
+    public void release() {
+        for (ByteBuffer slab : _slabs)
+            _pool.release(slab);
+        _slabs.clear();
+        _current = null;
+        _active = false;
+    }
+
+    /**
+     * @return the size of the current message, including the reserved bytes.
+     */
+    public int size() {
+        return _size;
+    }
+
+    @Override
+    public void write(int b) {
+        if (!_active)
+            return;
+        if (!_current.hasRemaining())
+            nextSlab(_current.capacity() << 1);
+        _current.put((byte) b);
+        _size++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        if (!_active)
+            return;
+        _size += len;
+        while (len > 0) {
+            if (!_current.hasRemaining())
+                nextSlab(_current.capacity() << 1);
+            int chunk = Math.min(len, _current.remaining());
+            _current.put(b, off, chunk);
+            off += chunk;
+            len -= chunk;
+        }
+    }
+
+    private void nextSlab(int size) {
+        _current = _pool.acquire(Math.min(size, _pool.getMaxSlabSize()));
+        _current.limit(_current.capacity());
+        _slabs.add(_current);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.lrmi.nio;
+
+import com.j_spaces.kernel.SystemProperties;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * A pool of direct buffers shared by all LRMI readers and writers of the process. Buffers are
+ * allocated in power of two size classes (slabs), from {@link #MIN_SLAB_SIZE} up to the configured
+ * max slab size, each class keeps up to the configured pool size bytes of released buffers.
+ * Allocating a direct buffer is expensive and its memory is only freed by the GC, so buffers are
+ * expected to be released back to the pool once the message was written or unmarshalled.
+ *
+ * @since 16.0
+ */
+@com.gigaspaces.api.InternalApi
+public class DirectBufferPool {
+    public static final int MIN_SLAB_SIZE = 4 * 1024;
+
+    private static final DirectBufferPool _default = Boolean.getBoolean(SystemProperties.LRMI_DIRECT_BUFFERS)
+            ? new DirectBufferPool(Integer.getInteger(SystemProperties.LRMI_DIRECT_BUFFERS_MAX_SLAB_SIZE, SystemProperties.LRMI_DIRECT_BUFFERS_MAX_SLAB_SIZE_DEFAULT),
+            Integer.getInteger(SystemProperties.LRMI_DIRECT_BUFFERS_POOL_SIZE, SystemProperties.LRMI_DIRECT_BUFFERS_POOL_SIZE_DEFAULT))
+            : null;
+
+    private final int _minSlabShift;
+    private final int _maxSlabSize;
+    private final ArrayBlockingQueue<ByteBuffer>[] _sizeClasses;
+
+    /**
+     * @return the process wide pool, or null if direct buffers are not enabled.
+     */
+    public static DirectBufferPool getDefaultIfEnabled() {
+        return _default;
+    }
+
+    @SuppressWarnings("unchecked")
+    public DirectBufferPool(int maxSlabSize, int poolSizePerClass) {
+        if (maxSlabSize < MIN_SLAB_SIZE)
+            throw new IllegalArgumentException("Max slab size must be at least " + MIN_SLAB_SIZE + " - " + maxSlabSize);
+        this._minSlabShift = Integer.numberOfTrailingZeros(MIN_SLAB_SIZE);
+        this._maxSlabSize = Integer.highestOneBit(maxSlabSize);
+        int classes = Integer.numberOfTrailingZeros(_maxSlabSize) - _minSlabShift + 1;
+        this._sizeClasses = new ArrayBlockingQueue[classes];
+        for (int i = 0; i < classes; i++)
+            _sizeClasses[i] = new ArrayBlockingQueue<ByteBuffer>(Math.max(1, poolSizePerClass / slabSize(i)));
+    }
+
+    public int getMaxSlabSize() {
+        return _maxSlabSize;
+    }
+
+    /**
+     * Returns a cleared big endian buffer whose limit is the requested size. The buffer capacity is
+     * the smallest size class which fits the requested size.
+     *
+     * @throws IllegalArgumentException if the size is larger than the max slab size.
+     */
+    public ByteBuffer acquire(int size) {
+        if (size > _maxSlabSize)
+            throw new IllegalArgumentException("Requested size " + size + " is larger than the max slab size " + _maxSlabSize);
+        int sizeClass = sizeClassOf(size);
+        ByteBuffer buffer = _sizeClasses[sizeClass].poll();
+        if (buffer == null)
+            buffer = ByteBuffer.allocateDirect(slabSize(sizeClass));
+        buffer.clear();
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        buffer.limit(size);
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer to the pool, buffers that were not acquired from a pool (e.g. heap buffers)
+     * and buffers of a full size class are ignored.
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect())
+            return;
+        int capacity = buffer.capacity();
+        if (capacity < MIN_SLAB_SIZE || capacity > _maxSlabSize || Integer.bitCount(capacity) != 1)
+            return;
+        _sizeClasses[sizeClassOf(capacity)].offer(buffer);
+    }
+
+    private int sizeClassOf(int size) {
+        if (size <= MIN_SLAB_SIZE)
+            return 0;
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - _minSlabShift;
+    }
+
+    private int slabSize(int sizeClass) {
+        return 1 << (sizeClass + _minSlabShift);
+    }
+}
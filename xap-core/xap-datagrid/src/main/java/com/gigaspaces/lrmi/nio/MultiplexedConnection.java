@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.lrmi.nio;
+
+import com.gigaspaces.exception.lrmi.ApplicationException;
+import com.gigaspaces.exception.lrmi.ProtocolException;
+import com.gigaspaces.internal.io.MarshalContextClearedException;
+import com.gigaspaces.internal.version.PlatformLogicalVersion;
+import com.gigaspaces.logger.Constants;
+import com.gigaspaces.lrmi.LRMIInvocationContext;
+import com.gigaspaces.lrmi.LRMIInvocationContext.InvocationStage;
+import com.gigaspaces.lrmi.LRMIMethod;
+import com.gigaspaces.lrmi.nio.async.FutureContext;
+import com.gigaspaces.lrmi.nio.async.LRMIFuture;
+import com.j_spaces.kernel.ClassLoaderHelper;
+import com.j_spaces.kernel.SystemProperties;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.rmi.ConnectException;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A connection which is shared by all the threads invoking a remote object. Each request is tagged
+ * with a request id and the calling thread waits for the reply with the same id (or gets an {@link
+ * LRMIFuture} for async methods), replies are read by a dedicated thread in the order they arrive,
+ * so many requests can be in flight on the same channel. <p/> Requests are marshalled in the order
+ * they are written since they share the channel stream context, requests that are queued while
+ * another thread writes (or during the configured coalescing window) are written together with a
+ * single gathering write. <p/> Remote class loading needs a request/reply conversation over the
+ * channel and is therefore not supported, the connection is closed and all its pending requests
+ * fail if a request or reply cannot be marshalled or unmarshalled.
+ *
+ * @since 16.0
+ */
+@com.gigaspaces.api.InternalApi
+public class MultiplexedConnection {
+    private static final Logger _logger = LoggerFactory.getLogger(Constants.LOGGER_LRMI);
+
+    private static final long COALESCE_WINDOW_NANOS = TimeUnit.MICROSECONDS.toNanos(Long.getLong(SystemProperties.LRMI_MULTIPLEXED_COALESCE_WINDOW,
+            SystemProperties.LRMI_MULTIPLEXED_COALESCE_WINDOW_DEFAULT));
+
+    private final CPeer _cpeer;
+    private final Writer _writer;
+    private final Reader _reader;
+    private final PlatformLogicalVersion _serviceVersion;
+    private final String _connectionURL;
+    private final Map<Long, PendingRequest> _pendingRequests = new ConcurrentHashMap<Long, PendingRequest>();
+    private final AtomicLong _requestIdGenerator = new AtomicLong();
+
+    private final Object _framesLock = new Object();
+    private final Object _flushLock = new Object();
+    private ArrayList<ByteBuffer> _frames = new ArrayList<ByteBuffer>();
+    private boolean _flushScheduled;
+
+    private volatile boolean _closed;
+
+    /**
+     * @param cpeer a connected client peer whose channel is taken over by this connection.
+     */
+    public MultiplexedConnection(CPeer cpeer) {
+        this._cpeer = cpeer;
+        this._writer = cpeer.getWriter();
+        this._reader = cpeer.getReader();
+        this._serviceVersion = cpeer.getServiceVersion();
+        this._connectionURL = cpeer.getConnectionURL();
+        cpeer.unwatch();
+
+        Thread replyReader = new Thread(new ReplyReader(), "LRMI Multiplexed Reply Reader [" + NIOUtils.getSocketDisplayString(cpeer.getChannel()) + "]");
+        replyReader.setDaemon(true);
+        replyReader.start();
+    }
+
+    public CPeer getClientPeer() {
+        return _cpeer;
+    }
+
+    public boolean isClosed() {
+        return _closed;
+    }
+
+    public Object invoke(LRMIMethod lrmiMethod, Object[] args)
+            throws ApplicationException, ProtocolException, RemoteException, InterruptedException {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        LRMIInvocationContext currentContext = LRMIInvocationContext.getCurrentContext();
+        long clientClassLoaderId = _cpeer.getClassProvider().putClassLoader(contextClassLoader);
+        RequestPacket requestPacket = new RequestPacket(_cpeer.getObjectId(), lrmiMethod.orderId, args, false /*isOneWay*/,
+                false /*isCallBack*/, lrmiMethod, clientClassLoaderId, CPeer.getOperationPriority(lrmiMethod, currentContext), _serviceVersion);
+        long requestId = _requestIdGenerator.incrementAndGet();
+        requestPacket.setRequestId(requestId);
+
+        LRMIFuture future = null;
+        if (lrmiMethod.isAsync) {
+            future = (LRMIFuture) FutureContext.getFutureResult();
+            if (future == null)
+                future = new LRMIFuture(contextClassLoader);
+            else
+                future.reset(contextClassLoader);
+        }
+        PendingRequest pendingRequest = new PendingRequest(contextClassLoader, future);
+        _pendingRequests.put(requestId, pendingRequest);
+        // a concurrent close may have already failed the pending requests
+        if (_closed && _pendingRequests.remove(requestId) != null)
+            throw new ConnectException("LRMI multiplexed connection with ServerEndPoint: [" + _connectionURL + "] is closed");
+
+        send(requestPacket);
+
+        if (future != null) {
+            FutureContext.setFutureResult(future);
+            return null;
+        }
+
+        ReplyPacket<?> replyPacket;
+        try {
+            replyPacket = pendingRequest.await();
+        } catch (InterruptedException e) {
+            // the reply, if arrives, is discarded
+            _pendingRequests.remove(requestId);
+            throw e;
+        }
+
+        Exception exception = replyPacket.getException();
+        if (exception == null)
+            return replyPacket.getResult();
+        if (exception instanceof ApplicationException)
+            throw (ApplicationException) exception;
+        if (exception instanceof ProtocolException)
+            throw (ProtocolException) exception;
+        if (exception instanceof RemoteException)
+            throw (RemoteException) exception;
+        if (exception instanceof RuntimeException)
+            throw (RuntimeException) exception;
+        throw new ProtocolException("LRMI transport protocol over NIO connection [" + _connectionURL + "] caught unexpected exception: " + exception, exception);
+    }
+
+    /**
+     * Marshals the request and either writes it, together with the requests other threads queued
+     * meanwhile, or leaves it to the thread which already scheduled a write.
+     */
+    private void send(RequestPacket requestPacket) throws RemoteException {
+        try {
+            boolean flush;
+            synchronized (_framesLock) {
+                Collections.addAll(_frames, _writer.marshalFrame(requestPacket));
+                flush = !_flushScheduled;
+                _flushScheduled = true;
+            }
+            if (!flush)
+                return;
+
+            if (COALESCE_WINDOW_NANOS > 0)
+                LockSupport.parkNanos(COALESCE_WINDOW_NANOS);
+            // the frames are swapped only after acquiring the flush lock so they are written in the order they were marshalled
+            synchronized (_flushLock) {
+                ArrayList<ByteBuffer> frames;
+                synchronized (_framesLock) {
+                    frames = _frames;
+                    _frames = new ArrayList<ByteBuffer>(frames.size());
+                    _flushScheduled = false;
+                }
+                _writer.writeFramesBlocking(frames.toArray(new ByteBuffer[frames.size()]));
+            }
+        } catch (Throwable t) {
+            // the stream context is shared by all the requests, it cannot be trusted after a failure
+            close(t);
+            String exMessage = "LRMI transport protocol over NIO broken connection with ServerEndPoint: [" + _connectionURL + "]";
+            if (t instanceof IOException)
+                throw new ConnectException(exMessage, (IOException) t);
+            if (t instanceof MarshalContextClearedException)
+                throw new RemoteException(exMessage, t);
+            if (t instanceof RuntimeException)
+                throw (RuntimeException) t;
+            throw new RemoteException(exMessage, t);
+        }
+    }
+
+    /**
+     * Closes the channel and fails all the pending requests.
+     */
+    public void close(Throwable cause) {
+        synchronized (_pendingRequests) {
+            if (_closed)
+                return;
+            _closed = true;
+        }
+        if (_logger.isDebugEnabled())
+            _logger.debug("Closing LRMI multiplexed connection with ServerEndPoint: [" + _connectionURL + "]", cause);
+
+        _cpeer.disconnect();
+        _cpeer.close();
+
+        ConnectException exception = new ConnectException("LRMI multiplexed connection with ServerEndPoint: [" + _connectionURL + "] was closed",
+                cause instanceof Exception ? (Exception) cause : null);
+        for (Long requestId : _pendingRequests.keySet()) {
+            PendingRequest pendingRequest = _pendingRequests.remove(requestId);
+            if (pendingRequest != null)
+                pendingRequest.complete(new ReplyPacket<Object>(null, exception));
+        }
+    }
+
+    private static class PendingRequest {
+        private final ClassLoader _contextClassLoader;
+        private final LRMIFuture _future;
+        private final Thread _waiter;
+        private volatile ReplyPacket<?> _replyPacket;
+
+        private PendingRequest(ClassLoader contextClassLoader, LRMIFuture future) {
+            this._contextClassLoader = contextClassLoader;
+            this._future = future;
+            this._waiter = future == null ? Thread.currentThread() : null;
+        }
+
+        private ReplyPacket<?> await() throws InterruptedException {
+            ReplyPacket<?> replyPacket;
+            while ((replyPacket = _replyPacket) == null) {
+                LockSupport.park(this);
+                if (Thread.interrupted())
+                    throw new InterruptedException();
+            }
+            return replyPacket;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void complete(ReplyPacket<?> replyPacket) {
+            if (_future != null) {
+                _future.setResultPacket(replyPacket);
+            } else {
+                _replyPacket = replyPacket;
+                LockSupport.unpark(_waiter);
+            }
+        }
+    }
+
+    /**
+     * A reply whose result is read with the context class loader of the requesting thread.
+     */
+    private class MultiplexedReplyPacket extends ReplyPacket<Object> {
+        @Override
+        protected void beforeReadMultiplexedResult() {
+            PendingRequest pendingRequest = _pendingRequests.get(getRequestId());
+            if (pendingRequest != null)
+                ClassLoaderHelper.setContextClassLoader(pendingRequest._contextClassLoader, true /*ignore security*/);
+        }
+    }
+
+    private class ReplyReader implements Runnable {
+        public void run() {
+            ClassLoader threadClassLoader = Thread.currentThread().getContextClassLoader();
+            LRMIInvocationContext.updateContext(null, null, InvocationStage.CLIENT_RECEIVE_REPLY, null, _serviceVersion, false, null, null);
+            try {
+                while (!_closed) {
+                    MultiplexedReplyPacket replyPacket = new MultiplexedReplyPacket();
+                    try {
+                        _reader.readReply(replyPacket);
+                    } finally {
+                        ClassLoaderHelper.setContextClassLoader(threadClassLoader, true /*ignore security*/);
+                    }
+                    if (replyPacket.getRequestId() == RequestPacket.NO_REQUEST_ID)
+                        throw new ProtocolException("Unexpected reply without a request id on a multiplexed connection: " + replyPacket, null);
+                    PendingRequest pendingRequest = _pendingRequests.remove(replyPacket.getRequestId());
+                    if (pendingRequest != null)
+                        pendingRequest.complete(replyPacket);
+                    else if (_logger.isDebugEnabled())
+                        _logger.debug("Discarding reply of an abandoned multiplexed request: " + replyPacket);
+                }
+            } catch (Throwable t) {
+                close(t);
+            } finally {
+                LRMIInvocationContext.resetContext();
+            }
+        }
+    }
+}
@@ -51,6 +51,7 @@ import com.gigaspaces.lrmi.nio.selector.SelectorManager;
 import com.gigaspaces.lrmi.nio.selector.handler.ReadSelectorThread;
 import com.gigaspaces.lrmi.nio.selector.handler.WriteSelectorThread;
 import com.gigaspaces.management.transport.ITransportConnection;
+import com.gigaspaces.metrics.LatencyHistogram;
 import com.j_spaces.kernel.ClassLoaderHelper;
 
 import com.j_spaces.kernel.SystemProperties;
@@ -102,6 +103,13 @@ public class Pivot {
     final private static Logger _logger = LoggerFactory.getLogger(Constants.LOGGER_LRMI);
     final private static Logger _contextLogger = LoggerFactory.getLogger(Constants.LOGGER_LRMI_CONTEXT);
 
+    // the time requests wait in the executors queue before they are handled
+    final private static LatencyHistogram _executorQueueLatency = new LatencyHistogram();
+
+    public static LatencyHistogram getExecutorQueueLatency() {
+        return _executorQueueLatency;
+    }
+
     private final IClassProvider _classProvider;
 
     public final static class ServerRemoteClassProviderProvider implements IRemoteClassProviderProvider {
@@ -160,6 +168,7 @@ public class Pivot {
         final private Pivot pivot;
         final private ChannelEntry channelEntry;
         final private MarshalInputStream stream;
+        final private long dispatchTime = System.nanoTime();
 
         private ChannelEntryTask(Pivot pivot, ChannelEntry channelEntry, MarshalInputStream stream) {
             this.pivot = pivot;
@@ -168,6 +177,7 @@ public class Pivot {
         }
 
         public void run() {
+            _executorQueueLatency.recordSince(dispatchTime);
             try {
                 setLRMIInvocationContext();
 
@@ -204,9 +214,87 @@ public class Pivot {
         }
 
         private void setLRMIInvocationContext() {
-            LRMIInvocationTrace trace = _contextLogger.isDebugEnabled() ? new LRMIInvocationTrace(null, null, NIOUtils.getSocketDisplayString(channelEntry.getSocketChannel()), false) : null;
-            //We do not need a new snapshot because this is called by a new task which we control
-            LRMIInvocationContext.updateContext(trace, ProxyWriteType.UNCACHED, InvocationStage.SERVER_UNMARSHAL_REQUEST, channelEntry.getSourcePlatformLogicalVersion(), null, false, null, channelEntry.getClientEndPointAddress());
+            Pivot.setLRMIInvocationContext(channelEntry);
+        }
+    }
+
+    private static void setLRMIInvocationContext(ChannelEntry channelEntry) {
+        LRMIInvocationTrace trace = _contextLogger.isDebugEnabled() ? new LRMIInvocationTrace(null, null, NIOUtils.getSocketDisplayString(channelEntry.getSocketChannel()), false) : null;
+        //We do not need a new snapshot because this is called by a new task which we control
+        LRMIInvocationContext.updateContext(trace, ProxyWriteType.UNCACHED, InvocationStage.SERVER_UNMARSHAL_REQUEST, channelEntry.getSourcePlatformLogicalVersion(), null, false, null, channelEntry.getClientEndPointAddress());
+    }
+
+    /**
+     * Unmarshalls the multiplexed requests of a channel one by one in the order they were read,
+     * since they share the channel stream context, and dispatches each of them to be invoked
+     * concurrently by the executor of its priority. The last queued request is invoked by this task
+     * if it runs on the executor of that request priority.
+     */
+    private final static class MultiplexedUnmarshallTask implements Runnable {
+        final private Pivot pivot;
+        final private ChannelEntry channelEntry;
+        final private OperationPriority operationPriority;
+        final private long dispatchTime = System.nanoTime();
+
+        private MultiplexedUnmarshallTask(Pivot pivot, ChannelEntry channelEntry, OperationPriority operationPriority) {
+            this.pivot = pivot;
+            this.channelEntry = channelEntry;
+            this.operationPriority = operationPriority;
+        }
+
+        public void run() {
+            _executorQueueLatency.recordSince(dispatchTime);
+            boolean hasMore;
+            do {
+                MarshalInputStream stream = channelEntry.pollMultiplexedRequest();
+                RequestPacket requestPacket;
+                try {
+                    setLRMIInvocationContext(channelEntry);
+                    // remote class loading requires a request/reply conversation over the channel which
+                    // cannot be interleaved with multiplexed requests
+                    LRMIConnection.clearConnection();
+                    requestPacket = channelEntry.unmarshallMultiplexed(stream);
+                } finally {
+                    LRMIInvocationContext.resetContext();
+                }
+                hasMore = channelEntry.completeMultiplexedRequest();
+                if (requestPacket != null) {
+                    requestPacket.restorePreviousLRMIRemoteClassLoaderState();
+                    if (!hasMore && requestPacket.operationPriority == operationPriority)
+                        new MultiplexedRequestTask(pivot, channelEntry, requestPacket, 0 /*not queued*/).run();
+                    else
+                        pivot.getExecutor(requestPacket.operationPriority).execute(new MultiplexedRequestTask(pivot, channelEntry, requestPacket, System.nanoTime()));
+                }
+            } while (hasMore);
+        }
+    }
+
+    private final static class MultiplexedRequestTask implements Runnable {
+        final private Pivot pivot;
+        final private ChannelEntry channelEntry;
+        final private RequestPacket requestPacket;
+        final private long dispatchTime;
+
+        private MultiplexedRequestTask(Pivot pivot, ChannelEntry channelEntry, RequestPacket requestPacket, long dispatchTime) {
+            this.pivot = pivot;
+            this.channelEntry = channelEntry;
+            this.requestPacket = requestPacket;
+            this.dispatchTime = dispatchTime;
+        }
+
+        public void run() {
+            if (dispatchTime != 0)
+                _executorQueueLatency.recordSince(dispatchTime);
+            try {
+                setLRMIInvocationContext(channelEntry);
+                LRMIInvocationContext.updateContext(null, null, InvocationStage.INVOCATION_HANDLING, null, null, false, null, null);
+                if (_logger.isTraceEnabled())
+                    _logger.trace("<-- " + requestPacket);
+                pivot.handleRequest(requestPacket, channelEntry);
+            } finally {
+                //Reset context once the invocation is complete
+                LRMIInvocationContext.resetContext();
+            }
         }
     }
 
@@ -438,8 +526,19 @@ public class Pivot {
             operationPriority = OperationPriority.MONITORING;
             task = ctx.systemRequestContext.getResponseTask(this, channelEntry, ctx.startTimestamp);
         } else {
-            operationPriority = RequestPacket.getOperationPriorityFromBytes(ctx.bytes);
-            task = new ChannelEntryTask(this, channelEntry, stream);
+            operationPriority = ctx.bytes != null ? RequestPacket.getOperationPriorityFromBytes(ctx.bytes)
+                    : RequestPacket.getOperationPriorityFromBuffer(ctx.buffer);
+            if (RequestPacket.isMultiplexed(ctx.bytes, ctx.buffer)) {
+                // the replies of multiplexed requests are matched by request id, so the next requests can
+                // be read while this one is handled
+                channelEntry.setMultiplexed();
+                handler.registerKey(ctx.selectionKey);
+                if (!channelEntry.offerMultiplexedRequest(stream))
+                    return; // unmarshalled by the task which is already draining the channel requests
+                task = new MultiplexedUnmarshallTask(this, channelEntry, operationPriority);
+            } else {
+                task = new ChannelEntryTask(this, channelEntry, stream);
+            }
         }
         //We are using the selector thread indication of priority because it is safer because the channel system priority is not volatile
         getExecutor(operationPriority).execute(task);
@@ -492,7 +591,8 @@ public class Pivot {
                 //One way method, return read interest here to allow this socket to accept next invocations since the client have already returned
                 //the corresponding cpeer to the pool as it was not waiting for a response 
                 //and we could have pending invocations already waiting in this socket incoming buffer.
-                channelEntry.returnSocket();
+                if (!requestPacket.isMultiplexed())
+                    channelEntry.returnSocket();
                 sendResponse = false;
             }
 
@@ -581,6 +681,8 @@ public class Pivot {
 
         ReplyPacket replyPacket = consumeAndHandleRequest(requestPacket, respContext, channelEntry);
         ResponseContext.clearResponseContext();
+        if (replyPacket != null && requestPacket.isMultiplexed())
+            replyPacket.setRequestId(requestPacket.getRequestId());
 
         //	 If replyPacket is null - it's a one way request or callback
         // return without sending reply to the client
@@ -21,6 +21,7 @@ import com.gigaspaces.exception.lrmi.SlowConsumerException;
 import com.gigaspaces.internal.io.GSByteArrayInputStream;
 import com.gigaspaces.internal.io.MarshalContextClearedException;
 import com.gigaspaces.internal.io.MarshalInputStream;
+import com.gigaspaces.internal.space.transport.xnio.ByteBufferBackedInputStream;
 import com.gigaspaces.logger.Constants;
 import com.gigaspaces.lrmi.LRMIUtilities;
 import com.gigaspaces.lrmi.SmartByteBufferCache;
@@ -34,6 +35,7 @@ import org.slf4j.LoggerFactory;
 import sun.misc.BASE64Encoder;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectStreamConstants;
 import java.io.UnsupportedEncodingException;
 import java.net.ConnectException;
@@ -66,6 +68,7 @@ public class Reader {
     private static final LongAdder receivedTraffic = new LongAdder();
 
     private static final byte[] DUMMY_BUFFER = new byte[0];
+    private static final ByteBuffer DUMMY_BYTE_BUFFER = ByteBuffer.wrap(DUMMY_BUFFER);
 
     // byte array that is used to clear the ObjectInputStream tables after each read
     // the byte array is written to be stream as if it was sent over the network
@@ -84,13 +87,21 @@ public class Reader {
     private MarshalInputStream _ois;
     final private GSByteArrayInputStream _bais = new GSByteArrayInputStream(DUMMY_BUFFER);
 
+    /* pool of direct buffers, null unless direct buffers are enabled, in which case _ois reads from _bbis */
+    final private DirectBufferPool _directBufferPool = DirectBufferPool.getDefaultIfEnabled();
+    final private ByteBufferBackedInputStream _bbis = new ByteBufferBackedInputStream(DUMMY_BYTE_BUFFER);
+    final private ByteBuffer _resetByteBuffer = ByteBuffer.wrap(_resetBuffer);
+    /* the buffer _bbis reads from while the buffer is occupied */
+    private ByteBuffer _occupiedBuffer;
+
     /* cached data  buffer */
     final private SmartByteBufferCache _bufferCache = SmartByteBufferCache.getDefaultSmartByteBufferCache();
 
     /* data length buffer */
     final private ByteBuffer _headerBuffer = ByteBuffer.allocateDirect(4); // 4 == size of int in bytes
 
-    private boolean _bufferIsOccupied = false;
+    // read by the selector thread and released by the unmarshalling thread
+    private volatile boolean _bufferIsOccupied = false;
 
     private IOFilterManager _filterManager;
 
@@ -119,7 +130,7 @@ public class Reader {
         _headerBuffer.order(ByteOrder.BIG_ENDIAN);
         _streamContext = MarshalInputStream.createContext();
         try {
-            _ois = new MarshalInputStream(_bais, _streamContext);
+            _ois = new MarshalInputStream(getReusedInputStream(), _streamContext);
         } catch (IOException e) {
             if (_logger.isErrorEnabled()) {
                 _logger.error(e.getMessage(), e);
@@ -228,6 +239,14 @@ public class Reader {
 
     public ByteBuffer readBytesFromChannelBlocking(boolean createNewBuffer, int slowConsumerLatency, int sizeLimit)
             throws IOException {
+        return readBytesFromChannelBlocking(createNewBuffer, slowConsumerLatency, sizeLimit, false);
+    }
+
+    /**
+     * @param allowDirect whether the body may be read into a pooled direct buffer.
+     */
+    private ByteBuffer readBytesFromChannelBlocking(boolean createNewBuffer, int slowConsumerLatency, int sizeLimit, boolean allowDirect)
+            throws IOException {
         /* read header (data length) */
         int bytesRead = 0;
         int retries = 0;
@@ -307,7 +326,7 @@ public class Reader {
 
         /* allocate the buffer on demand, otherwise reuse the buffer */
         ByteBuffer buffer;
-        buffer = getByteBufferAllocated(createNewBuffer, dataLength);
+        buffer = getByteBufferAllocated(createNewBuffer, dataLength, allowDirect);
 
         /* read to bytes buffer */
         bytesRead = 0;
@@ -316,7 +335,7 @@ public class Reader {
          * reading using all the buffer, this is because Java SocketChannel allocate direct buffer that has the same size as
          * the user buffer when reading from the channel, this may cause our of memory if user buffer is too long. 
          */
-        boolean shouldUseSlidingWindow = dataLength >= BUFFER_LIMIT;
+        boolean shouldUseSlidingWindow = dataLength >= BUFFER_LIMIT && !buffer.isDirect();
 
         int bRead;
 
@@ -385,9 +404,11 @@ public class Reader {
         return buffer;
     }
 
-    private ByteBuffer getByteBufferAllocated(boolean createNewBuffer, int dataLength) {
+    private ByteBuffer getByteBufferAllocated(boolean createNewBuffer, int dataLength, boolean allowDirect) {
         try {
-            if (createNewBuffer) {
+            if (allowDirect && _directBufferPool != null && dataLength <= _directBufferPool.getMaxSlabSize()) {
+                return _directBufferPool.acquire(dataLength);
+            } else if (createNewBuffer) {
                 return ByteBuffer.allocate(dataLength);
             } else {
                 return _bufferCache.get(dataLength);
@@ -431,7 +452,7 @@ public class Reader {
                 String msg = "Handshake failed, expecting message of up to " + ctx.messageSizeLimit + " bytes, actual size is: " + ctx.dataLength + " bytes, offending address is " + offendingAddress;
                 if (offendingMessageLogger.isTraceEnabled()) {
                     try {
-                        ByteBuffer buffer = getByteBufferAllocated(ctx.createNewBuffer, Math.min(ctx.dataLength, 5 * 1024));
+                        ByteBuffer buffer = getByteBufferAllocated(ctx.createNewBuffer, Math.min(ctx.dataLength, 5 * 1024), false);
                         _socketChannel.read(buffer);
                         buffer.flip();
                         byte[] bytes = new byte[buffer.remaining()];
@@ -448,7 +469,7 @@ public class Reader {
                 throw new ConnectException(msg);
             }
             /** allocate the buffer on demand, otherwise reuse the buffer */
-            ctx.buffer = getByteBufferAllocated(ctx.createNewBuffer, ctx.dataLength);
+            ctx.buffer = getByteBufferAllocated(ctx.createNewBuffer, ctx.dataLength, _filterManager == null && !ctx.isSystemRequest());
 
             ctx.bytesRead = 0;
             ctx.phase = Context.Phase.BODY;
@@ -456,7 +477,7 @@ public class Reader {
 
         if (ctx.phase == Context.Phase.BODY) {
             /* read to bytes buffer */
-            boolean shouldUseSlidingWindow = ctx.dataLength >= BUFFER_LIMIT;
+            boolean shouldUseSlidingWindow = ctx.dataLength >= BUFFER_LIMIT && !ctx.buffer.isDirect();
 
             if (shouldUseSlidingWindow) {
                 while (ctx.bytesRead < ctx.dataLength) {
@@ -531,25 +552,31 @@ public class Reader {
     private MarshalInputStream bytesToStream(Context ctx)
             throws IOException, IOFilterException {
         boolean startOfRequest = (ctx.phase == Context.Phase.START);
-        if (_bufferIsOccupied && startOfRequest)
-            ctx.createNewBuffer = true;
-        else
-            _bufferIsOccupied = true;
+        // the buffer is chosen once per request, a request read in several calls keeps it
+        if (startOfRequest) {
+            if (_bufferIsOccupied)
+                ctx.createNewBuffer = true;
+            else
+                _bufferIsOccupied = true;
+        }
 
-        byte[] res = readBytesNonBlocking(ctx);
+        ByteBuffer res = readBytesNonBlocking(ctx);
 
         boolean endOfRequest = ctx.phase == Context.Phase.FINISH;
         if (endOfRequest) {
             if (ctx.isSystemRequest()) {
-                ctx.systemRequestContext.prepare(res);
+                ctx.systemRequestContext.prepare(res.array());
             } else {
-                ctx.bytes = res;
+                if (_directBufferPool == null)
+                    ctx.bytes = res.array();
+                else
+                    ctx.buffer = res;
                 if (ctx.createNewBuffer) {
                     ctx.createNewBuffer = false;
-                    return new MarshalInputStream(new GSByteArrayInputStream(res), _streamContext);
+                    return createStream(res);
                 }
 
-                _bais.setBuffer(res);
+                setReusedStreamBuffer(res);
                 return _ois;
             }
         }
@@ -559,8 +586,7 @@ public class Reader {
     private <T extends IPacket> T bytesToPacket(T packet, boolean createNewBuffer, int slowConsumerTimeout, int sizeLimit)
             throws IOException, ClassNotFoundException, IOFilterException {
         if (_bufferIsOccupied || createNewBuffer) {
-            GSByteArrayInputStream bis = new GSByteArrayInputStream(readBytesBlocking(true, slowConsumerTimeout, sizeLimit));
-            MarshalInputStream mis = new MarshalInputStream(bis, _streamContext);
+            MarshalInputStream mis = createStream(readBytesBlocking(true, slowConsumerTimeout, sizeLimit));
             unmarshall(packet, mis);
             if (_logger.isTraceEnabled()) {
                 _logger.trace("<-- Read Packet " + packet);
@@ -569,7 +595,7 @@ public class Reader {
         }
 
         _bufferIsOccupied = true;
-        _bais.setBuffer(readBytesBlocking(false, slowConsumerTimeout, sizeLimit));
+        setReusedStreamBuffer(readBytesBlocking(false, slowConsumerTimeout, sizeLimit));
         unmarshall(packet, _ois);
         if (_logger.isTraceEnabled()) {
             _logger.trace("<-- Read packet " + packet);
@@ -578,6 +604,15 @@ public class Reader {
     }
 
     private void unmarshall(IPacket packet, MarshalInputStream mis) throws ClassNotFoundException, NoSuchObjectException {
+        try {
+            unmarshallImpl(packet, mis);
+        } finally {
+            if (mis instanceof PooledBufferInputStream)
+                _directBufferPool.release(((PooledBufferInputStream) mis).buffer);
+        }
+    }
+
+    private void unmarshallImpl(IPacket packet, MarshalInputStream mis) throws ClassNotFoundException, NoSuchObjectException {
         try {
             packet.readExternal(mis);
 
@@ -596,12 +631,12 @@ public class Reader {
             try {
                 //We need to create a new buffer because this buffer is unusable anymore because it was not read fully
                 if (isReusedBuffer)
-                    _ois = new MarshalInputStream(_bais, _streamContext);
+                    _ois = new MarshalInputStream(getReusedInputStream(), _streamContext);
             } catch (IOException ioe) {
                 throw new UnMarshallingException("Failed to unmarsh:" + packet + " - " + ioe, ioe);
             } finally {
                 if (isReusedBuffer && _bufferIsOccupied) {
-                    _bais.setBuffer(DUMMY_BUFFER); // release the internal reference for the byte array
+                    releaseReusedStreamBuffer();
                     _bufferIsOccupied = false;
                 }
             }
@@ -619,24 +654,58 @@ public class Reader {
                 //this is the only way to do reset on ObjetInputStream:
                 // add reset flag and let the ObjectInputStream to read it 
                 // so all the handles in the ObjectInputStream will be cleared
-                _bais.setBuffer(_resetBuffer);
+                if (_directBufferPool == null) {
+                    _bais.setBuffer(_resetBuffer);
+                } else {
+                    _resetByteBuffer.clear();
+                    _bbis.setBuffer(_resetByteBuffer);
+                }
                 mis.readObject();
             } finally {
                 if (_bufferIsOccupied) {
-                    _bais.setBuffer(DUMMY_BUFFER); // release the internal reference for the byte array
+                    releaseReusedStreamBuffer();
                     _bufferIsOccupied = false;
                 }
             }
         }
     }
 
-    private byte[] readBytesBlocking(boolean createNewBuffer, int slowConsumerTimeout, int sizeLimit) throws IOException, IOFilterException {
-        final ByteBuffer bytes = readBytesFromChannelBlocking(createNewBuffer, slowConsumerTimeout, sizeLimit);
+    private InputStream getReusedInputStream() {
+        return _directBufferPool == null ? _bais : _bbis;
+    }
+
+    private void setReusedStreamBuffer(ByteBuffer buffer) {
+        if (_directBufferPool == null) {
+            _bais.setBuffer(buffer.array());
+        } else {
+            _occupiedBuffer = buffer;
+            _bbis.setBuffer(buffer);
+        }
+    }
+
+    private void releaseReusedStreamBuffer() {
+        if (_directBufferPool == null) {
+            _bais.setBuffer(DUMMY_BUFFER); // release the internal reference for the byte array
+        } else {
+            _bbis.setBuffer(DUMMY_BYTE_BUFFER);
+            _directBufferPool.release(_occupiedBuffer);
+            _occupiedBuffer = null;
+        }
+    }
+
+    private MarshalInputStream createStream(ByteBuffer buffer) throws IOException {
+        if (_directBufferPool == null)
+            return new MarshalInputStream(new GSByteArrayInputStream(buffer.array()), _streamContext);
+        return new PooledBufferInputStream(buffer, _streamContext);
+    }
+
+    private ByteBuffer readBytesBlocking(boolean createNewBuffer, int slowConsumerTimeout, int sizeLimit) throws IOException, IOFilterException {
+        final ByteBuffer bytes = readBytesFromChannelBlocking(createNewBuffer, slowConsumerTimeout, sizeLimit, _filterManager == null);
         if (_filterManager != null) {
-            return _filterManager.handleBlockingContant(toByteArray(bytes), slowConsumerTimeout);
+            return ByteBuffer.wrap(_filterManager.handleBlockingContant(toByteArray(bytes), slowConsumerTimeout));
         }
 
-        return bytes.array();
+        return bytes;
     }
 
     private byte[] toByteArray(ByteBuffer bytes) {
@@ -650,16 +719,16 @@ public class Reader {
      *
      * @return the bytes that was read.
      */
-    private byte[] readBytesNonBlocking(Context ctx) throws IOException, IOFilterException {
+    private ByteBuffer readBytesNonBlocking(Context ctx) throws IOException, IOFilterException {
         ByteBuffer bytes = readBytesFromChannelNoneBlocking(ctx);
         if (bytes == null) {
             return null;
         }
         if (ctx.phase == Context.Phase.FINISH) {
             if (_filterManager == null || ctx.isSystemRequest())
-                return bytes.array();
+                return bytes;
 
-            return _filterManager.handleNoneBlockingContant(ctx, toByteArray(bytes));
+            return ByteBuffer.wrap(_filterManager.handleNoneBlockingContant(ctx, toByteArray(bytes)));
         }
 
         return null;
@@ -686,4 +755,17 @@ public class Reader {
         return new String(contentBuffer, Charset.forName("UTF-8"));
     }
 
+    /**
+     * A stream over a pooled buffer, the buffer is returned to the pool once the packet is
+     * unmarshalled.
+     */
+    private static class PooledBufferInputStream extends MarshalInputStream {
+        private final ByteBuffer buffer;
+
+        private PooledBufferInputStream(ByteBuffer buffer, MarshalInputStream.Context context) throws IOException {
+            super(new ByteBufferBackedInputStream(buffer), context);
+            this.buffer = buffer;
+        }
+    }
+
 }
@@ -37,9 +37,12 @@ import java.rmi.UnmarshalException;
 public class ReplyPacket<T> implements IPacket {
     private static final long serialVersionUID = 1L;
     private static final byte SERIAL_VERSION = Byte.MIN_VALUE + 1;
+    // a reply of a multiplexed request, followed by the request id
+    private static final byte MULTIPLEXED_SERIAL_VERSION = Byte.MIN_VALUE + 3;
 
     private T result;
     private Exception exception;   // if not null - an exception occurred
+    private long requestId = RequestPacket.NO_REQUEST_ID;
 
     public ReplyPacket() {
     }
@@ -71,16 +74,46 @@ public class ReplyPacket<T> implements IPacket {
         return exception;
     }
 
+    /**
+     * @return the id of the multiplexed request this is the reply of, or {@link
+     * RequestPacket#NO_REQUEST_ID} if the request was not multiplexed.
+     * @since 16.0
+     */
+    public long getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(long requestId) {
+        this.requestId = requestId;
+    }
+
     public void clear() {
         result = null;
         exception = null;
+        requestId = RequestPacket.NO_REQUEST_ID;
+    }
+
+    /**
+     * Called when reading a reply of a multiplexed request once its request id is known and before
+     * its result is read, e.g. to set the class loader of the requesting thread.
+     *
+     * @since 16.0
+     */
+    protected void beforeReadMultiplexedResult() {
     }
 
     /*
      * @see java.io.Externalizable#readExternal(java.io.ObjectInput)
      */
     public void readExternal(MarshalInputStream in) throws IOException, ClassNotFoundException {
-        if (in.readByte() != SERIAL_VERSION)
+        byte serialVersion = in.readByte();
+        if (serialVersion == MULTIPLEXED_SERIAL_VERSION) {
+            requestId = in.readLong();
+            beforeReadMultiplexedResult();
+        }
+        else if (serialVersion == SERIAL_VERSION)
+            requestId = RequestPacket.NO_REQUEST_ID;
+        else
             throw new UnmarshalException("Requested version does not match local version. Please make sure you are using the same version on both ends.");
 
         LRMIRemoteClassLoaderIdentifier remoteClassLoaderId = RemoteClassLoaderContext.get();
@@ -106,7 +139,12 @@ public class ReplyPacket<T> implements IPacket {
 	 */
     public void writeExternal(MarshalOutputStream out) throws IOException {
         //Writes serial version
-        out.writeByte(SERIAL_VERSION);
+        if (requestId != RequestPacket.NO_REQUEST_ID) {
+            out.writeByte(MULTIPLEXED_SERIAL_VERSION);
+            out.writeLong(requestId);
+        } else {
+            out.writeByte(SERIAL_VERSION);
+        }
 
         PlatformLogicalVersion version = LRMIInvocationContext.getEndpointLogicalVersion();
         if (version.greaterOrEquals(PlatformLogicalVersion.v16_0_0)) {
@@ -32,6 +32,7 @@ import com.j_spaces.kernel.ClassLoaderHelper;
 
 import java.io.IOException;
 import java.io.InvalidClassException;
+import java.nio.ByteBuffer;
 import java.rmi.UnmarshalException;
 
 import org.slf4j.Logger;
@@ -49,6 +50,12 @@ public class RequestPacket implements IPacket {
     // DO NOT CHANGE. use SERIAL_VERSION instead.
     private static final long serialVersionUID = 1L;
     private static final byte SERIAL_VERSION = Byte.MIN_VALUE + 2;
+    /**
+     * The request id of a request which is not multiplexed.
+     *
+     * @since 16.0
+     */
+    public static final long NO_REQUEST_ID = -1;
 
     private final static Logger _contextLogger = LoggerFactory.getLogger(Constants.LOGGER_LRMI_CONTEXT);
 
@@ -57,6 +64,7 @@ public class RequestPacket implements IPacket {
     private long remoteClassLoaderId;
     private int methodOrderId;
     private Object[] args;
+    private long requestId = NO_REQUEST_ID;
 
     transient private LRMIMethod invokeMethod;
     transient private LRMIRemoteClassLoaderIdentifier previousIdentifier;
@@ -158,6 +166,7 @@ public class RequestPacket implements IPacket {
             throw new UnmarshalException("Requested version [" + version + "] does not match local version [" + SERIAL_VERSION + "]. Please make sure you are using the same version on both ends, service version is " + PlatformVersion.getOfficialVersion());
 
         final byte flags = in.readByte();
+        requestId = (flags & BitMap.IS_MULTIPLEXED) != 0 ? in.readLong() : NO_REQUEST_ID;
 
         if ((flags & BitMap.REQUEST_OBJECT) != 0) // UID not a null
         {
@@ -257,6 +266,8 @@ public class RequestPacket implements IPacket {
     public void writeExternal(MarshalOutputStream out) throws IOException {
         out.writeByte(SERIAL_VERSION);
         out.writeByte(buildFlags());
+        if (requestId != NO_REQUEST_ID)
+            out.writeLong(requestId);
         if (_requestObj != null) {
             out.writeObject(_requestObj);
         } else {
@@ -300,6 +311,8 @@ public class RequestPacket implements IPacket {
         builder.append(", isOneWay = ").append(isOneWay);
         builder.append(", isCallBack = ").append(isCallBack);
         builder.append(", Priority = ").append(operationPriority);
+        if (requestId != NO_REQUEST_ID)
+            builder.append(", RequestId = ").append(requestId);
         builder.append(']');
         return builder.toString();
     }
@@ -315,6 +328,7 @@ public class RequestPacket implements IPacket {
         byte IS_MONITORING_PRIORITY = 1 << 4;
         byte IS_DIRECT_PRIORITY = IS_LIVENESS_PRIORITY | IS_MONITORING_PRIORITY;
         byte IS_CUSTOM_PRIORITY = 1 << 5;
+        byte IS_MULTIPLEXED = 1 << 6;
     }
 
     private byte buildFlags() {
@@ -328,6 +342,9 @@ public class RequestPacket implements IPacket {
         if (isCallBack) {
             flags |= BitMap.IS_CALLBACK;
         }
+        if (requestId != NO_REQUEST_ID) {
+            flags |= BitMap.IS_MULTIPLEXED;
+        }
         return encodePriority(operationPriority, flags);
     }
 
@@ -336,6 +353,7 @@ public class RequestPacket implements IPacket {
      */
     public void clear() {
         args = null;
+        requestId = NO_REQUEST_ID;
     }
 
     public Object[] getArgs() {
@@ -350,6 +368,23 @@ public class RequestPacket implements IPacket {
         return isOneWay;
     }
 
+    /**
+     * @return the id which tags this request and its reply on a multiplexed connection, or {@link
+     * #NO_REQUEST_ID} if the request is not multiplexed.
+     * @since 16.0
+     */
+    public long getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(long requestId) {
+        this.requestId = requestId;
+    }
+
+    public boolean isMultiplexed() {
+        return requestId != NO_REQUEST_ID;
+    }
+
     public void restorePreviousLRMIRemoteClassLoaderState() {
         if (shouldRestore)
             LRMIConnection.setRemoteClassLoaderIdentifier(previousIdentifier);
@@ -368,4 +403,22 @@ public class RequestPacket implements IPacket {
             throw new IllegalStateException("Incoming invocation request is not of known format, byte array length is too small - " + bytes.length);
         return decodePriority(bytes[3]);
     }
+
+    public static OperationPriority getOperationPriorityFromBuffer(ByteBuffer buffer) {
+        if (buffer.limit() < 4)
+            throw new IllegalStateException("Incoming invocation request is not of known format, buffer length is too small - " + buffer.limit());
+        return decodePriority(buffer.get(3));
+    }
+
+    /**
+     * Assumes internal knowledge of how the LRMI incoming invocation bytes should appear, see
+     * {@link #getOperationPriorityFromBytes(byte[])}
+     *
+     * @return true if the incoming invocation is a multiplexed request
+     * @since 16.0
+     */
+    public static boolean isMultiplexed(byte[] bytes, ByteBuffer buffer) {
+        byte flags = bytes != null ? bytes[3] : buffer.get(3);
+        return (flags & BitMap.IS_MULTIPLEXED) != 0;
+    }
 }
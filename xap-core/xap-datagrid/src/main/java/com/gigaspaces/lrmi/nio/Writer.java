@@ -69,6 +69,13 @@ public class Writer implements IChannelWriter {
     final private MarshalOutputStream _oos;
     final private GSByteArrayOutputStream _baos;
 
+    /**
+     * pool of direct buffers, null unless direct buffers are enabled, in which case messages are
+     * marshalled into _directOut instead of _baos.
+     */
+    final private DirectBufferPool _directBufferPool = DirectBufferPool.getDefaultIfEnabled();
+    final private DirectBufferOutputStream _directOut;
+
     final static private int WRITE_DELAY_BEFORE_WARN = Integer.getInteger(SystemProperties.WRITE_DELAY_BEFORE_WARN, SystemProperties.WRITE_DELAY_BEFORE_WARN_DEFAULT);
 
     /**
@@ -86,6 +93,8 @@ public class Writer implements IChannelWriter {
     private long _generatedTraffic;
 
     final private static byte[] DUMMY_BUFFER = new byte[0];
+    // initial size of the next frame marshalled by marshalFrame, follows the size of the last one
+    private int _frameSizeHint = 1024;
 
     IOFilterManager _filterManager;
 
@@ -119,10 +128,18 @@ public class Writer implements IChannelWriter {
         _writeInterestManager = writeInterestManager;
 
         try {
-            _baos = new GSByteArrayOutputStream();
-            _baos.setSize(LENGTH_SIZE); // mark the buffer to start writing only after the length place
-            _oos = new MarshalOutputStream(_baos, true); // add a TC_RESET using the MarshalOutputStream.writeStreamHeader() 
-            initBuffer(_baos);
+            if (_directBufferPool != null) {
+                _baos = null;
+                _directOut = new DirectBufferOutputStream(_directBufferPool, LENGTH_SIZE);
+                _directOut.begin();
+                _oos = new MarshalOutputStream(_directOut, true);
+            } else {
+                _directOut = null;
+                _baos = new GSByteArrayOutputStream();
+                _baos.setSize(LENGTH_SIZE); // mark the buffer to start writing only after the length place
+                _oos = new MarshalOutputStream(_baos, true); // add a TC_RESET using the MarshalOutputStream.writeStreamHeader() 
+                initBuffer(_baos);
+            }
         } catch (Exception e) {
             if (_logger.isErrorEnabled()) {
                 _logger.error(e.getMessage(), e);
@@ -183,6 +200,10 @@ public class Writer implements IChannelWriter {
         if (_logger.isTraceEnabled()) {
             _logger.trace("--> Write Packet " + packet);
         }
+        if (_directOut != null) {
+            writePacketToDirectBuffers(packet, requestReuseBuffer, ctx);
+            return;
+        }
         ByteBuffer byteBuffer;
         MarshalOutputStream mos;
         GSByteArrayOutputStream bos;
@@ -238,11 +259,162 @@ public class Writer implements IChannelWriter {
         }
     }
 
+    /**
+     * Marshals the packet into a chain of pooled direct buffers, the first one starts with the
+     * length header, and writes them with a gathering write. The buffers are returned to the pool
+     * once fully written.
+     */
+    private void writePacketToDirectBuffers(IPacket packet, boolean requestReuseBuffer, Context ctx) throws IOException, IOFilterException {
+        MarshalOutputStream mos;
+        DirectBufferOutputStream dos;
+
+        final boolean reuseBuffer = requestReuseBuffer && _contexts.isEmpty();
+        if (reuseBuffer) {
+            mos = _oos;
+            dos = _directOut;
+            dos.begin();
+        } else // build temporal streams
+        {
+            dos = new DirectBufferOutputStream(_directBufferPool, LENGTH_SIZE);
+            dos.begin();
+            mos = new MarshalOutputStream(dos, false);
+        }
+
+        ByteBuffer[] buffers = null;
+        try {
+            packet.writeExternal(mos);
+            mos.flush();
+            buffers = dos.finish();
+        } catch (MarshalContextClearedException e) {
+            //Keep original exception for upper layer to handle properly
+            throw e;
+        } catch (Exception e) {
+            throw new MarshallingException("Failed to marsh: " + packet, e);
+        } finally // make sure we clean the streams even if an exception was thrown
+        {
+            if (buffers == null)
+                dos.release();
+            if (reuseBuffer)
+                mos.reset();
+            else
+                //Clear context because this output stream is no longer used
+                mos.closeContext();
+        }
+        int length = 0;
+        for (ByteBuffer buffer : buffers)
+            length += buffer.remaining();
+        buffers[0].putInt(0, length - LENGTH_SIZE);
+        _generatedTraffic += length;
+        generatedTraffic.add(length);
+
+        if (_filterManager != null) {
+            // filters work on heap buffers
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            for (ByteBuffer slab : buffers) {
+                buffer.put(slab);
+                _directBufferPool.release(slab);
+            }
+            buffer.flip();
+            if (ctx != null) {
+                ctx.setBuffer(buffer);
+                writeBytesNonBlocking(ctx);
+            } else {
+                writeBytesBlocking(buffer);
+            }
+        } else if (ctx != null) {
+            // non blocking mode.
+            ctx.setBuffers(buffers, _directBufferPool);
+            writeBytesNonBlocking(ctx);
+        } else {
+            // blocking mode.
+            try {
+                writeBuffersToChannelBlocking(buffers, length);
+            } finally {
+                for (ByteBuffer slab : buffers)
+                    _directBufferPool.release(slab);
+            }
+        }
+    }
+
+    /**
+     * Marshals the packet with the stream context of this writer into a length prefixed frame
+     * without writing it. Used by multiplexed connections which coalesce the requests of several
+     * threads into one write, the frames must be written by {@link #writeFramesBlocking} in the
+     * same order they were marshalled since they share the stream context.
+     *
+     * @since 16.0
+     */
+    public synchronized ByteBuffer[] marshalFrame(IPacket packet) throws IOException {
+        if (_filterManager != null)
+            throw new IllegalStateException("Frames cannot be marshalled when a network filter is used");
+
+        ByteBuffer[] buffers = null;
+        if (_directOut != null)
+            _directOut.begin();
+        else
+            _baos.setBuffer(new byte[_frameSizeHint], LENGTH_SIZE);
+        try {
+            packet.writeExternal(_oos);
+            _oos.flush();
+            if (_directOut != null) {
+                buffers = _directOut.finish();
+            } else {
+                int size = _baos.size();
+                buffers = new ByteBuffer[]{ByteBuffer.wrap(_baos.getBuffer(), 0, size)};
+                _frameSizeHint = Math.max(256, Math.min(size, BUFFER_LIMIT));
+            }
+        } catch (MarshalContextClearedException e) {
+            //Keep original exception for upper layer to handle properly
+            throw e;
+        } catch (Exception e) {
+            throw new MarshallingException("Failed to marsh: " + packet, e);
+        } finally // make sure we clean the streams even if an exception was thrown
+        {
+            if (_directOut != null) {
+                if (buffers == null)
+                    _directOut.release();
+            } else {
+                _baos.setBuffer(DUMMY_BUFFER); // release the strong reference to the frame
+                _baos.reset();
+            }
+            _oos.reset();
+        }
+        int length = 0;
+        for (ByteBuffer buffer : buffers)
+            length += buffer.remaining();
+        buffers[0].putInt(0, length - LENGTH_SIZE);
+        _generatedTraffic += length;
+        generatedTraffic.add(length);
+        return buffers;
+    }
+
+    /**
+     * Writes frames created by {@link #marshalFrame(IPacket)} with a single gathering write and
+     * releases their buffers.
+     *
+     * @since 16.0
+     */
+    public void writeFramesBlocking(ByteBuffer[] buffers) throws IOException {
+        int length = 0;
+        for (ByteBuffer buffer : buffers)
+            length += buffer.remaining();
+        try {
+            writeBuffersToChannelBlocking(buffers, length);
+        } finally {
+            if (_directBufferPool != null) {
+                for (ByteBuffer buffer : buffers)
+                    _directBufferPool.release(buffer);
+            }
+        }
+    }
+
     public static class Context {
         public static enum Phase {START, WRITING, FINISH}
 
         private Phase phase = Phase.START;
         private ByteBuffer buffer;
+        private ByteBuffer[] buffers;
+        private DirectBufferPool buffersPool;
         private int totalBytesWritten = 0;
         private int currentPosition = 0;
         private int totalLength;
@@ -262,6 +434,25 @@ public class Writer implements IChannelWriter {
             return buffer;
         }
 
+        /**
+         * Sets pooled buffers to be written with a gathering write instead of a single buffer, the
+         * buffers are returned to the pool once fully written.
+         */
+        public void setBuffers(ByteBuffer[] buffers, DirectBufferPool pool) {
+            this.buffers = buffers;
+            this.buffersPool = pool;
+        }
+
+        public ByteBuffer[] getBuffers() {
+            return buffers;
+        }
+
+        private void releaseBuffers() {
+            for (ByteBuffer b : buffers)
+                buffersPool.release(b);
+            buffers = null;
+        }
+
         public void setTotalBytesWritten(int totalBytesWritten) {
             this.totalBytesWritten = totalBytesWritten;
         }
@@ -313,6 +504,7 @@ public class Writer implements IChannelWriter {
             res.setCurrentPosition(currentPosition);
             res.setTotalBytesWritten(totalBytesWritten);
             res.setBuffer(buffer);
+            res.setBuffers(buffers, buffersPool);
             return res;
         }
 
@@ -399,6 +591,10 @@ public class Writer implements IChannelWriter {
     }
 
     protected void noneBlockingWrite(Context ctx) throws IOException {
+        if (ctx.getBuffers() != null) {
+            noneBlockingGatheringWrite(ctx);
+            return;
+        }
         if (ctx.getPhase() == Context.Phase.START) {
             int dataLength = ctx.getBuffer().remaining();
             ctx.setTotalLength(dataLength);
@@ -436,6 +632,28 @@ public class Writer implements IChannelWriter {
     }
 
 
+    private void noneBlockingGatheringWrite(Context ctx) throws IOException {
+        ByteBuffer[] buffers = ctx.getBuffers();
+        if (ctx.getPhase() == Context.Phase.START) {
+            int dataLength = 0;
+            for (ByteBuffer buffer : buffers)
+                dataLength += buffer.remaining();
+            ctx.setTotalLength(dataLength);
+            ctx.setPhase(Context.Phase.WRITING);
+        }
+        if (ctx.getPhase() == Context.Phase.WRITING) {
+            // direct buffers are written as is, no need for a sliding window
+            long bytes = _sockChannel.write(buffers);
+            ctx.setTotalBytesWritten(ctx.getTotalBytesWritten() + (int) bytes);
+
+            if (ctx.getTotalBytesWritten() == ctx.getTotalLength()) // finish writing all
+            {
+                ctx.releaseBuffers();
+                ctx.setPhase(Context.Phase.FINISH);
+            }
+        }
+    }
+
     private void writeBytesBlocking(ByteBuffer dataBuffer) throws IOException, IOFilterException {
         if (_filterManager != null) {
             _filterManager.writeBytesBlocking(dataBuffer);
@@ -499,25 +717,7 @@ public class Writer implements IChannelWriter {
 
                 bytesRetries += bytes;
                 if (_slowConsumer && bytesRetries < _slowConsumerBytes) {
-                    if (retries-- == 0) {
-                        String slowConsumerCloseMsg = prepareSlowConsumerCloseMsg(getEndPointAddress());
-                        if (_slowerConsumerLogger.isWarnEnabled()) {
-                            _slowerConsumerLogger.warn(slowConsumerCloseMsg);
-                        }
-                        _sockChannel.close();
-                        throw new SlowConsumerException(slowConsumerCloseMsg);
-                    }
-                    //else
-                    try {
-                        if (_slowerConsumerLogger.isDebugEnabled()) {
-                            _slowerConsumerLogger.debug(prepareSlowConsumerSleepMsg(getEndPointAddress(), retries));
-                        }
-                        Thread.sleep(_slowConsumerSleepTime);
-                    } catch (InterruptedException e) {
-                        IOException ioe = new IOException("Interrupted while writing response.");
-                        ioe.initCause(e);
-                        throw ioe;
-                    }
+                    retries = waitForSlowConsumer(retries);
                 } else {
                     bytesRetries = 0;
                     retries = _slowConsumerRetries;
@@ -543,6 +743,93 @@ public class Writer implements IChannelWriter {
         */
     }
 
+    /**
+     * Writes direct buffers with gathering writes, since the buffers are direct the channel does
+     * not copy them and no sliding window is needed.
+     */
+    private void writeBuffersToChannelBlocking(ByteBuffer[] buffers, int length)
+            throws IOException, ClosedChannelException, SlowConsumerException {
+        long totalBytesWritten = 0;
+        long bytesRetries = 0;
+        int retries = _slowConsumerRetries;
+        Selector tempSelector = null;
+        SelectionKey tmpKey = null;
+
+        try {
+            while (totalBytesWritten < length) {
+                long bytes = _sockChannel.write(buffers);
+                totalBytesWritten += bytes;
+                if (totalBytesWritten >= length) // finish writing all
+                    break;
+
+                if (bytes == 0 && !_sockChannel.isBlocking()) {
+                    if (tempSelector == null) {
+                        tempSelector = TemporarySelectorFactory.getSelector();
+                        tmpKey = _sockChannel.register(tempSelector, SelectionKey.OP_WRITE);
+                    }
+
+                    tmpKey.interestOps(tmpKey.interestOps() | SelectionKey.OP_WRITE);
+                    int res = tempSelector.select(1000);
+                    tmpKey.interestOps(tmpKey.interestOps() & (~SelectionKey.OP_WRITE));
+
+                    if (res == 1) {
+                        continue;
+                    }
+                }
+
+                bytesRetries += bytes;
+                if (_slowConsumer && bytesRetries < _slowConsumerBytes) {
+                    retries = waitForSlowConsumer(retries);
+                } else {
+                    bytesRetries = 0;
+                    retries = _slowConsumerRetries;
+                }
+            }
+        } finally {
+            if (tmpKey != null)
+                tmpKey.cancel();
+
+            if (tempSelector != null) {
+                // releases and clears the key.
+                try {
+                    tempSelector.selectNow();
+                } catch (IOException ex) {
+                }
+
+                TemporarySelectorFactory.returnSelector(tempSelector);
+            }
+        }
+    }
+
+    /**
+     * Sleeps before the next write attempt to a slow consumer, or closes the channel if there are
+     * no retries left.
+     *
+     * @return the number of retries left.
+     */
+    private int waitForSlowConsumer(int retries) throws IOException {
+        if (retries-- == 0) {
+            String slowConsumerCloseMsg = prepareSlowConsumerCloseMsg(getEndPointAddress());
+            if (_slowerConsumerLogger.isWarnEnabled()) {
+                _slowerConsumerLogger.warn(slowConsumerCloseMsg);
+            }
+            _sockChannel.close();
+            throw new SlowConsumerException(slowConsumerCloseMsg);
+        }
+        //else
+        try {
+            if (_slowerConsumerLogger.isDebugEnabled()) {
+                _slowerConsumerLogger.debug(prepareSlowConsumerSleepMsg(getEndPointAddress(), retries));
+            }
+            Thread.sleep(_slowConsumerSleepTime);
+        } catch (InterruptedException e) {
+            IOException ioe = new IOException("Interrupted while writing response.");
+            ioe.initCause(e);
+            throw ioe;
+        }
+        return retries;
+    }
+
     /**
      * Called from WriteSelectorThread to complete pending write requests.
      *
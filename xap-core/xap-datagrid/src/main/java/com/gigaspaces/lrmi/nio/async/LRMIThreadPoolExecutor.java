@@ -16,6 +16,7 @@
 
 package com.gigaspaces.lrmi.nio.async;
 
+import com.gigaspaces.internal.utils.concurrent.VirtualThreads;
 import com.gigaspaces.logger.Constants;
 import com.gigaspaces.lrmi.nio.ReplyPacket;
 import com.gigaspaces.start.SystemBoot;
@@ -28,7 +29,10 @@ import com.j_spaces.kernel.threadpool.queue.DynamicQueue;
 
 import org.jini.rio.boot.CommonClassLoader;
 
+import java.util.Queue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
@@ -42,12 +46,19 @@ import org.slf4j.LoggerFactory;
  */
 @com.gigaspaces.api.InternalApi
 public class LRMIThreadPoolExecutor extends DynamicThreadPoolExecutor {
+    private final static Logger _logger = LoggerFactory.getLogger(Constants.LOGGER_LRMI);
     private final static Logger _warnLogger = LoggerFactory.getLogger(Constants.LOGGER_LRMI + ".resources");
     private final static double _warnFactor = Double.parseDouble(System.getProperty(SystemProperties.LRMI_RESOURCE_WARN_THRESHOLD_FACTOR, "10.0"));
 
+    private final String _poolName;
+    private final Queue<Runnable> _virtualThreadTasks = new ConcurrentLinkedQueue<Runnable>();
+    private volatile Semaphore _virtualThreadPermits;
+    private volatile ThreadFactory _virtualThreadFactory;
+
     public LRMIThreadPoolExecutor(int min, int max, long keepAliveTime, int capacity,
                                   long waitTime, int priority, String poolName, boolean preStart, boolean warnOnQueueUsage) {
         super(min, max, keepAliveTime, TimeUnit.MILLISECONDS, new DynamicQueue<Runnable>(capacity));
+        this._poolName = poolName;
         final ThreadFactory threadFactory = DynamicExecutors.priorityThreadFactory(priority, poolName);
 
         //noinspection NullableProblems
@@ -71,6 +82,93 @@ public class LRMIThreadPoolExecutor extends DynamicThreadPoolExecutor {
             prestartAllCoreThreads();
     }
 
+    /**
+     * Executes the tasks on virtual threads instead of the pool threads, as long as {@link
+     * VirtualThreads#isEnabled()}. Returns false if virtual threads are disabled.
+     */
+    public boolean useVirtualThreads(String poolName) {
+        return useThreadFactory(VirtualThreads.newThreadFactory(poolName));
+    }
+
+    /**
+     * Executes the tasks on threads of the given factory, at most the max pool size at a time - the
+     * other tasks wait for a running one to end, as they would wait for a pool thread.
+     */
+    boolean useThreadFactory(ThreadFactory threadFactory) {
+        if (threadFactory == null)
+            return false;
+        _virtualThreadPermits = new Semaphore(getMaximumPoolSize());
+        _virtualThreadFactory = threadFactory;
+        return true;
+    }
+
+    /**
+     * Executes new tasks on the pool threads, tasks which already wait for a virtual thread are
+     * still executed on virtual threads.
+     */
+    public void disableVirtualThreads(String reason) {
+        if (_virtualThreadFactory != null) {
+            _virtualThreadFactory = null;
+            _warnLogger.warn("Virtual threads of " + _poolName + " are disabled - " + reason);
+        }
+    }
+
+    public boolean isUsingVirtualThreads() {
+        return _virtualThreadFactory != null;
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        final ThreadFactory virtualThreadFactory = _virtualThreadFactory;
+        if (virtualThreadFactory == null) {
+            super.execute(command);
+            return;
+        }
+        if (command == null)
+            throw new NullPointerException("Can't execute null task.");
+        _virtualThreadTasks.offer(command);
+        if (_virtualThreadPermits.tryAcquire())
+            startVirtualThread(virtualThreadFactory);
+    }
+
+    private void startVirtualThread(ThreadFactory virtualThreadFactory) {
+        Thread thread = virtualThreadFactory.newThread(new Runnable() {
+            @Override
+            public void run() {
+                runVirtualThreadTasks();
+            }
+        });
+        if (SystemBoot.isRunningWithinGSC())
+            thread.setContextClassLoader(CommonClassLoader.getInstance());
+        thread.start();
+    }
+
+    private void runVirtualThreadTasks() {
+        while (true) {
+            Runnable command = _virtualThreadTasks.poll();
+            if (command == null) {
+                _virtualThreadPermits.release();
+                // a task may have been queued after the poll, while this thread still held its permit
+                if (_virtualThreadTasks.isEmpty() || !_virtualThreadPermits.tryAcquire())
+                    return;
+                continue;
+            }
+            beforeExecute(Thread.currentThread(), command);
+            Throwable thrown = null;
+            try {
+                command.run();
+            } catch (RuntimeException e) {
+                thrown = e;
+            } catch (Error e) {
+                thrown = e;
+            } finally {
+                afterExecute(command, thrown);
+            }
+            if (thrown != null)
+                _logger.warn("Task of " + _poolName + " failed", thrown);
+        }
+    }
+
     @Override
     public <T> IFuture<T> submit(Callable<T> task) {
         if (task == null)
@@ -182,6 +182,15 @@ public interface SpaceTypeDescriptor {
 
     boolean isBroadcast();
 
+    /**
+     * Checks if the property values of entries of this type are dictionary encoded in the space -
+     * equal values of a property are stored as a single shared instance.
+     *
+     * @return true if the property values are dictionary encoded
+     * @since 16.0
+     */
+    boolean isDictionaryEncoding();
+
     boolean hasSequenceNumber();
 
     int getSequenceNumberFixedPropertyID();
@@ -83,6 +83,7 @@ public class SpaceTypeDescriptorBuilder {
     private boolean _sequenceNumberFromDocumentBuilder;
     private Class<? extends ClassBinaryStorageAdapter> binaryStorageAdapterClass;
     private Boolean _broadcast;
+    private Boolean _dictionaryEncoding;
 
     /**
      * Initialize a type descriptor builder using the specified type name.
@@ -181,6 +182,7 @@ public class SpaceTypeDescriptorBuilder {
         _routingPropertyName = typeInfo.getRoutingProperty() != null ? typeInfo.getRoutingProperty().getName() : null;
         _blobstoreEnabled = typeInfo.isBlobstoreEnabled();
         _broadcast = typeInfo.isBroadcast();
+        _dictionaryEncoding = typeInfo.isDictionaryEncoding();
     }
 
     /**
@@ -264,6 +266,19 @@ public class SpaceTypeDescriptorBuilder {
         return this;
     }
 
+    /**
+     * Sets whether equal property values of entries of this type are stored in the space as a
+     * single shared instance.
+     *
+     * @param dictionaryEncoding true if the property values of this type are dictionary encoded,
+     *                           false otherwise.
+     * @since 16.0
+     */
+    public SpaceTypeDescriptorBuilder dictionaryEncoding(boolean dictionaryEncoding) {
+        this._dictionaryEncoding = dictionaryEncoding;
+        return this;
+    }
+
 
     /**
      * Sets whether or not this type supports dynamic properties.
@@ -757,7 +772,8 @@ public class SpaceTypeDescriptorBuilder {
                 _sequenceNumberPropertyName,
                 _queryExtensionsInfo,
                 binaryStorageAdapterClass,
-                _broadcast);
+                _broadcast,
+                _dictionaryEncoding);
     }
 
     private void applyDefaults() {
@@ -795,6 +811,13 @@ public class SpaceTypeDescriptorBuilder {
                 _broadcast = PojoDefaults.BROADCAST;
         }
 
+        if (_dictionaryEncoding == null) {
+            if (_superTypeDescriptor != null)
+                this._dictionaryEncoding = _superTypeDescriptor.isDictionaryEncoding();
+            if (_dictionaryEncoding == null)
+                _dictionaryEncoding = PojoDefaults.DICTIONARY_ENCODING;
+        }
+
         if (_supportsDynamicProperties == null) {
             if (_superTypeDescriptor != null)
                 _supportsDynamicProperties = _superTypeDescriptor.supportsDynamicProperties();
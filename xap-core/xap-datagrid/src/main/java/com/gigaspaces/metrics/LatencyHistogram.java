@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.metrics;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A metric which measures the distribution of latencies, HDR histogram style: values (in
+ * nanoseconds) are counted in log-linear buckets keyed by their 5 highest bits, which bounds the
+ * error of the reported percentiles to ~3% of the value, from 1 nanosecond up to ~36 minutes
+ * (larger values are counted in the last bucket). <p/> Recording is lock free and does not
+ * allocate, buckets are striped by thread to reduce contention between recording threads. Each
+ * {@link #snapshot()} covers the values recorded since the previous one, and is reported as the
+ * p50, p99, p999 and max latencies in microseconds.
+ *
+ * @since 16.0
+ */
+@com.gigaspaces.api.InternalApi
+public class LatencyHistogram extends Metric {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS >> 1;
+    private static final int MAX_SHIFT = 36;
+    static final int BUCKETS = SUB_BUCKETS + MAX_SHIFT * HALF_SUB_BUCKETS;
+    private static final int STRIPES = Math.min(8, Integer.highestOneBit(Runtime.getRuntime().availableProcessors()));
+    private static final double NANOS_PER_MICRO = TimeUnit.MICROSECONDS.toNanos(1);
+
+    private final AtomicLongArray counts = new AtomicLongArray(STRIPES * BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+    // Accessed only by the (synchronized) snapshot.
+    private long[] prevCounts = new long[BUCKETS];
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0)
+            nanos = 0;
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        counts.incrementAndGet(stripe * BUCKETS + bucketOf(nanos));
+        long currMax;
+        while (nanos > (currMax = max.get()) && !max.compareAndSet(currMax, nanos)) {
+        }
+    }
+
+    /**
+     * Records the time elapsed since the given {@link System#nanoTime()} timestamp.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Returns the total number of latencies recorded.
+     */
+    public long getTotalCount() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++)
+            total += counts.get(i);
+        return total;
+    }
+
+    /**
+     * Returns the distribution of the latencies recorded since the previous call to snapshot.
+     */
+    public synchronized Snapshot snapshot() {
+        long[] currCounts = new long[BUCKETS];
+        for (int stripe = 0; stripe < STRIPES; stripe++)
+            for (int i = 0; i < BUCKETS; i++)
+                currCounts[i] += counts.get(stripe * BUCKETS + i);
+        long[] deltas = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            deltas[i] = currCounts[i] - prevCounts[i];
+            total += deltas[i];
+        }
+        prevCounts = currCounts;
+        return new Snapshot(deltas, total, max.getAndSet(0));
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        if (shift > MAX_SHIFT)
+            return BUCKETS - 1;
+        return SUB_BUCKETS + (shift - 1) * HALF_SUB_BUCKETS + (int) (value >>> shift) - HALF_SUB_BUCKETS;
+    }
+
+    /**
+     * Returns the highest value which is counted in the given bucket.
+     */
+    static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+        int shift = (bucket - SUB_BUCKETS) / HALF_SUB_BUCKETS + 1;
+        long subBucket = (bucket - SUB_BUCKETS) % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    public static class Snapshot {
+        private final long[] counts;
+        private final long totalCount;
+        private final long max;
+
+        private Snapshot(long[] counts, long totalCount, long max) {
+            this.counts = counts;
+            this.totalCount = totalCount;
+            this.max = max;
+        }
+
+        public long getTotalCount() {
+            return totalCount;
+        }
+
+        /**
+         * Returns the max latency in nanoseconds, or 0 if no latency was recorded.
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Returns the latency in nanoseconds which the given percentile of the latencies do not
+         * exceed, or 0 if no latency was recorded.
+         *
+         * @param percentile a percentile between 0 and 100, e.g. 99.9
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (totalCount == 0)
+                return 0;
+            long target = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+            long accumulated = 0;
+            for (int i = 0; i < counts.length; i++) {
+                accumulated += counts[i];
+                if (accumulated >= target)
+                    return max != 0 ? Math.min(highestValueOf(i), max) : highestValueOf(i);
+            }
+            return max;
+        }
+
+        /**
+         * Adds the reported values of this snapshot, in microseconds, to the given metrics values.
+         */
+        public void report(String name, Map<String, Object> metricsValues) {
+            metricsValues.put(name + "_p50", toMicros(getValueAtPercentile(50)));
+            metricsValues.put(name + "_p99", toMicros(getValueAtPercentile(99)));
+            metricsValues.put(name + "_p999", toMicros(getValueAtPercentile(99.9)));
+            metricsValues.put(name + "_max", toMicros(max));
+        }
+
+        private static double toMicros(long nanos) {
+            return nanos / NANOS_PER_MICRO;
+        }
+    }
+}
@@ -27,6 +27,7 @@ import com.gigaspaces.logger.Constants;
 import com.gigaspaces.lrmi.ConnectionPool;
 import com.gigaspaces.lrmi.LRMIRuntime;
 import com.gigaspaces.lrmi.nio.CPeer;
+import com.gigaspaces.lrmi.nio.Pivot;
 import com.gigaspaces.lrmi.nio.Reader;
 import com.gigaspaces.lrmi.nio.Writer;
 import com.gigaspaces.metrics.factories.*;
@@ -389,6 +390,7 @@ public class MetricManager implements Closeable {
         registrator.register("pending-writes", new LongCounter(Writer.getPendingWritesCounter()));
         registrator.register(MetricConstants.CONNECTIONS_METRIC_NAME, new LongCounter(CPeer.getConnectionsCounter()));
         registrator.register(MetricConstants.ACTIVE_CONNECTIONS_METRIC_NAME, new LongCounter(ConnectionPool.getActiveConnectionsCounter()));
+        registrator.register("executor-queue-latency", Pivot.getExecutorQueueLatency());
         registerThreadPoolMetrics(registrator.extend("connection-pool"), lrmiRuntime.getThreadPool());
         registerThreadPoolMetrics(registrator.extend("liveness-pool"), lrmiRuntime.getLivenessPriorityThreadPool());
         registerThreadPoolMetrics(registrator.extend("monitoring-pool"), lrmiRuntime.getMonitoringPriorityThreadPool());
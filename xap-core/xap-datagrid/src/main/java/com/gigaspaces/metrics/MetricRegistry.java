@@ -86,7 +86,7 @@ public class MetricRegistry {
                 if (logger.isDebugEnabled())
                     logger.debug("Verified gauge " + name + " => " + value);
             } else {
-                if (!(metric instanceof LongCounter) && !(metric instanceof ThroughputMetric))
+                if (!(metric instanceof LongCounter) && !(metric instanceof ThroughputMetric) && !(metric instanceof LatencyHistogram))
                     throw new IllegalArgumentException("Unsupported metric type: " + metric.getClass().getName());
             }
             return true;
@@ -158,6 +158,9 @@ public class MetricRegistry {
         else if( metric instanceof ThroughputMetric ){
             resultVal = ( ( ThroughputMetric )metric ).getTotal();
         }
+        else if( metric instanceof LatencyHistogram ){
+            resultVal = ( ( LatencyHistogram )metric ).getTotalCount();
+        }
 
         return resultVal;
     }
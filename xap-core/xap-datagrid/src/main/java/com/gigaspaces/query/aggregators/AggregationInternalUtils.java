@@ -89,6 +89,25 @@ public class AggregationInternalUtils {
         return false;
     }
 
+    /**
+     * Returns true if the results of the given aggregators can be computed by aggregating disjoint
+     * slices of the matching entries separately and merging the partial results on the server,
+     * which is the case for the built-in value and entry aggregators (and group by of those).
+     */
+    public static boolean supportsParallelScan(List<SpaceEntriesAggregator> aggregators) {
+        for (SpaceEntriesAggregator aggregator : aggregators) {
+            if (aggregator instanceof GroupByAggregator) {
+                if (!supportsParallelScan(((GroupByAggregator) aggregator).getSelectAggregators()))
+                    return false;
+            } else {
+                if (!_certifiedAggregators.contains(aggregator.getClass()) || aggregator instanceof SpaceIteratorAggregator)
+                    return false;
+            }
+        }
+
+        return true;
+    }
+
     public static List<SpaceEntriesAggregator> getSelectors(GroupByAggregator aggregator) {
         return aggregator.getSelectAggregators();
     }
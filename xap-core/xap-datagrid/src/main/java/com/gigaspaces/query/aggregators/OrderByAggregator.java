@@ -72,6 +72,10 @@ public class OrderByAggregator<T> extends SpaceEntriesAggregator<OrderByAggregat
         return Collections.unmodifiableList(orderByPaths);
     }
 
+    public int getLimit() {
+        return limit;
+    }
+
 
     @Override
     public String getDefaultAlias() {
@@ -103,10 +107,9 @@ public class OrderByAggregator<T> extends SpaceEntriesAggregator<OrderByAggregat
 
         aggregatedCount++;
 
-        //if found more than allowed limit - evict highest
-        if (aggregatedCount > limit) {
-            list.sort(new OrderByElementComparator(this.orderByPaths));
-            evictHighestRaw();
+        //if found more than allowed limit - evict highest, batched to avoid sorting on every entry
+        if (aggregatedCount >= evictionThreshold()) {
+            trimToLimit();
         }
 
     }
@@ -139,11 +142,8 @@ public class OrderByAggregator<T> extends SpaceEntriesAggregator<OrderByAggregat
             aggregatedCount += orderByElement.getRawEntries().size();
 
             //if found more than allowed limit - evict highest
-            if (aggregatedCount > limit) {
-                list.sort(new OrderByElementComparator(this.orderByPaths));
-                while (aggregatedCount > limit) {
-                    evictHighestRaw();
-                }
+            if (aggregatedCount >= evictionThreshold()) {
+                trimToLimit();
             }
         }
     }
@@ -153,6 +153,7 @@ public class OrderByAggregator<T> extends SpaceEntriesAggregator<OrderByAggregat
 
         OrderByScanResult orderByResult = new OrderByScanResult();
         if (list != null) {
+            trimToLimit();
             list.forEach(orderByElement ->
                     orderByElement.getRawEntries().forEach(rawEntry ->
                             context.applyProjectionTemplate(rawEntry)));
@@ -168,6 +169,7 @@ public class OrderByAggregator<T> extends SpaceEntriesAggregator<OrderByAggregat
         if (list == null) {
             return new ArrayList<>();
         }
+        trimToLimit();
         list.sort(new OrderByElementComparator(this.orderByPaths));
 
         ArrayList<T> finalResults = new ArrayList<T>(aggregatedCount);
@@ -195,6 +197,23 @@ public class OrderByAggregator<T> extends SpaceEntriesAggregator<OrderByAggregat
         return new OrderByValues(this.orderByPaths.stream().map(orderByPath -> context.getPathValue(orderByPath.getPath())).toArray());
     }
 
+    /**
+     * Up to limit extra entries are kept before evicting, so the sort cost is amortized over the added entries
+     * instead of being paid for each one.
+     */
+    private long evictionThreshold() {
+        return limit == Integer.MAX_VALUE ? Long.MAX_VALUE : 2L * limit;
+    }
+
+    private void trimToLimit() {
+        if (aggregatedCount > limit) {
+            list.sort(new OrderByElementComparator(this.orderByPaths));
+            while (aggregatedCount > limit) {
+                evictHighestRaw();
+            }
+        }
+    }
+
     private void evictHighestRaw() {
         OrderByElement orderByElement = list.remove(list.size() - 1); //pop last
         List<RawEntry> rawEntries = orderByElement.getRawEntries();
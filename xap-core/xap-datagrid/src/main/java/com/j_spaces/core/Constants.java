@@ -477,6 +477,67 @@ public interface Constants {
         String FULL_ENGINE_BLOBSTORE_ROCKSDB_ALLOW_DUPLICATE_UIDS = SPACE_CONFIG_PREFIX + ENGINE_BLOBSTORE_ROCKSDB_ALLOW_DUPLICATE_UIDS;
         String ENGINE_BLOBSTORE_ROCKSDB_ALLOW_DUPLICATE_UIDS_DEFAULT = "auto";
 
+        /**
+         * Comma separated names of the types whose read multiple results are cached, empty means the
+         * query result cache is disabled.
+         */
+        String ENGINE_QUERY_RESULT_CACHE_TYPES_PROP = "engine.query-result-cache.types";
+        String ENGINE_QUERY_RESULT_CACHE_TYPES_DEFAULT = "";
+        String FULL_ENGINE_QUERY_RESULT_CACHE_TYPES_PROP = SPACE_CONFIG_PREFIX + ENGINE_QUERY_RESULT_CACHE_TYPES_PROP;
+
+        /**
+         * Max number of cached query results per type, the least recently used are evicted.
+         */
+        String ENGINE_QUERY_RESULT_CACHE_SIZE_PROP = "engine.query-result-cache.size";
+        String ENGINE_QUERY_RESULT_CACHE_SIZE_DEFAULT = "1000";
+
+        /**
+         * Results with more entries than this are not cached.
+         */
+        String ENGINE_QUERY_RESULT_CACHE_MAX_RESULT_SIZE_PROP = "engine.query-result-cache.max-result-size";
+        String ENGINE_QUERY_RESULT_CACHE_MAX_RESULT_SIZE_DEFAULT = "1000";
+
+        /**
+         * Max number of threads used to scan the entries of a single aggregation, 1 means
+         * aggregations are executed by the calling thread only.
+         */
+        String ENGINE_AGGREGATION_PARALLELISM_PROP = "engine.aggregation.parallelism";
+        String ENGINE_AGGREGATION_PARALLELISM_DEFAULT = "1";
+
+        /**
+         * Min number of entries of the aggregated type per aggregation thread, aggregations of types
+         * with less than twice this number of entries are not executed in parallel.
+         */
+        String ENGINE_AGGREGATION_PARALLEL_THRESHOLD_PROP = "engine.aggregation.parallel-threshold";
+        String ENGINE_AGGREGATION_PARALLEL_THRESHOLD_DEFAULT = "100000";
+
+        /**
+         * If true, writes to broadcast tables return once applied to the first partition, and are
+         * pushed to the other partitions asynchronously in coalesced batches.
+         */
+        String ENGINE_BROADCAST_TABLE_ASYNC_PUSH_PROP = "engine.broadcast-table.async-push";
+        String ENGINE_BROADCAST_TABLE_ASYNC_PUSH_DEFAULT = "false";
+
+        /**
+         * Time in milliseconds asynchronous broadcast table writes are kept before they are pushed,
+         * multiple writes of the same entry within this window are pushed once.
+         */
+        String ENGINE_BROADCAST_TABLE_PUSH_WINDOW_PROP = "engine.broadcast-table.push-window";
+        String ENGINE_BROADCAST_TABLE_PUSH_WINDOW_DEFAULT = "10";
+
+        /**
+         * Max number of entries pushed to the other partitions in a single asynchronous batch.
+         */
+        String ENGINE_BROADCAST_TABLE_PUSH_BATCH_SIZE_PROP = "engine.broadcast-table.push-batch-size";
+        String ENGINE_BROADCAST_TABLE_PUSH_BATCH_SIZE_DEFAULT = "1000";
+
+        /**
+         * Max number of broadcast table entries waiting to be pushed, writers are blocked while it is
+         * exceeded.
+         */
+        String ENGINE_BROADCAST_TABLE_MAX_PENDING_PROP = "engine.broadcast-table.max-pending";
+        String ENGINE_BROADCAST_TABLE_MAX_PENDING_DEFAULT = "10000";
+
     }
 
     public interface Replication {
@@ -562,6 +623,8 @@ public interface Constants {
 
         int LM_SEGMEENTS_PER_EXPIRATION_CELL_DEFAULT = 2;
 
+        int LM_REAPER_SHARDS_DEFAULT = 1;
+
         boolean LM_DISABLE_ENTRIES_LEASES_DEFAULT = false;
 
         long TIERED_STORAGE_EVICTION_GRACE_PERIOD_DEFAULT = 10 * 1000;
@@ -583,6 +646,7 @@ public interface Constants {
         String FULL_LM_EXPIRATION_TIME_INTERVAL_PROP = SPACE_CONFIG_PREFIX + LM_EXPIRATION_TIME_INTERVAL_PROP;
         String LM_BACKUP_EXPIRATION_DELAY_PROP = "lease_manager.backup_leases_expiration_delay";
         String LM_SEGMEENTS_PER_EXPIRATION_CELL_PROP = "lease_manager.segments_per_expiration_cell";
+        String LM_REAPER_SHARDS_PROP = "lease_manager.reaper_shards";
 
         String TIERED_STORAGE_EVICTION_GRACE_PERIOD = "lease_manager.tiered_storage.eviction_grace_period";
     }
@@ -747,6 +811,26 @@ public interface Constants {
         String CACHE_MANAGER_BLOBSTORE_CACHE_DURABILITY_LEVEL_PROP = "blobStoreDurabilityLevel";
         String CACHE_MANAGER_BLOBSTORE_VOLUME_DIR_PROP = "blobStoreVolumeDir";
 
+        String CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_DIR_PROP = "engine.blobstore_mapped_log_dir";
+        String FULL_CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_DIR_PROP = SPACE_CONFIG_PREFIX + CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_DIR_PROP;
+
+        String CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_SEGMENT_SIZE_PROP = "engine.blobstore_mapped_log_segment_size";
+        String FULL_CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_SEGMENT_SIZE_PROP = SPACE_CONFIG_PREFIX + CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_SEGMENT_SIZE_PROP;
+        String CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_SEGMENT_SIZE_DEFAULT = "256m";
+
+        /* percentage of dead bytes in a sealed segment from which it is compacted */
+        String CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_COMPACTION_THRESHOLD_PROP = "engine.blobstore_mapped_log_compaction_threshold";
+        String FULL_CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_COMPACTION_THRESHOLD_PROP = SPACE_CONFIG_PREFIX + CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_COMPACTION_THRESHOLD_PROP;
+        String CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_COMPACTION_THRESHOLD_DEFAULT = "50";
+
+        String CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_COMPACTION_INTERVAL_PROP = "engine.blobstore_mapped_log_compaction_interval";
+        String FULL_CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_COMPACTION_INTERVAL_PROP = SPACE_CONFIG_PREFIX + CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_COMPACTION_INTERVAL_PROP;
+        String CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_COMPACTION_INTERVAL_DEFAULT = "10s";
+
+        String CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_SYNC_WRITES_PROP = "engine.blobstore_mapped_log_sync_writes";
+        String FULL_CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_SYNC_WRITES_PROP = SPACE_CONFIG_PREFIX + CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_SYNC_WRITES_PROP;
+        String CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_SYNC_WRITES_DEFAULT = "false";
+
         String BLOBSTORE_MEMORY_USAGE_WRITE_ONLY_BLOCK_PRECENTAGE_DEFAULT = "80";
 
         String BLOBSTORE_OFF_HEAP_MIN_DIFF_TO_ALLOCATE_PROP = "blobstore.off-heap.update_threshold";
@@ -781,6 +865,13 @@ public interface Constants {
          * touching is performed. 0 means always touch, 100 means no touch at all
          */
         String CACHE_MANAGER_LRU_TOUCH_THRESHOLD_DEFAULT = "50";
+
+        /**
+         * number of entries sampled for each eviction by the sampled LRU eviction strategy (see
+         * SampledLruSpaceEvictionStrategy), higher values get closer to an accurate LRU.
+         */
+        String CACHE_MANAGER_SAMPLED_LRU_SAMPLE_SIZE_PROP = "engine.sampled_lru.sample_size";
+        String CACHE_MANAGER_SAMPLED_LRU_SAMPLE_SIZE_DEFAULT = "5";
         /**
          * size of evictable locks table
          */
@@ -998,6 +1089,26 @@ public interface Constants {
         String CACHE_MANAGER_TIERED_STORAGE_LOCKS_SIZE_DEFAULT = "10000";
         String TIERED_STORAGE_INTERNAL_RDBMS_CLASS_PROP = "engine.TieredStorage.RDBMSClass";
         String TIERED_STORAGE_INTERNAL_RDBMS_CLASS_DEFAULT = "com.gigaspaces.internal.server.space.tiered_storage.SqliteRDBMS";
+        String TIERED_STORAGE_WRITE_BEHIND_MODE_PROP = "engine.TieredStorage.WriteBehind.Mode";
+        String TIERED_STORAGE_WRITE_BEHIND_MODE_DEFAULT = "off";
+        String TIERED_STORAGE_WRITE_BEHIND_FLUSH_INTERVAL_PROP = "engine.TieredStorage.WriteBehind.FlushInterval";
+        String TIERED_STORAGE_WRITE_BEHIND_FLUSH_INTERVAL_DEFAULT = "10";
+        String TIERED_STORAGE_WRITE_BEHIND_MAX_BATCH_SIZE_PROP = "engine.TieredStorage.WriteBehind.MaxBatchSize";
+        String TIERED_STORAGE_WRITE_BEHIND_MAX_BATCH_SIZE_DEFAULT = "1000";
+        String TIERED_STORAGE_RETIERING_BATCH_SIZE_PROP = "engine.TieredStorage.Retiering.BatchSize";
+        String TIERED_STORAGE_RETIERING_BATCH_SIZE_DEFAULT = "1000";
+        String TIERED_STORAGE_RETIERING_BATCH_INTERVAL_PROP = "engine.TieredStorage.Retiering.BatchInterval";
+        String TIERED_STORAGE_RETIERING_BATCH_INTERVAL_DEFAULT = "10";
+        String TIERED_STORAGE_ADMISSION_ENABLED_PROP = "engine.TieredStorage.Admission.Enabled";
+        String TIERED_STORAGE_ADMISSION_ENABLED_DEFAULT = "false";
+        String TIERED_STORAGE_ADMISSION_MAX_ENTRIES_PROP = "engine.TieredStorage.Admission.MaxEntries";
+        String TIERED_STORAGE_ADMISSION_MAX_ENTRIES_DEFAULT = "100000";
+        String TIERED_STORAGE_ADMISSION_MIN_FREQUENCY_PROP = "engine.TieredStorage.Admission.MinFrequency";
+        String TIERED_STORAGE_ADMISSION_MIN_FREQUENCY_DEFAULT = "4";
+        String TIERED_STORAGE_ADMISSION_DEMOTION_INTERVAL_PROP = "engine.TieredStorage.Admission.DemotionInterval";
+        String TIERED_STORAGE_ADMISSION_DEMOTION_INTERVAL_DEFAULT = "1000";
+        String TIERED_STORAGE_AGGREGATION_PUSH_DOWN_PROP = "engine.TieredStorage.AggregationPushDown";
+        String TIERED_STORAGE_AGGREGATION_PUSH_DOWN_DEFAULT = "true";
         CachePredicate TRANSIENT_ALL_CACHE_PREDICATE = new TransientPredicate();
         String TIERED_STORAGE_LOGGER_NAME = "com.gigaspaces.internal.server.space.tiered_storage.InternalRDBMS";
         String UID_DB_FIELD_NAME = "UID$GS";
@@ -45,6 +45,9 @@ import com.gigaspaces.internal.transport.IEntryPacket;
 import com.gigaspaces.internal.transport.ITemplatePacket;
 import com.gigaspaces.internal.transport.TemplatePacket;
 import com.gigaspaces.internal.utils.concurrent.GSThread;
+import com.gigaspaces.internal.utils.concurrent.GSThreadFactory;
+import com.gigaspaces.metrics.Gauge;
+import com.gigaspaces.metrics.MetricRegistrator;
 import com.gigaspaces.time.SystemTime;
 import com.j_spaces.core.cache.CacheManager.RecentDeleteCodes;
 import com.j_spaces.core.cache.IEntryCacheInfo;
@@ -77,8 +80,14 @@ import net.jini.space.InternalSpaceException;
 import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
@@ -102,6 +111,8 @@ import static com.j_spaces.core.Constants.LeaseManager.LM_EXPIRATION_TIME_RECENT
 import static com.j_spaces.core.Constants.LeaseManager.LM_EXPIRATION_TIME_RECENT_UPDATES_PROP;
 import static com.j_spaces.core.Constants.LeaseManager.LM_EXPIRATION_TIME_STALE_REPLICAS_DEFAULT;
 import static com.j_spaces.core.Constants.LeaseManager.LM_EXPIRATION_TIME_STALE_REPLICAS_PROP;
+import static com.j_spaces.core.Constants.LeaseManager.LM_REAPER_SHARDS_DEFAULT;
+import static com.j_spaces.core.Constants.LeaseManager.LM_REAPER_SHARDS_PROP;
 import static com.j_spaces.core.Constants.LeaseManager.LM_SEGMEENTS_PER_EXPIRATION_CELL_DEFAULT;
 import static com.j_spaces.core.Constants.LeaseManager.LM_SEGMEENTS_PER_EXPIRATION_CELL_PROP;
 import static com.j_spaces.core.Constants.LeaseManager.TIERED_STORAGE_EVICTION_GRACE_PERIOD;
@@ -132,6 +143,7 @@ public class LeaseManager {
     private static final Logger _logger = LoggerFactory.getLogger(com.gigaspaces.logger.Constants.LOGGER_LEASE);
 
     private final static long MIN_FORCE_EXPIRATION_INTERVAL = Long.getLong("com.gs.lease-manager.min-force-expiration-interval", 500);
+    private final static int REAPER_SHARD_BATCH_SIZE = 1024;
 
     private final Processor _coreProcessor;
     private final String _spaceName;
@@ -154,8 +166,13 @@ public class LeaseManager {
     private final long _expirationTimeRecentUpdates;
     private final long _staleReplicaExpirationTime;
     private final long _tieredStorageEvictionGracePeriod;
+    private final int _reaperShards;
 
     private LeaseReaper _leaseReaperDaemon;
+    private ExecutorService _reaperShardsExecutor;
+    private volatile long _reaperLag;
+    private volatile int _lastCycleReapedEntries;
+    private final AtomicLong _totalReapedEntries = new AtomicLong();
     private boolean _closed;
 
     private final boolean _supportsRecentExtendedUpdates;
@@ -192,6 +209,7 @@ public class LeaseManager {
         _staleReplicaExpirationTime = getLongValue(configReader, LM_EXPIRATION_TIME_STALE_REPLICAS_PROP, LM_EXPIRATION_TIME_STALE_REPLICAS_DEFAULT);
         _supportsRecentExtendedUpdates = _engine.getCacheManager().isBlobStoreCachePolicy();
         _tieredStorageEvictionGracePeriod = getLongValue(configReader, TIERED_STORAGE_EVICTION_GRACE_PERIOD, TIERED_STORAGE_EVICTION_GRACE_PERIOD_DEFAULT);
+        _reaperShards = Math.max(1, getIntValue(configReader, LM_REAPER_SHARDS_PROP, LM_REAPER_SHARDS_DEFAULT));
         logConfiguration();
 
     }
@@ -247,7 +265,10 @@ public class LeaseManager {
                     + LM_EXPIRATION_TIME_FIFOENTRY_XTNINFO + " ms\n\t"
                     + "Tiered storage eviction grace period - "
                     + _tieredStorageEvictionGracePeriod
-                    + "s\n\t");
+                    + "s\n\t"
+                    + "Expired entries reaper shards - "
+                    + _reaperShards
+                    + "\n\t");
         }
     }
 
@@ -255,11 +276,61 @@ public class LeaseManager {
     public synchronized void init() {
         if (_closed)
             return;
+        if (_reaperShards > 1)
+            _reaperShardsExecutor = Executors.newFixedThreadPool(_reaperShards,
+                    GSThreadFactory.daemon(this.getClass().getSimpleName() + "$ReaperShard [" + _spaceName + "]"));
+        registerMetrics();
         LeaseReaper leaseReaperDaemon = new LeaseReaper(this.getClass().getSimpleName()
                 + "$Reaper [" + _spaceName + "]");
         _leaseReaperDaemon = leaseReaperDaemon;
     }
 
+    private void registerMetrics() {
+        MetricRegistrator registrator = _engine.getMetricRegistrator();
+        if (registrator == null)
+            return;
+        registrator.register(registrator.toPath("lease-manager", "reaper", "lag"), new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return getReaperLag();
+            }
+        });
+        registrator.register(registrator.toPath("lease-manager", "reaper", "last-cycle-expired"), new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return getLastCycleReapedEntries();
+            }
+        });
+        registrator.register(registrator.toPath("lease-manager", "reaper", "total-expired"), new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return getTotalReapedEntries();
+            }
+        });
+    }
+
+    /**
+     * @return how far (in ms) the reaper was behind the oldest expired lease at the start of its
+     * last cycle, or 0 if it was not behind.
+     */
+    public long getReaperLag() {
+        return _reaperLag;
+    }
+
+    /**
+     * @return the number of leases reaped by the last reaper cycle.
+     */
+    public int getLastCycleReapedEntries() {
+        return _lastCycleReapedEntries;
+    }
+
+    /**
+     * @return the number of leases reaped since the lease manager was started.
+     */
+    public long getTotalReapedEntries() {
+        return _totalReapedEntries.get();
+    }
+
     /* ----------------------------- public API ------------------------------ */
 
     public void registerEntryLease(IEntryCacheInfo entryCacheInfo, long expiration) {
@@ -514,6 +585,8 @@ public class LeaseManager {
         _closed = true;
         if (_leaseReaperDaemon != null)
             _leaseReaperDaemon.clean();
+        if (_reaperShardsExecutor != null)
+            _reaperShardsExecutor.shutdownNow();
     }
 
     /**
@@ -1218,17 +1291,23 @@ public class LeaseManager {
 
 
         /**
-         * Cleans expired entries, every <tt>LM_EXPIRATION_TIME_INTERVAL</tt>.
+         * Cleans expired entries, every <tt>LM_EXPIRATION_TIME_INTERVAL</tt>. Only cells whose
+         * expiration time has passed are visited, so the cost of a cycle is proportional to the
+         * number of expiring leases. When more than one reaper shard is configured, the expired
+         * entries are split by uid between the shard workers.
          */
         private static final int DETACH_LIMIT_TO_REPORT = 1000;
 
         private final void reapExpiredEntries() {
-            Context context = null;
-            int reapCount = 0;
-            int detached = 0;
-            if (_expirationList.isEmpty())
+            if (_expirationList.isEmpty()) {
+                _reaperLag = 0;
+                _lastCycleReapedEntries = 0;
                 return;
+            }
             boolean reached_last_cell = false;
+            long lag = 0;
+            ExpiredLeasesReapTask inlineTask = new ExpiredLeasesReapTask();
+            ExpiredLeasesReapTask[] shardTasks = null;
 
             try {
                 Iterator iter = _expirationList.values().iterator();
@@ -1246,237 +1325,342 @@ public class LeaseManager {
                         if (!_force)
                             break;
                         reached_last_cell = true;
+                    } else if (lag == 0 && !cell.isEmpty()) {
+                        //the oldest expired cell which still holds leases
+                        lag = currentTime - expirationTime.longValue();
                     }
 
-                    ILockObject entryLock = null;
                     Iterator<IEntryHolder> entriesUids = !isSlaveLeaseManagerForEntries() ? cell.mateExpriedEntriesUidsIter(_engine) : null;
                     Iterator<IEntryHolder> n_templatesUids = cell.mateExpriedNotifyTemplatesUidsIter();
-                    Iterator<IEntryHolder> currentIter = entriesUids != null ? entriesUids : n_templatesUids;
 
-                    if (context == null)
-                        context = _cacheManager.getCacheContext();
+                    if (entriesUids != null) {
+                        if (_reaperShardsExecutor == null) {
+                            while (entriesUids.hasNext())
+                                inlineTask.reap(entriesUids.next(), true /*isEntry*/, currentTime);
+                        } else {
+                            if (shardTasks == null)
+                                shardTasks = createShardTasks();
+                            reapOnShards(shardTasks, entriesUids, currentTime);
+                        }
+                    }
+                    if (n_templatesUids != null) {
+                        while (n_templatesUids.hasNext())
+                            inlineTask.reap(n_templatesUids.next(), false /*isEntry*/, currentTime);
+                    }
+                }//for
 
-                    if (_engine.isSyncReplicationEnabled() && _slaveLeaseManagerModeConfiguredForEntries)
-                        context.setSyncReplFromMultipleOperation(true);
+            } catch (Exception ex) {
+                if (_logger.isErrorEnabled()) {
+                    _logger.error(
+                            this.getName()
+                                    + " - caught exception while reaping expired entries.",
+                            ex);
+                }
+            } finally { // graceful shutdown of reaper
+                inlineTask.close();
+                if (shardTasks != null) {
+                    for (ExpiredLeasesReapTask shardTask : shardTasks)
+                        shardTask.close();
+                }
+            }
+
+            int reapCount = inlineTask.getReaped();
+            int detached = inlineTask.getDetached();
+            if (shardTasks != null) {
+                for (ExpiredLeasesReapTask shardTask : shardTasks) {
+                    reapCount += shardTask.getReaped();
+                    detached += shardTask.getDetached();
+                }
+            }
+            _reaperLag = lag;
+            _lastCycleReapedEntries = reapCount;
+            _totalReapedEntries.addAndGet(reapCount);
 
+            if (reapCount > 0) {
+                if (_logger.isDebugEnabled()) {
+                    _logger.debug(this.getName()
+                            + " - Reaped expired leases. [Reaped: " + reapCount
+                            + "]");
+                }
+            }
+            if ((reapCount == 0 && detached > 0) || detached > DETACH_LIMIT_TO_REPORT) {
+                if (_logger.isInfoEnabled()) {
+                    _logger.info(this.getName()
+                            + " - Detached entries exist. [Detached: " + detached
+                            + "]");
+                }
+            }
 
-                    for (; ; ) {
-                        boolean more = currentIter == null ? false : currentIter.hasNext();
-                        if (!more) {
-                            if (currentIter == entriesUids && n_templatesUids != null) {
-                                currentIter = n_templatesUids;
-                                if (currentIter != null)
-                                    more = currentIter.hasNext();
-                            }
-                        }
-                        if (!more)
-                            break;
-                        boolean isEntry = currentIter == entriesUids;
-                        IEntryHolder iter_entry = currentIter.next();
-                        if (iter_entry == null) {
-                            if (isEntry && _cacheManager.isblobStoreDataSpace())
-                                detached++; //in off heap we can't get a "deleted" entry in case of detached
-                            continue;
-                        }
+            //remove empty cell items
+            reapEmptyLeaseCells();
+        }
 
-                        IEntryHolder entry = (isEntry && !iter_entry.isBlobStoreEntry()) ? _cacheManager.getEntryByUidFromPureCache(iter_entry.getUID()) :
-                                iter_entry;
+        private ExpiredLeasesReapTask[] createShardTasks() {
+            ExpiredLeasesReapTask[] shardTasks = new ExpiredLeasesReapTask[_reaperShards];
+            for (int i = 0; i < shardTasks.length; i++)
+                shardTasks[i] = new ExpiredLeasesReapTask();
+            return shardTasks;
+        }
 
-                        if (entry == null) {
-                            if (iter_entry.isDeleted())
-                                detached++;
-                            continue;
-                        }
+        /**
+         * Splits the expired entries by uid between the shard workers, in bounded batches, and
+         * waits for each batch to complete so a cycle still ends only after all of its leases are
+         * handled.
+         */
+        private void reapOnShards(ExpiredLeasesReapTask[] shardTasks, Iterator<IEntryHolder> entries, final long currentTime)
+                throws Exception {
+            List<IEntryHolder>[] batches = new List[shardTasks.length];
+            for (int i = 0; i < batches.length; i++)
+                batches[i] = new ArrayList<IEntryHolder>();
+            int buffered = 0;
+            while (entries.hasNext()) {
+                IEntryHolder entry = entries.next();
+                int shard = entry == null ? 0 : (entry.getUID().hashCode() & Integer.MAX_VALUE) % batches.length;
+                batches[shard].add(entry);
+                if (++buffered >= REAPER_SHARD_BATCH_SIZE * batches.length) {
+                    executeShardBatches(shardTasks, batches, currentTime);
+                    buffered = 0;
+                }
+            }
+            if (buffered > 0)
+                executeShardBatches(shardTasks, batches, currentTime);
+        }
 
-                        boolean non_evictable = (!_cacheManager.isEvictableCachePolicy() || !isEntry);
+        private void executeShardBatches(ExpiredLeasesReapTask[] shardTasks, List<IEntryHolder>[] batches, final long currentTime)
+                throws Exception {
+            List<Future<?>> futures = new ArrayList<Future<?>>(batches.length);
+            for (int i = 0; i < batches.length; i++) {
+                if (batches[i].isEmpty())
+                    continue;
+                final ExpiredLeasesReapTask shardTask = shardTasks[i];
+                final List<IEntryHolder> batch = new ArrayList<IEntryHolder>(batches[i]);
+                batches[i].clear();
+                futures.add(_reaperShardsExecutor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        for (IEntryHolder entry : batch)
+                            shardTask.reap(entry, true /*isEntry*/, currentTime);
+                        return null;
+                    }
+                }));
+            }
+            Exception error = null;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (error == null)
+                        error = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }
+            if (error != null)
+                throw error;
+        }
 
-                        entryLock = _cacheManager
-                                .getLockManager()
-                                .getLockObject(entry, !non_evictable/* isEvictable */);
+        /**
+         * Removes expired leases using a single cache context, replicating the expirations in
+         * chunks. Not thread safe - each shard worker uses its own task.
+         */
+        private final class ExpiredLeasesReapTask {
+            private Context _context;
+            private int _pendingReplication;
+            private int _reaped;
+            private int _detached;
+
+            private int getReaped() {
+                return _reaped;
+            }
+
+            private int getDetached() {
+                return _detached;
+            }
+
+            private void reap(IEntryHolder iter_entry, boolean isEntry, long currentTime) throws Exception {
+                if (iter_entry == null) {
+                    if (isEntry && _cacheManager.isblobStoreDataSpace())
+                        _detached++; //in off heap we can't get a "deleted" entry in case of detached
+                    return;
+                }
+
+                IEntryHolder entry = (isEntry && !iter_entry.isBlobStoreEntry()) ? _cacheManager.getEntryByUidFromPureCache(iter_entry.getUID()) :
+                        iter_entry;
+
+                if (entry == null) {
+                    if (iter_entry.isDeleted())
+                        _detached++;
+                    return;
+                }
+
+                if (_context == null) {
+                    _context = _cacheManager.getCacheContext();
+                    if (_engine.isSyncReplicationEnabled() && _slaveLeaseManagerModeConfiguredForEntries)
+                        _context.setSyncReplFromMultipleOperation(true);
+                }
+                Context context = _context;
 
-                        boolean removedEntry = false;
+                boolean non_evictable = (!_cacheManager.isEvictableCachePolicy() || !isEntry);
 
+                ILockObject entryLock = _cacheManager
+                        .getLockManager()
+                        .getLockObject(entry, !non_evictable/* isEvictable */);
+
+                boolean removedEntry = false;
+
+                try {
+                    boolean needUnpin = false;
+                    IEntryHolder cachedEntry = null;
+                    synchronized (entryLock) {
                         try {
-                            boolean needUnpin = false;
-                            IEntryHolder cachedEntry = null;
-                            synchronized (entryLock) {
+                            if (!isEntry) {
+                                if (entry.isDeleted())
+                                    return; // already deleted
+                                if (!entry.isExpired(currentTime)) {
+                                    return; // not relevant any more
+                                }
+                                if (isSlaveLeaseManagerForNotifyTemplates() && ((NotifyTemplateHolder) entry).isReplicateNotify())
+                                    return;  //slave mode for notify templates
+
+                                context.setOperationID(createOperationIDForLeaseExpirationEvent());
+
+                                _cacheManager.removeTemplate(context, (ITemplateHolder) entry,
+                                        false /* fromRepl */,
+                                        true /*origin*/,
+                                        !(replicateLeaseExpirationEventsForNotifyTemplates() && ((NotifyTemplateHolder) entry).isReplicateNotify()) /*dontReplicate*/,
+                                        TemplateRemoveReasonCodes.LEASE_EXPIRED);
+                            } else {
+                                // verify by getting and checking under
+                                // lock
+                                Context ctx = _cacheManager.getCacheContext();
                                 try {
-                                    if (!isEntry) {
-                                        if (entry.isDeleted())
-                                            continue; // already deleted
-                                        if (!entry.isExpired(currentTime)) {
-                                            continue; // not relevant any more
+                                    if (_cacheManager.isEvictableCachePolicy()) {
+                                        // fix GS-13590
+                                        if (_cacheManager.requiresEvictionReplicationProtection() && !entry.isTransient() && !_cacheManager.getEvictionReplicationsMarkersRepository().isEntryEvictable(entry.getUID(), false /*alreadyLocked*/))
+                                            return; //markers repository- entry cannot be evicted
+
+                                        IEntryCacheInfo pe = null;
+                                        if (_engine.isExpiredEntryStayInSpace(entry)) {//in case expiration is only from eviction-
+                                            pe = _cacheManager.getPEntryByUid(entry.getUID());
+                                            cachedEntry = pe != null ? pe.getEntryHolder(_cacheManager) : null;
+                                            if (pe.isPinned())
+                                                return;
                                         }
-                                        if (isSlaveLeaseManagerForNotifyTemplates() && ((NotifyTemplateHolder) entry).isReplicateNotify())
-                                            continue;  //slave mode for notify templates
-
-                                        context.setOperationID(createOperationIDForLeaseExpirationEvent());
 
-                                        _cacheManager.removeTemplate(context, (ITemplateHolder) entry,
-                                                false /* fromRepl */,
-                                                true /*origin*/,
-                                                !(replicateLeaseExpirationEventsForNotifyTemplates() && ((NotifyTemplateHolder) entry).isReplicateNotify()) /*dontReplicate*/,
-                                                TemplateRemoveReasonCodes.LEASE_EXPIRED);
+                                        cachedEntry = _cacheManager
+                                                .getEntry(ctx,
+                                                        entry,
+                                                        true /* tryInsertToCache */,
+                                                        true /* lockedEntry */, _engine.isExpiredEntryStayInSpace(entry) /*useOnlyCache*/);
+                                        if (cachedEntry != null)
+                                            entry = cachedEntry;
+                                        else
+                                            return; // entry not valid any more
                                     } else {
-                                        // verify by getting and checking under
-                                        // lock
-                                        Context ctx = _cacheManager.getCacheContext();
-                                        try {
-                                            if (_cacheManager.isEvictableCachePolicy()) {
-                                                // fix GS-13590
-                                                if (_cacheManager.requiresEvictionReplicationProtection() && !entry.isTransient() && !_cacheManager.getEvictionReplicationsMarkersRepository().isEntryEvictable(entry.getUID(), false /*alreadyLocked*/))
-                                                    continue; //markers repository- entry cannot be evicted
-
-                                                IEntryCacheInfo pe = null;
-                                                if (_engine.isExpiredEntryStayInSpace(entry)) {//in case expiration is only from eviction-
-                                                    pe = _cacheManager.getPEntryByUid(entry.getUID());
-                                                    cachedEntry = pe != null ? pe.getEntryHolder(_cacheManager) : null;
-                                                    if (pe.isPinned())
-                                                        continue;
-                                                }
-
-                                                cachedEntry = _cacheManager
-                                                        .getEntry(ctx,
-                                                                entry,
-                                                                true /* tryInsertToCache */,
-                                                                true /* lockedEntry */, _engine.isExpiredEntryStayInSpace(entry) /*useOnlyCache*/);
-                                                if (cachedEntry != null)
-                                                    entry = cachedEntry;
-                                                else
-                                                    continue; // entry not valid any more
-                                            } else {
-                                                if (entry.isBlobStoreEntry()) {//bring the full version
-                                                    entry = _cacheManager
-                                                            .getEntry(context,
-                                                                    entry,
-                                                                    true /* tryInsertToCache */,
-                                                                    true /* lockeEntry */,
-                                                                    true /* useOnlyCache */);
-                                                }
-                                            }
-
-                                            if (entry.isDeleted())
-                                                continue; // already deleted
-
-                                            if (!entry.isExpired(currentTime)) {
-                                                needUnpin = true;
-                                                continue; // not relevant any
-                                                // more
-                                            }
-                                            if (isNoReapUnderXtnLeases() && entry.isEntryUnderWriteLockXtn()) {
-                                                needUnpin = true;
-                                                continue; // writelocked under xtn- dot reap it
-                                            }
-
-                                        } finally {
-                                            _cacheManager.freeCacheContext(ctx);
+                                        if (entry.isBlobStoreEntry()) {//bring the full version
+                                            entry = _cacheManager
+                                                    .getEntry(context,
+                                                            entry,
+                                                            true /* tryInsertToCache */,
+                                                            true /* lockeEntry */,
+                                                            true /* useOnlyCache */);
                                         }
-                                        IServerTypeDesc typeDesc = _typeManager.getServerTypeDesc(entry.getClassName());
-                                        context.setOperationID(createOperationIDForLeaseExpirationEvent());
-                                        _engine.removeEntrySA(context, entry, typeDesc,
-                                                false /* fromRepl */,
-                                                true /* origin */,
-                                                SpaceEngine.EntryRemoveReasonCodes.LEASE_EXPIRED /*fromLeaseExpiration*/,
-                                                !replicateLeaseExpirationEventsForEntries() /* disableReplication */,
-                                                true /* disableProcessorCall */,
-                                                false /* disableSADelete */);
-
-                                        removedEntry = true;
-                                    }//entry
-                                } finally {
-                                    //while entry still locked
-                                    if (needUnpin
-                                            && _cacheManager.mayNeedEntriesUnpinning())
-                                        _cacheManager
-                                                .unpinIfNeeded(context, entry,
-                                                        null,
-                                                        null /* pEntry */);
+                                    }
 
-                                }
-                            } /* synchronized(entryLock) */
+                                    if (entry.isDeleted())
+                                        return; // already deleted
 
-                            reapCount++;
-                        } finally {
-                            if (entryLock != null) {
-                                _cacheManager
-                                        .getLockManager()
-                                        .freeLockObject(entryLock);
-                                entryLock = null;
-                            }
-                        }
+                                    if (!entry.isExpired(currentTime)) {
+                                        needUnpin = true;
+                                        return; // not relevant any
+                                        // more
+                                    }
+                                    if (isNoReapUnderXtnLeases() && entry.isEntryUnderWriteLockXtn()) {
+                                        needUnpin = true;
+                                        return; // writelocked under xtn- dot reap it
+                                    }
 
-                        //was entry removed? call direct processor
-                        //performed out of lock!!!!
-                        if (removedEntry) {
-                            try {
-                                _coreProcessor.handleEntryExpiredCoreSA(entry, null/* xtn */, false);
-                            } catch (Exception ex) {
-                                if (_logger.isErrorEnabled()) {
-                                    _logger.error(
-                                            this.getName()
-                                                    + " - failed while handling expiration of entry.",
-                                            ex);
+                                } finally {
+                                    _cacheManager.freeCacheContext(ctx);
                                 }
+                                IServerTypeDesc typeDesc = _typeManager.getServerTypeDesc(entry.getClassName());
+                                context.setOperationID(createOperationIDForLeaseExpirationEvent());
+                                _engine.removeEntrySA(context, entry, typeDesc,
+                                        false /* fromRepl */,
+                                        true /* origin */,
+                                        SpaceEngine.EntryRemoveReasonCodes.LEASE_EXPIRED /*fromLeaseExpiration*/,
+                                        !replicateLeaseExpirationEventsForEntries() /* disableReplication */,
+                                        true /* disableProcessorCall */,
+                                        false /* disableSADelete */);
+
+                                removedEntry = true;
+                            }//entry
+                        } finally {
+                            //while entry still locked
+                            if (needUnpin
+                                    && _cacheManager.mayNeedEntriesUnpinning())
+                                _cacheManager
+                                        .unpinIfNeeded(context, entry,
+                                                null,
+                                                null /* pEntry */);
 
-                                reapCount--;
-                            }
-                        }
-
-                        if (context != null &&
-                                context.getReplicationContext() != null &&
-                                !_spaceImpl.isBackup() &&
-                                _slaveLeaseManagerModeConfiguredForEntries) {
-                            ReplicationPolicy replicationPolicy = _engine.getClusterPolicy().getReplicationPolicy();
-                            int multiOpChunkSize = replicationPolicy.m_SyncReplPolicy.getMultipleOperationChunkSize();
-                            if (multiOpChunkSize != -1 && reapCount >= multiOpChunkSize) {
-                                _engine.performReplication(context); //batch replication
-                                if (_logger.isDebugEnabled())
-                                    _logger.debug(this.getName() + " - Reaped expired leases. [Reaped: " + reapCount + "]");
-                                reapCount = 0;
-                            }
                         }
+                    } /* synchronized(entryLock) */
 
-                    }//for(;;)
-                }//for
-
-            } catch (Exception ex) {
-                if (_logger.isErrorEnabled()) {
-                    _logger.error(
-                            this.getName()
-                                    + " - caught exception while reaping expired entries.",
-                            ex);
+                    _reaped++;
+                    _pendingReplication++;
+                } finally {
+                    _cacheManager
+                            .getLockManager()
+                            .freeLockObject(entryLock);
                 }
-            } finally { // graceful shutdown of reaper
 
-                if (context != null) {
+                //was entry removed? call direct processor
+                //performed out of lock!!!!
+                if (removedEntry) {
                     try {
-                        if (reapCount > 0 && _slaveLeaseManagerModeConfiguredForEntries && !_spaceImpl.isBackup()) {
-                            _engine.performReplication(context); //batch replication
+                        _coreProcessor.handleEntryExpiredCoreSA(entry, null/* xtn */, false);
+                    } catch (Exception ex) {
+                        if (_logger.isErrorEnabled()) {
+                            _logger.error(
+                                    getName()
+                                            + " - failed while handling expiration of entry.",
+                                    ex);
                         }
-                    } finally {
-                        _cacheManager.freeCacheContext(context);
-                        context = null;
+
+                        _reaped--;
+                        _pendingReplication--;
                     }
                 }
-            }
 
-            if (reapCount > 0) {
-                if (_logger.isDebugEnabled()) {
-                    _logger.debug(this.getName()
-                            + " - Reaped expired leases. [Reaped: " + reapCount
-                            + "]");
+                if (context.getReplicationContext() != null &&
+                        !_spaceImpl.isBackup() &&
+                        _slaveLeaseManagerModeConfiguredForEntries) {
+                    ReplicationPolicy replicationPolicy = _engine.getClusterPolicy().getReplicationPolicy();
+                    int multiOpChunkSize = replicationPolicy.m_SyncReplPolicy.getMultipleOperationChunkSize();
+                    if (multiOpChunkSize != -1 && _pendingReplication >= multiOpChunkSize) {
+                        _engine.performReplication(context); //batch replication
+                        if (_logger.isDebugEnabled())
+                            _logger.debug(getName() + " - Reaped expired leases. [Reaped: " + _pendingReplication + "]");
+                        _pendingReplication = 0;
+                    }
                 }
             }
-            if ((reapCount == 0 && detached > 0) || detached > DETACH_LIMIT_TO_REPORT) {
-                if (_logger.isInfoEnabled()) {
-                    _logger.info(this.getName()
-                            + " - Detached entries exist. [Detached: " + detached
-                            + "]");
+
+            /**
+             * Replicates the expirations which were not replicated yet and releases the context.
+             */
+            private void close() {
+                if (_context == null)
+                    return;
+                try {
+                    if (_pendingReplication > 0 && _slaveLeaseManagerModeConfiguredForEntries && !_spaceImpl.isBackup()) {
+                        _engine.performReplication(_context); //batch replication
+                    }
+                } finally {
+                    _cacheManager.freeCacheContext(_context);
+                    _context = null;
+                    _pendingReplication = 0;
                 }
             }
-
-            //remove empty cell items
-            reapEmptyLeaseCells();
         }
 
         private final void reapEmptyLeaseCells() {
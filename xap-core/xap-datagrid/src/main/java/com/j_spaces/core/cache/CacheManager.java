@@ -46,8 +46,10 @@ import com.gigaspaces.internal.server.space.recovery.direct_persistency.Consiste
 import com.gigaspaces.internal.server.space.recovery.direct_persistency.DirectPersistencyRecoveryException;
 import com.gigaspaces.internal.server.space.recovery.direct_persistency.IStorageConsistency;
 import com.gigaspaces.internal.server.space.recovery.direct_persistency.StorageConsistencyModes;
+import com.gigaspaces.internal.server.space.repartitioning.ChunksChangeCapture;
 import com.gigaspaces.internal.server.space.tiered_storage.CachePredicate;
 import com.gigaspaces.internal.server.space.tiered_storage.TieredStorageManager;
+import com.gigaspaces.internal.server.space.tiered_storage.TieredStorageAdmission;
 import com.gigaspaces.internal.server.storage.*;
 import com.gigaspaces.internal.sync.hybrid.SyncHybridStorageAdapter;
 import com.gigaspaces.internal.transport.ITemplatePacket;
@@ -86,6 +88,7 @@ import com.j_spaces.core.cache.blobStore.sadapter.BlobStoreFifoInitialLoader;
 import com.j_spaces.core.cache.blobStore.sadapter.BlobStoreStorageAdapter;
 import com.j_spaces.core.cache.blobStore.sadapter.IBlobStoreStorageAdapter;
 import com.j_spaces.core.cache.blobStore.storage.BlobStoreHashMock;
+import com.j_spaces.core.cache.blobStore.storage.mapped.MappedLogBlobStoreStorageHandler;
 import com.j_spaces.core.cache.context.Context;
 import com.j_spaces.core.cache.context.IndexMetricsContext;
 import com.j_spaces.core.cache.context.TemplateMatchTier;
@@ -832,6 +835,8 @@ public class CacheManager extends AbstractCacheManager
             throw new RuntimeException("invalid eviction strategy value specified " + evictor);
         if (evictor.equalsIgnoreCase(DefaultTimeBasedSpaceEvictionStrategy.class.getName()))
             return new DefaultTimeBasedSpaceEvictionStrategy(configReader);
+        if (evictor.equalsIgnoreCase(SampledLruSpaceEvictionStrategy.class.getName()))
+            return new SampledLruSpaceEvictionStrategy(configReader);
 
         try {
             Class<?> evClass = ClassLoaderHelper.loadClass(evictor);
@@ -875,6 +880,8 @@ public class CacheManager extends AbstractCacheManager
                 Class<?> ohClass = ClassLoaderHelper.loadClass(oh);
                 Object newInstance = ohClass.newInstance();
                 res = (BlobStoreStorageHandler) newInstance;
+                if (res instanceof MappedLogBlobStoreStorageHandler)
+                    ((MappedLogBlobStoreStorageHandler) res).configure(properties);
                 return res;
             } catch (Exception e) {
                 throw new CreateException("Failed to load blob-store storage handler class", e);
@@ -1447,6 +1454,8 @@ public class CacheManager extends AbstractCacheManager
         if (pE == _entryAlreadyInSpaceIndication) {
             throw new EntryAlreadyInSpaceException(entryHolder.getUID(), entryHolder.getClassName());
         }
+        // captured once the entry can be read, so a replay does not miss it
+        captureChunksChange(entryHolder);
 
         if (entryHolder.getXidOriginatedTransaction() == null) {
             try {
@@ -1472,6 +1481,13 @@ public class CacheManager extends AbstractCacheManager
 
         }//if (entryHolder.m_XidOriginated == null)
     }
+
+    private void captureChunksChange(IEntryHolder entryHolder) {
+        final ChunksChangeCapture chunksChangeCapture = _engine.getChunksChangeCapture();
+        if (chunksChangeCapture != null)
+            chunksChangeCapture.onChange(entryHolder);
+    }
+
     /**
      * insert an entry to the space.
      */
@@ -1633,6 +1649,7 @@ public class CacheManager extends AbstractCacheManager
             throw new RuntimeException(ex);
         }
 
+        captureChunksChange(new_eh);
         return new_eh;
 
     }
@@ -2068,7 +2085,9 @@ public class CacheManager extends AbstractCacheManager
         if (leaseExpiration && isTieredStorage()){
             TieredStorageManager tieredStorageManager = _engine.getTieredStorageManager();
             CachePredicate cachePredicate = tieredStorageManager.getCacheRule(entryHolder.getClassName());
-            if (cachePredicate != null && (cachePredicate.isTransient() || cachePredicate.isTimeRule())){
+            // entries of other rules have a lease only if it was set by a time rule which was replaced since
+            if (cachePredicate != null && (cachePredicate.isTransient() || cachePredicate.isTimeRule()
+                    || removeReason == EntryRemoveReasonCodes.LEASE_EXPIRED)){
                 evictByTimeRuleOrByLeaseForTransient = true;
             }
         }
@@ -2151,6 +2170,8 @@ public class CacheManager extends AbstractCacheManager
             //in case of blob-store bulk remove the entry from cache only after the bulk op performed
             removeEntryFromCache(entryHolder, false /*initiatedByEvictionStrategy*/, true/*locked*/, pEntry/* pEntry*/, recentDeleteUsage);
         }
+        if (removeReason != EntryRemoveReasonCodes.EVICT)
+            captureChunksChange(entryHolder);
 
         /** perform sync-repl if need */
         if (!context.isSyncReplFromMultipleOperation() && !context.isDisableSyncReplication() && shouldReplicate /* don't replicate if not needed */) {
@@ -2865,6 +2886,7 @@ public class CacheManager extends AbstractCacheManager
 
 
                 pEntry.getEntryHolder(this).setExpirationTime(time);
+                _engine.getQueryResultCache().onEntryModified(eh.getServerTypeDesc());
                 break;
 
             default: /* Notify Template */
@@ -3496,6 +3518,7 @@ public class CacheManager extends AbstractCacheManager
         } finally {
             if (newEntry)
                 entryHolder.setunStable(false);
+            _engine.getQueryResultCache().onEntryModified(entryHolder.getServerTypeDesc());
         }
     }
 
@@ -3971,6 +3994,7 @@ public class CacheManager extends AbstractCacheManager
             return pEntry;
         } finally {
             pEntry.getEntryHolder(this).setunStable(false);
+            _engine.getQueryResultCache().onEntryModified(entryHolder.getServerTypeDesc());
         }
     }
 
@@ -4067,6 +4091,7 @@ public class CacheManager extends AbstractCacheManager
         TypeData typeData = _typeDataMap.get(entryHolder.getServerTypeDesc());
 
         removeEntryReferences(pEntry, typeData, -1);
+        _engine.getQueryResultCache().onEntryModified(entryHolder.getServerTypeDesc());
 
         //unregister from lease manager
         _leaseManager.unregister(pEntry, entryHolder.getEntryData().getExpirationTime());
@@ -4272,8 +4297,14 @@ public class CacheManager extends AbstractCacheManager
                     return getPEntryByUid(typeData.generateUid(templateValue));
 
                 IStoredList<IEntryCacheInfo> res = primaryKey.getUniqueEntriesStore().get(templateValue);
-                if (res != null && !res.isMultiObjectCollection())
+                if (res != null && !res.isMultiObjectCollection()) {
+                    if (isTieredStorage() && template.isReadOperation()) {
+                        TieredStorageAdmission admission = _engine.getTieredStorageManager().getInternalStorage().getAdmission();
+                        if (admission != null)
+                            admission.onHotRead(currServerTypeDesc.getTypeName(), templateValue);
+                    }
                     return res.getObjectFromHead();
+                }
             }
         }
 
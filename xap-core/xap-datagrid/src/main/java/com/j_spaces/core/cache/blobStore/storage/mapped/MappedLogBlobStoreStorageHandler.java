@@ -0,0 +1,337 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.core.cache.blobStore.storage.mapped;
+
+import com.gigaspaces.datasource.DataIterator;
+import com.gigaspaces.internal.utils.StringUtils;
+import com.gigaspaces.internal.utils.concurrent.GSThread;
+import com.gigaspaces.metrics.Gauge;
+import com.gigaspaces.metrics.MetricRegistrator;
+import com.gigaspaces.server.blobstore.BlobStoreBulkOperationRequest;
+import com.gigaspaces.server.blobstore.BlobStoreBulkOperationResult;
+import com.gigaspaces.server.blobstore.BlobStoreConfig;
+import com.gigaspaces.server.blobstore.BlobStoreGetBulkOperationResult;
+import com.gigaspaces.server.blobstore.BlobStoreObjectType;
+import com.gigaspaces.server.blobstore.BlobStoreStorageHandler;
+import com.gigaspaces.server.blobstore.BlobStoreStorageStatistics;
+import com.gigaspaces.start.SystemLocations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static com.j_spaces.core.Constants.CacheManager.*;
+
+/**
+ * A pure-java blob-store storage handler which appends records to memory-mapped segment files on
+ * local disk, one log per {@link BlobStoreObjectType}. Ids are located through an off-heap index
+ * and a background thread compacts segments which are mostly garbage. <br> Selected by setting
+ * <tt>space-config.engine.blobstore_storage_handler</tt> to this class name, or by injecting a
+ * configured instance.
+ *
+ * @since 16.0
+ */
+@com.gigaspaces.api.ExperimentalApi
+public class MappedLogBlobStoreStorageHandler extends BlobStoreStorageHandler {
+
+    private static final Logger _logger = LoggerFactory.getLogger(com.gigaspaces.logger.Constants.LOGGER_CACHE);
+
+    private String _volumeDir;
+    private long _segmentSize = StringUtils.parseStringAsBytes(CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_SEGMENT_SIZE_DEFAULT);
+    private int _compactionThreshold = Integer.parseInt(CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_COMPACTION_THRESHOLD_DEFAULT);
+    private long _compactionInterval = StringUtils.parseDurationAsMillis(CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_COMPACTION_INTERVAL_DEFAULT);
+    private boolean _syncWrites = Boolean.parseBoolean(CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_SYNC_WRITES_DEFAULT);
+    private int _recoveryParallelism = Runtime.getRuntime().availableProcessors();
+
+    private final Map<BlobStoreObjectType, MappedLogStore> _stores = new EnumMap<BlobStoreObjectType, MappedLogStore>(BlobStoreObjectType.class);
+    private Path _directory;
+    private volatile boolean _closed;
+    private Thread _compactor;
+
+    /**
+     * Applies the <tt>space-config.engine.blobstore_mapped_log_*</tt> space properties, if set.
+     */
+    public void configure(Properties properties) {
+        String dir = properties.getProperty(FULL_CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_DIR_PROP);
+        if (dir != null)
+            setVolumeDir(dir);
+        String segmentSize = properties.getProperty(FULL_CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_SEGMENT_SIZE_PROP);
+        if (segmentSize != null)
+            setSegmentSize(StringUtils.parseStringAsBytes(segmentSize));
+        String threshold = properties.getProperty(FULL_CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_COMPACTION_THRESHOLD_PROP);
+        if (threshold != null)
+            setCompactionThreshold(Integer.parseInt(threshold));
+        String interval = properties.getProperty(FULL_CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_COMPACTION_INTERVAL_PROP);
+        if (interval != null)
+            setCompactionInterval(StringUtils.parseDurationAsMillis(interval));
+        String syncWrites = properties.getProperty(FULL_CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_SYNC_WRITES_PROP);
+        if (syncWrites != null)
+            setSyncWrites(Boolean.parseBoolean(syncWrites));
+    }
+
+    public String getVolumeDir() {
+        return _volumeDir;
+    }
+
+    /**
+     * Sets the directory under which segment files are kept, a sub directory is created per space.
+     * Defaults to the <tt>blobstore</tt> directory under the work location.
+     */
+    public void setVolumeDir(String volumeDir) {
+        this._volumeDir = volumeDir;
+    }
+
+    public long getSegmentSize() {
+        return _segmentSize;
+    }
+
+    public void setSegmentSize(long segmentSize) {
+        if (segmentSize <= MappedLogSegment.HEADER_SIZE || segmentSize > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Illegal segment size " + segmentSize);
+        this._segmentSize = segmentSize;
+    }
+
+    public int getCompactionThreshold() {
+        return _compactionThreshold;
+    }
+
+    /**
+     * Sets the percentage of dead bytes in a sealed segment from which it is compacted.
+     */
+    public void setCompactionThreshold(int compactionThreshold) {
+        if (compactionThreshold <= 0 || compactionThreshold > 100)
+            throw new IllegalArgumentException("Illegal compaction threshold " + compactionThreshold);
+        this._compactionThreshold = compactionThreshold;
+    }
+
+    public long getCompactionInterval() {
+        return _compactionInterval;
+    }
+
+    public void setCompactionInterval(long compactionInterval) {
+        this._compactionInterval = compactionInterval;
+    }
+
+    public boolean isSyncWrites() {
+        return _syncWrites;
+    }
+
+    /**
+     * When set, every operation forces its segment to disk before returning, otherwise flushing
+     * is left to the os.
+     */
+    public void setSyncWrites(boolean syncWrites) {
+        this._syncWrites = syncWrites;
+    }
+
+    public int getRecoveryParallelism() {
+        return _recoveryParallelism;
+    }
+
+    public void setRecoveryParallelism(int recoveryParallelism) {
+        this._recoveryParallelism = recoveryParallelism;
+    }
+
+    @Override
+    public void initialize(BlobStoreConfig blobStoreConfig) {
+        Path root = _volumeDir != null ? Paths.get(_volumeDir) : SystemLocations.singleton().work("blobstore");
+        _directory = root.resolve(blobStoreConfig.getSpaceName().replaceAll("[^A-Za-z0-9_\\-.]", "_"));
+        for (BlobStoreObjectType objectType : BlobStoreObjectType.values()) {
+            MappedLogStore store = new MappedLogStore(objectType, _directory.resolve(objectType.name().toLowerCase()), (int) _segmentSize, _syncWrites);
+            store.open(blobStoreConfig.isWarmStart());
+            _stores.put(objectType, store);
+        }
+        if (blobStoreConfig.getMetricRegistrator() != null)
+            registerMetrics(blobStoreConfig.getMetricRegistrator().extend("mapped-log"));
+
+        _compactor = GSThread.daemon(new Runnable() {
+            @Override
+            public void run() {
+                compactionLoop();
+            }
+        }, "MappedLogCompactor-" + blobStoreConfig.getSpaceName());
+        _compactor.start();
+
+        if (_logger.isInfoEnabled())
+            _logger.info("mapped-log blob-store initialized [directory=" + _directory + ", warmStart=" + blobStoreConfig.isWarmStart() +
+                    ", entries=" + _stores.get(BlobStoreObjectType.DATA).getNumOfEntries() + "]");
+    }
+
+    private void compactionLoop() {
+        double threshold = _compactionThreshold / 100.0;
+        while (!_closed) {
+            try {
+                Thread.sleep(_compactionInterval);
+                for (MappedLogStore store : _stores.values()) {
+                    if (_closed)
+                        return;
+                    int compacted = store.compact(threshold);
+                    if (compacted != 0 && _logger.isDebugEnabled())
+                        _logger.debug("mapped-log blob-store compacted " + compacted + " " + store.getObjectType() + " segments");
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                if (!_closed)
+                    _logger.warn("mapped-log blob-store compaction failed", e);
+            }
+        }
+    }
+
+    private void registerMetrics(MetricRegistrator registrator) {
+        for (final MappedLogStore store : _stores.values()) {
+            MetricRegistrator storeRegistrator = registrator.extend(store.getObjectType().name().toLowerCase());
+            storeRegistrator.register("segments", new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                    return store.getNumOfSegments();
+                }
+            });
+            storeRegistrator.register("entries", new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                    return store.getNumOfEntries();
+                }
+            });
+            storeRegistrator.register("disk-bytes", new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return store.getDiskBytes();
+                }
+            });
+            storeRegistrator.register("live-bytes", new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return store.getLiveBytes();
+                }
+            });
+            storeRegistrator.register("index-bytes", new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return store.getIndexMemoryUsage();
+                }
+            });
+            storeRegistrator.register("compacted-segments", new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return store.getCompactedSegments();
+                }
+            });
+        }
+    }
+
+    @Override
+    public Object add(Serializable id, Serializable data, BlobStoreObjectType objectType) {
+        return _stores.get(objectType).add(id, data);
+    }
+
+    @Override
+    public Serializable get(Serializable id, Object position, BlobStoreObjectType objectType) {
+        return _stores.get(objectType).get(id, position);
+    }
+
+    @Override
+    public Object replace(Serializable id, Serializable data, Object position, BlobStoreObjectType objectType) {
+        return _stores.get(objectType).replace(id, data, position);
+    }
+
+    @Override
+    public Serializable remove(Serializable id, Object position, BlobStoreObjectType objectType) {
+        return _stores.get(objectType).remove(id, position);
+    }
+
+    @Override
+    public List<BlobStoreBulkOperationResult> executeBulk(List<BlobStoreBulkOperationRequest> operations, BlobStoreObjectType objectType, boolean transactional) {
+        return _stores.get(objectType).executeBulk(operations, transactional);
+    }
+
+    @Override
+    public DataIterator<BlobStoreGetBulkOperationResult> iterator(BlobStoreObjectType objectType) {
+        return _stores.get(objectType).iterator(_recoveryParallelism);
+    }
+
+    @Override
+    public Properties getProperties() {
+        Properties properties = new Properties();
+        properties.setProperty(FULL_CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_DIR_PROP, String.valueOf(_directory));
+        properties.setProperty(FULL_CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_SEGMENT_SIZE_PROP, String.valueOf(_segmentSize));
+        properties.setProperty(FULL_CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_COMPACTION_THRESHOLD_PROP, String.valueOf(_compactionThreshold));
+        properties.setProperty(FULL_CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_COMPACTION_INTERVAL_PROP, String.valueOf(_compactionInterval));
+        properties.setProperty(FULL_CACHE_MANAGER_BLOBSTORE_MAPPED_LOG_SYNC_WRITES_PROP, String.valueOf(_syncWrites));
+        return properties;
+    }
+
+    @Override
+    public BlobStoreStorageStatistics getStatistics() {
+        return new BlobStoreStorageStatistics() {
+            @Override
+            public String getName() {
+                return "MappedLog";
+            }
+
+            @Override
+            public Map<String, String> toProperties() {
+                Map<String, String> res = new HashMap<String, String>();
+                for (MappedLogStore store : _stores.values()) {
+                    String prefix = store.getObjectType().name().toLowerCase() + ".";
+                    res.put(prefix + "segments", String.valueOf(store.getNumOfSegments()));
+                    res.put(prefix + "entries", String.valueOf(store.getNumOfEntries()));
+                    res.put(prefix + "disk-bytes", String.valueOf(store.getDiskBytes()));
+                    res.put(prefix + "live-bytes", String.valueOf(store.getLiveBytes()));
+                    res.put(prefix + "relocated-records", String.valueOf(store.getRelocatedRecords()));
+                }
+                return res;
+            }
+        };
+    }
+
+    /**
+     * Runs a compaction cycle on all logs in the calling thread.
+     */
+    public void compact() {
+        for (MappedLogStore store : _stores.values())
+            store.compact(_compactionThreshold / 100.0);
+    }
+
+    @Override
+    public void close() {
+        _closed = true;
+        if (_compactor != null) {
+            _compactor.interrupt();
+            try {
+                _compactor.join(_compactionInterval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (MappedLogStore store : _stores.values())
+            store.close();
+        _stores.clear();
+    }
+
+    @Override
+    public Boolean isPersistent() {
+        return true;
+    }
+}
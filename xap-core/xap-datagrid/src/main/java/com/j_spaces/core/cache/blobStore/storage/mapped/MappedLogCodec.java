@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.core.cache.blobStore.storage.mapped;
+
+import com.gigaspaces.server.blobstore.BlobStoreException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes ids and data stored in mapped log segments. String ids (the common case - entry uids)
+ * are stored as utf-8, anything else falls back to java serialization. Data which is already a
+ * byte array (the blob-store wrapper serializes entries before handing them over) is stored as
+ * is.
+ *
+ * @since 16.0
+ */
+final class MappedLogCodec {
+
+    private static final byte KEY_SERIALIZED = 0;
+    private static final byte KEY_STRING = 1;
+
+    private MappedLogCodec() {
+    }
+
+    static byte[] encodeKey(Serializable id) {
+        if (id instanceof String) {
+            byte[] chars = ((String) id).getBytes(StandardCharsets.UTF_8);
+            byte[] res = new byte[chars.length + 1];
+            res[0] = KEY_STRING;
+            System.arraycopy(chars, 0, res, 1, chars.length);
+            return res;
+        }
+        byte[] serialized = serialize(id);
+        byte[] res = new byte[serialized.length + 1];
+        res[0] = KEY_SERIALIZED;
+        System.arraycopy(serialized, 0, res, 1, serialized.length);
+        return res;
+    }
+
+    static Serializable decodeKey(byte[] key) {
+        if (key[0] == KEY_STRING)
+            return new String(key, 1, key.length - 1, StandardCharsets.UTF_8);
+        return deserialize(key, 1, key.length - 1);
+    }
+
+    static boolean isRaw(Serializable data) {
+        return data instanceof byte[];
+    }
+
+    static byte[] encodeData(Serializable data) {
+        return isRaw(data) ? (byte[]) data : serialize(data);
+    }
+
+    static Serializable decodeData(byte[] data, boolean raw) {
+        return raw ? data : deserialize(data, 0, data.length);
+    }
+
+    private static byte[] serialize(Serializable obj) {
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            ObjectOutputStream oos = new ObjectOutputStream(bos);
+            oos.writeObject(obj);
+            oos.close();
+            return bos.toByteArray();
+        } catch (IOException e) {
+            throw new BlobStoreException("Failed to serialize " + obj, e);
+        }
+    }
+
+    private static Serializable deserialize(byte[] bytes, int offset, int length) {
+        try {
+            ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes, offset, length));
+            try {
+                return (Serializable) ois.readObject();
+            } finally {
+                ois.close();
+            }
+        } catch (IOException e) {
+            throw new BlobStoreException("Failed to deserialize mapped log record", e);
+        } catch (ClassNotFoundException e) {
+            throw new BlobStoreException("Failed to deserialize mapped log record", e);
+        }
+    }
+}
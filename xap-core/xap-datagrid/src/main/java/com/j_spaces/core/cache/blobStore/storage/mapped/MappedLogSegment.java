@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.core.cache.blobStore.storage.mapped;
+
+import com.gigaspaces.server.blobstore.BlobStoreException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A single append-only, memory-mapped segment file of a {@link MappedLogStore}. <br> Record
+ * layout: [int record length][byte flags][int id hash][int key length][key bytes][data bytes].
+ * Records are never rewritten in place - replacing or removing an id only clears the live flag of
+ * its current record, the space is reclaimed by compaction. <br> Not thread safe - access is
+ * guarded by the owning store's lock.
+ *
+ * @since 16.0
+ */
+final class MappedLogSegment {
+
+    static final int HEADER_SIZE = 4 + 1 + 4 + 4;
+
+    private static final int FLAGS_OFFSET = 4;
+    private static final int HASH_OFFSET = 5;
+    private static final int KEY_LENGTH_OFFSET = 9;
+
+    private static final byte FLAG_LIVE = 1;
+    private static final byte FLAG_RAW = 2;
+
+    private final int _id;
+    private final Path _file;
+    private final FileChannel _channel;
+    private final MappedByteBuffer _buffer;
+    private final int _capacity;
+
+    private int _writePosition;
+    private long _liveBytes;
+    private int _liveRecords;
+    private boolean _sealed;
+
+    private MappedLogSegment(int id, Path file, FileChannel channel, int capacity) throws IOException {
+        _id = id;
+        _file = file;
+        _channel = channel;
+        _capacity = capacity;
+        _buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    static MappedLogSegment create(Path file, int id, int capacity) {
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new MappedLogSegment(id, file, channel, capacity);
+        } catch (IOException e) {
+            throw new BlobStoreException("Failed to create mapped log segment " + file, e);
+        }
+    }
+
+    /**
+     * Opens an existing segment. The caller is expected to {@link #recover(RecordVisitor)} it
+     * before appending.
+     */
+    static MappedLogSegment open(Path file, int id) {
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new BlobStoreException("Mapped log segment " + file + " is too large [" + size + "]");
+            return new MappedLogSegment(id, file, channel, (int) size);
+        } catch (IOException e) {
+            throw new BlobStoreException("Failed to open mapped log segment " + file, e);
+        }
+    }
+
+    static int recordSize(int keyLength, int dataLength) {
+        return HEADER_SIZE + keyLength + dataLength;
+    }
+
+    int getId() {
+        return _id;
+    }
+
+    int getCapacity() {
+        return _capacity;
+    }
+
+    int getWritePosition() {
+        return _writePosition;
+    }
+
+    long getLiveBytes() {
+        return _liveBytes;
+    }
+
+    int getLiveRecords() {
+        return _liveRecords;
+    }
+
+    boolean isSealed() {
+        return _sealed;
+    }
+
+    void seal() {
+        _sealed = true;
+    }
+
+    /**
+     * Returns the fraction of the written bytes which are occupied by dead records.
+     */
+    double getGarbageRatio() {
+        return _writePosition == 0 ? 0 : 1 - ((double) _liveBytes / _writePosition);
+    }
+
+    boolean hasRoom(int recordSize) {
+        return !_sealed && _capacity - _writePosition >= recordSize;
+    }
+
+    int append(int hash, byte[] key, byte[] data, boolean raw) {
+        int size = recordSize(key.length, data.length);
+        if (!hasRoom(size))
+            throw new BlobStoreException("Mapped log segment " + _file + " has no room for a record of size " + size);
+        int offset = _writePosition;
+        ByteBuffer buffer = _buffer.duplicate();
+        //the length is written last so a record torn by a crash reads as the end of the segment
+        buffer.position(offset + FLAGS_OFFSET);
+        buffer.put((byte) (raw ? FLAG_LIVE | FLAG_RAW : FLAG_LIVE));
+        buffer.putInt(hash);
+        buffer.putInt(key.length);
+        buffer.put(key);
+        buffer.put(data);
+        _buffer.putInt(offset, size);
+        _writePosition += size;
+        _liveBytes += size;
+        _liveRecords++;
+        return offset;
+    }
+
+    boolean isValidOffset(int offset) {
+        return offset >= 0 && offset + HEADER_SIZE <= _writePosition;
+    }
+
+    boolean isLive(int offset) {
+        return (_buffer.get(offset + FLAGS_OFFSET) & FLAG_LIVE) != 0;
+    }
+
+    boolean isRaw(int offset) {
+        return (_buffer.get(offset + FLAGS_OFFSET) & FLAG_RAW) != 0;
+    }
+
+    int getRecordSize(int offset) {
+        return _buffer.getInt(offset);
+    }
+
+    int getHash(int offset) {
+        return _buffer.getInt(offset + HASH_OFFSET);
+    }
+
+    void kill(int offset) {
+        byte flags = _buffer.get(offset + FLAGS_OFFSET);
+        if ((flags & FLAG_LIVE) == 0)
+            return;
+        _buffer.put(offset + FLAGS_OFFSET, (byte) (flags & ~FLAG_LIVE));
+        _liveBytes -= getRecordSize(offset);
+        _liveRecords--;
+    }
+
+    boolean keyEquals(int offset, byte[] key) {
+        if (_buffer.getInt(offset + KEY_LENGTH_OFFSET) != key.length)
+            return false;
+        return Arrays.equals(readKey(offset), key);
+    }
+
+    byte[] readKey(int offset) {
+        int keyLength = _buffer.getInt(offset + KEY_LENGTH_OFFSET);
+        return read(offset + HEADER_SIZE, keyLength);
+    }
+
+    byte[] readData(int offset) {
+        int keyLength = _buffer.getInt(offset + KEY_LENGTH_OFFSET);
+        int dataLength = getRecordSize(offset) - HEADER_SIZE - keyLength;
+        return read(offset + HEADER_SIZE + keyLength, dataLength);
+    }
+
+    private byte[] read(int position, int length) {
+        byte[] res = new byte[length];
+        ByteBuffer buffer = _buffer.duplicate();
+        buffer.position(position);
+        buffer.get(res);
+        return res;
+    }
+
+    /**
+     * Scans the segment from its start, restores the write position and live counters and
+     * reports each live record to the visitor.
+     */
+    void recover(RecordVisitor visitor) {
+        int offset = 0;
+        _liveBytes = 0;
+        _liveRecords = 0;
+        while (offset + HEADER_SIZE <= _capacity) {
+            int size = _buffer.getInt(offset);
+            //zero length marks the end of the written area, anything else out of bounds is a torn write
+            if (size < HEADER_SIZE || offset + size > _capacity)
+                break;
+            if (isLive(offset)) {
+                _liveBytes += size;
+                _liveRecords++;
+                visitor.onRecord(this, offset);
+            }
+            offset += size;
+        }
+        _writePosition = offset;
+    }
+
+    void force() {
+        _buffer.force();
+    }
+
+    void close() {
+        try {
+            _channel.close();
+        } catch (IOException e) {
+            throw new BlobStoreException("Failed to close mapped log segment " + _file, e);
+        }
+    }
+
+    void delete() {
+        close();
+        try {
+            Files.deleteIfExists(_file);
+        } catch (IOException e) {
+            throw new BlobStoreException("Failed to delete mapped log segment " + _file, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MappedLogSegment[" + _file + ", written=" + _writePosition + ", live=" + _liveBytes + "]";
+    }
+
+    interface RecordVisitor {
+        void onRecord(MappedLogSegment segment, int offset);
+    }
+}
@@ -0,0 +1,611 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.core.cache.blobStore.storage.mapped;
+
+import com.gigaspaces.datasource.DataIterator;
+import com.gigaspaces.server.blobstore.BlobStoreAddBulkOperationResult;
+import com.gigaspaces.server.blobstore.BlobStoreBulkOperationRequest;
+import com.gigaspaces.server.blobstore.BlobStoreBulkOperationResult;
+import com.gigaspaces.server.blobstore.BlobStoreBulkOperationType;
+import com.gigaspaces.server.blobstore.BlobStoreException;
+import com.gigaspaces.server.blobstore.BlobStoreGetBulkOperationResult;
+import com.gigaspaces.server.blobstore.BlobStoreObjectType;
+import com.gigaspaces.server.blobstore.BlobStoreRemoveBulkOperationResult;
+import com.gigaspaces.server.blobstore.BlobStoreReplaceBulkOperationResult;
+import com.j_spaces.core.cache.blobStore.storage.BlobStoreSegmentedParallelIterator;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The log of a single {@link BlobStoreObjectType}: a list of memory-mapped segments which records
+ * are appended to, and an off-heap index from id to the position of its live record. <br> A
+ * position is the segment id in the high 32 bits and the record offset in the low 32 bits. Since
+ * compaction relocates records, positions handed out to the cache are only hints - they are
+ * verified against the record's id before use and the index is consulted when stale.
+ *
+ * @since 16.0
+ */
+final class MappedLogStore {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int COMPACTION_BATCH_SIZE = 256;
+
+    private final BlobStoreObjectType _objectType;
+    private final Path _directory;
+    private final int _segmentSize;
+    private final boolean _syncWrites;
+
+    private final ReentrantReadWriteLock _lock = new ReentrantReadWriteLock();
+    private final TreeMap<Integer, MappedLogSegment> _segments = new TreeMap<Integer, MappedLogSegment>();
+    private final OffHeapPositionIndex _index = new OffHeapPositionIndex();
+    private final AtomicInteger _openIterators = new AtomicInteger();
+    private final AtomicLong _compactedSegments = new AtomicLong();
+    private final AtomicLong _relocatedRecords = new AtomicLong();
+    private MappedLogSegment _active;
+    private int _nextSegmentId = 1;
+
+    MappedLogStore(BlobStoreObjectType objectType, Path directory, int segmentSize, boolean syncWrites) {
+        _objectType = objectType;
+        _directory = directory;
+        _segmentSize = segmentSize;
+        _syncWrites = syncWrites;
+    }
+
+    BlobStoreObjectType getObjectType() {
+        return _objectType;
+    }
+
+    /**
+     * Opens the store - existing segments are recovered on warm start and discarded otherwise.
+     */
+    void open(boolean warmStart) {
+        try {
+            Files.createDirectories(_directory);
+            TreeMap<Integer, Path> files = new TreeMap<Integer, Path>();
+            DirectoryStream<Path> stream = Files.newDirectoryStream(_directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX);
+            try {
+                for (Path file : stream) {
+                    String name = file.getFileName().toString();
+                    files.put(Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())), file);
+                }
+            } finally {
+                stream.close();
+            }
+            if (!warmStart) {
+                for (Path file : files.values())
+                    Files.delete(file);
+                return;
+            }
+            for (Map.Entry<Integer, Path> file : files.entrySet()) {
+                MappedLogSegment segment = MappedLogSegment.open(file.getValue(), file.getKey());
+                _segments.put(segment.getId(), segment);
+                segment.recover(new MappedLogSegment.RecordVisitor() {
+                    @Override
+                    public void onRecord(MappedLogSegment segment, int offset) {
+                        recoverRecord(segment, offset);
+                    }
+                });
+                segment.seal();
+                _nextSegmentId = segment.getId() + 1;
+            }
+        } catch (IOException e) {
+            throw new BlobStoreException("Failed to open mapped log store " + _directory, e);
+        }
+    }
+
+    private void recoverRecord(MappedLogSegment segment, int offset) {
+        final byte[] key = segment.readKey(offset);
+        int hash = segment.getHash(offset);
+        long position = toPosition(segment.getId(), offset);
+        //a crash between appending a replacement and killing the original leaves both live - the later one wins
+        long existing = _index.get(hash, matcher(key));
+        if (existing == OffHeapPositionIndex.NO_POSITION) {
+            _index.put(hash, position);
+        } else {
+            _segments.get(segmentId(existing)).kill(offset(existing));
+            _index.replace(hash, existing, position);
+        }
+    }
+
+    void close() {
+        _lock.writeLock().lock();
+        try {
+            for (MappedLogSegment segment : _segments.values()) {
+                segment.force();
+                segment.close();
+            }
+            _segments.clear();
+            _index.clear();
+            _active = null;
+        } finally {
+            _lock.writeLock().unlock();
+        }
+    }
+
+    Object add(Serializable id, Serializable data) {
+        byte[] key = MappedLogCodec.encodeKey(id);
+        byte[] bytes = MappedLogCodec.encodeData(data);
+        boolean raw = MappedLogCodec.isRaw(data);
+        _lock.writeLock().lock();
+        try {
+            Long position = addImpl(id, id.hashCode(), key, bytes, raw);
+            sync();
+            return position;
+        } finally {
+            _lock.writeLock().unlock();
+        }
+    }
+
+    Serializable get(Serializable id, Object position) {
+        byte[] key = MappedLogCodec.encodeKey(id);
+        _lock.readLock().lock();
+        try {
+            long current = locate(id.hashCode(), key, position);
+            return current == OffHeapPositionIndex.NO_POSITION ? null : readData(current);
+        } finally {
+            _lock.readLock().unlock();
+        }
+    }
+
+    Object replace(Serializable id, Serializable data, Object position) {
+        byte[] key = MappedLogCodec.encodeKey(id);
+        byte[] bytes = MappedLogCodec.encodeData(data);
+        boolean raw = MappedLogCodec.isRaw(data);
+        _lock.writeLock().lock();
+        try {
+            Long newPosition = replaceImpl(id, id.hashCode(), key, bytes, raw, position);
+            sync();
+            return newPosition;
+        } finally {
+            _lock.writeLock().unlock();
+        }
+    }
+
+    Serializable remove(Serializable id, Object position) {
+        byte[] key = MappedLogCodec.encodeKey(id);
+        _lock.writeLock().lock();
+        try {
+            Serializable data = removeImpl(id, id.hashCode(), key, position);
+            sync();
+            return data;
+        } finally {
+            _lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Executes the whole bulk under a single lock acquisition with a single sync. When
+     * transactional, the bulk is validated against the current content before anything is
+     * applied, so a failing bulk leaves the store untouched.
+     */
+    List<BlobStoreBulkOperationResult> executeBulk(List<BlobStoreBulkOperationRequest> operations, boolean transactional) {
+        int size = operations.size();
+        byte[][] keys = new byte[size][];
+        byte[][] data = new byte[size][];
+        for (int i = 0; i < size; i++) {
+            BlobStoreBulkOperationRequest request = operations.get(i);
+            keys[i] = MappedLogCodec.encodeKey(request.getId());
+            if (request.getOpType() == BlobStoreBulkOperationType.ADD || request.getOpType() == BlobStoreBulkOperationType.REPLACE)
+                data[i] = MappedLogCodec.encodeData(request.getData());
+        }
+
+        List<BlobStoreBulkOperationResult> result = new ArrayList<BlobStoreBulkOperationResult>(size);
+        _lock.writeLock().lock();
+        try {
+            if (transactional)
+                validateBulk(operations, keys);
+            for (int i = 0; i < size; i++) {
+                BlobStoreBulkOperationRequest request = operations.get(i);
+                Serializable id = request.getId();
+                int hash = id.hashCode();
+                try {
+                    switch (request.getOpType()) {
+                        case ADD:
+                            result.add(new BlobStoreAddBulkOperationResult(id, addImpl(id, hash, keys[i], data[i], MappedLogCodec.isRaw(request.getData()))));
+                            break;
+                        case REPLACE:
+                            result.add(new BlobStoreReplaceBulkOperationResult(id, replaceImpl(id, hash, keys[i], data[i], MappedLogCodec.isRaw(request.getData()), request.getPosition()), request.getOffHeapInfo()));
+                            break;
+                        case REMOVE:
+                            removeImpl(id, hash, keys[i], request.getPosition());
+                            result.add(new BlobStoreRemoveBulkOperationResult(id));
+                            break;
+                        case GET:
+                            long position = locate(hash, keys[i], request.getPosition());
+                            Serializable value = position == OffHeapPositionIndex.NO_POSITION ? null : readData(position);
+                            result.add(new BlobStoreGetBulkOperationResult(id, value, position == OffHeapPositionIndex.NO_POSITION ? null : position, request.getOffHeapInfo()));
+                            break;
+                    }
+                } catch (RuntimeException e) {
+                    if (transactional)
+                        throw e;
+                    result.add(createFailedResult(request, e));
+                }
+            }
+            sync();
+        } finally {
+            _lock.writeLock().unlock();
+        }
+        return result;
+    }
+
+    private void validateBulk(List<BlobStoreBulkOperationRequest> operations, byte[][] keys) {
+        //tracks the existence of ids already touched by earlier operations of the bulk
+        Map<ByteBuffer, Boolean> touched = new HashMap<ByteBuffer, Boolean>();
+        for (int i = 0; i < operations.size(); i++) {
+            BlobStoreBulkOperationRequest request = operations.get(i);
+            if (request.getOpType() == BlobStoreBulkOperationType.GET)
+                continue;
+            ByteBuffer key = ByteBuffer.wrap(keys[i]);
+            Boolean exists = touched.get(key);
+            if (exists == null)
+                exists = locate(request.getId().hashCode(), keys[i], request.getPosition()) != OffHeapPositionIndex.NO_POSITION;
+            if (request.getOpType() == BlobStoreBulkOperationType.ADD && exists)
+                throw new BlobStoreException("transactional bulk failed - key already exist " + request.getId());
+            if (request.getOpType() != BlobStoreBulkOperationType.ADD && !exists)
+                throw new BlobStoreException("transactional bulk failed - no key exist " + request.getId());
+            touched.put(key, request.getOpType() != BlobStoreBulkOperationType.REMOVE);
+        }
+    }
+
+    private static BlobStoreBulkOperationResult createFailedResult(BlobStoreBulkOperationRequest request, Throwable e) {
+        switch (request.getOpType()) {
+            case ADD:
+                return new BlobStoreAddBulkOperationResult(request.getId(), e);
+            case REPLACE:
+                return new BlobStoreReplaceBulkOperationResult(request.getId(), e);
+            case REMOVE:
+                return new BlobStoreRemoveBulkOperationResult(request.getId(), e);
+            default:
+                return new BlobStoreGetBulkOperationResult(request.getId(), e);
+        }
+    }
+
+    private Long addImpl(Serializable id, int hash, byte[] key, byte[] data, boolean raw) {
+        if (locate(hash, key, null) != OffHeapPositionIndex.NO_POSITION)
+            throw new BlobStoreException("key already exist " + id);
+        long position = append(hash, key, data, raw);
+        _index.put(hash, position);
+        return position;
+    }
+
+    private Long replaceImpl(Serializable id, int hash, byte[] key, byte[] data, boolean raw, Object positionHint) {
+        long current = locate(hash, key, positionHint);
+        if (current == OffHeapPositionIndex.NO_POSITION)
+            throw new BlobStoreException("no key exist " + id);
+        long position = append(hash, key, data, raw);
+        _segments.get(segmentId(current)).kill(offset(current));
+        _index.replace(hash, current, position);
+        return position;
+    }
+
+    private Serializable removeImpl(Serializable id, int hash, byte[] key, Object positionHint) {
+        long current = locate(hash, key, positionHint);
+        if (current == OffHeapPositionIndex.NO_POSITION)
+            throw new BlobStoreException("remove: didn't find object with id=" + id);
+        Serializable data = readData(current);
+        _segments.get(segmentId(current)).kill(offset(current));
+        _index.remove(hash, current);
+        return data;
+    }
+
+    private long locate(int hash, byte[] key, Object positionHint) {
+        if (positionHint instanceof Long) {
+            long hint = (Long) positionHint;
+            if (isLiveRecordOf(hint, key))
+                return hint;
+        }
+        return _index.get(hash, matcher(key));
+    }
+
+    private OffHeapPositionIndex.PositionMatcher matcher(final byte[] key) {
+        return new OffHeapPositionIndex.PositionMatcher() {
+            @Override
+            public boolean matches(long position) {
+                return _segments.get(segmentId(position)).keyEquals(offset(position), key);
+            }
+        };
+    }
+
+    private boolean isLiveRecordOf(long position, byte[] key) {
+        MappedLogSegment segment = _segments.get(segmentId(position));
+        int offset = offset(position);
+        return segment != null && segment.isValidOffset(offset) && segment.isLive(offset) && segment.keyEquals(offset, key);
+    }
+
+    private Serializable readData(long position) {
+        MappedLogSegment segment = _segments.get(segmentId(position));
+        int offset = offset(position);
+        return MappedLogCodec.decodeData(segment.readData(offset), segment.isRaw(offset));
+    }
+
+    private long append(int hash, byte[] key, byte[] data, boolean raw) {
+        int size = MappedLogSegment.recordSize(key.length, data.length);
+        if (_active == null || !_active.hasRoom(size))
+            rollSegment(size);
+        return toPosition(_active.getId(), _active.append(hash, key, data, raw));
+    }
+
+    private void rollSegment(int recordSize) {
+        if (_active != null) {
+            _active.force();
+            _active.seal();
+        }
+        int id = _nextSegmentId++;
+        Path file = _directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        _active = MappedLogSegment.create(file, id, Math.max(_segmentSize, recordSize));
+        _segments.put(id, _active);
+    }
+
+    private void sync() {
+        if (_syncWrites && _active != null)
+            _active.force();
+    }
+
+    /**
+     * Relocates the live records of sealed segments whose garbage ratio reached the threshold and
+     * deletes them. The lock is released between batches so foreground operations are not
+     * starved. Skipped while iterators are open since they scan a snapshot of the segments.
+     *
+     * @return number of segments compacted
+     */
+    int compact(double garbageThreshold) {
+        if (_openIterators.get() != 0)
+            return 0;
+        List<MappedLogSegment> candidates = new ArrayList<MappedLogSegment>();
+        _lock.readLock().lock();
+        try {
+            for (MappedLogSegment segment : _segments.values())
+                if (segment.isSealed() && segment != _active && segment.getGarbageRatio() >= garbageThreshold)
+                    candidates.add(segment);
+        } finally {
+            _lock.readLock().unlock();
+        }
+
+        int compacted = 0;
+        for (MappedLogSegment segment : candidates) {
+            if (_openIterators.get() != 0)
+                break;
+            compactSegment(segment);
+            compacted++;
+        }
+        return compacted;
+    }
+
+    private void compactSegment(MappedLogSegment segment) {
+        int offset = 0;
+        boolean done = false;
+        while (!done) {
+            _lock.writeLock().lock();
+            try {
+                //an iterator opened mid-way scans a snapshot which must stay intact, resume on a later cycle
+                if (_openIterators.get() != 0)
+                    return;
+                for (int i = 0; i < COMPACTION_BATCH_SIZE && !(done = offset >= segment.getWritePosition()); i++) {
+                    if (segment.isLive(offset)) {
+                        int hash = segment.getHash(offset);
+                        long current = toPosition(segment.getId(), offset);
+                        long position = append(hash, segment.readKey(offset), segment.readData(offset), segment.isRaw(offset));
+                        segment.kill(offset);
+                        _index.replace(hash, current, position);
+                        _relocatedRecords.incrementAndGet();
+                    }
+                    offset += segment.getRecordSize(offset);
+                }
+                if (done) {
+                    sync();
+                    _segments.remove(segment.getId());
+                    segment.delete();
+                    _compactedSegments.incrementAndGet();
+                }
+            } finally {
+                _lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Creates an iterator over the live records. Segments are split among up to {@code
+     * parallelism} loaders which scan them concurrently through {@link
+     * BlobStoreSegmentedParallelIterator}.
+     */
+    DataIterator<BlobStoreGetBulkOperationResult> iterator(int parallelism) {
+        final List<List<MappedLogSegment>> groups = new ArrayList<List<MappedLogSegment>>();
+        _lock.readLock().lock();
+        try {
+            int numGroups = Math.max(1, Math.min(parallelism, _segments.size()));
+            for (int i = 0; i < numGroups; i++)
+                groups.add(new ArrayList<MappedLogSegment>());
+            int i = 0;
+            for (MappedLogSegment segment : _segments.values())
+                groups.get(i++ % numGroups).add(segment);
+        } finally {
+            _lock.readLock().unlock();
+        }
+        _openIterators.incrementAndGet();
+        return new ParallelIterator(groups);
+    }
+
+    int getNumOfSegments() {
+        _lock.readLock().lock();
+        try {
+            return _segments.size();
+        } finally {
+            _lock.readLock().unlock();
+        }
+    }
+
+    long getDiskBytes() {
+        _lock.readLock().lock();
+        try {
+            long res = 0;
+            for (MappedLogSegment segment : _segments.values())
+                res += segment.getCapacity();
+            return res;
+        } finally {
+            _lock.readLock().unlock();
+        }
+    }
+
+    long getLiveBytes() {
+        _lock.readLock().lock();
+        try {
+            long res = 0;
+            for (MappedLogSegment segment : _segments.values())
+                res += segment.getLiveBytes();
+            return res;
+        } finally {
+            _lock.readLock().unlock();
+        }
+    }
+
+    int getNumOfEntries() {
+        _lock.readLock().lock();
+        try {
+            return _index.size();
+        } finally {
+            _lock.readLock().unlock();
+        }
+    }
+
+    long getIndexMemoryUsage() {
+        _lock.readLock().lock();
+        try {
+            return _index.getMemoryUsage();
+        } finally {
+            _lock.readLock().unlock();
+        }
+    }
+
+    long getCompactedSegments() {
+        return _compactedSegments.get();
+    }
+
+    long getRelocatedRecords() {
+        return _relocatedRecords.get();
+    }
+
+    static long toPosition(int segmentId, int offset) {
+        return ((long) segmentId << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    static int segmentId(long position) {
+        return (int) (position >>> 32);
+    }
+
+    static int offset(long position) {
+        return (int) position;
+    }
+
+    private class ParallelIterator extends BlobStoreSegmentedParallelIterator {
+        private final List<List<MappedLogSegment>> _groups;
+        private final AtomicBoolean _closed = new AtomicBoolean();
+
+        ParallelIterator(List<List<MappedLogSegment>> groups) {
+            super(groups.size());
+            _groups = groups;
+        }
+
+        @Override
+        public DataIterator<BlobStoreGetBulkOperationResult> createDataIteratorForSegmen(int segmentNumber) {
+            return new SegmentsIterator(_groups.get(segmentNumber));
+        }
+
+        @Override
+        public BlobStoreGetBulkOperationResult next() {
+            BlobStoreGetBulkOperationResult res = super.next();
+            if (res == null)
+                close();
+            return res;
+        }
+
+        @Override
+        public void close() {
+            if (_closed.compareAndSet(false, true))
+                _openIterators.decrementAndGet();
+        }
+    }
+
+    /**
+     * Scans a group of segments one after the other, one record per lock acquisition.
+     */
+    private class SegmentsIterator implements DataIterator<BlobStoreGetBulkOperationResult> {
+        private final List<MappedLogSegment> _segmentsToScan;
+        private int _current;
+        private int _offset;
+        private boolean _finished;
+
+        SegmentsIterator(List<MappedLogSegment> segments) {
+            _segmentsToScan = segments;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !_finished;
+        }
+
+        @Override
+        public BlobStoreGetBulkOperationResult next() {
+            while (_current < _segmentsToScan.size()) {
+                MappedLogSegment segment = _segmentsToScan.get(_current);
+                _lock.readLock().lock();
+                try {
+                    while (_offset < segment.getWritePosition()) {
+                        int offset = _offset;
+                        _offset += segment.getRecordSize(offset);
+                        if (segment.isLive(offset)) {
+                            Serializable id = MappedLogCodec.decodeKey(segment.readKey(offset));
+                            Serializable data = MappedLogCodec.decodeData(segment.readData(offset), segment.isRaw(offset));
+                            return new BlobStoreGetBulkOperationResult(id, data, toPosition(segment.getId(), offset), null);
+                        }
+                    }
+                } finally {
+                    _lock.readLock().unlock();
+                }
+                _current++;
+                _offset = 0;
+            }
+            _finished = true;
+            return null;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            _finished = true;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.core.cache.blobStore.storage.mapped;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An open-addressing (linear probing) hash table from id hash to record position, kept in direct
+ * buffers so that the index of a store much larger than the heap does not burden the gc. <br> Only
+ * the hash is kept - the id itself lives in the record, so a lookup verifies candidates through a
+ * {@link PositionMatcher}. Position 0 is reserved as the empty slot marker. <br> Not thread safe -
+ * access is guarded by the owning store's lock.
+ *
+ * @since 16.0
+ */
+final class OffHeapPositionIndex {
+
+    static final long NO_POSITION = 0;
+
+    private static final long REMOVED = -1;
+    private static final int SLOT_SIZE = 16;
+    private static final int MAX_PAGE_SHIFT = 16;
+    private static final int MIN_CAPACITY = 1 << 10;
+    private static final double MAX_LOAD = 0.75;
+
+    private ByteBuffer[] _pages;
+    private int _pageShift;
+    private int _capacity;
+    private int _size;
+    private int _removed;
+
+    OffHeapPositionIndex() {
+        allocate(MIN_CAPACITY);
+    }
+
+    int size() {
+        return _size;
+    }
+
+    long getMemoryUsage() {
+        return (long) _capacity * SLOT_SIZE;
+    }
+
+    /**
+     * Returns the first position stored for the hash which the matcher accepts, or {@link
+     * #NO_POSITION}.
+     */
+    long get(int hash, PositionMatcher matcher) {
+        int mask = _capacity - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            long position = position(slot);
+            if (position == NO_POSITION)
+                return NO_POSITION;
+            if (position != REMOVED && hash(slot) == hash && matcher.matches(position))
+                return position;
+        }
+    }
+
+    /**
+     * Adds a position for the hash. The caller is responsible for not adding the same id twice.
+     */
+    void put(int hash, long position) {
+        if (_size + _removed + 1 > _capacity * MAX_LOAD)
+            rehash(_size + 1 > _capacity * MAX_LOAD / 2 ? _capacity * 2 : _capacity);
+        int mask = _capacity - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            long current = position(slot);
+            if (current == NO_POSITION || current == REMOVED) {
+                if (current == REMOVED)
+                    _removed--;
+                set(slot, hash, position);
+                _size++;
+                return;
+            }
+        }
+    }
+
+    boolean replace(int hash, long oldPosition, long newPosition) {
+        int slot = find(hash, oldPosition);
+        if (slot == -1)
+            return false;
+        set(slot, hash, newPosition);
+        return true;
+    }
+
+    boolean remove(int hash, long position) {
+        int slot = find(hash, position);
+        if (slot == -1)
+            return false;
+        set(slot, 0, REMOVED);
+        _size--;
+        _removed++;
+        return true;
+    }
+
+    void clear() {
+        allocate(MIN_CAPACITY);
+    }
+
+    private int find(int hash, long position) {
+        int mask = _capacity - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            long current = position(slot);
+            if (current == NO_POSITION)
+                return -1;
+            if (current == position)
+                return slot;
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        ByteBuffer[] oldPages = _pages;
+        int oldPageShift = _pageShift;
+        int oldCapacity = _capacity;
+        allocate(newCapacity);
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            ByteBuffer page = oldPages[slot >>> oldPageShift];
+            int offset = (slot & ((1 << oldPageShift) - 1)) * SLOT_SIZE;
+            long position = page.getLong(offset);
+            if (position != NO_POSITION && position != REMOVED)
+                put(page.getInt(offset + 8), position);
+        }
+    }
+
+    private void allocate(int capacity) {
+        _capacity = capacity;
+        _pageShift = Math.min(MAX_PAGE_SHIFT, Integer.numberOfTrailingZeros(capacity));
+        int pageSlots = 1 << _pageShift;
+        _pages = new ByteBuffer[capacity / pageSlots];
+        for (int i = 0; i < _pages.length; i++)
+            _pages[i] = ByteBuffer.allocateDirect(pageSlots * SLOT_SIZE);
+        _size = 0;
+        _removed = 0;
+    }
+
+    private long position(int slot) {
+        return _pages[slot >>> _pageShift].getLong(offset(slot));
+    }
+
+    private int hash(int slot) {
+        return _pages[slot >>> _pageShift].getInt(offset(slot) + 8);
+    }
+
+    private void set(int slot, int hash, long position) {
+        ByteBuffer page = _pages[slot >>> _pageShift];
+        int offset = offset(slot);
+        page.putLong(offset, position);
+        page.putInt(offset + 8, hash);
+    }
+
+    private int offset(int slot) {
+        return (slot & ((1 << _pageShift) - 1)) * SLOT_SIZE;
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    interface PositionMatcher {
+        boolean matches(long position);
+    }
+}
@@ -463,6 +463,9 @@ public class SpaceFinder {
             String property = customProperties.getProperty(Constants.Replication.GATEWAY_PROXY);
             if (Boolean.parseBoolean(property))
                 directProxy.setGatewayProxy();
+            // reads of embedded proxies have no round trip to save
+            if (spaceURL.isRemoteProtocol())
+                directProxy.enableNearCache(spaceURL.getProperty(SpaceURL.NEAR_CACHE_TYPES));
         }
 
         //remote proxy login with userDetails
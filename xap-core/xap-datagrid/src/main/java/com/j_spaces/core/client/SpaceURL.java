@@ -315,6 +315,16 @@ public class SpaceURL extends Properties implements SmartExternalizable {
      **/
     public final static String VERSIONED = "versioned";
 
+    /**
+     * <pre>
+     * Comma separated names of the types whose entries are kept in a near cache of the found
+     * proxy after they are read by id. Applies to remote proxies only.
+     * Example: jini://&#42;/&#42;/mySpace?near-cache-types=Product,Category
+     * Default: none
+     * </pre>
+     **/
+    public final static String NEAR_CACHE_TYPES = "near-cache-types";
+
     /**
      * <pre>
      * if <code>false</code> SpaceFinder will not initialize Security Manager.
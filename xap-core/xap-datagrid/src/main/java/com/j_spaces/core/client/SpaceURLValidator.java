@@ -57,6 +57,7 @@ public class SpaceURLValidator {
                     SpaceURL.LOCAL_CACHE_UPDATE_MODE.toLowerCase(),
                     SpaceURL.LOCAL_CACHE_STORAGE_TYPE.toLowerCase(),
                     SpaceURL.VERSIONED.toLowerCase(),
+                    SpaceURL.NEAR_CACHE_TYPES.toLowerCase(),
                     SpaceURL.USE_LOCAL_CACHE.toLowerCase(),
                     SpaceURL.VIEWS.toLowerCase(),
                     SpaceURL.TIMEOUT.toLowerCase(),
@@ -129,16 +129,26 @@ public class FilterManager implements ISpaceComponentsHandler {
 
     //has AfterTakeMultiple filter other then jSpaceStatistics
     private boolean initNonStatisticsAfterTakeMultipleOpFilter() {
-        if(!_isFilter[FilterOperationCodes.AFTER_TAKE_MULTIPLE]){
+        return hasNonStatisticsFilter(FilterOperationCodes.AFTER_TAKE_MULTIPLE);
+    }
+
+    /**
+     * Returns true if the given operation has a filter other than the space statistics filter,
+     * which is installed by default and only counts the operations.
+     */
+    public boolean hasNonStatisticsFilter(int operationCode) {
+        if(!_isFilter[operationCode]){
             return false;
         }
 
-        PrioritySpaceFiltersHolder prioritySpaceFiltersHolder = _filters[FilterOperationCodes.AFTER_TAKE_MULTIPLE];
+        PrioritySpaceFiltersHolder prioritySpaceFiltersHolder = _filters[operationCode];
 
         if(prioritySpaceFiltersHolder.isSingleFilterHolder){
             return !(prioritySpaceFiltersHolder.singleFilterHolder.getFilter() instanceof JSpaceStatistics);
         } else {
             for (FilterHolder[] prioritizedFilterHolder : prioritySpaceFiltersHolder.prioritizedFilterHolders) {
+                if (prioritizedFilterHolder == null)
+                    continue;
                 for (FilterHolder filterHolder : prioritizedFilterHolder) {
                     if(!(filterHolder.getFilter() instanceof JSpaceStatistics)){
                         return true;
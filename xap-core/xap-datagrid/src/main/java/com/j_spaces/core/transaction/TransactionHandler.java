@@ -127,12 +127,14 @@ public class TransactionHandler {
 
     public void addTransaction(XtnEntry xtnEntry) {
         m_XtnTable.put(xtnEntry.m_Transaction, xtnEntry);
+        _engine.getQueryResultCache().onTransactionsModified();
     }
 
     public XtnEntry addTransactionIfAbsent(XtnEntry xtnEntry) {
         XtnEntry prev;
         if ((prev = m_XtnTable.putIfAbsent(xtnEntry.m_Transaction, xtnEntry)) != null)
             return prev;
+        _engine.getQueryResultCache().onTransactionsModified();
         return xtnEntry;
     }
 
@@ -148,6 +150,7 @@ public class TransactionHandler {
         } finally {
             xtnEntry.unlock();
         }
+        _engine.getQueryResultCache().onTransactionsModified();
     }
 
     /**
@@ -159,8 +162,10 @@ public class TransactionHandler {
             if (needLock)
                 xtnEntry.lock();
 
-            if (((ConcurrentHashMap<ServerTransaction, XtnEntry>) getXtnTable()).remove(xtnEntry.m_Transaction, xtnEntry))
+            if (((ConcurrentHashMap<ServerTransaction, XtnEntry>) getXtnTable()).remove(xtnEntry.m_Transaction, xtnEntry)) {
                 m_TimedXtns.remove(xtnEntry.m_Transaction);
+                _engine.getQueryResultCache().onTransactionsModified();
+            }
         } finally {
             if (needLock)
                 xtnEntry.unlock();
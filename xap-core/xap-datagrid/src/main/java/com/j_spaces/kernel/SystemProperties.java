@@ -256,6 +256,61 @@ public class SystemProperties extends CommonSystemProperties {
      */
     public final static int LRMI_CACHED_BUFFER_EXPUNGE_TIMES_THRESHOLD_DEFAULT = 20;
 
+    /**
+     * When true, LRMI messages are marshalled into and read from pooled direct buffers, and written
+     * with a single gathering write, instead of using heap buffers that are copied by the socket
+     * channel.
+     */
+    public final static String LRMI_DIRECT_BUFFERS = "com.gs.transport_protocol.lrmi.direct-buffers";
+
+    /**
+     * The largest direct buffer slab that is pooled, messages that are read in one piece and are
+     * larger than this use heap buffers.
+     */
+    public final static String LRMI_DIRECT_BUFFERS_MAX_SLAB_SIZE = "com.gs.transport_protocol.lrmi.direct-buffers.max-slab-size";
+
+    /**
+     * Default value for {@link #LRMI_DIRECT_BUFFERS_MAX_SLAB_SIZE}
+     */
+    public final static int LRMI_DIRECT_BUFFERS_MAX_SLAB_SIZE_DEFAULT = 1024 * 1024;
+
+    /**
+     * The maximum number of bytes the direct buffer pool keeps for each slab size class.
+     */
+    public final static String LRMI_DIRECT_BUFFERS_POOL_SIZE = "com.gs.transport_protocol.lrmi.direct-buffers.pool-size";
+
+    /**
+     * Default value for {@link #LRMI_DIRECT_BUFFERS_POOL_SIZE}
+     */
+    public final static int LRMI_DIRECT_BUFFERS_POOL_SIZE_DEFAULT = 16 * 1024 * 1024;
+
+    /**
+     * When true, each LRMI connection pool also keeps one multiplexed connection which is shared by
+     * all invoking threads, requests are tagged with a request id and their replies are matched
+     * asynchronously, so many requests can be in flight on the same channel. Callback and one way
+     * invocations still use the pooled connections.
+     */
+    public final static String LRMI_MULTIPLEXED = "com.gs.transport_protocol.lrmi.multiplexed";
+
+    /**
+     * The time in microseconds a thread which sends a request over a multiplexed connection waits
+     * for requests of other threads to be coalesced into the same write. Zero means only requests
+     * that are queued while a previous write is in progress are coalesced.
+     */
+    public final static String LRMI_MULTIPLEXED_COALESCE_WINDOW = "com.gs.transport_protocol.lrmi.multiplexed.coalesce-window-micros";
+
+    /**
+     * Default value for {@link #LRMI_MULTIPLEXED_COALESCE_WINDOW}
+     */
+    public final static long LRMI_MULTIPLEXED_COALESCE_WINDOW_DEFAULT = 0;
+
+    /**
+     * When true, the fixed properties of entry packets are serialized over LRMI by a codec built
+     * from the declared property types of their type, instead of generically tagged values. All
+     * the members and clients must support it.
+     */
+    public final static String LRMI_ENTRY_PACKET_CODEC = "com.gs.transport_protocol.lrmi.entry-packet-codec";
+
     /**
      * The default size to maximum queue length for incoming connection indications.
      */
@@ -362,6 +417,89 @@ public class SystemProperties extends CommonSystemProperties {
 
     public final static String SMART_EXTERNALIZABLE_ENABLED = "com.gs.smart-externalizable.enabled";
 
+    /**
+     * Max number of entries in the near cache of a space proxy, the least recently read are evicted.
+     */
+    public final static String NEAR_CACHE_SIZE = "com.gs.client.near-cache.size";
+
+    /**
+     * Default value for {@link #NEAR_CACHE_SIZE}
+     */
+    public final static int NEAR_CACHE_SIZE_DEFAULT = 10000;
+
+    /**
+     * Max number of updates the space batches into a single notification to a near cache.
+     */
+    public final static String NEAR_CACHE_BATCH_SIZE = "com.gs.client.near-cache.batch-size";
+
+    /**
+     * Default value for {@link #NEAR_CACHE_BATCH_SIZE}
+     */
+    public final static int NEAR_CACHE_BATCH_SIZE_DEFAULT = 100;
+
+    /**
+     * Max time in milliseconds the space delays an update to a near cache in order to batch it.
+     */
+    public final static String NEAR_CACHE_BATCH_TIME = "com.gs.client.near-cache.batch-time";
+
+    /**
+     * Default value for {@link #NEAR_CACHE_BATCH_TIME}
+     */
+    public final static long NEAR_CACHE_BATCH_TIME_DEFAULT = 10;
+
+    /**
+     * If true and running on JDK 21 or later, LRMI requests, replication async tasks and event
+     * container consumers are executed on virtual threads instead of pooled platform threads.
+     */
+    public final static String VIRTUAL_THREADS_ENABLED = "com.gs.virtual-threads.enabled";
+
+    /**
+     * If true (and virtual threads are enabled), the JVM prints the stack trace of virtual threads
+     * which block while pinned to their carrier thread.
+     */
+    public final static String VIRTUAL_THREADS_TRACE_PINNING = "com.gs.virtual-threads.trace-pinning";
+
+    /**
+     * Directory in which a backup space periodically writes a local checkpoint of its entries and
+     * the replication key it corresponds to. On restart the backup loads the checkpoint and
+     * requests only the missing replication packets from the primary. Disabled if not set.
+     */
+    public final static String REPLICATION_BACKUP_CHECKPOINT_DIR = "com.gs.replication.backup-checkpoint.dir";
+
+    /**
+     * Interval in milliseconds between backup checkpoints.
+     */
+    public final static String REPLICATION_BACKUP_CHECKPOINT_INTERVAL = "com.gs.replication.backup-checkpoint.interval";
+    public final static long REPLICATION_BACKUP_CHECKPOINT_INTERVAL_DEFAULT = 15 * 60 * 1000;
+
+    /**
+     * Number of confirmed packets the primary keeps in its redo log, so a restarted backup whose
+     * checkpoint is that recent can resume from it instead of a full space copy.
+     */
+    public final static String REPLICATION_BACKLOG_CHECKPOINT_RETENTION = "com.gs.replication.backlog.checkpoint-retention";
+    public final static long REPLICATION_BACKLOG_CHECKPOINT_RETENTION_DEFAULT = 0;
+
+    /**
+     * Maximal number of distinct values kept in the dictionary of a property of a dictionary
+     * encoded type, values of properties with a higher cardinality are stored as is.
+     */
+    public final static String DICTIONARY_ENCODING_MAX_VALUES = "com.gs.engine.dictionary-encoding.max-values";
+    public final static int DICTIONARY_ENCODING_MAX_VALUES_DEFAULT = 64 * 1024;
+
+    /**
+     * When true, replication source channels serialize outgoing batches and compress them with LZ4
+     * whenever the measured compression ratio and speed make it faster than sending them as is.
+     */
+    public final static String REPLICATION_BATCH_COMPRESSION = "com.gs.replication.batch-compression";
+    public final static boolean REPLICATION_BATCH_COMPRESSION_DEFAULT = false;
+
+    /**
+     * Minimal serialized size in bytes of a replication batch for it to be considered for
+     * compression.
+     */
+    public final static String REPLICATION_BATCH_COMPRESSION_MIN_SIZE = "com.gs.replication.batch-compression.min-size";
+    public final static int REPLICATION_BATCH_COMPRESSION_MIN_SIZE_DEFAULT = 4 * 1024;
+
     /**
      * Set the maximum used buffer size that may be cached for storage type serialization
      */
@@ -0,0 +1,147 @@
+package com.gigaspaces.internal.client.cache;
+
+import com.gigaspaces.client.SpaceProxyFactory;
+import com.gigaspaces.document.SpaceDocument;
+import com.gigaspaces.internal.client.QueryResultTypeInternal;
+import com.gigaspaces.internal.client.spaceproxy.ISpaceProxy;
+import com.gigaspaces.internal.client.spaceproxy.SpaceProxyImpl;
+import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.gigaspaces.metadata.SpaceTypeDescriptorBuilder;
+import com.j_spaces.core.client.Modifiers;
+import com.j_spaces.core.client.ReadModifiers;
+import net.jini.core.event.EventRegistration;
+import net.jini.core.lease.Lease;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.rmi.RemoteException;
+
+public class SpaceNearCacheTest {
+
+    private ISpaceProxy space;
+    private SpaceProxyImpl cachingProxy;
+    private SpaceProxyImpl otherProxy;
+    private SpaceNearCache nearCache;
+
+    @Before
+    public void setUp() throws Exception {
+        space = new SpaceProxyFactory().createSpaceProxy("near-cache-test", false);
+        space.registerTypeDescriptor((ITypeDesc) new SpaceTypeDescriptorBuilder("Item")
+                .addFixedProperty("id", Integer.class)
+                .addFixedProperty("value", Long.class)
+                .idProperty("id", false)
+                .create());
+        cachingProxy = ((SpaceProxyImpl) space.getDirectProxy()).cloneProxy();
+        otherProxy = ((SpaceProxyImpl) space.getDirectProxy()).cloneProxy();
+        Assert.assertNull(cachingProxy.getNearCache());
+        cachingProxy.enableNearCache("Item");
+        nearCache = cachingProxy.getNearCache();
+        Assert.assertNotNull(nearCache);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (cachingProxy != null)
+            cachingProxy.close();
+        if (space != null)
+            space.getDirectProxy().shutdown();
+    }
+
+    @Test
+    public void nearCacheIsEnabledPerProxy() {
+        Assert.assertNull(otherProxy.getNearCache());
+        Assert.assertNull(((SpaceProxyImpl) space.getDirectProxy()).getNearCache());
+    }
+
+    @Test
+    public void readsByIdAreServedFromTheCache() throws Exception {
+        otherProxy.write(item(1, 1L), null, Lease.FOREVER);
+        Assert.assertEquals(Long.valueOf(1L), readValue(1));
+        Assert.assertEquals(1, nearCache.size());
+        Assert.assertEquals(Long.valueOf(1L), readValue(1));
+        Assert.assertNull(readValue(2));
+        Assert.assertEquals(1, nearCache.size());
+    }
+
+    @Test
+    public void updatesOfOtherClientsReplaceCachedEntries() throws Exception {
+        otherProxy.write(item(1, 1L), null, Lease.FOREVER);
+        Assert.assertEquals(Long.valueOf(1L), readValue(1));
+
+        otherProxy.write(item(1, 2L), null, Lease.FOREVER, 0, Modifiers.UPDATE_OR_WRITE);
+        awaitValue(1, 2L);
+        Assert.assertEquals(1, nearCache.size());
+    }
+
+    @Test
+    public void takesOfOtherClientsRemoveCachedEntries() throws Exception {
+        otherProxy.write(item(1, 1L), null, Lease.FOREVER);
+        Assert.assertEquals(Long.valueOf(1L), readValue(1));
+
+        otherProxy.take(new SpaceDocument("Item").setProperty("id", 1), null, 0);
+        awaitValue(1, null);
+        Assert.assertEquals(0, nearCache.size());
+    }
+
+    @Test
+    public void leaseExpirationRemovesCachedEntries() throws Exception {
+        otherProxy.write(item(1, 1L), null, 500);
+        Assert.assertEquals(Long.valueOf(1L), readValue(1));
+        Assert.assertEquals(1, nearCache.size());
+
+        awaitValue(1, null);
+        Assert.assertEquals(0, nearCache.size());
+    }
+
+    @Test
+    public void writesOfTheOwningProxyInvalidateCachedEntries() throws Exception {
+        otherProxy.write(item(1, 1L), null, Lease.FOREVER);
+        Assert.assertEquals(Long.valueOf(1L), readValue(1));
+
+        cachingProxy.write(item(1, 2L), null, Lease.FOREVER, 0, Modifiers.UPDATE_OR_WRITE);
+        Assert.assertEquals(0, nearCache.size());
+        Assert.assertEquals(Long.valueOf(2L), readValue(1));
+    }
+
+    @Test
+    public void lostRegistrationRemovesCachedEntriesAndRegistersAgain() throws Exception {
+        otherProxy.write(item(1, 1L), null, Lease.FOREVER);
+        Assert.assertEquals(Long.valueOf(1L), readValue(1));
+        EventRegistration registration = nearCache.getRegistration("Item");
+        Assert.assertNotNull(registration);
+
+        nearCache.onRegistrationLost(registration.getLease(), new RemoteException("expected"));
+        Assert.assertEquals(0, nearCache.size());
+        Assert.assertNull(nearCache.getRegistration("Item"));
+
+        // the next read registers again, and updates are applied to the cache again
+        Assert.assertEquals(Long.valueOf(1L), readValue(1));
+        Assert.assertNotNull(nearCache.getRegistration("Item"));
+        Assert.assertNotSame(registration, nearCache.getRegistration("Item"));
+        otherProxy.write(item(1, 2L), null, Lease.FOREVER, 0, Modifiers.UPDATE_OR_WRITE);
+        awaitValue(1, 2L);
+    }
+
+    private Long readValue(int id) throws Exception {
+        SpaceDocument document = (SpaceDocument) cachingProxy.readById("Item", id, null, null, 0, ReadModifiers.REPEATABLE_READ,
+                false, QueryResultTypeInternal.DOCUMENT_ENTRY, null);
+        return document != null ? document.<Long>getProperty("value") : null;
+    }
+
+    private void awaitValue(int id, Long expected) throws Exception {
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (!equals(expected, readValue(id)) && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        Assert.assertEquals(expected, readValue(id));
+    }
+
+    private static boolean equals(Long expected, Long actual) {
+        return expected == null ? actual == null : expected.equals(actual);
+    }
+
+    private static SpaceDocument item(int id, long value) {
+        return new SpaceDocument("Item").setProperty("id", id).setProperty("value", value);
+    }
+}
@@ -0,0 +1,42 @@
+package com.gigaspaces.internal.cluster.node.impl.replica;
+
+import com.gigaspaces.internal.cluster.node.impl.replica.data.CheckpointReplicaData;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+public class CheckpointReplicaDataProducerTest {
+
+    @Test
+    public void producesTheCheckpointOnce() {
+        CheckpointReplicaDataProducer producer = new CheckpointReplicaDataProducer(42);
+        CheckpointReplicaData data = producer.produceNextData(null);
+        Assert.assertNotNull(data);
+        Assert.assertEquals(42, data.getCheckpointKey());
+        Assert.assertFalse(data.isEntryReplicaData());
+        Assert.assertNull(producer.produceNextData(null));
+    }
+
+    @Test
+    public void producesNothingOnceClosed() {
+        CheckpointReplicaDataProducer producer = new CheckpointReplicaDataProducer(42);
+        Assert.assertEquals(ISingleStageReplicaDataProducer.CloseStatus.CLOSED, producer.close(false));
+        Assert.assertNull(producer.produceNextData(null));
+    }
+
+    @Test
+    public void serializesTheCheckpointKey() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        new CheckpointReplicaData(42).writeExternal(out);
+        out.close();
+
+        CheckpointReplicaData data = new CheckpointReplicaData();
+        data.readExternal(new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        Assert.assertEquals(42, data.getCheckpointKey());
+    }
+}
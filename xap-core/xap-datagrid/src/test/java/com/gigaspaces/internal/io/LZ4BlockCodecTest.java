@@ -0,0 +1,47 @@
+package com.gigaspaces.internal.io;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+public class LZ4BlockCodecTest {
+
+    @Test
+    public void roundTrip() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 2000; i++)
+            sb.append("entry-").append(i % 37).append(";price=").append(i % 11).append(';');
+        byte[] repetitive = sb.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] random = new byte[10000];
+        new Random(7).nextBytes(random);
+        byte[] run = new byte[5000];
+        Arrays.fill(run, (byte) 'a');
+
+        for (byte[] data : new byte[][]{new byte[0], new byte[]{1, 2, 3}, "0123456789abcdef".getBytes(StandardCharsets.UTF_8), repetitive, random, run}) {
+            byte[] compressed = new byte[LZ4BlockCodec.maxCompressedLength(data.length)];
+            int compressedLength = LZ4BlockCodec.compress(data, 0, data.length, compressed, 0);
+            byte[] restored = new byte[data.length];
+            LZ4BlockCodec.decompress(compressed, 0, compressedLength, restored, 0, data.length);
+            Assert.assertArrayEquals(data, restored);
+        }
+    }
+
+    @Test
+    public void repetitiveDataIsCompressed() {
+        byte[] run = new byte[5000];
+        Arrays.fill(run, (byte) 'a');
+        byte[] compressed = new byte[LZ4BlockCodec.maxCompressedLength(run.length)];
+        Assert.assertTrue(LZ4BlockCodec.compress(run, 0, run.length, compressed, 0) < 100);
+    }
+
+    @Test(expected = IOException.class)
+    public void malformedInputIsRejected() throws Exception {
+        // token with 1 literal and a match whose offset points before the start of the output
+        byte[] malformed = new byte[]{0x10, 'x', 5, 0};
+        LZ4BlockCodec.decompress(malformed, 0, malformed.length, new byte[10], 0, 10);
+    }
+}
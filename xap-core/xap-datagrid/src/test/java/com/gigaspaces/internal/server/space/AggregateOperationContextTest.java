@@ -0,0 +1,178 @@
+package com.gigaspaces.internal.server.space;
+
+import com.gigaspaces.client.SpaceProxyFactory;
+import com.gigaspaces.client.iterator.internal.SpaceIteratorAggregator;
+import com.gigaspaces.document.SpaceDocument;
+import com.gigaspaces.internal.client.spaceproxy.ISpaceProxy;
+import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.gigaspaces.metadata.SpaceTypeDescriptorBuilder;
+import com.gigaspaces.metadata.index.SpaceIndexType;
+import com.gigaspaces.query.aggregators.AggregationInternalUtils;
+import com.gigaspaces.query.aggregators.AggregationResult;
+import com.gigaspaces.query.aggregators.AggregationSet;
+import com.gigaspaces.query.aggregators.CountAggregator;
+import com.gigaspaces.query.aggregators.GroupByAggregator;
+import com.gigaspaces.query.aggregators.OrderByAggregator;
+import com.gigaspaces.query.aggregators.SpaceEntriesAggregator;
+import com.gigaspaces.query.aggregators.SumAggregator;
+import com.j_spaces.core.cache.IEntryCacheInfo;
+import com.j_spaces.core.client.ReadModifiers;
+import com.j_spaces.core.client.SQLQuery;
+import com.j_spaces.kernel.list.IScanListIterator;
+import net.jini.core.lease.Lease;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import static com.j_spaces.core.Constants.Engine.ENGINE_AGGREGATION_PARALLELISM_PROP;
+import static com.j_spaces.core.Constants.Engine.ENGINE_AGGREGATION_PARALLEL_THRESHOLD_PROP;
+import static com.j_spaces.core.Constants.SPACE_CONFIG_PREFIX;
+
+public class AggregateOperationContextTest {
+
+    @Test
+    public void slicesScanDisjointRangesOfTheCandidates() throws Exception {
+        final int slices = 4;
+        List<IEntryCacheInfo> entries = new ArrayList<IEntryCacheInfo>();
+        for (int i = 0; i < 10003; i++)
+            entries.add(Mockito.mock(IEntryCacheInfo.class));
+        AggregationScanSlices scanSlices = new AggregationScanSlices(slices);
+        ListScan firstScan = new ListScan(entries, false);
+
+        Set<IEntryCacheInfo> scanned = Collections.newSetFromMap(new IdentityHashMap<IEntryCacheInfo, Boolean>());
+        for (int slice = 0; slice < slices; slice++) {
+            ListScan toScan = slice == 0 ? firstScan : new ListScan(entries, false);
+            AggregateOperationContext context = new AggregateOperationContext(null, Integer.MAX_VALUE, 1, slice, scanSlices);
+            IScanListIterator<IEntryCacheInfo> sliceScan = context.getScanSlice("Item", toScan);
+            Assert.assertTrue(sliceScan.isAlreadyMatched());
+            Assert.assertEquals(2, sliceScan.getAlreadyMatchedFixedPropertyIndexPos());
+            int size = 0;
+            while (sliceScan.hasNext()) {
+                Assert.assertTrue(scanned.add(sliceScan.next()));
+                size++;
+            }
+            Assert.assertTrue(String.valueOf(size), size == 2500 || size == 2501);
+            Assert.assertTrue(toScan.released);
+            // the candidates are walked once, by the first slice
+            Assert.assertEquals(slice == 0 ? entries.size() : 0, toScan.walked);
+        }
+        Assert.assertEquals(entries.size(), scanned.size());
+
+        ListScan toScan = new ListScan(entries, false);
+        Assert.assertSame(toScan, new AggregateOperationContext(null, Integer.MAX_VALUE, 1).getScanSlice("Item", toScan));
+    }
+
+    @Test
+    public void slicesOfMultipleListsScanEachCandidateOnce() throws Exception {
+        IEntryCacheInfo entry = Mockito.mock(IEntryCacheInfo.class);
+        IEntryCacheInfo otherEntry = Mockito.mock(IEntryCacheInfo.class);
+        List<IEntryCacheInfo> entries = Arrays.asList(entry, otherEntry, entry, null, otherEntry);
+        AggregationScanSlices scanSlices = new AggregationScanSlices(2);
+
+        IScanListIterator<IEntryCacheInfo> first = scanSlices.getSlice("Item", new ListScan(entries, true), 0);
+        IScanListIterator<IEntryCacheInfo> second = scanSlices.getSlice("Item", new ListScan(entries, true), 1);
+        Assert.assertSame(entry, first.next());
+        Assert.assertFalse(first.hasNext());
+        Assert.assertSame(otherEntry, second.next());
+        Assert.assertFalse(second.hasNext());
+    }
+
+    @Test
+    public void parallelAggregationMatchesEachEntryOnce() throws Exception {
+        final String spaceName = "parallel-aggregation-test";
+        Properties properties = new Properties();
+        properties.setProperty(SPACE_CONFIG_PREFIX + ENGINE_AGGREGATION_PARALLELISM_PROP, "4");
+        properties.setProperty(SPACE_CONFIG_PREFIX + ENGINE_AGGREGATION_PARALLEL_THRESHOLD_PROP, "100");
+        SpaceProxyFactory factory = new SpaceProxyFactory();
+        factory.setProperties(properties);
+        ISpaceProxy space = factory.createSpaceProxy(spaceName, false);
+        try {
+            space.registerTypeDescriptor((ITypeDesc) new SpaceTypeDescriptorBuilder("Item")
+                    .addFixedProperty("id", Integer.class)
+                    .addFixedProperty("value", Long.class)
+                    .idProperty("id", false)
+                    .addPropertyIndex("value", SpaceIndexType.EQUAL_AND_ORDERED)
+                    .create());
+            long sum = 0;
+            for (int i = 0; i < 1000; i++) {
+                space.write(new SpaceDocument("Item").setProperty("id", i).setProperty("value", (long) i), null, Lease.FOREVER);
+                if (i >= 100)
+                    sum += i;
+            }
+
+            AggregationResult result = space.aggregate(new SQLQuery<SpaceDocument>("Item", "value >= 100"),
+                    new AggregationSet().count().sum("value"), null, ReadModifiers.REPEATABLE_READ);
+            Assert.assertEquals(900L, ((Number) result.get(0)).longValue());
+            Assert.assertEquals(sum, ((Number) result.get(1)).longValue());
+            Assert.assertEquals(4, space.getDirectProxy().getSpaceImplIfEmbedded().getEngine().getParallelAggregationExecutor().getLastParallelism());
+        } finally {
+            space.getDirectProxy().shutdown();
+        }
+    }
+
+    @Test
+    public void supportsParallelScan() {
+        Assert.assertTrue(AggregationInternalUtils.supportsParallelScan(Arrays.<SpaceEntriesAggregator>asList(
+                new CountAggregator(), new SumAggregator().setPath("value"),
+                new GroupByAggregator().groupBy("key").selectCount().selectMaxEntry("value"))));
+        Assert.assertFalse(AggregationInternalUtils.supportsParallelScan(Collections.<SpaceEntriesAggregator>singletonList(new OrderByAggregator())));
+        Assert.assertFalse(AggregationInternalUtils.supportsParallelScan(Collections.<SpaceEntriesAggregator>singletonList(new SpaceIteratorAggregator())));
+        Assert.assertFalse(AggregationInternalUtils.supportsParallelScan(Collections.<SpaceEntriesAggregator>singletonList(
+                new GroupByAggregator().groupBy("key").select(new OrderByAggregator()))));
+    }
+
+    private static class ListScan implements IScanListIterator<IEntryCacheInfo> {
+        private final List<IEntryCacheInfo> entries;
+        private final boolean multiLists;
+        private int walked;
+        private boolean released;
+
+        private ListScan(List<IEntryCacheInfo> entries, boolean multiLists) {
+            this.entries = entries;
+            this.multiLists = multiLists;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return walked < entries.size();
+        }
+
+        @Override
+        public IEntryCacheInfo next() {
+            return entries.get(walked++);
+        }
+
+        @Override
+        public void releaseScan() {
+            released = true;
+        }
+
+        @Override
+        public int getAlreadyMatchedFixedPropertyIndexPos() {
+            return 2;
+        }
+
+        @Override
+        public boolean isAlreadyMatched() {
+            return true;
+        }
+
+        @Override
+        public boolean isMultiListsIterator() {
+            return multiLists;
+        }
+
+        @Override
+        public boolean isIterator() {
+            return true;
+        }
+    }
+}
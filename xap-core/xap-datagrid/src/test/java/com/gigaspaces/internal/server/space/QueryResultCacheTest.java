@@ -0,0 +1,125 @@
+package com.gigaspaces.internal.server.space;
+
+import com.gigaspaces.client.SpaceProxyFactory;
+import com.gigaspaces.document.SpaceDocument;
+import com.gigaspaces.internal.client.spaceproxy.ISpaceProxy;
+import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.gigaspaces.metadata.SpaceTypeDescriptorBuilder;
+import com.j_spaces.core.client.Modifiers;
+import net.jini.core.lease.Lease;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import static com.j_spaces.core.Constants.Engine.FULL_ENGINE_QUERY_RESULT_CACHE_TYPES_PROP;
+
+public class QueryResultCacheTest {
+
+    private ISpaceProxy space;
+    private QueryResultCache resultCache;
+
+    @Before
+    public void setUp() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(FULL_ENGINE_QUERY_RESULT_CACHE_TYPES_PROP, "Item");
+        SpaceProxyFactory factory = new SpaceProxyFactory();
+        factory.setProperties(properties);
+        space = factory.createSpaceProxy("query-result-cache-test", false);
+        space.registerTypeDescriptor(typeDescriptor("Item"));
+        space.registerTypeDescriptor(typeDescriptor("Other"));
+        resultCache = space.getDirectProxy().getSpaceImplIfEmbedded().getEngine().getQueryResultCache();
+        Assert.assertTrue(resultCache.isEnabled());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (space != null)
+            space.getDirectProxy().shutdown();
+    }
+
+    @Test
+    public void repeatedQueriesAreServedFromTheCache() throws Exception {
+        space.write(item("Item", 1, 1L), null, Lease.FOREVER);
+        assertContents(1, 1L);
+        assertContents(1, 1L);
+        Assert.assertEquals(1, resultCache.getHits());
+
+        // modifications of other types keep the results
+        space.write(item("Other", 1, 1L), null, Lease.FOREVER);
+        assertContents(1, 1L);
+        Assert.assertEquals(2, resultCache.getHits());
+    }
+
+    @Test
+    public void writesInvalidateCachedResults() throws Exception {
+        space.write(item("Item", 1, 1L), null, Lease.FOREVER);
+        assertContents(1, 1L);
+
+        space.write(item("Item", 2, 2L), null, Lease.FOREVER);
+        assertContents(1, 1L, 2, 2L);
+        Assert.assertEquals(0, resultCache.getHits());
+    }
+
+    @Test
+    public void updatesInvalidateCachedResults() throws Exception {
+        space.write(item("Item", 1, 1L), null, Lease.FOREVER);
+        assertContents(1, 1L);
+
+        space.write(item("Item", 1, 2L), null, Lease.FOREVER, 0, Modifiers.UPDATE_OR_WRITE);
+        assertContents(1, 2L);
+        Assert.assertEquals(0, resultCache.getHits());
+    }
+
+    @Test
+    public void takesInvalidateCachedResults() throws Exception {
+        space.write(item("Item", 1, 1L), null, Lease.FOREVER);
+        space.write(item("Item", 2, 2L), null, Lease.FOREVER);
+        assertContents(1, 1L, 2, 2L);
+
+        space.take(new SpaceDocument("Item").setProperty("id", 1), null, 0);
+        assertContents(2, 2L);
+        Assert.assertEquals(0, resultCache.getHits());
+    }
+
+    @Test
+    public void leaseExpirationInvalidatesCachedResults() throws Exception {
+        space.write(item("Item", 1, 1L), null, Lease.FOREVER);
+        space.write(item("Item", 2, 2L), null, 500);
+        assertContents(1, 1L, 2, 2L);
+        assertContents(1, 1L, 2, 2L);
+        Assert.assertEquals(1, resultCache.getHits());
+
+        Thread.sleep(1000);
+        assertContents(1, 1L);
+        Assert.assertEquals(1, resultCache.getHits());
+    }
+
+    private void assertContents(Object... idsAndValues) throws Exception {
+        Map<Integer, Long> expected = new HashMap<Integer, Long>();
+        for (int i = 0; i < idsAndValues.length; i += 2)
+            expected.put((Integer) idsAndValues[i], (Long) idsAndValues[i + 1]);
+        Map<Integer, Long> contents = new HashMap<Integer, Long>();
+        for (Object result : space.readMultiple(new SpaceDocument("Item"), null, Integer.MAX_VALUE)) {
+            SpaceDocument document = (SpaceDocument) result;
+            contents.put(document.<Integer>getProperty("id"), document.<Long>getProperty("value"));
+        }
+        Assert.assertEquals(expected, contents);
+    }
+
+    private static ITypeDesc typeDescriptor(String typeName) {
+        return (ITypeDesc) new SpaceTypeDescriptorBuilder(typeName)
+                .addFixedProperty("id", Integer.class)
+                .addFixedProperty("value", Long.class)
+                .idProperty("id", false)
+                .create();
+    }
+
+    private static SpaceDocument item(String typeName, int id, long value) {
+        return new SpaceDocument(typeName).setProperty("id", id).setProperty("value", value);
+    }
+}
@@ -0,0 +1,84 @@
+package com.gigaspaces.internal.server.space.broadcast_table;
+
+import com.gigaspaces.document.SpaceDocument;
+import com.gigaspaces.internal.metadata.EntryType;
+import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.gigaspaces.internal.space.requests.PushBroadcastTableEntriesSpaceRequestInfo;
+import com.gigaspaces.internal.transport.EntryPacketFactory;
+import com.gigaspaces.internal.transport.IEntryPacket;
+import com.gigaspaces.metadata.SpaceTypeDescriptorBuilder;
+import net.jini.core.lease.Lease;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BroadcastTableAsyncPusherTest {
+
+    private static final ITypeDesc TYPE_DESC = (ITypeDesc) new SpaceTypeDescriptorBuilder("Item")
+            .addFixedProperty("id", Integer.class)
+            .idProperty("id", false)
+            .create();
+
+    @Test
+    public void retriesFailedPushUntilItSucceeds() throws Exception {
+        final AtomicInteger failures = new AtomicInteger(BroadcastTableAsyncPusher.UNHEALTHY_ATTEMPTS + 1);
+        final List<Object> pushed = Collections.synchronizedList(new ArrayList<Object>());
+        BroadcastTableAsyncPusher pusher = new BroadcastTableAsyncPusher(null, "test", 0, 10, 100) {
+            @Override
+            boolean executePush(PushBroadcastTableEntriesSpaceRequestInfo requestInfo) {
+                if (failures.getAndDecrement() > 0)
+                    return false;
+                for (IEntryPacket entryPacket : requestInfo.getEntryPackets())
+                    pushed.add(entryPacket.getID());
+                return true;
+            }
+        };
+        try {
+            pusher.push(item(1), Lease.FOREVER);
+            pusher.push(item(2), Lease.FOREVER);
+            long deadline = System.currentTimeMillis() + 10000;
+            while (pusher.getPushFailure() == null && System.currentTimeMillis() < deadline)
+                Thread.sleep(10);
+            Assert.assertNotNull(pusher.getPushFailure());
+            Assert.assertEquals(Collections.emptyList(), pushed);
+
+            pusher.flush(null);
+            Assert.assertEquals(BroadcastTableAsyncPusher.UNHEALTHY_ATTEMPTS + 1, pusher.getFailedPushCount());
+            Assert.assertNull(pusher.getPushFailure());
+            Assert.assertEquals(0, pusher.getPendingCount());
+            Assert.assertEquals(0, pusher.getPushLag());
+            Assert.assertEquals(Arrays.<Object>asList(1, 2), pushed);
+        } finally {
+            pusher.close();
+        }
+    }
+
+    @Test
+    public void closeMakesLastAttemptOfFailingPush() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        BroadcastTableAsyncPusher pusher = new BroadcastTableAsyncPusher(null, "test", 0, 10, 100) {
+            @Override
+            boolean executePush(PushBroadcastTableEntriesSpaceRequestInfo requestInfo) {
+                attempts.incrementAndGet();
+                throw new IllegalStateException("partition is down");
+            }
+        };
+        pusher.push(item(1), Lease.FOREVER);
+        while (attempts.get() == 0)
+            Thread.sleep(10);
+        pusher.close();
+        int attemptsOnClose = attempts.get();
+        Assert.assertTrue(attemptsOnClose >= 2);
+        Assert.assertEquals(attemptsOnClose, pusher.getFailedPushCount());
+        Assert.assertFalse(pusher.push(item(2), Lease.FOREVER));
+    }
+
+    private static IEntryPacket item(int id) {
+        return EntryPacketFactory.createFromObject(new SpaceDocument("Item").setProperty("id", id), TYPE_DESC, EntryType.DOCUMENT_JAVA, false);
+    }
+}
@@ -0,0 +1,66 @@
+package com.gigaspaces.internal.server.space.eviction;
+
+import com.gigaspaces.server.eviction.EvictableServerEntry;
+import com.gigaspaces.server.eviction.SpaceEvictionManager;
+import com.gigaspaces.server.eviction.SpaceEvictionStrategy;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A bounded cache of {@link EvictionTestEntry} driven by an eviction strategy, playing the role of
+ * the space cache manager.
+ */
+class EvictionTestCache implements SpaceEvictionManager {
+    private final SpaceEvictionStrategy strategy;
+    private final int capacity;
+    private final ConcurrentHashMap<Integer, EvictionTestEntry> entries = new ConcurrentHashMap<Integer, EvictionTestEntry>();
+    private final Set<Integer> pinned = ConcurrentHashMap.newKeySet();
+
+    EvictionTestCache(SpaceEvictionStrategy strategy, int capacity) {
+        this.strategy = strategy;
+        this.capacity = capacity;
+        strategy.initialize(this, null);
+    }
+
+    /**
+     * Reads the key, loading it (and evicting if the cache is full) on a miss.
+     *
+     * @return true on a cache hit
+     */
+    boolean get(int key) {
+        EvictionTestEntry entry = entries.get(key);
+        if (entry != null) {
+            strategy.onRead(entry);
+            return true;
+        }
+        entry = new EvictionTestEntry(key);
+        if (entries.putIfAbsent(key, entry) == null) {
+            strategy.onLoad(entry);
+            if (entries.size() > capacity)
+                strategy.evict(entries.size() - capacity);
+        }
+        return false;
+    }
+
+    boolean contains(int key) {
+        return entries.containsKey(key);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    void pin(int key) {
+        pinned.add(key);
+    }
+
+    @Override
+    public boolean tryEvict(EvictableServerEntry entry) {
+        EvictionTestEntry testEntry = (EvictionTestEntry) entry;
+        if (pinned.contains(testEntry.getKey()) || !entries.remove(testEntry.getKey(), testEntry))
+            return false;
+        strategy.onRemove(entry);
+        return true;
+    }
+}
@@ -0,0 +1,70 @@
+package com.gigaspaces.internal.server.space.eviction;
+
+import com.gigaspaces.metadata.SpaceTypeDescriptor;
+import com.gigaspaces.metadata.SpaceTypeDescriptorBuilder;
+import com.gigaspaces.server.eviction.EvictableServerEntry;
+
+/**
+ * A minimal evictable entry for driving eviction strategies outside of a space.
+ */
+class EvictionTestEntry implements EvictableServerEntry {
+    private static final SpaceTypeDescriptor TYPE_DESCRIPTOR = new SpaceTypeDescriptorBuilder("EvictionTestEntry").create();
+
+    private final String uid;
+    private final int key;
+    private volatile Object evictionPayLoad;
+
+    EvictionTestEntry(int key) {
+        this.key = key;
+        this.uid = "uid" + key;
+    }
+
+    int getKey() {
+        return key;
+    }
+
+    @Override
+    public String getUID() {
+        return uid;
+    }
+
+    @Override
+    public Object getEvictionPayLoad() {
+        return evictionPayLoad;
+    }
+
+    @Override
+    public void setEvictionPayLoad(Object evictionPayLoad) {
+        this.evictionPayLoad = evictionPayLoad;
+    }
+
+    @Override
+    public SpaceTypeDescriptor getSpaceTypeDescriptor() {
+        return TYPE_DESCRIPTOR;
+    }
+
+    @Override
+    public Object getFixedPropertyValue(int position) {
+        return null;
+    }
+
+    @Override
+    public Object getPropertyValue(String name) {
+        return null;
+    }
+
+    @Override
+    public Object getPathValue(String path) {
+        return null;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public long getExpirationTime() {
+        return Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,55 @@
+package com.gigaspaces.internal.server.space.eviction;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SampledLruSpaceEvictionStrategyTest {
+
+    @Test
+    public void evictsLeastRecentlyUsed() throws InterruptedException {
+        EvictionTestCache cache = new EvictionTestCache(new SampledLruSpaceEvictionStrategy(10), 1000);
+        for (int i = 0; i < 1000; i++)
+            cache.get(i);
+        Thread.sleep(5);
+        for (int i = 0; i < 1000; i += 2)
+            Assert.assertTrue(cache.get(i));
+
+        //load 500 new keys - evicting 500 entries
+        for (int i = 1000; i < 1500; i++)
+            Assert.assertFalse(cache.get(i));
+        Assert.assertEquals(1000, cache.size());
+
+        int recentlyUsedLeft = 0;
+        for (int i = 0; i < 1000; i += 2) {
+            if (cache.contains(i))
+                recentlyUsedLeft++;
+        }
+        Assert.assertTrue("recently used entries left: " + recentlyUsedLeft, recentlyUsedLeft >= 400);
+    }
+
+    @Test
+    public void nonEvictableEntries() {
+        SampledLruSpaceEvictionStrategy strategy = new SampledLruSpaceEvictionStrategy(5);
+        EvictionTestCache cache = new EvictionTestCache(strategy, 100);
+        Assert.assertEquals(0, strategy.evict(10));
+        for (int i = 0; i < 100; i++) {
+            if (i % 2 == 0)
+                cache.pin(i);
+            cache.get(i);
+        }
+        Assert.assertEquals(10, strategy.evict(10));
+        Assert.assertEquals(90, cache.size());
+        for (int i = 0; i < 100; i += 2)
+            Assert.assertTrue(cache.contains(i));
+
+        for (int i = 1; i < 100; i += 2)
+            cache.pin(i);
+        Assert.assertEquals(0, strategy.evict(10));
+        Assert.assertEquals(90, cache.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void removeOfUnknownEntry() {
+        new SampledLruSpaceEvictionStrategy(5).onRemove(new EvictionTestEntry(1));
+    }
+}
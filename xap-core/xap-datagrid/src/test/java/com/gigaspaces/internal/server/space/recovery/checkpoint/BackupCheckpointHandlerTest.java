@@ -0,0 +1,160 @@
+package com.gigaspaces.internal.server.space.recovery.checkpoint;
+
+import com.gigaspaces.client.SpaceProxyFactory;
+import com.gigaspaces.document.SpaceDocument;
+import com.gigaspaces.internal.client.spaceproxy.ISpaceProxy;
+import com.gigaspaces.internal.cluster.node.replica.SpaceCopyReplicaParameters;
+import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.gigaspaces.metadata.SpaceTypeDescriptorBuilder;
+import com.j_spaces.core.client.Modifiers;
+import net.jini.core.lease.Lease;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class BackupCheckpointHandlerTest {
+
+    private static final int ENTRIES = 20000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ISpaceProxy space;
+    private BackupCheckpointHandler handler;
+
+    @Before
+    public void setUp() throws Exception {
+        space = new SpaceProxyFactory().createSpaceProxy("backup-checkpoint-test", false);
+        space.registerTypeDescriptor((ITypeDesc) new SpaceTypeDescriptorBuilder("Item")
+                .addFixedProperty("id", Integer.class)
+                .addFixedProperty("value", Long.class)
+                .idProperty("id", false)
+                .create());
+        handler = new BackupCheckpointHandler(space.getDirectProxy().getSpaceImplIfEmbedded().getEngine(), folder.getRoot().getPath());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (handler != null)
+            handler.close();
+        if (space != null)
+            space.getDirectProxy().shutdown();
+    }
+
+    @Test
+    public void restoresPacketsAppliedDuringTheScan() throws Exception {
+        final String[] uids = new String[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++)
+            uids[i] = space.write(item(i, 0L), null, Lease.FOREVER).getUID();
+
+        final Lock processLock = new ReentrantLock();
+        final long[] lastProcessedKey = new long[1];
+        final List<long[]> packets = new ArrayList<long[]>();
+        final AtomicBoolean stop = new AtomicBoolean();
+        Thread replication = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                Random random = new Random(1);
+                try {
+                    while (!stop.get()) {
+                        int id = random.nextInt(ENTRIES);
+                        processLock.lock();
+                        try {
+                            handler.beforeReplicatedOperation(uids[id]);
+                            long key = lastProcessedKey[0] + 1;
+                            // a negative value stands for a take
+                            long value = random.nextInt(4) == 0 ? -key : key;
+                            if (value < 0)
+                                space.take(new SpaceDocument("Item").setProperty("id", id), null, 0);
+                            else
+                                space.write(item(id, value), null, Lease.FOREVER, 0, Modifiers.UPDATE_OR_WRITE);
+                            packets.add(new long[]{key, id, value});
+                            lastProcessedKey[0] = key;
+                        } finally {
+                            processLock.unlock();
+                        }
+                    }
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        replication.start();
+        Long checkpointKey;
+        try {
+            while (packetsCount(processLock, packets) < 100)
+                Thread.sleep(1);
+            checkpointKey = handler.writeCheckpoint(processLock, new BackupCheckpointHandler.ReplicationPosition() {
+                @Override
+                public boolean isReconnected() {
+                    return false;
+                }
+
+                @Override
+                public long getLastProcessedKey() {
+                    return lastProcessedKey[0];
+                }
+            }, "primary", "source");
+        } finally {
+            stop.set(true);
+            replication.join();
+        }
+        Assert.assertNotNull(checkpointKey);
+
+        Map<Integer, Long> expected = new HashMap<Integer, Long>();
+        for (int i = 0; i < ENTRIES; i++)
+            expected.put(i, 0L);
+        for (long[] packet : packets) {
+            if (packet[0] > checkpointKey)
+                break;
+            if (packet[2] < 0)
+                expected.remove((int) packet[1]);
+            else
+                expected.put((int) packet[1], packet[2]);
+        }
+
+        space.clear(new SpaceDocument("Item"), null);
+        SpaceCopyReplicaParameters parameters = new SpaceCopyReplicaParameters();
+        handler.beforeSynchronizeReplica(parameters);
+        Assert.assertEquals(checkpointKey.longValue(), parameters.getCheckpointKey());
+        Assert.assertEquals("source", parameters.getCheckpointSourceUniqueId());
+        handler.restoreCheckpoint(checkpointKey);
+
+        Map<Integer, Long> restored = new HashMap<Integer, Long>();
+        for (Object result : space.readMultiple(new SpaceDocument("Item"), null, Integer.MAX_VALUE)) {
+            SpaceDocument document = (SpaceDocument) result;
+            restored.put(document.<Integer>getProperty("id"), document.<Long>getProperty("value"));
+        }
+        Assert.assertEquals(expected, restored);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsRestoreOfAnotherCheckpoint() throws Exception {
+        handler.restoreCheckpoint(1);
+    }
+
+    private static SpaceDocument item(int id, long value) {
+        return new SpaceDocument("Item").setProperty("id", id).setProperty("value", value);
+    }
+
+    private static int packetsCount(Lock processLock, List<long[]> packets) {
+        processLock.lock();
+        try {
+            return packets.size();
+        } finally {
+            processLock.unlock();
+        }
+    }
+}
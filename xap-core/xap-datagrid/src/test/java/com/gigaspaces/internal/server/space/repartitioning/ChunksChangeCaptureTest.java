@@ -0,0 +1,280 @@
+package com.gigaspaces.internal.server.space.repartitioning;
+
+import com.gigaspaces.client.ChangeModifiers;
+import com.gigaspaces.client.ChangeSet;
+import com.gigaspaces.client.SpaceProxyFactory;
+import com.gigaspaces.document.SpaceDocument;
+import com.gigaspaces.internal.client.QueryResultTypeInternal;
+import com.gigaspaces.internal.client.spaceproxy.ISpaceProxy;
+import com.gigaspaces.internal.cluster.ClusterTopology;
+import com.gigaspaces.internal.exceptions.ChunksMapGenerationException;
+import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.gigaspaces.internal.remoting.routing.partitioned.PartitionedClusterUtils;
+import com.gigaspaces.internal.server.space.SpaceImpl;
+import com.gigaspaces.internal.transport.EmptyQueryPacket;
+import com.gigaspaces.metadata.SpaceTypeDescriptorBuilder;
+import com.j_spaces.core.client.Modifiers;
+import net.jini.core.lease.Lease;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ChunksChangeCaptureTest {
+
+    private static final int ENTRIES = 5000;
+
+    private final List<ISpaceProxy> spaces = new ArrayList<ISpaceProxy>();
+    private ISpaceProxy source;
+    private SpaceImpl sourceSpace;
+    private Map<Integer, ISpaceProxy> targets;
+    private ClusterTopology newMap;
+
+    @Before
+    public void setUp() throws Exception {
+        source = createSpace("chunks-capture-source");
+        sourceSpace = source.getDirectProxy().getSpaceImplIfEmbedded();
+        targets = new HashMap<Integer, ISpaceProxy>();
+        targets.put(1, createSpace("chunks-capture-target-1"));
+        targets.put(2, createSpace("chunks-capture-target-2"));
+        newMap = new ClusterTopology(2).setGeneration(1);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (ISpaceProxy space : spaces)
+            space.getDirectProxy().shutdown();
+    }
+
+    @Test
+    public void copiesConcurrentChangesAndRejectsOperationsOfMovedEntries() throws Exception {
+        for (int i = 0; i < ENTRIES; i++)
+            source.write(item(i, 0L), null, Lease.FOREVER);
+
+        CopyChunksRequestInfo info = new CopyChunksRequestInfo(newMap, "chunks-capture-source", new HashMap<Integer, String>(), null, ScaleType.OUT, true);
+        ChunksChangeCapture capture = new ChunksChangeCapture(sourceSpace, info, targets);
+        sourceSpace.getEngine().setChunksChangeCapture(capture);
+
+        final AtomicBoolean stop = new AtomicBoolean();
+        final AtomicInteger applied = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+        final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+        Thread operations = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                Random random = new Random(1);
+                for (long value = 1; !stop.get(); value++) {
+                    int id = random.nextInt(ENTRIES);
+                    try {
+                        switch (random.nextInt(4)) {
+                            case 0:
+                                source.take(template(id), null, 0);
+                                break;
+                            case 1:
+                                source.change(template(id), new ChangeSet().set("value", value), null, 0, ChangeModifiers.NONE);
+                                break;
+                            default:
+                                source.write(item(id, value), null, Lease.FOREVER, 0, Modifiers.UPDATE_OR_WRITE);
+                        }
+                        applied.incrementAndGet();
+                    } catch (Exception e) {
+                        if (isMovedEntryRejection(e))
+                            rejected.incrementAndGet();
+                        else
+                            failures.add(e);
+                    }
+                }
+            }
+        });
+        operations.start();
+        try {
+            while (applied.get() < 100)
+                Thread.sleep(1);
+            copySnapshot();
+            capture.catchUp();
+            // let operations of moving entries be held by the barrier
+            Thread.sleep(100);
+            capture.complete();
+            Thread.sleep(100);
+            Assert.assertTrue(rejected.get() > 0);
+        } finally {
+            stop.set(true);
+            operations.join();
+            capture.close();
+        }
+        Assert.assertEquals(Collections.emptyList(), failures);
+        Assert.assertNull(sourceSpace.getEngine().getChunksChangeCapture());
+
+        Map<Integer, Map<Integer, Long>> expected = new HashMap<Integer, Map<Integer, Long>>();
+        for (Integer partitionId : targets.keySet())
+            expected.put(partitionId, new HashMap<Integer, Long>());
+        for (Map.Entry<Integer, Long> entry : contents(source).entrySet()) {
+            int partitionId = PartitionedClusterUtils.getPartitionId(entry.getKey(), newMap) + 1;
+            if (partitionId != sourceSpace.getPartitionIdOneBased())
+                expected.get(partitionId).put(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<Integer, ISpaceProxy> target : targets.entrySet())
+            Assert.assertEquals(expected.get(target.getKey()), contents(target.getValue()));
+    }
+
+    @Test
+    public void releasesHeldOperationsWhenClosedBeforeTheEntriesMoved() throws Exception {
+        CopyChunksRequestInfo info = new CopyChunksRequestInfo(newMap, "chunks-capture-source", new HashMap<Integer, String>(), null, ScaleType.OUT, true);
+        ChunksChangeCapture capture = new ChunksChangeCapture(sourceSpace, info, targets);
+        sourceSpace.getEngine().setChunksChangeCapture(capture);
+        capture.catchUp();
+
+        final AtomicBoolean written = new AtomicBoolean();
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    source.write(item(movingId(), 1L), null, Lease.FOREVER);
+                    written.set(true);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        writer.start();
+        writer.join(200);
+        Assert.assertFalse(written.get());
+
+        capture.close();
+        writer.join(10000);
+        Assert.assertTrue(written.get());
+        Assert.assertEquals(1, contents(source).size());
+    }
+
+    @Test
+    public void rejectsTakesAndChangesOfMovedEntries() throws Exception {
+        final int movingId = movingId();
+        final int stayingId = stayingId();
+        source.write(item(movingId, 1L), null, Lease.FOREVER);
+        source.write(item(stayingId, 1L), null, Lease.FOREVER);
+
+        CopyChunksRequestInfo info = new CopyChunksRequestInfo(newMap, "chunks-capture-source", new HashMap<Integer, String>(), null, ScaleType.OUT, true);
+        ChunksChangeCapture capture = new ChunksChangeCapture(sourceSpace, info, targets);
+        sourceSpace.getEngine().setChunksChangeCapture(capture);
+        try {
+            copySnapshot();
+            capture.catchUp();
+            capture.complete();
+
+            assertRejected(new Operation() {
+                @Override
+                public void run() throws Exception {
+                    source.take(template(movingId), null, 0);
+                }
+            });
+            assertRejected(new Operation() {
+                @Override
+                public void run() throws Exception {
+                    source.change(template(movingId), new ChangeSet().set("value", 2L), null, 0, ChangeModifiers.NONE);
+                }
+            });
+            // a template without a routing value may match the moved entries
+            assertRejected(new Operation() {
+                @Override
+                public void run() throws Exception {
+                    source.clear(new SpaceDocument("Item"), null);
+                }
+            });
+            source.change(template(stayingId), new ChangeSet().set("value", 2L), null, 0, ChangeModifiers.NONE);
+            Assert.assertNotNull(source.take(template(stayingId), null, 0));
+        } finally {
+            capture.close();
+        }
+        Assert.assertEquals(Collections.singletonMap(movingId, 1L), contents(source));
+        Assert.assertEquals(Collections.singletonMap(movingId, 1L), contents(targets.get(PartitionedClusterUtils.getPartitionId(movingId, newMap) + 1)));
+    }
+
+    private void assertRejected(Operation operation) {
+        try {
+            operation.run();
+            Assert.fail("Operation of a moved entry was not rejected");
+        } catch (Exception e) {
+            Assert.assertTrue(e.toString(), isMovedEntryRejection(e));
+        }
+    }
+
+    private void copySnapshot() throws Exception {
+        BlockingQueue<Batch> queue = new LinkedBlockingQueue<Batch>();
+        CopyChunksProducer producer = new CopyChunksProducer(newMap, queue, 1000, ScaleType.OUT, targets.keySet());
+        EmptyQueryPacket queryPacket = new EmptyQueryPacket();
+        queryPacket.setQueryResultType(QueryResultTypeInternal.NOT_SET);
+        sourceSpace.getEngine().aggregate(queryPacket, Collections.singletonList(producer), Modifiers.NONE, null);
+        producer.getIntermediateResult();
+        for (Batch batch = queue.poll(); batch != null; batch = queue.poll()) {
+            WriteBatch writeBatch = (WriteBatch) batch;
+            targets.get(writeBatch.getPartitionId()).writeMultiple(writeBatch.getEntries().toArray(), null, Lease.FOREVER,
+                    ChunksChangeCapture.WRITE_MODIFIERS);
+        }
+    }
+
+    private int movingId() {
+        for (int id = 0; ; id++) {
+            if (PartitionedClusterUtils.getPartitionId(id, newMap) + 1 != sourceSpace.getPartitionIdOneBased())
+                return id;
+        }
+    }
+
+    private int stayingId() {
+        for (int id = 0; ; id++) {
+            if (PartitionedClusterUtils.getPartitionId(id, newMap) + 1 == sourceSpace.getPartitionIdOneBased())
+                return id;
+        }
+    }
+
+    private ISpaceProxy createSpace(String name) throws Exception {
+        ISpaceProxy space = new SpaceProxyFactory().createSpaceProxy(name, false);
+        spaces.add(space);
+        space.registerTypeDescriptor((ITypeDesc) new SpaceTypeDescriptorBuilder("Item")
+                .addFixedProperty("id", Integer.class)
+                .addFixedProperty("value", Long.class)
+                .idProperty("id", false)
+                .routingProperty("id")
+                .create());
+        return space;
+    }
+
+    private static SpaceDocument item(int id, long value) {
+        return new SpaceDocument("Item").setProperty("id", id).setProperty("value", value);
+    }
+
+    private static SpaceDocument template(int id) {
+        return new SpaceDocument("Item").setProperty("id", id);
+    }
+
+    private static Map<Integer, Long> contents(ISpaceProxy space) throws Exception {
+        Map<Integer, Long> contents = new HashMap<Integer, Long>();
+        for (Object result : space.readMultiple(new SpaceDocument("Item"), null, Integer.MAX_VALUE)) {
+            SpaceDocument document = (SpaceDocument) result;
+            contents.put(document.<Integer>getProperty("id"), document.<Long>getProperty("value"));
+        }
+        return contents;
+    }
+
+    private static boolean isMovedEntryRejection(Throwable e) {
+        for (; e != null; e = e.getCause()) {
+            if (e instanceof ChunksMapGenerationException)
+                return true;
+        }
+        return false;
+    }
+
+    private interface Operation {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,40 @@
+package com.gigaspaces.internal.server.space.tiered_storage;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AccessFrequencySketchTest {
+
+    @Test
+    public void estimatesAreNeverBelowTheAccessCount() {
+        AccessFrequencySketch sketch = new AccessFrequencySketch(1024);
+        for (int i = 0; i < 100; i++) {
+            for (int j = 0; j <= i % 10; j++)
+                sketch.increment("key" + i);
+        }
+        for (int i = 0; i < 100; i++)
+            Assert.assertTrue(sketch.estimate("key" + i) >= i % 10 + 1);
+        Assert.assertEquals(0, sketch.estimate("unknown"));
+    }
+
+    @Test
+    public void countersSaturate() {
+        AccessFrequencySketch sketch = new AccessFrequencySketch(1024);
+        for (int i = 0; i < 100; i++)
+            sketch.increment(1L);
+        Assert.assertEquals(15, sketch.estimate(1L));
+    }
+
+    @Test
+    public void unusedKeysDecay() {
+        AccessFrequencySketch sketch = new AccessFrequencySketch(1024);
+        for (int i = 0; i < 8; i++)
+            sketch.increment("old");
+        Assert.assertEquals(8, sketch.estimate("old"));
+        sketch.age();
+        Assert.assertEquals(4, sketch.estimate("old"));
+        for (int i = 0; i < 3; i++)
+            sketch.age();
+        Assert.assertEquals(0, sketch.estimate("old"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.gigaspaces.internal.server.space.tiered_storage;
+
+import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.gigaspaces.internal.utils.math.MutableNumber;
+import com.gigaspaces.metadata.SpaceTypeDescriptorBuilder;
+import com.gigaspaces.query.aggregators.AverageAggregator;
+import com.gigaspaces.query.aggregators.CountAggregator;
+import com.gigaspaces.query.aggregators.GroupByAggregator;
+import com.gigaspaces.query.aggregators.GroupByResult;
+import com.gigaspaces.query.aggregators.GroupByValue;
+import com.gigaspaces.query.aggregators.MaxValueAggregator;
+import com.gigaspaces.query.aggregators.SpaceEntriesAggregator;
+import com.gigaspaces.query.aggregators.SumAggregator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class RDBMSAggregationTest {
+
+    private final ITypeDesc typeDesc = (ITypeDesc) new SpaceTypeDescriptorBuilder("Order")
+            .addFixedProperty("id", String.class)
+            .addFixedProperty("customer", String.class)
+            .addFixedProperty("amount", int.class)
+            .addFixedProperty("data", byte[].class)
+            .idProperty("id")
+            .create();
+
+    @Test
+    public void mergesPlainAggregations() {
+        SumAggregator sum = (SumAggregator) new SumAggregator().setPath("amount");
+        AverageAggregator average = (AverageAggregator) new AverageAggregator().setPath("amount");
+        MaxValueAggregator max = (MaxValueAggregator) new MaxValueAggregator().setPath("customer");
+        CountAggregator count = new CountAggregator();
+        List<SpaceEntriesAggregator> aggregators = Arrays.asList(sum, average, max, count);
+
+        RDBMSAggregation aggregation = RDBMSAggregation.create(typeDesc, aggregators);
+        Assert.assertNotNull(aggregation);
+        Assert.assertEquals(5, aggregation.getColumns().size());
+
+        aggregation.merge(Collections.singletonList(new Object[]{10L, 10L, 4L, "zed", 6L}));
+        Assert.assertEquals(10L, sum.getFinalResult());
+        Assert.assertEquals(2.5, ((Number) average.getFinalResult()).doubleValue(), 0);
+        Assert.assertEquals("zed", max.getFinalResult());
+        Assert.assertEquals(6L, (long) count.getIntermediateResult());
+    }
+
+    @Test
+    public void mergesGroups() {
+        GroupByAggregator groupBy = new GroupByAggregator().groupBy("customer").selectSum("amount").selectCount();
+
+        RDBMSAggregation aggregation = RDBMSAggregation.create(typeDesc, Collections.<SpaceEntriesAggregator>singletonList(groupBy));
+        Assert.assertNotNull(aggregation);
+
+        aggregation.merge(Arrays.asList(new Object[]{"a", 3L, 2L}, new Object[]{"b", 5L, 1L}, new Object[]{null, 7L, 1L}));
+        GroupByResult result = groupBy.getIntermediateResult();
+        Assert.assertEquals(2, result.size());
+        GroupByValue a = result.get("a");
+        Assert.assertEquals(3L, ((MutableNumber) a.get(0)).toNumber());
+        Assert.assertEquals(2L, a.get(1));
+    }
+
+    @Test
+    public void rejectsUnsupportedAggregations() {
+        Assert.assertNull(RDBMSAggregation.create(typeDesc, Collections.<SpaceEntriesAggregator>singletonList(new SumAggregator().setPath("customer"))));
+        Assert.assertNull(RDBMSAggregation.create(typeDesc, Collections.<SpaceEntriesAggregator>singletonList(new MaxValueAggregator().setPath("data"))));
+        Assert.assertNull(RDBMSAggregation.create(typeDesc, Collections.<SpaceEntriesAggregator>singletonList(new CountAggregator().setPath("address.city"))));
+    }
+}
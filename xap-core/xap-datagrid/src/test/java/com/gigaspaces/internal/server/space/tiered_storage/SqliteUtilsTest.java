@@ -0,0 +1,220 @@
+package com.gigaspaces.internal.server.space.tiered_storage;
+
+import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.gigaspaces.internal.server.space.SpaceEngine;
+import com.gigaspaces.internal.server.space.metadata.SpaceTypeManager;
+import com.gigaspaces.internal.server.storage.IEntryHolder;
+import com.gigaspaces.internal.server.storage.ITemplateHolder;
+import com.gigaspaces.internal.utils.math.MutableNumber;
+import com.gigaspaces.metadata.SpaceTypeDescriptorBuilder;
+import com.gigaspaces.query.aggregators.CountAggregator;
+import com.gigaspaces.query.aggregators.GroupByAggregator;
+import com.gigaspaces.query.aggregators.GroupByResult;
+import com.gigaspaces.query.aggregators.MinValueAggregator;
+import com.gigaspaces.query.aggregators.OrderBy;
+import com.gigaspaces.query.aggregators.OrderByPath;
+import com.gigaspaces.query.aggregators.SpaceEntriesAggregator;
+import com.gigaspaces.query.aggregators.SumAggregator;
+import com.j_spaces.core.cache.InitialLoadInfo;
+import com.j_spaces.core.cache.context.Context;
+import com.j_spaces.core.sadapter.ISAdapterIterator;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class SqliteUtilsTest {
+
+    private final ITypeDesc typeDesc = (ITypeDesc) new SpaceTypeDescriptorBuilder("Order")
+            .addFixedProperty("id", String.class)
+            .addFixedProperty("customer", String.class)
+            .addFixedProperty("amount", int.class)
+            .idProperty("id")
+            .create();
+
+    @Test
+    public void rendersAggregationColumnsWithoutStoredNulls() {
+        RDBMSAggregation aggregation = RDBMSAggregation.create(typeDesc, Arrays.<SpaceEntriesAggregator>asList(
+                new SumAggregator().setPath("amount"), new MinValueAggregator().setPath("customer"), new CountAggregator()));
+        StringBuilder columns = new StringBuilder();
+        SqliteUtils.appendAggregationSelectString(aggregation, columns);
+        Assert.assertEquals("SUM(NULLIF(amount, 'Null')), MIN(NULLIF(customer, 'Null')), COUNT(*)", columns.toString());
+
+        StringBuilder clauses = new StringBuilder();
+        SqliteUtils.appendGroupByString(aggregation, clauses);
+        Assert.assertEquals("", clauses.toString());
+    }
+
+    @Test
+    public void rendersGroupByColumnsAndClause() {
+        RDBMSAggregation aggregation = RDBMSAggregation.create(typeDesc, Collections.<SpaceEntriesAggregator>singletonList(
+                new GroupByAggregator().groupBy("customer").selectAverage("amount").selectCount("amount")));
+        StringBuilder columns = new StringBuilder();
+        SqliteUtils.appendAggregationSelectString(aggregation, columns);
+        Assert.assertEquals("NULLIF(customer, 'Null'), SUM(NULLIF(amount, 'Null')), COUNT(NULLIF(amount, 'Null')), COUNT(NULLIF(amount, 'Null'))",
+                columns.toString());
+
+        StringBuilder clauses = new StringBuilder();
+        SqliteUtils.appendGroupByString(aggregation, clauses);
+        Assert.assertEquals(" GROUP BY NULLIF(customer, 'Null')", clauses.toString());
+    }
+
+    @Test
+    public void rendersOrderByWithNullsFirstUnlessNullsLast() {
+        StringBuilder clauses = new StringBuilder();
+        SqliteUtils.appendOrderByString(Arrays.asList(new OrderByPath("amount", OrderBy.DESC, false), new OrderByPath("customer", OrderBy.ASC, true)),
+                10, clauses);
+        Assert.assertEquals(" ORDER BY NULLIF(amount, 'Null') IS NULL DESC, NULLIF(amount, 'Null') DESC"
+                + ", NULLIF(customer, 'Null') IS NULL ASC, NULLIF(customer, 'Null') ASC LIMIT 10", clauses.toString());
+
+        clauses = new StringBuilder();
+        SqliteUtils.appendOrderByString(Collections.<OrderByPath>emptyList(), Integer.MAX_VALUE, clauses);
+        Assert.assertEquals("", clauses.toString());
+    }
+
+    @Test
+    public void aggregatesThroughTheSelectOfTheRDBMS() throws Exception {
+        GroupByAggregator groupBy = new GroupByAggregator().groupBy("customer").selectSum("amount");
+        RDBMSAggregation aggregation = RDBMSAggregation.create(typeDesc, Collections.<SpaceEntriesAggregator>singletonList(groupBy));
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSet.next()).thenReturn(true, true, false);
+        Mockito.when(resultSet.getString(1)).thenReturn("a", "b");
+        Mockito.when(resultSet.getLong(2)).thenReturn(3L, 5L);
+        Statement statement = Mockito.mock(Statement.class);
+        SelectingRDBMS rdbms = new SelectingRDBMS(new RDBMSResult(statement, resultSet));
+
+        List<Object[]> rows = rdbms.aggregate(new Context(), "Order", null, aggregation);
+        Assert.assertEquals("Order", rdbms.typeName);
+        Assert.assertEquals("NULLIF(customer, 'Null'), SUM(NULLIF(amount, 'Null'))", rdbms.columns);
+        Assert.assertEquals(" GROUP BY NULLIF(customer, 'Null')", rdbms.clauses);
+        Assert.assertEquals(2, rows.size());
+        Mockito.verify(statement).close();
+        Mockito.verify(resultSet).close();
+
+        aggregation.merge(rows);
+        GroupByResult result = groupBy.getIntermediateResult();
+        Assert.assertEquals(2, result.size());
+        Assert.assertEquals(5L, ((MutableNumber) result.get("b").get(0)).toNumber());
+    }
+
+    @Test
+    public void pushDownIsSkippedWhenTheRDBMSDoesNotSelect() throws Exception {
+        SelectingRDBMS rdbms = new SelectingRDBMS(null);
+        RDBMSAggregation aggregation = RDBMSAggregation.create(typeDesc, Collections.<SpaceEntriesAggregator>singletonList(new CountAggregator()));
+        Assert.assertNull(rdbms.aggregate(new Context(), "Order", null, aggregation));
+        Assert.assertEquals("COUNT(*)", rdbms.columns);
+
+        Assert.assertNull(rdbms.makeEntriesIter(new Context(), "Order", null, Collections.singletonList(new OrderByPath("amount", OrderBy.ASC, false)), 1));
+        Assert.assertEquals("*", rdbms.columns);
+        Assert.assertEquals(" ORDER BY NULLIF(amount, 'Null') IS NULL DESC, NULLIF(amount, 'Null') ASC LIMIT 1", rdbms.clauses);
+    }
+
+    private static class SelectingRDBMS implements InternalRDBMS {
+        private final RDBMSResult result;
+        private String typeName;
+        private String columns;
+        private String clauses;
+
+        private SelectingRDBMS(RDBMSResult result) {
+            this.result = result;
+        }
+
+        @Override
+        public RDBMSResult executeSelect(Context context, String typeName, ITemplateHolder templateHolder, String columns, String clauses) {
+            this.typeName = typeName;
+            this.columns = columns;
+            this.clauses = clauses;
+            return result;
+        }
+
+        @Override
+        public boolean initialize(String spaceName, String fullMemberName, SpaceTypeManager typeManager, boolean isBackup) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setLogger(String fullMemberName) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long getDiskSize() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long getFreeSpaceSize() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void createTable(ITypeDesc typeDesc) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void insertEntry(Context context, IEntryHolder entryHolder) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void updateEntry(Context context, IEntryHolder updatedEntry) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean removeEntry(Context context, IEntryHolder entryHolder) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public IEntryHolder getEntryById(Context context, String typeName, Object id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public IEntryHolder getEntryByUID(Context context, String typeName, String uid) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ISAdapterIterator<IEntryHolder> makeEntriesIter(Context context, String typeName, ITemplateHolder templateHolder) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isKnownType(String name) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void shutDown() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteData() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void persistType(ITypeDesc typeDesc) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void initialLoad(Context context, SpaceEngine engine, InitialLoadInfo initialLoadInfo) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SpaceTypeManager getTypeManager() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
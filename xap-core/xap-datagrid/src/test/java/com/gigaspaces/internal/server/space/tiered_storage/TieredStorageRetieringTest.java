@@ -0,0 +1,135 @@
+package com.gigaspaces.internal.server.space.tiered_storage;
+
+import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.gigaspaces.internal.server.metadata.IServerTypeDesc;
+import com.gigaspaces.internal.server.space.SpaceEngine;
+import com.gigaspaces.internal.server.space.metadata.SpaceTypeManager;
+import com.gigaspaces.internal.server.storage.IEntryData;
+import com.gigaspaces.internal.server.storage.IEntryHolder;
+import com.j_spaces.core.LeaseManager;
+import com.j_spaces.core.ObjectTypes;
+import com.j_spaces.core.cache.CacheManager;
+import com.j_spaces.core.cache.IEntryCacheInfo;
+import com.j_spaces.core.cache.TypeData;
+import com.j_spaces.core.cache.context.Context;
+import com.j_spaces.kernel.list.IScanListIterator;
+import com.j_spaces.kernel.locks.IBasicLockManager;
+import com.j_spaces.kernel.locks.ILockObject;
+import net.jini.core.lease.Lease;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public class TieredStorageRetieringTest {
+
+    private static final long GRACE_PERIOD = 1000;
+
+    private SpaceEngine engine;
+    private SpaceTypeManager typeManager;
+    private LeaseManager leaseManager;
+    private IEntryCacheInfo pEntry;
+    private IEntryHolder entryHolder;
+    private IEntryData entryData;
+    private TieredStorageRetiering retiering;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        engine = Mockito.mock(SpaceEngine.class);
+        typeManager = Mockito.mock(SpaceTypeManager.class);
+        leaseManager = Mockito.mock(LeaseManager.class);
+        CacheManager cacheManager = Mockito.mock(CacheManager.class);
+        Mockito.when(engine.getTypeManager()).thenReturn(typeManager);
+        Mockito.when(engine.getLeaseManager()).thenReturn(leaseManager);
+        Mockito.when(engine.getCacheManager()).thenReturn(cacheManager);
+        Mockito.when(leaseManager.getTieredStorageEvictionGracePeriod()).thenReturn(GRACE_PERIOD);
+
+        IServerTypeDesc serverTypeDesc = Mockito.mock(IServerTypeDesc.class);
+        Mockito.when(serverTypeDesc.getTypeName()).thenReturn("T");
+        Mockito.when(typeManager.getServerTypeDesc("T")).thenReturn(serverTypeDesc);
+        ITypeDesc typeDesc = Mockito.mock(ITypeDesc.class);
+        Mockito.when(typeDesc.getFixedPropertyPosition("time")).thenReturn(0);
+
+        entryData = Mockito.mock(IEntryData.class);
+        Mockito.when(entryData.getSpaceTypeDescriptor()).thenReturn(typeDesc);
+        entryHolder = Mockito.mock(IEntryHolder.class);
+        Mockito.when(entryHolder.getUID()).thenReturn("uid");
+        Mockito.when(entryHolder.getEntryData()).thenReturn(entryData);
+        pEntry = Mockito.mock(IEntryCacheInfo.class);
+        Mockito.when(pEntry.getEntryHolder(cacheManager)).thenReturn(entryHolder);
+
+        IScanListIterator<IEntryCacheInfo> entries = Mockito.mock(IScanListIterator.class);
+        Mockito.when(entries.hasNext()).thenReturn(true, false);
+        Mockito.when(entries.next()).thenReturn(pEntry);
+        TypeData typeData = Mockito.mock(TypeData.class);
+        Mockito.when(typeData.scanTypeEntries()).thenReturn(entries);
+        Mockito.when(cacheManager.getTypeData(serverTypeDesc)).thenReturn(typeData);
+        Mockito.when(cacheManager.getCacheContext()).thenReturn(new Context());
+        Mockito.when(cacheManager.getPEntryByUid("uid")).thenReturn(pEntry);
+        IBasicLockManager<IEntryHolder> lockManager = Mockito.mock(IBasicLockManager.class);
+        Mockito.when(lockManager.getLockObject(entryHolder)).thenReturn(Mockito.mock(ILockObject.class));
+        Mockito.when(cacheManager.getLockManager()).thenReturn(lockManager);
+
+        retiering = new TieredStorageRetiering(engine, 1000, 0, LoggerFactory.getLogger(getClass()));
+    }
+
+    @After
+    public void tearDown() {
+        retiering.close();
+    }
+
+    @Test
+    public void timeRuleAddedToTypeWithoutRuleLeasesItsHotEntries() {
+        Instant time = Instant.now().minusSeconds(60);
+        Mockito.when(entryData.getFixedPropertyValue(0)).thenReturn(time);
+        Mockito.when(entryData.getPropertyValue("time")).thenReturn(time);
+        Mockito.when(entryData.getExpirationTime()).thenReturn(Lease.FOREVER);
+
+        retiering.schedule("T", null, new TimePredicate("T", "time", Duration.ofHours(1)));
+
+        long expiration = time.toEpochMilli() + Duration.ofHours(1).toMillis() + GRACE_PERIOD;
+        verify(leaseManager, timeout(10000)).reRegisterLease(pEntry, entryHolder, Lease.FOREVER, expiration, ObjectTypes.ENTRY);
+        verify(entryHolder).setExpirationTime(expiration);
+    }
+
+    @Test
+    public void criteriaRuleReplacingTimeRuleClearsTheLeaseOfItsHotEntries() {
+        long expiration = System.currentTimeMillis() + 60000;
+        Mockito.when(entryData.getExpirationTime()).thenReturn(expiration);
+        CachePredicate criteriaRule = Mockito.mock(CachePredicate.class);
+        Mockito.when(criteriaRule.evaluate(entryData)).thenReturn(true);
+
+        retiering.schedule("T", new TimePredicate("T", "time", Duration.ofHours(1)), criteriaRule);
+
+        verify(leaseManager, timeout(10000)).reRegisterLease(pEntry, entryHolder, expiration, Lease.FOREVER, ObjectTypes.ENTRY);
+        verify(entryHolder).setExpirationTime(Lease.FOREVER);
+    }
+
+    @Test
+    public void transientRulesAreNotRetiered() {
+        CachePredicate transientRule = Mockito.mock(CachePredicate.class);
+        Mockito.when(transientRule.isTransient()).thenReturn(true);
+        CachePredicate criteriaRule = Mockito.mock(CachePredicate.class);
+
+        retiering.schedule("T", null, transientRule);
+        retiering.schedule("T", transientRule, criteriaRule);
+
+        Assert.assertEquals(0, retiering.getPendingTypes());
+        verify(typeManager, never()).getServerTypeDesc(anyString());
+        verify(leaseManager, never()).reRegisterLease(any(IEntryCacheInfo.class), any(IEntryHolder.class), anyLong(), anyLong(), eq(ObjectTypes.ENTRY));
+    }
+}
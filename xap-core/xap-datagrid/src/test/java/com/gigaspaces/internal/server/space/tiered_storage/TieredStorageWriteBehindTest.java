@@ -0,0 +1,160 @@
+package com.gigaspaces.internal.server.space.tiered_storage;
+
+import com.gigaspaces.internal.server.metadata.IServerTypeDesc;
+import com.gigaspaces.internal.server.storage.IEntryHolder;
+import com.j_spaces.core.cache.context.Context;
+import com.j_spaces.core.sadapter.SAException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class TieredStorageWriteBehindTest {
+
+    private static IEntryHolder entry(String typeName, String uid) {
+        IServerTypeDesc typeDesc = Mockito.mock(IServerTypeDesc.class);
+        Mockito.when(typeDesc.getTypeName()).thenReturn(typeName);
+        IEntryHolder entryHolder = Mockito.mock(IEntryHolder.class);
+        Mockito.when(entryHolder.getServerTypeDesc()).thenReturn(typeDesc);
+        Mockito.when(entryHolder.getUID()).thenReturn(uid);
+        return entryHolder;
+    }
+
+    @Test
+    public void operationsOnTheSameUidAreCoalesced() throws Exception {
+        InternalRDBMS rdbms = Mockito.mock(InternalRDBMS.class);
+        TieredStorageWriteBehind writeBehind = new TieredStorageWriteBehind(rdbms, TieredStorageWriteBehind.Mode.ASYNC,
+                Long.MAX_VALUE, Integer.MAX_VALUE, LoggerFactory.getLogger(getClass()), "test");
+        try {
+            IEntryHolder a1 = entry("T", "a"), a2 = entry("T", "a");
+            IEntryHolder b = entry("T", "b");
+            IEntryHolder c = entry("T", "c");
+            IEntryHolder d1 = entry("T", "d"), d2 = entry("T", "d");
+            Mockito.when(rdbms.getEntryByUID(any(Context.class), eq("T"), eq("c"))).thenReturn(c);
+            Mockito.when(rdbms.getEntryByUID(any(Context.class), eq("T"), eq("d"))).thenReturn(d1);
+            Context context = new Context();
+            writeBehind.insertEntry(a1);
+            writeBehind.updateEntry(a2);
+            writeBehind.insertEntry(b);
+            writeBehind.removeEntry(context, b);
+            writeBehind.removeEntry(context, c);
+            writeBehind.removeEntry(context, d1);
+            writeBehind.insertEntry(d2);
+            Assert.assertEquals(3, writeBehind.getQueueDepth());
+
+            writeBehind.flush("T");
+            Assert.assertEquals(0, writeBehind.getQueueDepth());
+            Assert.assertEquals(3, writeBehind.getLastBatchSize());
+            verify(rdbms).removeEntries(any(Context.class), eq(Arrays.asList(c, d2)));
+            verify(rdbms).insertEntries(any(Context.class), eq(Arrays.asList(a2, d2)));
+            verify(rdbms, never()).updateEntries(any(Context.class), any(List.class));
+        } finally {
+            writeBehind.close();
+        }
+    }
+
+    @Test
+    public void syncOperationsWaitForTheirBatch() throws Exception {
+        InternalRDBMS rdbms = Mockito.mock(InternalRDBMS.class);
+        TieredStorageWriteBehind writeBehind = new TieredStorageWriteBehind(rdbms, TieredStorageWriteBehind.Mode.SYNC,
+                10, 1000, LoggerFactory.getLogger(getClass()), "test");
+        try {
+            IEntryHolder a = entry("T", "a");
+            writeBehind.insertEntry(a);
+            verify(rdbms).insertEntries(any(Context.class), eq(Collections.singletonList(a)));
+        } finally {
+            writeBehind.close();
+        }
+    }
+
+    @Test
+    public void asyncOperationsOfAFailedCommitAreRetried() throws Exception {
+        InternalRDBMS rdbms = Mockito.mock(InternalRDBMS.class);
+        TieredStorageWriteBehind writeBehind = new TieredStorageWriteBehind(rdbms, TieredStorageWriteBehind.Mode.ASYNC,
+                Long.MAX_VALUE, Integer.MAX_VALUE, LoggerFactory.getLogger(getClass()), "test");
+        try {
+            IEntryHolder a1 = entry("T", "a"), a2 = entry("T", "a");
+            IEntryHolder b = entry("T", "b");
+            doThrow(new SAException("disk is full")).doThrow(new SAException("disk is full"))
+                    .doThrow(new SAException("disk is full")).doNothing()
+                    .when(rdbms).insertEntries(any(Context.class), any(List.class));
+
+            writeBehind.insertEntry(a1);
+            writeBehind.insertEntry(b);
+            for (int i = 1; i < TieredStorageWriteBehind.UNHEALTHY_FLUSHES; i++) {
+                assertFlushFails(writeBehind);
+                Assert.assertNull(writeBehind.getFailure());
+            }
+            // an operation queued after the failure is coalesced with the failed one
+            writeBehind.updateEntry(a2);
+            Assert.assertEquals(2, writeBehind.getQueueDepth());
+            assertFlushFails(writeBehind);
+            Assert.assertEquals(TieredStorageWriteBehind.UNHEALTHY_FLUSHES, writeBehind.getFailedFlushes());
+            Assert.assertNotNull(writeBehind.getFailure());
+            try {
+                writeBehind.insertEntry(entry("T", "c"));
+                Assert.fail("operations should be rejected while commits fail");
+            } catch (SAException expected) {
+            }
+
+            writeBehind.flush("T");
+            Assert.assertNull(writeBehind.getFailure());
+            Assert.assertEquals(0, writeBehind.getFailedFlushes());
+            Assert.assertEquals(0, writeBehind.getQueueDepth());
+            verify(rdbms, times(TieredStorageWriteBehind.UNHEALTHY_FLUSHES + 1)).insertEntries(any(Context.class), any(List.class));
+            verify(rdbms, times(2)).insertEntries(any(Context.class), eq(Arrays.asList(a2, b)));
+            verify(rdbms, never()).updateEntries(any(Context.class), any(List.class));
+            writeBehind.insertEntry(entry("T", "c"));
+        } finally {
+            doNothing().when(rdbms).insertEntries(any(Context.class), any(List.class));
+            writeBehind.close();
+        }
+    }
+
+    @Test
+    public void removeReportsWhetherTheEntryHasARow() throws Exception {
+        InternalRDBMS rdbms = Mockito.mock(InternalRDBMS.class);
+        TieredStorageWriteBehind writeBehind = new TieredStorageWriteBehind(rdbms, TieredStorageWriteBehind.Mode.ASYNC,
+                Long.MAX_VALUE, Integer.MAX_VALUE, LoggerFactory.getLogger(getClass()), "test");
+        try {
+            Context context = new Context();
+            IEntryHolder committed = entry("T", "committed");
+            Mockito.when(rdbms.getEntryByUID(any(Context.class), eq("T"), eq("committed"))).thenReturn(committed);
+            IEntryHolder queued = entry("T", "queued");
+            writeBehind.insertEntry(queued);
+
+            Assert.assertTrue(writeBehind.removeEntry(context, committed));
+            Assert.assertFalse(writeBehind.removeEntry(context, entry("T", "committed")));
+            Assert.assertTrue(writeBehind.removeEntry(context, queued));
+            Assert.assertFalse(writeBehind.removeEntry(context, entry("T", "missing")));
+            Assert.assertEquals(1, writeBehind.getQueueDepth());
+
+            writeBehind.flush("T");
+            verify(rdbms).removeEntries(any(Context.class), eq(Collections.singletonList(committed)));
+            verify(rdbms, never()).getEntryByUID(any(Context.class), eq("T"), eq("queued"));
+            verify(rdbms, never()).insertEntries(any(Context.class), any(List.class));
+        } finally {
+            writeBehind.close();
+        }
+    }
+
+    private static void assertFlushFails(TieredStorageWriteBehind writeBehind) {
+        try {
+            writeBehind.flush("T");
+            Assert.fail("flush should fail");
+        } catch (SAException expected) {
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.gigaspaces.internal.server.storage;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Date;
+
+public class PropertyValueDictionaryTest {
+
+    @Test
+    public void equalValuesAreShared() {
+        PropertyValueDictionary dictionary = new PropertyValueDictionary(3, 100);
+        Object[] first = new Object[]{new String("NY"), new Long(1000), new Date(1)};
+        Object[] second = new Object[]{new String("NY"), new Long(1000), new Date(1)};
+        dictionary.encode(first);
+        dictionary.encode(second);
+
+        Assert.assertSame(first[0], second[0]);
+        Assert.assertSame(first[1], second[1]);
+        Assert.assertNotSame("only strings and primitive wrappers are encoded", first[2], second[2]);
+        Assert.assertEquals(1, dictionary.size(0));
+        Assert.assertEquals(0, dictionary.size(2));
+    }
+
+    @Test
+    public void dictionaryStopsGrowingAtMaxValues() {
+        PropertyValueDictionary dictionary = new PropertyValueDictionary(1, 2);
+        for (int i = 0; i < 10; i++)
+            dictionary.encode(new Object[]{"value" + i});
+        Assert.assertEquals(2, dictionary.size(0));
+
+        Object[] values = new Object[]{new String("value9")};
+        Object original = values[0];
+        dictionary.encode(values);
+        Assert.assertSame(original, values[0]);
+    }
+
+    @Test
+    public void mismatchingValuesAreIgnored() {
+        PropertyValueDictionary dictionary = new PropertyValueDictionary(2, 100);
+        Object[] values = new Object[]{"a"};
+        dictionary.encode(values);
+        dictionary.encode(null);
+        Assert.assertEquals(0, dictionary.size(0));
+    }
+}
@@ -0,0 +1,70 @@
+package com.gigaspaces.internal.transport;
+
+import com.gigaspaces.internal.io.MarshalInputStream;
+import com.gigaspaces.internal.io.MarshalOutputStream;
+import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.gigaspaces.metadata.SpaceTypeDescriptorBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Date;
+
+public class EntryPacketCodecTest {
+
+    // fixed properties are ordered by name
+    private static ITypeDesc createTypeDesc() {
+        return (ITypeDesc) new SpaceTypeDescriptorBuilder("CodecType")
+                .idProperty("p0Id")
+                .addFixedProperty("p0Id", Integer.class)
+                .addFixedProperty("p1Count", long.class)
+                .addFixedProperty("p2Name", String.class)
+                .addFixedProperty("p3Ratio", Double.class)
+                .addFixedProperty("p4Flag", Boolean.class)
+                .addFixedProperty("p5Small", Short.class)
+                .addFixedProperty("p6Date", Date.class)
+                .addFixedProperty("p7Any", Object.class)
+                .addFixedProperty("p8Letter", Character.class)
+                .create();
+    }
+
+    @Test
+    public void roundTrip() throws Exception {
+        ITypeDesc typeDesc = createTypeDesc();
+        EntryPacketCodec codec = EntryPacketCodec.getCodec(typeDesc, typeDesc.getNumOfFixedProperties());
+        Assert.assertNotNull(codec);
+        Assert.assertSame(codec, EntryPacketCodec.getCodec(typeDesc, typeDesc.getNumOfFixedProperties()));
+
+        Object[][] rows = new Object[][]{
+                {-7, Long.MIN_VALUE, "foo", 1.5d, true, (short) -300, new Date(1000), 42L, 'x'},
+                {Integer.MAX_VALUE, 0L, null, null, null, null, null, null, null},
+                new Object[9],
+        };
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MarshalOutputStream out = new MarshalOutputStream(bytes);
+        for (Object[] row : rows) {
+            Assert.assertTrue(codec.canWrite(row));
+            out.writeRepetitiveObject(codec);
+            codec.writeValues(out, row);
+        }
+        out.flush();
+
+        MarshalInputStream in = new MarshalInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        for (Object[] row : rows) {
+            EntryPacketCodec readCodec = (EntryPacketCodec) in.readRepetitiveObject();
+            Assert.assertEquals(codec, readCodec);
+            Assert.assertArrayEquals(row, readCodec.readValues(in));
+        }
+    }
+
+    @Test
+    public void valuesOfOtherTypesAreNotEncoded() {
+        ITypeDesc typeDesc = createTypeDesc();
+        EntryPacketCodec codec = EntryPacketCodec.getCodec(typeDesc, typeDesc.getNumOfFixedProperties());
+        Assert.assertFalse(codec.canWrite(new Object[]{1L, 0L, null, null, null, null, null, null, null}));
+        Assert.assertNull(EntryPacketCodec.getCodec(typeDesc, typeDesc.getNumOfFixedProperties() + 1));
+        Assert.assertNull(EntryPacketCodec.getCodec(null, 0));
+    }
+}
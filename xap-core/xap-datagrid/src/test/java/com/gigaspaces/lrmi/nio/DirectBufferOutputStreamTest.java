@@ -0,0 +1,68 @@
+package com.gigaspaces.lrmi.nio;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class DirectBufferOutputStreamTest {
+
+    @Test
+    public void poolSizeClasses() {
+        DirectBufferPool pool = new DirectBufferPool(64 * 1024, 64 * 1024);
+        ByteBuffer small = pool.acquire(10);
+        Assert.assertTrue(small.isDirect());
+        Assert.assertEquals(DirectBufferPool.MIN_SLAB_SIZE, small.capacity());
+        Assert.assertEquals(10, small.limit());
+        Assert.assertEquals(8 * 1024, pool.acquire(DirectBufferPool.MIN_SLAB_SIZE + 1).capacity());
+        Assert.assertEquals(64 * 1024, pool.acquire(64 * 1024).capacity());
+        try {
+            pool.acquire(64 * 1024 + 1);
+            Assert.fail("sizes above the max slab size should not be pooled");
+        } catch (IllegalArgumentException e) {
+        }
+
+        pool.release(small);
+        Assert.assertSame(small, pool.acquire(100));
+        pool.release(ByteBuffer.allocate(DirectBufferPool.MIN_SLAB_SIZE));
+        Assert.assertTrue(pool.acquire(100).isDirect());
+    }
+
+    @Test
+    public void writeAcrossSlabs() {
+        DirectBufferPool pool = new DirectBufferPool(16 * 1024, 1024 * 1024);
+        DirectBufferOutputStream out = new DirectBufferOutputStream(pool, 4);
+        byte[] message = new byte[50000];
+        for (int i = 0; i < message.length; i++)
+            message[i] = (byte) i;
+
+        out.begin();
+        out.write(message, 0, 1000);
+        out.write(message[1000]);
+        out.write(message, 1001, message.length - 1001);
+        Assert.assertEquals(message.length + 4, out.size());
+        ByteBuffer[] slabs = out.finish();
+        Assert.assertTrue(slabs.length > 1);
+
+        ByteBuffer all = ByteBuffer.allocate(message.length + 4);
+        for (ByteBuffer slab : slabs)
+            all.put(slab);
+        all.flip();
+        all.position(4);
+        byte[] read = new byte[message.length];
+        all.get(read);
+        Assert.assertArrayEquals(message, read);
+
+        //not active after finish, e.g. the TC_RESET of a reset object stream
+        out.write(1);
+        Assert.assertEquals(0, out.finish().length);
+
+        //the first slab of the next message fits the previous message size (up to the max slab size)
+        out.begin();
+        out.write(message, 0, 10);
+        ByteBuffer[] next = out.finish();
+        Assert.assertEquals(1, next.length);
+        Assert.assertEquals(16 * 1024, next[0].capacity());
+        Assert.assertEquals(14, next[0].remaining());
+    }
+}
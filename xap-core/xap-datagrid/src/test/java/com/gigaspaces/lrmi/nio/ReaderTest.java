@@ -0,0 +1,122 @@
+package com.gigaspaces.lrmi.nio;
+
+import com.gigaspaces.internal.io.MarshalInputStream;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ReaderTest {
+
+    private final List<SocketChannel> channels = new ArrayList<SocketChannel>();
+    // the reader reads what the test sends to the client channel
+    private SocketChannel client;
+    private SocketChannel server;
+    // the writer frames the requests into the out channel
+    private Writer writer;
+    private SocketChannel out;
+
+    @Before
+    public void setUp() throws Exception {
+        SocketChannel[] connection = connect();
+        client = connection[0];
+        server = connection[1];
+        connection = connect();
+        writer = new Writer(connection[0], null);
+        out = connection[1];
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (SocketChannel channel : channels)
+            channel.close();
+    }
+
+    @Test
+    public void pipelinedRequestsReuseTheBufferOnceItIsReleased() throws Exception {
+        byte[] first = frame("first");
+        byte[] second = frame("second");
+        byte[] third = frame("third");
+        Reader reader = new Reader(server, Integer.MAX_VALUE);
+
+        // the second request arrives while the first one holds the reused buffer, and is read in two parts
+        send(first);
+        send(second, 0, second.length / 2);
+        MarshalInputStream firstStream = read(reader, new Reader.Context(null));
+        Reader.Context secondContext = new Reader.Context(null);
+        Assert.assertNull(reader.readRequest(secondContext));
+
+        Assert.assertEquals("first", reader.unmarshallRequest(firstStream).getRequestObject());
+        send(second, second.length / 2, second.length - second.length / 2);
+        MarshalInputStream secondStream = read(reader, secondContext);
+        Assert.assertNotSame(firstStream, secondStream);
+        Assert.assertEquals("second", reader.unmarshallRequest(secondStream).getRequestObject());
+
+        send(third);
+        MarshalInputStream thirdStream = read(reader, new Reader.Context(null));
+        Assert.assertSame(firstStream, thirdStream);
+        Assert.assertEquals("third", reader.unmarshallRequest(thirdStream).getRequestObject());
+    }
+
+    private static MarshalInputStream read(Reader reader, Reader.Context context) throws Exception {
+        MarshalInputStream stream;
+        while ((stream = reader.readRequest(context)) == null) {
+            // the bytes were sent already, a read may still see part of them
+        }
+        return stream;
+    }
+
+    /**
+     * Returns the bytes of the given request as written to the wire.
+     */
+    private byte[] frame(String request) throws Exception {
+        writer.writeRequest(new RequestPacket(request));
+        ByteBuffer header = ByteBuffer.allocate(4);
+        readFully(out, header);
+        header.flip();
+        ByteBuffer body = ByteBuffer.allocate(header.getInt());
+        readFully(out, body);
+        ByteBuffer frame = ByteBuffer.allocate(4 + body.capacity());
+        frame.putInt(body.capacity()).put(body.array());
+        return frame.array();
+    }
+
+    private SocketChannel[] connect() throws IOException {
+        ServerSocketChannel serverSocket = ServerSocketChannel.open();
+        try {
+            serverSocket.socket().bind(new InetSocketAddress("127.0.0.1", 0));
+            SocketChannel connecting = SocketChannel.open(serverSocket.socket().getLocalSocketAddress());
+            channels.add(connecting);
+            SocketChannel accepted = serverSocket.accept();
+            channels.add(accepted);
+            return new SocketChannel[]{connecting, accepted};
+        } finally {
+            serverSocket.close();
+        }
+    }
+
+    private void send(byte[] bytes) throws IOException {
+        send(bytes, 0, bytes.length);
+    }
+
+    private void send(byte[] bytes, int offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+        while (buffer.hasRemaining())
+            client.write(buffer);
+    }
+
+    private static void readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) == -1)
+                throw new IOException("Unexpected end of stream");
+        }
+    }
+}
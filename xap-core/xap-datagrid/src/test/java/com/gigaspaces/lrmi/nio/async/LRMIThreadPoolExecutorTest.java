@@ -0,0 +1,112 @@
+package com.gigaspaces.lrmi.nio.async;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class LRMIThreadPoolExecutorTest {
+
+    private static final int MAX_THREADS = 2;
+
+    private final AtomicInteger createdThreads = new AtomicInteger();
+    private final ThreadFactory threadFactory = new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            createdThreads.incrementAndGet();
+            return new Thread(runnable, "test-virtual");
+        }
+    };
+    private LRMIThreadPoolExecutor executor;
+
+    @Before
+    public void setUp() {
+        executor = new LRMIThreadPoolExecutor(1, MAX_THREADS, 60000, Integer.MAX_VALUE, Long.MAX_VALUE,
+                Thread.NORM_PRIORITY, "test", false, false);
+        Assert.assertTrue(executor.useThreadFactory(threadFactory));
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void runsAtMostMaxPoolSizeTasksAtATime() throws Exception {
+        final int tasks = 10;
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(tasks);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    int current = running.incrementAndGet();
+                    while (maxRunning.get() < current)
+                        maxRunning.compareAndSet(maxRunning.get(), current);
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+        while (running.get() < MAX_THREADS)
+            Thread.sleep(1);
+        Thread.sleep(100);
+        Assert.assertEquals(MAX_THREADS, running.get());
+        Assert.assertEquals(MAX_THREADS, createdThreads.get());
+
+        release.countDown();
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(MAX_THREADS, maxRunning.get());
+        Assert.assertTrue(createdThreads.get() <= tasks);
+    }
+
+    @Test
+    public void failedTaskDoesNotStopTheFollowingTasks() throws Exception {
+        final CountDownLatch done = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                throw new IllegalStateException("expected");
+            }
+        });
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                done.countDown();
+            }
+        });
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void disabledExecutorRunsNewTasksOnPoolThreads() throws Exception {
+        executor.disableVirtualThreads("test");
+        Assert.assertFalse(executor.isUsingVirtualThreads());
+
+        final AtomicReference<Thread> thread = new AtomicReference<Thread>();
+        final CountDownLatch done = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                thread.set(Thread.currentThread());
+                done.countDown();
+            }
+        });
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(0, createdThreads.get());
+        Assert.assertNotEquals("test-virtual", thread.get().getName());
+    }
+}
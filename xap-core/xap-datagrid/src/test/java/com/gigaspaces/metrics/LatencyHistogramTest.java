@@ -0,0 +1,55 @@
+package com.gigaspaces.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void buckets() {
+        for (long value : new long[]{0, 1, 31, 32, 33, 63, 64, 1000, 123456789, 1L << 40, (1L << 41) - 1}) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            Assert.assertTrue(value + " above its bucket", value <= LatencyHistogram.highestValueOf(bucket));
+            if (bucket > 0)
+                Assert.assertTrue(value + " below its bucket", value > LatencyHistogram.highestValueOf(bucket - 1));
+            Assert.assertTrue(LatencyHistogram.highestValueOf(bucket) - value <= value / 16);
+        }
+        Assert.assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketOf((1L << 41) - 1));
+        Assert.assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++)
+            histogram.record(i * 1000L);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        Assert.assertEquals(1000, snapshot.getTotalCount());
+        Assert.assertEquals(1000000, snapshot.getMax());
+        assertAbout(500000, snapshot.getValueAtPercentile(50));
+        assertAbout(990000, snapshot.getValueAtPercentile(99));
+        assertAbout(999000, snapshot.getValueAtPercentile(99.9));
+        Assert.assertEquals(1000000, snapshot.getValueAtPercentile(100));
+
+        Map<String, Object> values = new HashMap<String, Object>();
+        snapshot.report("op-latency", values);
+        Assert.assertEquals(4, values.size());
+        Assert.assertEquals(1000d, values.get("op-latency_max"));
+
+        // each snapshot covers the interval since the previous one
+        histogram.record(7);
+        snapshot = histogram.snapshot();
+        Assert.assertEquals(1, snapshot.getTotalCount());
+        Assert.assertEquals(7, snapshot.getValueAtPercentile(50));
+        Assert.assertEquals(1001, histogram.getTotalCount());
+        Assert.assertEquals(0, histogram.snapshot().getValueAtPercentile(99));
+    }
+
+    private static void assertAbout(long expected, long actual) {
+        Assert.assertTrue("expected ~" + expected + " but was " + actual, actual >= expected && actual - expected <= expected / 16);
+    }
+}
@@ -0,0 +1,165 @@
+package com.j_spaces.core.cache.blobStore.storage.mapped;
+
+import com.gigaspaces.datasource.DataIterator;
+import com.gigaspaces.server.blobstore.BlobStoreAddBulkOperationRequest;
+import com.gigaspaces.server.blobstore.BlobStoreBulkOperationRequest;
+import com.gigaspaces.server.blobstore.BlobStoreBulkOperationResult;
+import com.gigaspaces.server.blobstore.BlobStoreConfig;
+import com.gigaspaces.server.blobstore.BlobStoreException;
+import com.gigaspaces.server.blobstore.BlobStoreGetBulkOperationResult;
+import com.gigaspaces.server.blobstore.BlobStoreObjectType;
+import com.gigaspaces.server.blobstore.BlobStoreRemoveBulkOperationRequest;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MappedLogBlobStoreStorageHandlerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MappedLogBlobStoreStorageHandler handler;
+
+    @After
+    public void tearDown() {
+        if (handler != null)
+            handler.close();
+    }
+
+    private MappedLogBlobStoreStorageHandler open(boolean warmStart) {
+        MappedLogBlobStoreStorageHandler res = new MappedLogBlobStoreStorageHandler();
+        res.setVolumeDir(folder.getRoot().getAbsolutePath());
+        res.setSegmentSize(4096);
+        res.setCompactionInterval(60 * 60 * 1000);
+        res.setRecoveryParallelism(3);
+        res.initialize(new BlobStoreConfig("container:space", 1, 0, warmStart, null));
+        return res;
+    }
+
+    @Test
+    public void addGetReplaceRemove() {
+        handler = open(false);
+        Object position = handler.add("uid1", bytes(1, 10), BlobStoreObjectType.DATA);
+        Assert.assertArrayEquals(bytes(1, 10), (byte[]) handler.get("uid1", position, BlobStoreObjectType.DATA));
+        Assert.assertArrayEquals(bytes(1, 10), (byte[]) handler.get("uid1", null, BlobStoreObjectType.DATA));
+        Assert.assertNull(handler.get("uid1", null, BlobStoreObjectType.METADATA));
+
+        Object newPosition = handler.replace("uid1", bytes(2, 20), position, BlobStoreObjectType.DATA);
+        Assert.assertArrayEquals(bytes(2, 20), (byte[]) handler.get("uid1", newPosition, BlobStoreObjectType.DATA));
+        //a stale position must not resurrect the replaced record
+        Assert.assertArrayEquals(bytes(2, 20), (byte[]) handler.get("uid1", position, BlobStoreObjectType.DATA));
+
+        handler.add(7, "not-raw", BlobStoreObjectType.ADMIN);
+        Assert.assertEquals("not-raw", handler.get(7, null, BlobStoreObjectType.ADMIN));
+
+        try {
+            handler.add("uid1", bytes(3, 5), BlobStoreObjectType.DATA);
+            Assert.fail("add of an existing id should fail");
+        } catch (BlobStoreException e) {
+        }
+
+        Assert.assertArrayEquals(bytes(2, 20), (byte[]) handler.remove("uid1", null, BlobStoreObjectType.DATA));
+        Assert.assertNull(handler.get("uid1", null, BlobStoreObjectType.DATA));
+        try {
+            handler.remove("uid1", newPosition, BlobStoreObjectType.DATA);
+            Assert.fail("remove of a missing id should fail");
+        } catch (BlobStoreException e) {
+        }
+    }
+
+    @Test
+    public void bulk() {
+        handler = open(false);
+        handler.add("existing", bytes(0, 10), BlobStoreObjectType.DATA);
+
+        List<BlobStoreBulkOperationRequest> operations = new ArrayList<BlobStoreBulkOperationRequest>();
+        operations.add(new BlobStoreAddBulkOperationRequest("a", bytes(1, 10), null));
+        operations.add(new BlobStoreAddBulkOperationRequest("existing", bytes(1, 10), null));
+        operations.add(new BlobStoreRemoveBulkOperationRequest("existing", null, null));
+        List<BlobStoreBulkOperationResult> results = handler.executeBulk(operations, BlobStoreObjectType.DATA, false);
+        Assert.assertEquals(3, results.size());
+        Assert.assertNull(results.get(0).getException());
+        Assert.assertNotNull(results.get(1).getException());
+        Assert.assertNull(results.get(2).getException());
+        Assert.assertNull(handler.get("existing", null, BlobStoreObjectType.DATA));
+
+        operations.clear();
+        operations.add(new BlobStoreAddBulkOperationRequest("b", bytes(2, 10), null));
+        operations.add(new BlobStoreRemoveBulkOperationRequest("missing", null, null));
+        try {
+            handler.executeBulk(operations, BlobStoreObjectType.DATA, true);
+            Assert.fail("transactional bulk with a failing operation should fail");
+        } catch (BlobStoreException e) {
+        }
+        Assert.assertNull("failed transactional bulk should not be applied", handler.get("b", null, BlobStoreObjectType.DATA));
+    }
+
+    @Test
+    public void compactionAndWarmStart() {
+        handler = open(false);
+        for (int i = 0; i < 500; i++)
+            handler.add("uid" + i, bytes(i, 50), BlobStoreObjectType.DATA);
+        for (int i = 0; i < 500; i += 2)
+            handler.remove("uid" + i, null, BlobStoreObjectType.DATA);
+        for (int i = 1; i < 500; i += 4)
+            handler.replace("uid" + i, bytes(i + 1, 60), null, BlobStoreObjectType.DATA);
+
+        int segmentsBefore = Integer.parseInt(handler.getStatistics().toProperties().get("data.segments"));
+        handler.compact();
+        Assert.assertTrue(Integer.parseInt(handler.getStatistics().toProperties().get("data.segments")) < segmentsBefore);
+        assertContent(handler);
+
+        handler.close();
+        handler = open(true);
+        assertContent(handler);
+        Assert.assertEquals(250, readAll(handler).size());
+
+        handler.close();
+        handler = open(false);
+        Assert.assertEquals(0, readAll(handler).size());
+    }
+
+    private static void assertContent(MappedLogBlobStoreStorageHandler handler) {
+        for (int i = 0; i < 500; i++) {
+            Serializable data = handler.get("uid" + i, null, BlobStoreObjectType.DATA);
+            if (i % 2 == 0)
+                Assert.assertNull(data);
+            else if (i % 4 == 1)
+                Assert.assertArrayEquals(bytes(i + 1, 60), (byte[]) data);
+            else
+                Assert.assertArrayEquals(bytes(i, 50), (byte[]) data);
+        }
+    }
+
+    private static Map<Serializable, Serializable> readAll(MappedLogBlobStoreStorageHandler handler) {
+        Map<Serializable, Serializable> res = new HashMap<Serializable, Serializable>();
+        DataIterator<BlobStoreGetBulkOperationResult> iterator = handler.iterator(BlobStoreObjectType.DATA);
+        try {
+            while (iterator.hasNext()) {
+                BlobStoreGetBulkOperationResult result = iterator.next();
+                if (result == null)
+                    break;
+                Assert.assertNull("duplicate id " + result.getId(), res.put(result.getId(), result.getData()));
+                Assert.assertArrayEquals((byte[]) result.getData(), (byte[]) handler.get(result.getId(), result.getPosition(), BlobStoreObjectType.DATA));
+            }
+        } finally {
+            iterator.close();
+        }
+        return res;
+    }
+
+    private static byte[] bytes(int seed, int length) {
+        byte[] res = new byte[length];
+        for (int i = 0; i < length; i++)
+            res[i] = (byte) (seed + i);
+        return res;
+    }
+}
@@ -18,9 +18,13 @@
 package org.openspaces.events.polling;
 
 import com.gigaspaces.admin.quiesce.QuiesceException;
+import com.gigaspaces.internal.server.space.SpaceImpl;
+import com.gigaspaces.internal.utils.concurrent.VirtualThreads;
 import org.openspaces.core.SpaceInterruptedException;
+import org.openspaces.core.util.SpaceUtils;
 import org.openspaces.events.AbstractEventListenerContainer;
 import org.openspaces.events.SpaceDataEventListener;
+import org.openspaces.events.polling.receive.PushTakeReceiveOperationHandler;
 import org.openspaces.events.polling.receive.ReceiveOperationHandler;
 import org.openspaces.events.polling.receive.SingleTakeReceiveOperationHandler;
 import org.openspaces.events.polling.trigger.TriggerOperationHandler;
@@ -45,6 +49,7 @@ import java.lang.reflect.Array;
 import java.lang.reflect.Method;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -522,16 +527,27 @@ public class SimplePollingEventListenerContainer extends AbstractEventListenerCo
      *
      * <p> The default implementation builds a {@link org.springframework.core.task.SimpleAsyncTaskExecutor}
      * with the specified bean name (or the class name, if no bean name specified) as thread name
-     * prefix.
+     * prefix, whose threads are virtual threads if {@link VirtualThreads#isEnabled()} and the
+     * operations of the space would not pin them.
      *
      * @see org.springframework.core.task.SimpleAsyncTaskExecutor#SimpleAsyncTaskExecutor(String)
      */
     protected TaskExecutor createDefaultTaskExecutor() {
         String beanName = getBeanName();
         String threadNamePrefix = "GS-" + (beanName != null ? beanName + "-" : DEFAULT_THREAD_NAME_PREFIX);
+        ThreadFactory virtualThreadFactory = isPinningVirtualThreads() ? null : VirtualThreads.newThreadFactory(threadNamePrefix + "virtual");
+        if (virtualThreadFactory != null)
+            return new SimpleAsyncTaskExecutor(virtualThreadFactory);
         return new SimpleAsyncTaskExecutor(threadNamePrefix);
     }
 
+    private boolean isPinningVirtualThreads() {
+        if (!VirtualThreads.isEnabled() || getGigaSpace() == null || SpaceUtils.isRemoteProtocol(getGigaSpace().getSpace()))
+            return false;
+        SpaceImpl spaceImpl = getGigaSpace().getSpace().getDirectProxy().getSpaceImplIfEmbedded();
+        return spaceImpl != null && spaceImpl.getEngine().isPinningVirtualThreads();
+    }
+
     /**
      * Re-executes the given task via this listener container's TaskExecutor.
      *
@@ -736,6 +752,9 @@ public class SimplePollingEventListenerContainer extends AbstractEventListenerCo
                 }
             }
         }
+        if (receiveOperationHandler instanceof PushTakeReceiveOperationHandler) {
+            ((PushTakeReceiveOperationHandler) receiveOperationHandler).destroy();
+        }
     }
 
     public ServiceDetails[] getServicesDetails() {
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.openspaces.events.polling.receive;
+
+import com.gigaspaces.client.TakeModifiers;
+import com.gigaspaces.events.DataEventSession;
+import com.gigaspaces.events.EventSessionConfig;
+import com.gigaspaces.events.NotifyActionType;
+import com.gigaspaces.events.batching.BatchRemoteEvent;
+import com.gigaspaces.events.batching.BatchRemoteEventListener;
+
+import net.jini.core.event.EventRegistration;
+import net.jini.core.event.RemoteEvent;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.openspaces.core.GigaSpace;
+import org.openspaces.core.SpaceInterruptedException;
+import org.openspaces.events.notify.NotifyListenerRegistrationException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+
+/**
+ * Performs take multiple operations only when the space reports matching entries, instead of
+ * keeping a blocking take open per consumer. <p>On the first receive the handler registers a single
+ * batched notify listener (write and update) with the receive template. Every notified entry grants
+ * a credit, and consumers wait locally (without any remote call) until credits are available, then
+ * claim up to {@link #setMaxEntries(int)} credits and perform a non blocking {@link
+ * org.openspaces.core.GigaSpace#takeMultiple(Object, int, TakeModifiers)}. Credits are capped by
+ * {@link #setMaxCredits(int)}, so bursts of writes do not build up more pending work than the
+ * consumers can take.
+ *
+ * <p>Since idle consumers do not hold a connection or a waiting template in the space, the receive
+ * timeout of the container can be increased considerably. As a safety net against lost
+ * notifications (e.g. while the space fails over), a non blocking take is still performed at most
+ * once every {@link #setPollInterval(long)}.
+ *
+ * <p>The take operations are performed by the consumers, so transactional containers keep their
+ * semantics. Dynamic templates are not supported - a receive with a template other than the one the
+ * listener was registered with falls back to a blocking take.
+ *
+ * @since 16.0
+ */
+public class PushTakeReceiveOperationHandler implements ReceiveOperationHandler, DisposableBean {
+
+    private static final Log logger = LogFactory.getLog(PushTakeReceiveOperationHandler.class);
+
+    private static final int DEFAULT_MAX_ENTRIES = 50;
+
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    private int maxCredits = 1000;
+
+    private int batchSize = 100;
+
+    private long batchTime = 10;
+
+    private long pollInterval = 60000;
+
+    private boolean useMemoryOnlySearch = false;
+
+    private final Object monitor = new Object();
+
+    private Object registeredTemplate;
+
+    private DataEventSession dataEventSession;
+
+    private EventRegistration eventRegistration;
+
+    private int credits;
+
+    private long lastPollTime;
+
+    /**
+     * Sets the max entries each take multiple operation will take. Defaults to <code>50</code>.
+     */
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Sets the max number of notified entries which were not taken yet. Notifications beyond it do
+     * not grant more credits. Defaults to <code>1000</code>.
+     */
+    public void setMaxCredits(int maxCredits) {
+        this.maxCredits = maxCredits;
+    }
+
+    /**
+     * Sets the batch size and time (in milliseconds) of the notifications the space pushes.
+     * Defaults to <code>100</code> entries and <code>10</code> milliseconds.
+     */
+    public void setBatch(int batchSize, long batchTime) {
+        this.batchSize = batchSize;
+        this.batchTime = batchTime;
+    }
+
+    /**
+     * Sets the max time (in milliseconds) between non blocking take operations performed without
+     * credits. Defaults to <code>60000</code>.
+     */
+    public void setPollInterval(long pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * Allows to configure the take operation to be performed in a memory only search manner.
+     */
+    public void setUseMemoryOnlySearch(boolean useMemoryOnlySearch) {
+        this.useMemoryOnlySearch = useMemoryOnlySearch;
+    }
+
+    public Object receive(Object template, GigaSpace gigaSpace, long receiveTimeout) throws DataAccessException {
+        TakeModifiers modifiers = gigaSpace.getDefaultTakeModifiers();
+        if (useMemoryOnlySearch)
+            modifiers = modifiers.add(TakeModifiers.MEMORY_ONLY_SEARCH);
+
+        if (!register(template, gigaSpace))
+            return gigaSpace.take(template, receiveTimeout, modifiers);
+
+        final int claimed = acquireCredits(receiveTimeout);
+        if (claimed == 0)
+            return null;
+
+        Object[] results = gigaSpace.takeMultiple(template, maxEntries, modifiers);
+        if (results == null || results.length == 0) {
+            // the notified entries were taken by someone else, their credits were consumed when
+            // claimed and the credits granted meanwhile are kept
+            return null;
+        }
+        if (results.length > claimed)
+            consumeCredits(claimed, results.length);
+        return results;
+    }
+
+    /**
+     * Unregisters the notify listener, a later receive registers it again.
+     */
+    public void destroy() {
+        synchronized (monitor) {
+            if (dataEventSession != null) {
+                try {
+                    if (eventRegistration != null)
+                        dataEventSession.removeListener(eventRegistration);
+                } catch (Exception e) {
+                    logger.debug("Failed to unregister push take notify listener", e);
+                }
+                try {
+                    dataEventSession.close();
+                } catch (Exception e) {
+                    logger.debug("Failed to close push take notify session", e);
+                }
+            }
+            dataEventSession = null;
+            eventRegistration = null;
+            registeredTemplate = null;
+            credits = 0;
+            lastPollTime = 0;
+            monitor.notifyAll();
+        }
+    }
+
+    /**
+     * Registers the notify listener with the given template, returns false if it was registered with
+     * another template.
+     */
+    private boolean register(Object template, GigaSpace gigaSpace) {
+        synchronized (monitor) {
+            if (registeredTemplate != null)
+                return registeredTemplate == template;
+            EventSessionConfig eventSessionConfig = new EventSessionConfig();
+            eventSessionConfig.setBatch(batchSize, batchTime);
+            DataEventSession session = gigaSpace.newDataEventSession(eventSessionConfig);
+            try {
+                eventRegistration = session.addListener(template, new CreditsListener(),
+                        NotifyActionType.NOTIFY_WRITE.or(NotifyActionType.NOTIFY_UPDATE));
+            } catch (Exception e) {
+                try {
+                    session.close();
+                } catch (Exception closeException) {
+                    logger.debug("Failed to close push take notify session", closeException);
+                }
+                throw new NotifyListenerRegistrationException("Failed to register push take notify listener", e);
+            }
+            dataEventSession = session;
+            registeredTemplate = template;
+            // entries written before the registration are taken by the first (poll) receive
+            lastPollTime = 0;
+            return true;
+        }
+    }
+
+    /**
+     * Waits up to the given timeout for credits, and returns the number of claimed credits - 0 if
+     * the timeout elapsed, or at least 1 if a poll is due.
+     */
+    private int acquireCredits(long receiveTimeout) {
+        final long deadline = System.currentTimeMillis() + receiveTimeout;
+        synchronized (monitor) {
+            try {
+                while (true) {
+                    long now = System.currentTimeMillis();
+                    if (credits > 0) {
+                        int claimed = Math.min(credits, maxEntries);
+                        credits -= claimed;
+                        return claimed;
+                    }
+                    if (now - lastPollTime >= pollInterval) {
+                        lastPollTime = now;
+                        return 1;
+                    }
+                    if (now >= deadline || registeredTemplate == null)
+                        return 0;
+                    monitor.wait(Math.min(deadline - now, pollInterval - (now - lastPollTime)));
+                }
+            } catch (InterruptedException e) {
+                throw new SpaceInterruptedException("Interrupted while waiting for push take credits", e);
+            }
+        }
+    }
+
+    /**
+     * Called when more entries than claimed were taken, the extra entries were probably notified as
+     * well so their credits are consumed.
+     */
+    private void consumeCredits(int claimed, int taken) {
+        synchronized (monitor) {
+            credits = Math.max(0, credits - (taken - claimed));
+        }
+    }
+
+    private void grantCredits(int count) {
+        synchronized (monitor) {
+            credits = (int) Math.min((long) credits + count, maxCredits);
+            monitor.notifyAll();
+        }
+    }
+
+    private class CreditsListener implements BatchRemoteEventListener {
+        public void notifyBatch(BatchRemoteEvent theEvents) {
+            grantCredits(theEvents.getEvents().length);
+        }
+
+        public void notify(RemoteEvent theEvent) {
+            grantCredits(1);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Push Take, maxEntries[" + maxEntries + "], maxCredits[" + maxCredits + "], batchSize[" + batchSize
+                + "], batchTime[" + batchTime + "], pollInterval[" + pollInterval + "], useMemoryOnlySearch[" + useMemoryOnlySearch + "]";
+    }
+}
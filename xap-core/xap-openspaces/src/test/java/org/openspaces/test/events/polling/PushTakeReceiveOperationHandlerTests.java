@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openspaces.test.events.polling;
+
+import com.gigaspaces.client.TakeModifiers;
+import com.gigaspaces.events.DataEventSession;
+import com.gigaspaces.events.EventSessionConfig;
+import com.gigaspaces.events.NotifyActionType;
+
+import junit.framework.Assert;
+
+import net.jini.core.event.EventRegistration;
+import net.jini.core.event.RemoteEvent;
+import net.jini.core.event.RemoteEventListener;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.openspaces.core.GigaSpace;
+import org.openspaces.events.polling.receive.PushTakeReceiveOperationHandler;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.Queue;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PushTakeReceiveOperationHandlerTests {
+
+    private final Object template = new Object();
+    private final Queue<Answer<Object[]>> takes = new LinkedList<Answer<Object[]>>();
+    private GigaSpace gigaSpace;
+    private DataEventSession session;
+    private RemoteEventListener listener;
+    private PushTakeReceiveOperationHandler handler;
+
+    @Before
+    public void setUp() throws Exception {
+        gigaSpace = mock(GigaSpace.class);
+        session = mock(DataEventSession.class);
+        when(gigaSpace.getDefaultTakeModifiers()).thenReturn(TakeModifiers.NONE);
+        when(gigaSpace.newDataEventSession(any(EventSessionConfig.class))).thenReturn(session);
+        when(session.addListener(eq(template), any(RemoteEventListener.class), any(NotifyActionType.class))).thenAnswer(new Answer<EventRegistration>() {
+            @Override
+            public EventRegistration answer(InvocationOnMock invocation) {
+                listener = (RemoteEventListener) invocation.getArguments()[1];
+                return mock(EventRegistration.class);
+            }
+        });
+        when(gigaSpace.takeMultiple(eq(template), anyInt(), any(TakeModifiers.class))).thenAnswer(new Answer<Object[]>() {
+            @Override
+            public Object[] answer(InvocationOnMock invocation) throws Throwable {
+                Answer<Object[]> take = takes.poll();
+                return take != null ? take.answer(invocation) : new Object[0];
+            }
+        });
+        handler = new PushTakeReceiveOperationHandler();
+        handler.setMaxEntries(4);
+        handler.setPollInterval(3600000);
+    }
+
+    @Test
+    public void creditsGrantedDuringAnEmptyTakeAreKept() throws Exception {
+        takes.add(new Answer<Object[]>() {
+            @Override
+            public Object[] answer(InvocationOnMock invocation) throws Throwable {
+                // entries are notified while the first (poll) take finds nothing
+                grantCredits(3);
+                return new Object[0];
+            }
+        });
+        takes.add(entries(3));
+
+        Assert.assertNull(handler.receive(template, gigaSpace, 0));
+        Assert.assertEquals(3, ((Object[]) handler.receive(template, gigaSpace, 0)).length);
+        Assert.assertNull(handler.receive(template, gigaSpace, 0));
+        verify(gigaSpace, times(2)).takeMultiple(eq(template), eq(4), any(TakeModifiers.class));
+    }
+
+    @Test
+    public void creditsOfEntriesTakenBeyondTheClaimedOnesAreConsumed() throws Exception {
+        takes.add(entries(0));
+        Assert.assertNull(handler.receive(template, gigaSpace, 0));
+
+        grantCredits(10);
+        // 4 credits are claimed, and 2 more are consumed by the 6 taken entries
+        takes.add(entries(6));
+        takes.add(entries(4));
+        Assert.assertEquals(6, ((Object[]) handler.receive(template, gigaSpace, 0)).length);
+        Assert.assertEquals(4, ((Object[]) handler.receive(template, gigaSpace, 0)).length);
+        Assert.assertNull(handler.receive(template, gigaSpace, 0));
+        verify(gigaSpace, times(3)).takeMultiple(eq(template), eq(4), any(TakeModifiers.class));
+    }
+
+    @Test
+    public void creditsAreCappedByMaxCredits() throws Exception {
+        handler.setMaxCredits(5);
+        Assert.assertNull(handler.receive(template, gigaSpace, 0));
+
+        grantCredits(100);
+        takes.add(entries(4));
+        takes.add(entries(1));
+        Assert.assertEquals(4, ((Object[]) handler.receive(template, gigaSpace, 0)).length);
+        Assert.assertEquals(1, ((Object[]) handler.receive(template, gigaSpace, 0)).length);
+        Assert.assertNull(handler.receive(template, gigaSpace, 0));
+        verify(gigaSpace, times(3)).takeMultiple(eq(template), eq(4), any(TakeModifiers.class));
+    }
+
+    @Test
+    public void pollsWithoutNotificationsOncePerPollInterval() throws Exception {
+        handler.setPollInterval(200);
+        // the first receive polls for the entries written before the registration
+        Assert.assertNull(handler.receive(template, gigaSpace, 0));
+        Assert.assertNull(handler.receive(template, gigaSpace, 0));
+        verify(gigaSpace, times(1)).takeMultiple(eq(template), eq(4), any(TakeModifiers.class));
+
+        takes.add(entries(1));
+        long start = System.currentTimeMillis();
+        Assert.assertEquals(1, ((Object[]) handler.receive(template, gigaSpace, 10000)).length);
+        Assert.assertTrue(System.currentTimeMillis() - start < 5000);
+        verify(gigaSpace, times(2)).takeMultiple(eq(template), eq(4), any(TakeModifiers.class));
+    }
+
+    @Test
+    public void receiveWithAnotherTemplateFallsBackToBlockingTake() throws Exception {
+        Assert.assertNull(handler.receive(template, gigaSpace, 0));
+        Object other = new Object();
+        when(gigaSpace.take(eq(other), eq(100L), any(TakeModifiers.class))).thenReturn("entry");
+        Assert.assertEquals("entry", handler.receive(other, gigaSpace, 100));
+        verify(gigaSpace, never()).takeMultiple(eq(other), anyInt(), any(TakeModifiers.class));
+        verify(gigaSpace).take(eq(other), anyLong(), any(TakeModifiers.class));
+    }
+
+    private void grantCredits(int count) throws Exception {
+        for (int i = 0; i < count; i++)
+            listener.notify(mock(RemoteEvent.class));
+    }
+
+    private static Answer<Object[]> entries(int count) {
+        final Object[] entries = new Object[count];
+        Arrays.fill(entries, "entry");
+        return new Answer<Object[]>() {
+            @Override
+            public Object[] answer(InvocationOnMock invocation) {
+                return entries;
+            }
+        };
+    }
+}
@@ -2,6 +2,7 @@ package com.gigaspaces.jdbc;
 
 import com.gigaspaces.jdbc.explainplan.JoinExplainPlan;
 import com.gigaspaces.jdbc.model.QueryExecutionConfig;
+import com.gigaspaces.jdbc.model.join.JoinInfo;
 import com.gigaspaces.jdbc.model.result.*;
 import com.gigaspaces.jdbc.model.table.*;
 
@@ -34,23 +35,26 @@ public class JoinQueryExecutor {
         final List<OrderColumn> orderColumns = new ArrayList<>();
         final List<ConcreteColumn> groupByColumns = new ArrayList<>();
         boolean isDistinct = false;
-        for (TableContainer table : tables) {
+        JoinTablesIterator joinTablesIterator = new JoinTablesIterator(tables);
+        for (TableContainer table : getReadOrder(joinTablesIterator)) {
             try {
+                pushDownJoinKeys(table);
                 table.executeRead(config);
-                orderColumns.addAll(table.getOrderColumns());
-                groupByColumns.addAll(table.getGroupByColumns());
-                isDistinct |= table.isDistinct();
             } catch (SQLException e) {
                 e.printStackTrace();
                 throw new IllegalArgumentException(e);
             }
         }
+        for (TableContainer table : tables) {
+            orderColumns.addAll(table.getOrderColumns());
+            groupByColumns.addAll(table.getGroupByColumns());
+            isDistinct |= table.isDistinct();
+        }
 
-        JoinTablesIterator joinTablesIterator = new JoinTablesIterator(tables);
         if(config.isExplainPlan()) {
             return explain(joinTablesIterator, orderColumns, groupByColumns, isDistinct);
         }
-        QueryResult res = new JoinQueryResult(this.selectedQueryColumns);
+        QueryResult res = new JoinQueryResult(this.selectedQueryColumns, !groupByColumns.isEmpty());
         while (joinTablesIterator.hasNext()) {
             if(tables.stream().allMatch(TableContainer::checkJoinCondition))
                 res.addRow(TableRowFactory.createTableRowFromSpecificColumns(this.allQueryColumns, orderColumns,
@@ -86,6 +90,47 @@ public class JoinQueryExecutor {
         return res;
     }
 
+    /**
+     * Tables are read along the join chain, so that by the time a joined table is read the table on the left side of
+     * its join condition already holds its rows.
+     */
+    private List<TableContainer> getReadOrder(JoinTablesIterator joinTablesIterator) {
+        List<TableContainer> readOrder = new ArrayList<>(tables.size());
+        for (TableContainer current = joinTablesIterator.getStartingPoint(); current != null; current = current.getJoinedTable()) {
+            readOrder.add(current);
+        }
+        for (TableContainer table : tables) {
+            if (!readOrder.contains(table))
+                readOrder.add(table);
+        }
+        return readOrder;
+    }
+
+    /**
+     * Semi-join reduction - filters the read of a joined table by the distinct join keys of the (already read) left
+     * table, so only rows which can match are fetched from the space and hashed by the build phase.
+     */
+    private void pushDownJoinKeys(TableContainer table) {
+        JoinInfo joinInfo = table.getJoinInfo();
+        if (config.isExplainPlan() || joinInfo == null || !joinInfo.isJoinKeysPushDownSupported())
+            return;
+        TableContainer leftTable = joinInfo.getLeftColumn().getTableContainer();
+        QueryResult leftResult = leftTable == null ? null : leftTable.getQueryResult();
+        if (leftResult == null || leftResult.getRows() == null)
+            return;
+        Set<Object> keys = new HashSet<>();
+        for (TableRow row : leftResult.getRows()) {
+            Object key = row.getPropertyValue(joinInfo.getLeftColumn());
+            if (key != null && keys.add(key) && keys.size() > config.getJoinKeysPushDownLimit())
+                return;
+        }
+        try {
+            table.filterByJoinKeys(joinInfo.getRightColumn().getName(), keys);
+        } catch (SQLException e) {
+            // keys which can not be converted to the right column type - read the table unfiltered
+        }
+    }
+
     private QueryResult explain(JoinTablesIterator joinTablesIterator, List<OrderColumn> orderColumns,
                                 List<ConcreteColumn> groupByColumns, boolean isDistinct) {
         Stack<TableContainer> stack = new Stack<>();
@@ -16,6 +16,8 @@ import org.apache.calcite.rex.RexNode;
 import java.util.Set;
 
 public class GSJoin extends Join implements GSRelNode {
+    private static final double BUILD_ROW_COST_FACTOR = 2;
+
     public GSJoin(RelOptCluster cluster, RelTraitSet traitSet, RelNode left, RelNode right, RexNode conditionExpr, Set<CorrelationId> variablesSet, JoinRelType joinType) {
         super(cluster, traitSet, ImmutableList.of(), left, right, conditionExpr, variablesSet, joinType);
     }
@@ -34,8 +36,20 @@ public class GSJoin extends Join implements GSRelNode {
                 variablesSet, joinType);
     }
 
+    /**
+     * Equi-joins are executed as a hash join - the right input is hashed by the join key (build) and the left input
+     * rows probe it, so the cost grows with the sum of the inputs rather than their product, and the build side is
+     * charged more to prefer hashing the smaller input. Other joins are executed as a nested loop.
+     */
     @Override
     public RelOptCost computeSelfCost(RelOptPlanner planner, RelMetadataQuery mq) {
-        return super.computeSelfCost(planner, mq);
+        double leftRowCount = mq.getRowCount(getLeft());
+        double rightRowCount = mq.getRowCount(getRight());
+        double rowCount = mq.getRowCount(this);
+        if (!analyzeCondition().isEqui()) {
+            return planner.getCostFactory().makeCost(rowCount + leftRowCount * rightRowCount, leftRowCount * rightRowCount, 0);
+        }
+        double cpu = leftRowCount + rightRowCount * BUILD_ROW_COST_FACTOR;
+        return planner.getCostFactory().makeCost(rowCount + cpu, cpu, 0);
     }
 }
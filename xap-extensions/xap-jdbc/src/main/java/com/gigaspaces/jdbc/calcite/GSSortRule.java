@@ -24,7 +24,7 @@ public class GSSortRule extends ConverterRule {
     @Override
     public RelNode convert(RelNode rel) {
         final Sort sort = (Sort) rel;
-        if (sort.offset != null || sort.fetch != null) {
+        if (sort.offset != null) {
             return null;
         }
         final RelNode input = sort.getInput();
@@ -34,6 +34,6 @@ public class GSSortRule extends ConverterRule {
                         input.getTraitSet().replace(GSConvention.INSTANCE)),
                 sort.getCollation(),
                 null,
-                null);
+                sort.fetch);
     }
 }
@@ -158,6 +158,31 @@ public class SelectHandler extends RelShuttleImpl {
                     nullDirection == RelFieldCollation.NullDirection.LAST);
             table.addOrderColumns(orderColumn);
         }
+        if (sort.fetch != null) {
+            handleFetch(sort.fetch);
+        }
+    }
+
+    /**
+     * LIMIT is pushed to the table read, where together with the order columns it becomes a partition-side top-N, so
+     * each partition ships at most limit rows.
+     */
+    private void handleFetch(RexNode fetch) {
+        Object value;
+        if (fetch instanceof RexLiteral) {
+            value = CalciteUtils.getValue((RexLiteral) fetch);
+        } else if (fetch instanceof RexDynamicParam) {
+            value = queryExecutor.getPreparedValues()[((RexDynamicParam) fetch).getIndex()];
+        } else {
+            throw new UnsupportedOperationException("LIMIT of type " + fetch.getKind() + " is not supported");
+        }
+        if (!(value instanceof Number)) {
+            throw new IllegalArgumentException("LIMIT value must be a number, but was [" + value + "]");
+        }
+        if (queryExecutor.getTables().size() != 1) {
+            throw new UnsupportedOperationException("LIMIT is not supported yet for queries over more than one table");
+        }
+        queryExecutor.getTables().get(0).setLimit(((Number) value).intValue());
     }
 
     private TableContainer getTableByColumnName(String name) {
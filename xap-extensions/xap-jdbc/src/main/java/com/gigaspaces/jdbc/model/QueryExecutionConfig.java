@@ -3,10 +3,14 @@ package com.gigaspaces.jdbc.model;
 import com.gigaspaces.jdbc.model.table.TempTableNameGenerator;
 
 public class QueryExecutionConfig {
+    public static final String JOIN_KEYS_PUSH_DOWN_LIMIT_PROP = "com.gs.jdbc.join.push-down.max-keys";
+    private static final int JOIN_KEYS_PUSH_DOWN_LIMIT_DEFAULT = 10_000;
+
     private boolean explainPlan;
     private boolean explainPlanVerbose;
     private final TempTableNameGenerator tempTableNameGenerator = new TempTableNameGenerator();
     private boolean isJoinUsed = false;
+    private int joinKeysPushDownLimit = Integer.getInteger(JOIN_KEYS_PUSH_DOWN_LIMIT_PROP, JOIN_KEYS_PUSH_DOWN_LIMIT_DEFAULT);
 
     public QueryExecutionConfig() {
     }
@@ -37,5 +41,13 @@ public class QueryExecutionConfig {
         isJoinUsed = joinUsed;
     }
 
+    public int getJoinKeysPushDownLimit() {
+        return joinKeysPushDownLimit;
+    }
+
+    public void setJoinKeysPushDownLimit(int joinKeysPushDownLimit) {
+        this.joinKeysPushDownLimit = joinKeysPushDownLimit;
+    }
+
 
 }
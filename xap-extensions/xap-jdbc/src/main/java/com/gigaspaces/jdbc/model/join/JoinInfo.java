@@ -65,6 +65,14 @@ public class JoinInfo {
         return false;
     }
 
+    /**
+     * Rows of the right table which do not match any left key can never be part of the result of these join types,
+     * so the left keys can be used to filter the right table read.
+     */
+    public boolean isJoinKeysPushDownSupported() {
+        return joinType.equals(JoinType.INNER) || joinType.equals(JoinType.LEFT) || joinType.equals(JoinType.SEMI);
+    }
+
     public void resetHasMatch() {
         hasMatch = false;
     }
@@ -3,14 +3,26 @@ package com.gigaspaces.jdbc.model.result;
 import com.gigaspaces.jdbc.model.table.IQueryColumn;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class JoinQueryResult extends QueryResult {
     private List<TableRow> rows;
+    private final Map<TableRowGroupByKey, List<TableRow>> groupByRows;
 
     public JoinQueryResult(List<IQueryColumn> selectedColumns) {
+        this(selectedColumns, false);
+    }
+
+    /**
+     * @param groupOnAdd when true, rows are grouped by their group by values as they are added, instead of
+     *                   collecting all joined rows first and grouping them in a second pass.
+     */
+    public JoinQueryResult(List<IQueryColumn> selectedColumns, boolean groupOnAdd) {
         super(selectedColumns);
         this.rows = new ArrayList<>();
+        this.groupByRows = groupOnAdd ? new HashMap<>() : null;
     }
 
     @Override
@@ -20,7 +32,18 @@ public class JoinQueryResult extends QueryResult {
 
     @Override
     public void addRow(TableRow tableRow) {
-        this.rows.add(tableRow);
+        if (groupByRows == null) {
+            this.rows.add(tableRow);
+            return;
+        }
+        TableRowGroupByKey key = new TableRowGroupByKey(tableRow.getGroupByValues());
+        List<TableRow> group = groupByRows.get(key);
+        if (group == null) {
+            group = new ArrayList<>();
+            groupByRows.put(key, group);
+            this.rows.add(tableRow);
+        }
+        group.add(tableRow);
     }
 
     @Override
@@ -33,4 +56,15 @@ public class JoinQueryResult extends QueryResult {
         this.rows = rows;
     }
 
-}
\ No newline at end of file
+    @Override
+    public void groupBy() {
+        if (groupByRows == null) {
+            super.groupBy();
+        }
+    }
+
+    @Override
+    public Map<TableRowGroupByKey, List<TableRow>> getGroupByRowsResult() {
+        return groupByRows != null ? groupByRows : super.getGroupByRowsResult();
+    }
+}
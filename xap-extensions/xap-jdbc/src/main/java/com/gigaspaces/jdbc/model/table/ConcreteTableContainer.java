@@ -18,6 +18,8 @@ import com.j_spaces.core.client.Modifiers;
 import com.j_spaces.core.client.ReadModifiers;
 import com.j_spaces.jdbc.SQLUtil;
 import com.j_spaces.jdbc.builder.QueryTemplatePacket;
+import com.j_spaces.jdbc.builder.UnionTemplatePacket;
+import com.j_spaces.jdbc.builder.range.InRange;
 import com.j_spaces.jdbc.builder.range.Range;
 import com.j_spaces.jdbc.query.IQueryResultSet;
 import com.j_spaces.jdbc.query.QueryTableData;
@@ -100,6 +102,10 @@ public class ConcreteTableContainer extends TableContainer {
                 if( hasGroupByColumns() && hasOrderColumns() ){
                     queryResult.sort();
                 }
+                // groups are limited only after they are merged (and sorted)
+                if (hasGroupByColumns() && queryResult.size() > limit) {
+                    queryResult.setRows(new ArrayList<>(queryResult.getRows().subList(0, limit)));
+                }
             }
             return queryResult;
         } catch (Exception e) {
@@ -177,8 +183,9 @@ public class ConcreteTableContainer extends TableContainer {
                 queryTemplatePacket.setAggregationSet( new AggregationSet().groupBy(groupByAggregator) );
             }
             else {
-                //int limit = hasOrderColumns() ? Integer.MAX_VALUE : entriesLimit;
-                DistinctAggregator distinctAggregator = new DistinctAggregator().distinct(true, limit, groupByColumnsArray);
+                //groups are sorted at the client, so a partition can not cut them by the limit before that
+                int groupsLimit = hasOrderColumns() ? Integer.MAX_VALUE : limit;
+                DistinctAggregator distinctAggregator = new DistinctAggregator().distinct(true, groupsLimit, groupByColumnsArray);
                 if (queryTemplatePacket.getAggregationSet() == null) {
                     AggregationSet aggregationSet = new AggregationSet().distinct(distinctAggregator);
                     queryTemplatePacket.setAggregationSet(aggregationSet);
@@ -191,7 +198,8 @@ public class ConcreteTableContainer extends TableContainer {
 
     private void setOrderByAggregation() {
         if(hasOrderColumns()){
-            OrderByAggregator orderByAggregator = new OrderByAggregator();
+            //each partition keeps only its top limit entries, the proxy merges the partial results
+            OrderByAggregator orderByAggregator = new OrderByAggregator(limit);
             for (OrderColumn column : getOrderColumns()) {
                 orderByAggregator.orderBy(column.getName(), column.isAsc() ? OrderBy.ASC : OrderBy.DESC, column.isNullsLast());
             }
@@ -330,6 +338,28 @@ public class ConcreteTableContainer extends TableContainer {
         this.queryTemplatePacket = queryTemplatePacket;
     }
 
+    @Override
+    public boolean filterByJoinKeys(String columnName, Set<Object> keys) throws SQLException {
+        if (queryResult != null || !hasColumn(columnName))
+            return false;
+        Set<Object> values = new HashSet<>(keys.size());
+        for (Object key : keys) {
+            values.add(getColumnValue(columnName, key));
+        }
+        QueryTemplatePacket keysPacket = createQueryTemplatePacketWithRange(new InRange(columnName, values));
+        if (queryTemplatePacket == null) {
+            queryTemplatePacket = keysPacket;
+        } else if (queryTemplatePacket instanceof UnionTemplatePacket) {
+            queryTemplatePacket = keysPacket.and(((UnionTemplatePacket) queryTemplatePacket));
+        } else {
+            queryTemplatePacket = keysPacket.and(queryTemplatePacket);
+        }
+        if (values.isEmpty()) {
+            queryTemplatePacket.setAlwaysEmpty(true);
+        }
+        return true;
+    }
+
     @Override
     public boolean isJoined() {
         return joined;
@@ -50,6 +50,14 @@ public abstract class TableContainer {
 
     public abstract void setQueryTemplatePacket(QueryTemplatePacket queryTemplatePacket);
 
+    /**
+     * Restricts the next read of this table to rows whose column value is one of the given join keys.
+     * Returns false if the table does not support it, in which case it is read unfiltered.
+     */
+    public boolean filterByJoinKeys(String columnName, Set<Object> keys) throws SQLException {
+        return false;
+    }
+
     public abstract Object getColumnValue(String columnName, Object value) throws SQLException;
 
     public abstract TableContainer getJoinedTable();
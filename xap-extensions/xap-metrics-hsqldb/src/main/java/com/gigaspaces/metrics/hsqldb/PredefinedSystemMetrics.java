@@ -29,6 +29,36 @@ public enum PredefinedSystemMetrics implements TableColumnNames {
     SPACE_OPERATIONS_BEFORE_LISTENER_TRIGGER_TP("space_operations_before-listener-trigger-tp", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME ) ),
     SPACE_BLOBSTORE_OFF_HEAP_USED_BYTES_TOTAL("space_blobstore_off-heap_used-bytes_total", Arrays.asList(TIME_COLUMN_NAME, PID_COLUMN_NAME, HOST_COLUMN_NAME, PU_NAME_COLUMN_NAME)),
     SPACE_BLOBSTORE_OFF_HEAP_USED_PERCENT("space_blobstore_off-heap_used-percent", Arrays.asList(TIME_COLUMN_NAME, PID_COLUMN_NAME, HOST_COLUMN_NAME, PU_NAME_COLUMN_NAME)),
+    SPACE_OPERATIONS_READ_LATENCY_P50("space_operations_read-latency_p50", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_READ_LATENCY_P99("space_operations_read-latency_p99", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_READ_LATENCY_P999("space_operations_read-latency_p999", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_READ_BY_ID_LATENCY_P50("space_operations_read-by-id-latency_p50", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_READ_BY_ID_LATENCY_P99("space_operations_read-by-id-latency_p99", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_READ_BY_ID_LATENCY_P999("space_operations_read-by-id-latency_p999", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_TAKE_LATENCY_P50("space_operations_take-latency_p50", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_TAKE_LATENCY_P99("space_operations_take-latency_p99", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_TAKE_LATENCY_P999("space_operations_take-latency_p999", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_TAKE_BY_ID_LATENCY_P50("space_operations_take-by-id-latency_p50", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_TAKE_BY_ID_LATENCY_P99("space_operations_take-by-id-latency_p99", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_TAKE_BY_ID_LATENCY_P999("space_operations_take-by-id-latency_p999", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_WRITE_LATENCY_P50("space_operations_write-latency_p50", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_WRITE_LATENCY_P99("space_operations_write-latency_p99", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_WRITE_LATENCY_P999("space_operations_write-latency_p999", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_CHANGE_LATENCY_P50("space_operations_change-latency_p50", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_CHANGE_LATENCY_P99("space_operations_change-latency_p99", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_CHANGE_LATENCY_P999("space_operations_change-latency_p999", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_CHANGE_BY_ID_LATENCY_P50("space_operations_change-by-id-latency_p50", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_CHANGE_BY_ID_LATENCY_P99("space_operations_change-by-id-latency_p99", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_CHANGE_BY_ID_LATENCY_P999("space_operations_change-by-id-latency_p999", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_EXECUTE_LATENCY_P50("space_operations_execute-latency_p50", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_EXECUTE_LATENCY_P99("space_operations_execute-latency_p99", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_EXECUTE_LATENCY_P999("space_operations_execute-latency_p999", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_AGGREGATE_LATENCY_P50("space_operations_aggregate-latency_p50", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_AGGREGATE_LATENCY_P99("space_operations_aggregate-latency_p99", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    SPACE_OPERATIONS_AGGREGATE_LATENCY_P999("space_operations_aggregate-latency_p999", Arrays.asList( TIME_COLUMN_NAME, PU_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME ) ),
+    LRMI_EXECUTOR_QUEUE_LATENCY_P50("lrmi_executor-queue-latency_p50", Arrays.asList( TIME_COLUMN_NAME, HOST_COLUMN_NAME, PID_COLUMN_NAME, PROCESS_NAME_COLUMN_NAME ) ),
+    LRMI_EXECUTOR_QUEUE_LATENCY_P99("lrmi_executor-queue-latency_p99", Arrays.asList( TIME_COLUMN_NAME, HOST_COLUMN_NAME, PID_COLUMN_NAME, PROCESS_NAME_COLUMN_NAME ) ),
+    LRMI_EXECUTOR_QUEUE_LATENCY_P999("lrmi_executor-queue-latency_p999", Arrays.asList( TIME_COLUMN_NAME, HOST_COLUMN_NAME, PID_COLUMN_NAME, PROCESS_NAME_COLUMN_NAME ) ),
 /*
     SPACE_OPERATIONS_READ_TOTAL("space_operations_read-total", Arrays.asList( SPACE_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME, SPACE_INSTANCE_ID_COLUMN_NAME, TIME_COLUMN_NAME ) ),
     SPACE_OPERATIONS_READ_MULTIPLE_TOTAL("space_operations_read-multiple-total", Arrays.asList( SPACE_NAME_COLUMN_NAME, PU_INSTANCE_ID_COLUMN_NAME, SPACE_INSTANCE_ID_COLUMN_NAME, TIME_COLUMN_NAME ) ),